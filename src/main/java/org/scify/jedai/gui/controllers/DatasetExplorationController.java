@@ -7,7 +7,7 @@ import javafx.scene.layout.VBox;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.scify.jedai.datamodel.EntityProfile;
 import org.scify.jedai.gui.nodes.EntityProfileNode;
-import org.scify.jedai.gui.utilities.DataReader;
+import org.scify.jedai.gui.utilities.DatasetCache;
 
 import java.util.List;
 
@@ -27,8 +27,15 @@ public class DatasetExplorationController {
      * Show the entities in the window.
      */
     private void updateView() {
-        // Read dataset
-        List<EntityProfile> entities = DataReader.getEntities(this.datasetType, this.datasetParams);
+        // Read dataset (or get it from the cache of the session)
+        List<EntityProfile> entities;
+        try {
+            entities = DatasetCache.getEntities(this.datasetType, this.datasetParams);
+        } catch (Exception e) {
+            e.printStackTrace();
+            containerVBox.getChildren().set(1, new Label("The dataset could not be read!"));
+            return;
+        }
 
         // Find number of pages we need to show 10 entities per page
         int pagesNum = 0;
@@ -6,6 +6,7 @@ import eu.hansolo.medusa.Gauge;
 import eu.hansolo.medusa.Gauge.SkinType;
 import eu.hansolo.medusa.GaugeBuilder;
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -15,6 +16,7 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.ScatterChart;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.TreeItemPropertyValueFactory;
@@ -32,9 +34,15 @@ import org.scify.jedai.gui.controllers.EntityClusterExplorationController;
 import org.scify.jedai.gui.model.WorkflowResult;
 import org.scify.jedai.gui.nodes.DetailsTreeCell;
 import org.scify.jedai.gui.nodes.NonNegativeTreeTableCell;
+import org.scify.jedai.gui.utilities.CheckpointStore;
 import org.scify.jedai.gui.utilities.DialogHelper;
 import org.scify.jedai.gui.utilities.JedaiOptions;
+import org.scify.jedai.gui.utilities.ParetoFront;
+import org.scify.jedai.gui.utilities.ProgressListener;
 import org.scify.jedai.gui.utilities.RadioButtonHelper;
+import org.scify.jedai.gui.utilities.StepArtifactCache;
+import org.scify.jedai.gui.utilities.WizardDataFile;
+import org.scify.jedai.gui.utilities.WorkflowCancelledException;
 import org.scify.jedai.gui.utilities.WorkflowManager;
 import org.scify.jedai.gui.utilities.console_area.ConsoleArea;
 import org.scify.jedai.gui.utilities.console_area.MultiOutputStream;
@@ -43,13 +51,17 @@ import org.scify.jedai.utilities.ClustersPerformance;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 
 public class CompletedController {
     public Button runBtn;
+    public Button cancelBtn;
     public Button exportBtn;
     public VBox containerVBox;
     public Label numOfInstancesLabel;
@@ -64,6 +76,12 @@ public class CompletedController {
     public ComboBox<String> outputFormatCombobox;
     public Label statusLabel;
     public TreeTableView<WorkflowResult> resultsTable;  // Tree table with results
+    public ComboBox<ParetoFront> paretoFrontCombobox;
+    public ComboBox<String> paretoCostCombobox;
+    public ScatterChart<Number, Number> paretoChart;
+    public NumberAxis paretoCostAxis;
+    public NumberAxis paretoQualityAxis;
+    public TableView<ParetoFront.Point> paretoTable;    // Table with the Pareto front of a search
 
     private final ObservableList<WorkflowResult> tableData = FXCollections.observableArrayList();
 
@@ -75,6 +93,11 @@ public class CompletedController {
     private EquivalenceCluster[] entityClusters;
 
     private WorkflowManager workflowMgr;
+    private TableColumn<ParetoFront.Point, String> paretoQualityCol;
+
+    // Step outputs of the previous runs, which a run reuses for the steps whose configuration did not change
+    private StepArtifactCache artifactCache;
+    private File stepCacheDirectory;
 
     @Inject
     private Injector injector;
@@ -129,35 +152,111 @@ public class CompletedController {
         autoConfigContainer.getChildren().add(l);
         List<String> searchTypes = Arrays.asList(
                 JedaiOptions.AUTOCONFIG_RANDOMSEARCH,
-                JedaiOptions.AUTOCONFIG_GRIDSEARCH
+                JedaiOptions.AUTOCONFIG_GRIDSEARCH,
+                JedaiOptions.AUTOCONFIG_SUCCESSIVEHALVING,
+                JedaiOptions.AUTOCONFIG_MODELBASED
         );
         RadioButtonHelper.createButtonGroup(autoConfigContainer, searchTypes, model.searchTypeProperty());
 
-        // Get the last 2 radio buttons of the container, which are the search types, in order to be able to disable
-        // them later
-        List<Node> searchRadioBtns = new ArrayList<>();
-        List<Node> autoConfigNodes = autoConfigContainer.getChildren();
-        for (Node n : autoConfigNodes) {
+        // Get the grid search and the holistic-only (successive halving, model-based) radio buttons of the container,
+        // in order to be able to disable them later
+        List<Node> gridRadioBtns = new ArrayList<>();
+        List<Node> holisticRadioBtns = new ArrayList<>();
+        for (Node n : autoConfigContainer.getChildren()) {
             if (n instanceof RadioButton) {
-                if (autoConfigNodes.indexOf(n) > autoConfigNodes.size() - 3) {
-                    searchRadioBtns.add(n);
+                if (JedaiOptions.AUTOCONFIG_GRIDSEARCH.equals(n.getUserData())) {
+                    gridRadioBtns.add(n);
+                } else if (JedaiOptions.AUTOCONFIG_SUCCESSIVEHALVING.equals(n.getUserData())
+                        || JedaiOptions.AUTOCONFIG_MODELBASED.equals(n.getUserData())) {
+                    holisticRadioBtns.add(n);
                 }
             }
         }
 
-        // Add listener to disable search type selection for holistic auto configuration
+        // Add listener to allow only the search types that each auto configuration type supports (grid search is
+        // not supported by holistic, and successive halving and model-based search only by holistic)
         model.autoConfigTypeProperty().addListener((observable, oldValue, newValue) -> {
-            // If the new selection is holistic search, select random search
-            if (newValue.equals(JedaiOptions.AUTOCONFIG_HOLISTIC)) {
+            boolean isHolistic = newValue.equals(JedaiOptions.AUTOCONFIG_HOLISTIC);
+
+            // If the selected search type is not supported, select random search
+            String searchType = model.getSearchType();
+            if (isHolistic ? searchType.equals(JedaiOptions.AUTOCONFIG_GRIDSEARCH) :
+                    (searchType.equals(JedaiOptions.AUTOCONFIG_SUCCESSIVEHALVING)
+                            || searchType.equals(JedaiOptions.AUTOCONFIG_MODELBASED))) {
                 model.setSearchType(JedaiOptions.AUTOCONFIG_RANDOMSEARCH);
             }
 
             // Enable or disable the radio buttons
-            toggleNodes(searchRadioBtns, newValue.equals(JedaiOptions.AUTOCONFIG_HOLISTIC));
+            toggleNodes(gridRadioBtns, isHolistic);
+            toggleNodes(holisticRadioBtns, !isHolistic);
         });
 
         // Enable or disable the radio buttons depending on the initially selected auto-config. type
-        toggleNodes(searchRadioBtns, model.getAutoConfigType().equals(JedaiOptions.AUTOCONFIG_HOLISTIC));
+        toggleNodes(gridRadioBtns, model.getAutoConfigType().equals(JedaiOptions.AUTOCONFIG_HOLISTIC));
+        toggleNodes(holisticRadioBtns, !model.getAutoConfigType().equals(JedaiOptions.AUTOCONFIG_HOLISTIC));
+
+        // Add spinner for the number of threads that automatic configuration runs its trials on
+        autoConfigContainer.getChildren().add(new Separator());
+        l = new Label("Parallel Threads");
+        l.setFont(Font.font("System", FontWeight.BOLD, 12));
+        autoConfigContainer.getChildren().add(l);
+        Spinner<Integer> threadsSpinner = new Spinner<>(1, 256, model.getAutoConfigThreads());
+        threadsSpinner.setEditable(true);
+        threadsSpinner.valueProperty().addListener((observable, oldValue, newValue) ->
+                model.setAutoConfigThreads(newValue));
+        autoConfigContainer.getChildren().add(threadsSpinner);
+
+        // Add spinner for the trial budget of random and model-based search
+        l = new Label("Trials");
+        l.setFont(Font.font("System", FontWeight.BOLD, 12));
+        autoConfigContainer.getChildren().add(l);
+        Spinner<Integer> trialsSpinner = new Spinner<>(1, 100000, model.getAutoConfigTrials());
+        trialsSpinner.setEditable(true);
+        trialsSpinner.valueProperty().addListener((observable, oldValue, newValue) ->
+                model.setAutoConfigTrials(newValue));
+        autoConfigContainer.getChildren().add(trialsSpinner);
+
+        // Add spinner for the time budget of automatic configuration
+        l = new Label("Time Limit (seconds, 0 for none)");
+        l.setFont(Font.font("System", FontWeight.BOLD, 12));
+        autoConfigContainer.getChildren().add(l);
+        Spinner<Integer> timeSpinner = new Spinner<>(0, Integer.MAX_VALUE, model.getAutoConfigMaxSeconds(), 60);
+        timeSpinner.setEditable(true);
+        timeSpinner.valueProperty().addListener((observable, oldValue, newValue) ->
+                model.setAutoConfigMaxSeconds(newValue));
+        autoConfigContainer.getChildren().add(timeSpinner);
+
+        // Add spinners for early stopping, when the best F-Measure has not improved by the minimum improvement in the
+        // given number of trials
+        l = new Label("Early Stop (trials without improvement, 0 for none)");
+        l.setFont(Font.font("System", FontWeight.BOLD, 12));
+        autoConfigContainer.getChildren().add(l);
+        Spinner<Integer> patienceSpinner = new Spinner<>(0, 100000, model.getAutoConfigPatience());
+        patienceSpinner.setEditable(true);
+        patienceSpinner.valueProperty().addListener((observable, oldValue, newValue) ->
+                model.setAutoConfigPatience(newValue));
+        autoConfigContainer.getChildren().add(patienceSpinner);
+
+        l = new Label("Early Stop (minimum improvement)");
+        l.setFont(Font.font("System", FontWeight.BOLD, 12));
+        autoConfigContainer.getChildren().add(l);
+        Spinner<Double> improvementSpinner = new Spinner<>(0, 1, model.getAutoConfigMinImprovement(), 0.001);
+        improvementSpinner.setEditable(true);
+        improvementSpinner.valueProperty().addListener((observable, oldValue, newValue) ->
+                model.setAutoConfigMinImprovement(newValue));
+        autoConfigContainer.getChildren().add(improvementSpinner);
+
+        // Add radio buttons for starting from the best configuration that previous runs stored for the same data
+        autoConfigContainer.getChildren().add(new Separator());
+        l = new Label("Warm Start");
+        l.setFont(Font.font("System", FontWeight.BOLD, 12));
+        autoConfigContainer.getChildren().add(l);
+        List<String> warmStartTypes = Arrays.asList(
+                JedaiOptions.WARMSTART_NONE,
+                JedaiOptions.WARMSTART_SEED,
+                JedaiOptions.WARMSTART_REUSE
+        );
+        RadioButtonHelper.createButtonGroup(autoConfigContainer, warmStartTypes, model.warmStartProperty());
 
         // Add output options to the output format combobox
         ObservableList<String> outputFormats = FXCollections.observableArrayList(
@@ -173,8 +272,16 @@ public class CompletedController {
                         .or(exploreBtn.disabledProperty())
         );
 
+        // The running workflow can be cancelled, and another one cannot start until it stops (the job server runs
+        // many workflows)
+        cancelBtn.disableProperty().bind(model.workflowRunningProperty().not());
+        runBtn.disableProperty().bind(model.workflowRunningProperty());
+
         // Setup table for previous results (Workbench)
         initResultsGrid();
+
+        // Setup chart & table for the Pareto fronts of automatic configuration
+        initParetoFront();
     }
 
     /**
@@ -245,6 +352,93 @@ public class CompletedController {
         showPlotBtn.visibleProperty().bind(model.workflowProperty().isEqualTo(JedaiOptions.WORKFLOW_PROGRESSIVE));
     }
 
+    /**
+     * Initialize the chart and table which show the Pareto front (quality vs. cost) of an automatic configuration
+     * search, so that the user can choose a configuration other than the one with the highest quality.
+     */
+    private void initParetoFront() {
+        // Add the cost options
+        paretoCostCombobox.setItems(FXCollections.observableArrayList(
+                JedaiOptions.PARETO_COST_COMPARISONS,
+                JedaiOptions.PARETO_COST_TIME
+        ));
+        paretoCostCombobox.setValue(JedaiOptions.PARETO_COST_COMPARISONS);
+
+        // Create the table columns (the front is sorted by cost, so the columns are not sortable)
+        paretoQualityCol = newParetoColumn("Quality", p -> String.format("%.3f", p.getQuality()), 1);
+        paretoTable.getColumns().add(paretoQualityCol);
+        paretoTable.getColumns().add(newParetoColumn(JedaiOptions.PARETO_COST_COMPARISONS,
+                p -> String.format("%.0f", p.getComparisons()), 1));
+        paretoTable.getColumns().add(newParetoColumn(JedaiOptions.PARETO_COST_TIME,
+                p -> String.format("%.3f", p.getTime()), 1));
+        paretoTable.getColumns().add(newParetoColumn("Configuration", ParetoFront.Point::getConfiguration, 4));
+
+        // Show the selected front with the selected cost
+        paretoFrontCombobox.valueProperty().addListener((observable, oldValue, newValue) -> showParetoFront());
+        paretoCostCombobox.valueProperty().addListener((observable, oldValue, newValue) -> showParetoFront());
+    }
+
+    /**
+     * Create a column of the Pareto front table
+     *
+     * @param title Title of the column
+     * @param value Function that returns the text of a point's cell
+     * @param width Width of the column relative to the other columns
+     * @return Table column
+     */
+    private TableColumn<ParetoFront.Point, String> newParetoColumn(String title,
+                                                                  Function<ParetoFront.Point, String> value,
+                                                                  int width) {
+        TableColumn<ParetoFront.Point, String> col = new TableColumn<>(title);
+        col.setCellValueFactory(param -> new ReadOnlyStringWrapper(value.apply(param.getValue())));
+        col.setSortable(false);
+
+        // Total width of the columns is 7 (subtract not needed but prevents horizontal scrollbar...)
+        col.prefWidthProperty().bind(paretoTable.widthProperty().multiply(width / 7.0).subtract(width));
+        return col;
+    }
+
+    /**
+     * Show the Pareto front of the selected search, for the selected cost
+     */
+    private void showParetoFront() {
+        paretoChart.getData().clear();
+        paretoTable.getItems().clear();
+
+        ParetoFront front = paretoFrontCombobox.getValue();
+        if (front == null) {
+            return;
+        }
+
+        boolean timeCost = JedaiOptions.PARETO_COST_TIME.equals(paretoCostCombobox.getValue());
+        List<ParetoFront.Point> points = front.getFront(timeCost);
+
+        paretoCostAxis.setLabel(paretoCostCombobox.getValue());
+        paretoQualityAxis.setLabel(front.getQualityName());
+        paretoQualityCol.setText(front.getQualityName());
+
+        // Add the points to the chart
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        for (ParetoFront.Point p : points) {
+            series.getData().add(new XYChart.Data<>(timeCost ? p.getTime() : p.getComparisons(), p.getQuality()));
+        }
+        paretoChart.getData().add(series);
+
+        // Clicking a point of the chart selects its configuration in the table
+        for (int i = 0; i < series.getData().size(); i++) {
+            Node node = series.getData().get(i).getNode();
+            int index = i;
+            if (node != null) {
+                node.setOnMouseClicked(event -> {
+                    paretoTable.getSelectionModel().select(index);
+                    paretoTable.scrollTo(index);
+                });
+            }
+        }
+
+        paretoTable.getItems().setAll(points);
+    }
+
     /**
      * Generate a new Medusa Gauge for showing a clustering accuracy metric
      *
@@ -286,17 +480,52 @@ public class CompletedController {
         resultsTable.getRoot().getChildren().add(totalResult);
     }
 
+    /**
+     * Get the cache of the step outputs of the previous runs, with the memory budget and spilling that are selected in
+     * the wizard
+     *
+     * @return Step artifact cache, or null if reusing the step outputs is disabled
+     */
+    private StepArtifactCache getArtifactCache() {
+        long memoryBudget = model.getStepCacheMemory() * 1024L * 1024L;
+
+        // The spill files of the session are kept in a temporary directory
+        if (model.isStepCacheSpill() && stepCacheDirectory == null) {
+            try {
+                stepCacheDirectory = Files.createTempDirectory("jedai-step-cache").toFile();
+                stepCacheDirectory.deleteOnExit();
+            } catch (IOException e) {
+                System.err.println("Cannot create the step cache directory: " + e.getMessage());
+            }
+        }
+        File spillDirectory = model.isStepCacheSpill() ? stepCacheDirectory : null;
+
+        if (artifactCache == null) {
+            artifactCache = new StepArtifactCache(memoryBudget, spillDirectory);
+        } else {
+            artifactCache.setLimits(memoryBudget, spillDirectory);
+        }
+
+        return (memoryBudget > 0 || spillDirectory != null) ? artifactCache : null;
+    }
+
     @FXML
     private void runAlgorithmBtnHandler() {
         // Reset console area
         logTextArea.clear();
 
         workflowMgr = new WorkflowManager(model);
+        workflowMgr.setArtifactCache(getArtifactCache());
+        if (!model.getCheckpointDirectory().isEmpty()) {
+            workflowMgr.setCheckpointStore(new CheckpointStore(new File(model.getCheckpointDirectory())));
+        }
+
+        // Disable the step control buttons & run button before the thread starts
+        model.setWorkflowRunning(true);
 
         // Runnable that will run algorithm in separate thread
         new Thread(() -> {
-            // Disable the step control buttons & exploration button
-            model.setWorkflowRunning(true);
+            // Disable the exploration button
             exploreBtn.setDisable(true);
             showPlotBtn.setDisable(true);
 
@@ -304,16 +533,18 @@ public class CompletedController {
             long startTime = System.currentTimeMillis();
 
             try {
+                ProgressListener progress = status -> Platform.runLater(() -> statusLabel.setText(status));
+
                 // Data reading
-                Platform.runLater(() -> statusLabel.setText("Reading datasets..."));
-                workflowMgr.readDatasets(true);
+                progress.setStatus("Reading datasets...");
+                workflowMgr.readDatasets(true, progress);
 
                 // Prepare methods for rest of workflow
                 boolean isCleanCleanEr = (model.getErType().equals(JedaiOptions.CLEAN_CLEAN_ER));
                 workflowMgr.createMethodInstances(isCleanCleanEr);
 
                 // Execute the workflow
-                ClustersPerformance clp = workflowMgr.executeFullWorkflow(statusLabel);
+                ClustersPerformance clp = workflowMgr.executeFullWorkflow(progress);
 
                 if (clp == null) {
                     DialogHelper.showError("Workflow execution problem",
@@ -360,10 +591,19 @@ public class CompletedController {
                     numOfClustersLabel.setText("Number of clusters: " + numOfClusters);
                     numOfClustersLabel.setVisible(true);
 
+                    // Show the Pareto fronts of the run's automatic configuration searches
+                    List<ParetoFront> fronts = workflowMgr.getParetoFronts();
+                    paretoFrontCombobox.getItems().setAll(fronts);
+                    paretoFrontCombobox.setValue(fronts.isEmpty() ? null : fronts.get(0));
+
                     // Enable exploration button
                     exploreBtn.setDisable(false);
                     showPlotBtn.setDisable(false);
                 });
+            } catch (WorkflowCancelledException e) {
+                // Add the performance of the steps that completed before the cancellation to the workbench
+                Platform.runLater(() -> statusLabel.setText("Cancelled"));
+                addCancelledResult((System.currentTimeMillis() - startTime) / 1000.0, e.getPartialPerformance());
             } catch (Exception e) {
                 // Exception occurred, show alert with information about it
                 DialogHelper.showError("Exception",
@@ -372,16 +612,66 @@ public class CompletedController {
 
                 // Print stack trace
                 e.printStackTrace();
-
-                // Set workflowRunning boolean to false
+            } finally {
+                // Workflow ran, set workflowRunning boolean to false
                 model.setWorkflowRunning(false);
             }
-
-            // Workflow ran, set workflowRunning boolean to false
-            model.setWorkflowRunning(false);
         }).start();
     }
 
+    /**
+     * Cancel the running workflow. It stops at its next step, keeping the results of the completed ones.
+     */
+    @FXML
+    private void cancelBtnHandler() {
+        if (workflowMgr != null) {
+            workflowMgr.cancel();
+            statusLabel.setText("Cancelling...");
+        }
+    }
+
+    /**
+     * Add a cancelled run to the workbench, with the performance of its completed steps and the Pareto fronts of its
+     * (possibly incomplete) automatic configuration searches
+     *
+     * @param totalTimeSeconds   Running time of the workflow until it stopped, in seconds
+     * @param partialPerformance Performance of the clusters until the workflow stopped (null if there are none)
+     */
+    private void addCancelledResult(double totalTimeSeconds, ClustersPerformance partialPerformance) {
+        int inputInstances = (workflowMgr.getProfilesD1() != null) ? workflowMgr.getProfilesD1().size() : -1;
+        WorkflowResult total;
+        if (partialPerformance != null) {
+            // The partial clusters can be explored and exported like those of a completed run
+            entityClusters = workflowMgr.getEntityClusters();
+            f1Gauge.setValue(partialPerformance.getFMeasure());
+            recallGauge.setValue(partialPerformance.getRecall());
+            precisionGauge.setValue(partialPerformance.getPrecision());
+            total = new WorkflowResult("Run " + (tableData.size() + 1) + " (cancelled)",
+                    partialPerformance.getRecall(), partialPerformance.getPrecision(),
+                    partialPerformance.getFMeasure(), totalTimeSeconds, inputInstances, entityClusters.length,
+                    tableData.size());
+        } else {
+            total = new WorkflowResult("Run " + (tableData.size() + 1) + " (cancelled)", -1, -1, -1,
+                    totalTimeSeconds, inputInstances, -1, tableData.size());
+        }
+        addResultToTable(total, workflowMgr);
+        tableData.add(total);
+
+        // Add a copy of current WizardData to the list, to keep it aligned with the workbench
+        previousRunConfigs.add(WizardData.cloneData(model));
+
+        Platform.runLater(() -> {
+            List<ParetoFront> fronts = workflowMgr.getParetoFronts();
+            paretoFrontCombobox.getItems().setAll(fronts);
+            paretoFrontCombobox.setValue(fronts.isEmpty() ? null : fronts.get(0));
+
+            if (partialPerformance != null) {
+                exploreBtn.setDisable(false);
+                showPlotBtn.setDisable(false);
+            }
+        });
+    }
+
     /**
      * Ask the user for a filename with a save file dialog, and save a file with the entity clusters
      */
@@ -440,6 +730,29 @@ public class CompletedController {
         }
     }
 
+    /**
+     * Ask the user for a filename with a save file dialog, and save the configuration of the workflow, so that it can
+     * run without the GUI (see WorkflowRunner)
+     */
+    public void saveConfigurationBtnHandler() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("JedAI Workflow Configuration", "*.jedai"));
+
+        // Show save file dialog
+        File file = fileChooser.showSaveDialog(containerVBox.getScene().getWindow());
+
+        if (file != null) {
+            try {
+                WizardDataFile.save(model, file);
+            } catch (IOException e) {
+                DialogHelper.showError("Exception",
+                        "An exception occurred while saving the configuration!",
+                        "Details: " + e.toString() + " (" + e.getMessage() + ")");
+            }
+        }
+    }
+
     /**
      * Explore the results of the dataset. Assumes that it will not be called when this is not possible (because the
      * button is supposed to be disabled when that's the case...)
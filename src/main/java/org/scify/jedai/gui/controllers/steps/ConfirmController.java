@@ -1,21 +1,28 @@
 package org.scify.jedai.gui.controllers.steps;
 
 import com.google.inject.Inject;
+import javafx.application.Platform;
 import javafx.beans.Observable;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
-import javafx.scene.control.Label;
-import javafx.scene.control.ListView;
+import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.RowConstraints;
+import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.stage.DirectoryChooser;
+import org.scify.jedai.datamodel.EntityProfile;
 import org.scify.jedai.gui.model.JedaiMethodConfiguration;
 import org.scify.jedai.gui.nodes.JedaiMethodConfigurationListCell;
+import org.scify.jedai.gui.utilities.CostModel;
+import org.scify.jedai.gui.utilities.DatasetCache;
+import org.scify.jedai.gui.utilities.DatasetStatistics;
 import org.scify.jedai.gui.utilities.DynamicMethodConfiguration;
 import org.scify.jedai.gui.utilities.JedaiOptions;
 import org.scify.jedai.gui.utilities.RowHidingChangeListener;
@@ -24,12 +31,22 @@ import org.scify.jedai.gui.wizard.WizardData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 
 public class ConfirmController {
     public GridPane paramsGrid;
     public Label titleLabel;
+    public Button estimateBtn;
+    public Spinner<Integer> budgetSpinner;
+    public Label costLabel;
+    public TableView<CostModel.StepEstimate> costTable;    // Table with the estimated cost of each step
+    public CheckBox streamingCheckBox;
+    public Spinner<Integer> stepCacheSpinner;
+    public CheckBox stepCacheSpillCheckBox;
+    public TextField checkpointField;
     private Logger log = LoggerFactory.getLogger(ConfirmController.class);
     private RowHidingChangeListener changeListener;
 
@@ -222,6 +239,174 @@ public class ConfirmController {
 //        // Entity Clustering parameters
 //        addRow(rows, boldLabel("Entity Clustering Parameters"),
 //                DynamicMethodConfiguration.newParamsNode(model.entityClusteringParametersProperty()));
+
+        // Cost estimation
+        initCostEstimation();
+
+        // Execution options
+        streamingCheckBox.setSelected(model.isStreamingMatching());
+        streamingCheckBox.selectedProperty().addListener((observable, oldValue, newValue) ->
+                model.setStreamingMatching(newValue));
+
+        stepCacheSpinner.setValueFactory(
+                new SpinnerValueFactory.IntegerSpinnerValueFactory(0, Integer.MAX_VALUE, model.getStepCacheMemory(), 128));
+        stepCacheSpinner.valueProperty().addListener((observable, oldValue, newValue) ->
+                model.setStepCacheMemory(newValue));
+        stepCacheSpillCheckBox.setSelected(model.isStepCacheSpill());
+        stepCacheSpillCheckBox.selectedProperty().addListener((observable, oldValue, newValue) ->
+                model.setStepCacheSpill(newValue));
+        checkpointField.setText(model.getCheckpointDirectory());
+        checkpointField.textProperty().addListener((observable, oldValue, newValue) ->
+                model.setCheckpointDirectory(newValue.trim()));
+    }
+
+    /**
+     * Select the directory of the checkpoints of the workflow steps
+     */
+    @FXML
+    private void browseCheckpointDirectory() {
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        File directory = new File(model.getCheckpointDirectory());
+        if (directory.isDirectory()) {
+            directoryChooser.setInitialDirectory(directory);
+        }
+
+        File selected = directoryChooser.showDialog(checkpointField.getScene().getWindow());
+        if (selected != null) {
+            checkpointField.setText(selected.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Initialize the cost estimation table and the time budget spinner (bound to the current model)
+     */
+    private void initCostEstimation() {
+        // Create the table columns and the budget listener once (this is called again when the model changes)
+        if (costTable.getColumns().isEmpty()) {
+            costTable.getColumns().add(newCostColumn("Step", CostModel.StepEstimate::getStep));
+            costTable.getColumns().add(newCostColumn("Method", CostModel.StepEstimate::getMethod));
+            costTable.getColumns().add(newCostColumn("Est. comparisons",
+                    e -> String.format("%,.0f", e.getComparisons())));
+            costTable.getColumns().add(newCostColumn("Est. time (sec.)", e -> String.format("%,.1f", e.getSeconds())));
+            costTable.getColumns().add(newCostColumn("Based on", e -> e.isObserved() ? "Previous runs" : "Defaults"));
+            costTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+            // Highlight the steps that exceed the time budget by themselves
+            costTable.setRowFactory(param -> new TableRow<CostModel.StepEstimate>() {
+                @Override
+                protected void updateItem(CostModel.StepEstimate item, boolean empty) {
+                    super.updateItem(item, empty);
+                    setStyle(!empty && item != null && exceedsBudget(item.getSeconds()) ?
+                            "-fx-background-color: #ffcccc;" : "");
+                }
+            });
+
+            // Update the time budget of the current model
+            budgetSpinner.valueProperty().addListener((observable, oldValue, newValue) -> {
+                model.setRunTimeBudget(newValue);
+                costTable.refresh();
+                updateCostLabel();
+            });
+        }
+        costTable.getItems().clear();
+        costLabel.setText("");
+
+        // Set the time budget of the model
+        budgetSpinner.setValueFactory(
+                new SpinnerValueFactory.IntegerSpinnerValueFactory(0, Integer.MAX_VALUE, model.getRunTimeBudget(), 60));
+    }
+
+    /**
+     * Create a column of the cost estimation table
+     *
+     * @param title Title of the column
+     * @param value Function that returns the text of a step's cell
+     * @return Table column
+     */
+    private TableColumn<CostModel.StepEstimate, String> newCostColumn(String title,
+                                                                      Function<CostModel.StepEstimate, String> value) {
+        TableColumn<CostModel.StepEstimate, String> col = new TableColumn<>(title);
+        col.setCellValueFactory(param -> new ReadOnlyStringWrapper(value.apply(param.getValue())));
+        col.setSortable(false);
+
+        return col;
+    }
+
+    /**
+     * Check if a running time exceeds the time budget of the model
+     *
+     * @param seconds Running time in seconds
+     * @return True if there is a time budget and the running time exceeds it
+     */
+    private boolean exceedsBudget(double seconds) {
+        return model.getRunTimeBudget() > 0 && model.getRunTimeBudget() < seconds;
+    }
+
+    /**
+     * Show the estimated total running time of the workflow, and whether it exceeds the time budget
+     */
+    private void updateCostLabel() {
+        if (costTable.getItems().isEmpty()) {
+            return;
+        }
+
+        double totalSeconds = costTable.getItems().stream().mapToDouble(CostModel.StepEstimate::getSeconds).sum();
+        boolean exceeds = exceedsBudget(totalSeconds);
+        costLabel.setText(String.format("Estimated total time: %,.1f sec.", totalSeconds)
+                + (exceeds ? " Exceeds the time budget!" : ""));
+        costLabel.setTextFill(exceeds ? Color.RED : Color.BLACK);
+    }
+
+    /**
+     * Estimate the cost of the workflow, using statistics of the dataset(s) and the cost model of previous runs. The
+     * datasets are read in a separate thread.
+     */
+    @FXML
+    private void estimateCost() {
+        WizardData data = model;
+        estimateBtn.setDisable(true);
+        costLabel.setTextFill(Color.BLACK);
+        costLabel.setText("Reading datasets...");
+
+        new Thread(() -> {
+            List<CostModel.StepEstimate> estimates = null;
+            String error = null;
+            try {
+                // Read the dataset(s) and compute their statistics
+                List<EntityProfile> profilesD1 = DatasetCache.getEntities(data.getEntityProfilesD1Type(),
+                        data.getEntityProfilesD1Parameters());
+                List<EntityProfile> profilesD2 = data.getErType().equals(JedaiOptions.CLEAN_CLEAN_ER) ?
+                        DatasetCache.getEntities(data.getEntityProfilesD2Type(),
+                                data.getEntityProfilesD2Parameters()) : null;
+                if (profilesD1 == null || (data.getErType().equals(JedaiOptions.CLEAN_CLEAN_ER)
+                        && profilesD2 == null)) {
+                    error = "Cannot read the datasets!";
+                } else {
+                    estimates = CostModel.getDefault().estimate(data,
+                            DatasetStatistics.compute(profilesD1, profilesD2));
+                    if (estimates.isEmpty()) {
+                        error = "Cost estimation is only available for blocking-based workflows.";
+                    }
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                error = "Cost estimation failed: " + e.getMessage();
+            }
+
+            // Show the estimates from the UI thread
+            List<CostModel.StepEstimate> stepEstimates = estimates;
+            String errorMessage = error;
+            Platform.runLater(() -> {
+                estimateBtn.setDisable(false);
+                if (errorMessage != null) {
+                    costTable.getItems().clear();
+                    costLabel.setText(errorMessage);
+                } else {
+                    costTable.getItems().setAll(stepEstimates);
+                    updateCostLabel();
+                }
+            });
+        }).start();
     }
 
     /**
@@ -2,19 +2,24 @@ package org.scify.jedai.gui.controllers.steps;
 
 import com.google.inject.Inject;
 import com.google.inject.Injector;
+import javafx.application.Platform;
 import javafx.beans.property.ListProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.Parent;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import org.apache.commons.lang3.tuple.MutablePair;
-import org.apache.jena.riot.RiotException;
 import org.scify.jedai.datamodel.EntityProfile;
 import org.scify.jedai.datamodel.EquivalenceCluster;
 import org.scify.jedai.gui.controllers.DatasetExplorationController;
@@ -29,6 +34,7 @@ import org.scify.jedai.utilities.datastructures.AbstractDuplicatePropagation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -49,6 +55,8 @@ public class DataReadingController {
     public Button exploreD1Btn;
     public Button exploreD2Btn;
     public Button exploreGtBtn;
+    public Button convertD1Btn;
+    public Button convertD2Btn;
     private Logger log = LoggerFactory.getLogger(DataReadingController.class);
 
     @Inject
@@ -79,7 +87,8 @@ public class DataReadingController {
                 JedaiOptions.DATABASE,
                 JedaiOptions.RDF,
                 JedaiOptions.XML,
-                JedaiOptions.SERIALIZED
+                JedaiOptions.SERIALIZED,
+                JedaiOptions.BINARY
         );
 
         for (ComboBox<String> c : comboboxes) {
@@ -107,9 +116,9 @@ public class DataReadingController {
         d2ParamsList.disableProperty().bind(model.erTypeProperty().isEqualTo(JedaiOptions.DIRTY_ER));
 
         // Add lists of parameters
-        controlsGrid.add(DynamicMethodConfiguration.newParamsNode(model.entityProfilesD1ParametersProperty()), 4, 0);
-        controlsGrid.add(d2ParamsList, 4, 1);
-        controlsGrid.add(DynamicMethodConfiguration.newParamsNode(model.groundTruthParametersProperty()), 4, 2);
+        controlsGrid.add(DynamicMethodConfiguration.newParamsNode(model.entityProfilesD1ParametersProperty()), 5, 0);
+        controlsGrid.add(d2ParamsList, 5, 1);
+        controlsGrid.add(DynamicMethodConfiguration.newParamsNode(model.groundTruthParametersProperty()), 5, 2);
 
         // Disable exploration buttons when there are no options selected
         exploreD1Btn.disableProperty().bind(model.entityProfilesD1TypeProperty().isNull());
@@ -119,6 +128,12 @@ public class DataReadingController {
         );
         exploreGtBtn.disableProperty().bind(model.groundTruthTypeProperty().isNull());
 
+        // Disable conversion buttons when there are no options selected, or the dataset is already binary
+        convertD1Btn.disableProperty().bind(model.entityProfilesD1TypeProperty().isNull()
+                .or(model.entityProfilesD1TypeProperty().isEqualTo(JedaiOptions.BINARY)));
+        convertD2Btn.disableProperty().bind(exploreD2Btn.disabledProperty()
+                .or(model.entityProfilesD2TypeProperty().isEqualTo(JedaiOptions.BINARY)));
+
         // Set initial values to text fields (for testing...)
 //        model.setEntityProfilesD1Type(JedaiOptions.SERIALIZED);
 //        model.setGroundTruthType(JedaiOptions.SERIALIZED);
@@ -172,15 +187,15 @@ public class DataReadingController {
             String erType = model.getErType();
 
             // Read 1st profiles file
-            profilesD1 = DataReader.getEntities(entitiesD1Type, readerParams.get("entities1"));
+            profilesD1 = DatasetCache.getEntities(entitiesD1Type, readerParams.get("entities1"));
 
             // In case Clean-Clear ER is selected, also read 2nd profiles file
             if (erType.equals(JedaiOptions.CLEAN_CLEAN_ER)) {
-                profilesD2 = DataReader.getEntities(entitiesD2Type, readerParams.get("entities2"));
+                profilesD2 = DatasetCache.getEntities(entitiesD2Type, readerParams.get("entities2"));
             }
 
             // Read ground truth
-            groundTruth = DataReader
+            groundTruth = DatasetCache
                     .getGroundTruth(groundTruthType, readerParams.get("ground_truth"), erType, profilesD1, profilesD2);
         } catch (Exception e) {
             // Show invalid input file error and stop checking other files
@@ -272,27 +287,28 @@ public class DataReadingController {
         // Get ER type (to know if we need to read 2nd dataset or not)
         String erType = model.getErType();
 
-        // Read dataset 1
-        List<EntityProfile> entitiesD1 = DataReader.getEntities(
-                model.getEntityProfilesD1Type(),
-                model.getEntityProfilesD1Parameters()
-        );
-
-        // Read dataset 2 (if needed)
+        List<EntityProfile> entitiesD1;
         List<EntityProfile> entitiesD2 = null;
-        if (erType.equals(JedaiOptions.CLEAN_CLEAN_ER)) {
-            entitiesD2 = DataReader.getEntities(
-                    model.getEntityProfilesD2Type(),
-                    model.getEntityProfilesD2Parameters()
-            );
-        }
-
-        // Get ground truth
         AbstractDuplicatePropagation groundTruth;
         try {
-            groundTruth = DataReader.getGroundTruth(gtType, gtParams, erType, entitiesD1, entitiesD2);
-        } catch (RiotException e) {
-            // Catch possible exception from RDF reader
+            // Read dataset 1 (the datasets that were read for the validation are cached)
+            entitiesD1 = DatasetCache.getEntities(
+                    model.getEntityProfilesD1Type(),
+                    model.getEntityProfilesD1Parameters()
+            );
+
+            // Read dataset 2 (if needed)
+            if (erType.equals(JedaiOptions.CLEAN_CLEAN_ER)) {
+                entitiesD2 = DatasetCache.getEntities(
+                        model.getEntityProfilesD2Type(),
+                        model.getEntityProfilesD2Parameters()
+                );
+            }
+
+            // Get ground truth
+            groundTruth = DatasetCache.getGroundTruth(gtType, gtParams, erType, entitiesD1, entitiesD2);
+        } catch (Exception e) {
+            // Catch possible exception from the readers (e.g. from the RDF reader)
             DialogHelper.showError(errorTitle, "Ground truth could not be read!",
                     "Please check that the ground truth reader settings are correct.\n\nError details:\n"
                             + e.getMessage());
@@ -337,6 +353,61 @@ public class DataReadingController {
         }
     }
 
+    /**
+     * Convert a selected dataset to a binary profiles file (see BinaryProfileWriter), and select the file with the
+     * binary reader, which reads it much faster than the original reader. The dataset is converted in a separate
+     * thread.
+     *
+     * @param actionEvent Button action (used to detect which dataset to convert)
+     */
+    public void convertDataset(ActionEvent actionEvent) {
+        boolean isD1 = (actionEvent.getSource() == convertD1Btn);
+        String datasetType = isD1 ? model.getEntityProfilesD1Type() : model.getEntityProfilesD2Type();
+        List<MutablePair<String, Object>> datasetParams = isD1 ?
+                model.getEntityProfilesD1Parameters() : model.getEntityProfilesD2Parameters();
+
+        // Select the binary file
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Convert dataset " + (isD1 ? 1 : 2) + " to a binary file");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Binary profiles", "*.jedaibin"));
+        File file = fileChooser.showSaveDialog(containerVBox.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        // Compressed files are smaller, but slower to read
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION,
+                "Compress the binary file? Compressed files are smaller, but slower to read.",
+                ButtonType.YES, ButtonType.NO);
+        alert.setTitle(errorTitle);
+        alert.setHeaderText("Binary file compression");
+        boolean compress = alert.showAndWait().orElse(ButtonType.NO) == ButtonType.YES;
+
+        new Thread(() -> {
+            try {
+                BinaryProfileWriter.write(DatasetCache.getEntities(datasetType, datasetParams), file, compress);
+            } catch (Exception e) {
+                e.printStackTrace();
+                DialogHelper.showError(errorTitle, "Dataset could not be converted!",
+                        "Details: " + e.toString() + " (" + e.getMessage() + ")");
+                return;
+            }
+
+            // Read the dataset from the binary file from now on
+            Platform.runLater(() -> {
+                ObservableList<MutablePair<String, Object>> binaryParams = FXCollections.observableArrayList();
+                binaryParams.add(MutablePair.of("File Path", file.getAbsolutePath()));
+                if (isD1) {
+                    model.setEntityProfilesD1Type(JedaiOptions.BINARY);
+                    model.setEntityProfilesD1Parameters(binaryParams);
+                } else {
+                    model.setEntityProfilesD2Type(JedaiOptions.BINARY);
+                    model.setEntityProfilesD2Parameters(binaryParams);
+                }
+            });
+        }).start();
+    }
+
     /**
      * Explore a selected dataset
      *
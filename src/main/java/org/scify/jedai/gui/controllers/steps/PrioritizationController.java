@@ -2,6 +2,8 @@ package org.scify.jedai.gui.controllers.steps;
 
 import com.google.inject.Inject;
 import javafx.fxml.FXML;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.SpinnerValueFactory;
 import javafx.scene.layout.VBox;
 import jfxtras.scene.control.ToggleGroupValue;
 import org.scify.jedai.gui.nodes.dynamic_configuration.ConfigurationTypeSelector;
@@ -17,6 +19,7 @@ public class PrioritizationController {
     public VBox containerVBox;
     public VBox noBlBuMethodsContainer;
     public VBox blBuMethodsContainer;
+    public Spinner<Integer> checkpointSpinner;
 
     private ToggleGroupValue<String> noBlBuValue;
     private ToggleGroupValue<String> blBuValue;
@@ -72,6 +75,12 @@ public class PrioritizationController {
 
         // Enable/disable the appropriate radio buttons initially
         updateEnabledRadioButtons(model.getEnabledBlockBuildingMethods());
+
+        // Entity clustering methods that cannot be run incrementally re-cluster only every this many comparisons
+        checkpointSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(
+                1, Integer.MAX_VALUE, model.getClusteringCheckpoint(), 100));
+        checkpointSpinner.valueProperty().addListener(
+                (observable, oldValue, newValue) -> model.setClusteringCheckpoint(newValue));
     }
 
     /**
@@ -17,6 +17,7 @@ public class SimilarityJoinController {
     public TextField dataset1AttrField;
     public TextField dataset2AttrField;
     public VBox dataset2VBox;
+    public VBox confTypeContainer;
 
     @Inject
     private WizardData model;
@@ -43,6 +44,13 @@ public class SimilarityJoinController {
             model.setSimilarityJoinParameters(null);
         });
 
+        // Add configuration type selection control. Automatic configuration searches the join's threshold, so there
+        // is no default configuration.
+        RadioButtonHelper.createButtonGroup(confTypeContainer, Arrays.asList(
+                JedaiOptions.MANUAL_CONFIG,
+                JedaiOptions.AUTOMATIC_CONFIG
+        ), model.similarityJoinConfigTypeProperty());
+
         // Only show the 2nd attribute name input when clean-clean ER is selected
         dataset2VBox.visibleProperty().bind(model.erTypeProperty().isEqualTo(JedaiOptions.CLEAN_CLEAN_ER));
 
@@ -0,0 +1,249 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.datamodel.Attribute;
+import org.scify.jedai.datamodel.EntityProfile;
+import org.scify.jedai.gui.wizard.WizardData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Converts entity profiles to the binary format of EntityBinaryReader, which is read much faster than the CSV, RDF,
+ * XML and serialized files of the other readers. The profiles are written in blocks of consecutive profiles (of about
+ * 1 MB each), which are read independently and in parallel. Each block stores its profiles in columns: the indices of
+ * the profiles' first attributes, the ids of the attribute names (in a dictionary of the names of the whole file), and
+ * the offsets of the entity URLs and of the attribute values in their blobs of UTF-8 strings. The blocks can be
+ * compressed (with Deflate).
+ * <p>
+ * File layout (big-endian): a header (magic number, version, flags, number of profiles, number of blocks, and the
+ * offsets of the dictionary and of the block table), the blocks, the dictionary (number of names, and the length and
+ * UTF-8 bytes of each name), and the block table (offset, stored length and uncompressed length of each block).
+ */
+public class BinaryProfileWriter {
+    final static int MAGIC = 0x4A454450;
+    final static int VERSION = 1;
+    final static int HEADER_SIZE = 33;
+    final static byte FLAG_COMPRESSED = 1;
+
+    // Size of the uncompressed blocks
+    private final static int BLOCK_SIZE = 1 << 20;
+
+    public static void main(String[] args) {
+        if (args.length < 2 || 3 < args.length || (args.length == 3 && !args[2].equals("--compress"))) {
+            System.err.println("Usage: BinaryProfileWriter <configuration file> <output directory> [--compress]");
+            System.exit(2);
+        }
+
+        try {
+            convert(new File(args[0]), new File(args[1]), args.length == 3);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Convert the datasets of a workflow configuration that was saved in the wizard (see WizardDataFile) to binary
+     * files (d1.jedaibin and, for Clean-Clean ER, d2.jedaibin)
+     *
+     * @param configurationFile File with the saved configuration
+     * @param outputDirectory   Directory to write the binary files to
+     * @param compress          True to compress the blocks of the files
+     * @throws Exception If reading a dataset, or writing its file, fails
+     */
+    public static void convert(File configurationFile, File outputDirectory, boolean compress) throws Exception {
+        WizardData model = WizardDataFile.load(configurationFile);
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IOException("Cannot create directory " + outputDirectory);
+        }
+
+        File d1File = new File(outputDirectory, "d1.jedaibin");
+        write(DatasetCache.getEntities(model.getEntityProfilesD1Type(), model.getEntityProfilesD1Parameters()),
+                d1File, compress);
+        System.out.println("Dataset 1\t:\t" + d1File.getAbsolutePath());
+
+        if (model.getErType().equals(JedaiOptions.CLEAN_CLEAN_ER)) {
+            File d2File = new File(outputDirectory, "d2.jedaibin");
+            write(DatasetCache.getEntities(model.getEntityProfilesD2Type(), model.getEntityProfilesD2Parameters()),
+                    d2File, compress);
+            System.out.println("Dataset 2\t:\t" + d2File.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Write entity profiles to a binary file
+     *
+     * @param profiles Entity profiles
+     * @param file     File to write
+     * @param compress True to compress the blocks of the file
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(List<EntityProfile> profiles, File file, boolean compress) throws IOException {
+        if (profiles == null) {
+            throw new IOException("The dataset could not be read");
+        }
+
+        Map<String, Integer> names = new LinkedHashMap<>();
+        List<long[]> blockTable = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = HEADER_SIZE;
+            channel.position(position);
+
+            // Blocks
+            Deflater deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+            try {
+                int first = 0;
+                while (first < profiles.size()) {
+                    Block block = new Block();
+                    int last = first;
+                    while (last < profiles.size() && (last == first || block.size() < BLOCK_SIZE)) {
+                        block.add(profiles.get(last++), names);
+                    }
+
+                    byte[] raw = block.toByteArray();
+                    byte[] stored = compress ? deflate(deflater, raw) : raw;
+                    writeFully(channel, ByteBuffer.wrap(stored));
+                    blockTable.add(new long[]{position, stored.length, raw.length});
+                    position += stored.length;
+                    first = last;
+                }
+            } finally {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+
+            // Dictionary of the attribute names
+            long dictionaryOffset = position;
+            ByteArrayOutputStream dictionary = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(dictionary);
+            out.writeInt(names.size());
+            for (String name : names.keySet()) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            writeFully(channel, ByteBuffer.wrap(dictionary.toByteArray()));
+            position += dictionary.size();
+
+            // Block table
+            long blockTableOffset = position;
+            ByteBuffer table = ByteBuffer.allocate(16 * blockTable.size());
+            for (long[] entry : blockTable) {
+                table.putLong(entry[0]).putInt((int) entry[1]).putInt((int) entry[2]);
+            }
+            table.flip();
+            writeFully(channel, table);
+
+            // Header
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).put(compress ? FLAG_COMPRESSED : 0).putInt(profiles.size())
+                    .putInt(blockTable.size()).putLong(dictionaryOffset).putLong(blockTableOffset);
+            header.flip();
+            channel.position(0);
+            writeFully(channel, header);
+        }
+    }
+
+    /**
+     * Columns of a block of profiles, as they are added to it
+     */
+    private static class Block {
+        private final ByteArrayOutputStream attributeStarts = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream nameIds = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream urlOffsets = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream valueOffsets = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream urls = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream values = new ByteArrayOutputStream();
+        private int noOfProfiles;
+        private int noOfAttributes;
+
+        private void add(EntityProfile profile, Map<String, Integer> names) throws IOException {
+            writeInt(attributeStarts, noOfAttributes);
+            writeInt(urlOffsets, urls.size());
+            urls.write(profile.getEntityUrl().getBytes(StandardCharsets.UTF_8));
+
+            for (Attribute attribute : profile.getAttributes()) {
+                Integer nameId = names.get(attribute.getName());
+                if (nameId == null) {
+                    nameId = names.size();
+                    names.put(attribute.getName(), nameId);
+                }
+                writeInt(nameIds, nameId);
+                writeInt(valueOffsets, values.size());
+                values.write(attribute.getValue().getBytes(StandardCharsets.UTF_8));
+                noOfAttributes++;
+            }
+            noOfProfiles++;
+        }
+
+        private int size() {
+            return attributeStarts.size() + nameIds.size() + urlOffsets.size() + valueOffsets.size() + urls.size()
+                    + values.size();
+        }
+
+        /**
+         * Get the block's columns: the numbers of profiles and attributes, the indices of the profiles' first
+         * attributes, the ids of the attribute names, the offsets of the URLs and values (each with the length of
+         * their strings as the last offset), and the UTF-8 bytes of the URLs and values
+         *
+         * @return Uncompressed block
+         * @throws IOException If writing to memory fails
+         */
+        private byte[] toByteArray() throws IOException {
+            writeInt(attributeStarts, noOfAttributes);
+            writeInt(urlOffsets, urls.size());
+            writeInt(valueOffsets, values.size());
+
+            ByteArrayOutputStream block = new ByteArrayOutputStream(size() + 8);
+            writeInt(block, noOfProfiles);
+            writeInt(block, noOfAttributes);
+            attributeStarts.writeTo(block);
+            nameIds.writeTo(block);
+            urlOffsets.writeTo(block);
+            valueOffsets.writeTo(block);
+            urls.writeTo(block);
+            values.writeTo(block);
+            return block.toByteArray();
+        }
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+        byte[] buffer = new byte[1 << 16];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
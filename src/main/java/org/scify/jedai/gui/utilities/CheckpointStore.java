@@ -0,0 +1,344 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.datamodel.AbstractBlock;
+import org.scify.jedai.datamodel.BilateralBlock;
+import org.scify.jedai.datamodel.Comparison;
+import org.scify.jedai.datamodel.DecomposedBlock;
+import org.scify.jedai.datamodel.SimilarityPairs;
+import org.scify.jedai.datamodel.UnilateralBlock;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Checkpoints of the outputs of the workflow steps (blocks and similarities) in the files of a directory, so that a
+ * run that crashed or was cancelled can resume from its last completed step, and another session can reload the
+ * outputs of the expensive steps instead of running them again. Each output is written to a file named after the hash
+ * of its key, in a compact binary format (the arrays of the blocks, and the ids and similarities of the pairs), which
+ * is streamed through a buffer from and to the objects, without an intermediate copy in memory. The file is written
+ * to a temporary file first and then renamed, so an incomplete checkpoint is never read. Outputs of other types are
+ * not checkpointed.
+ */
+public class CheckpointStore implements StepCache {
+    private final static int MAGIC = 0x4A454443;
+    private final static int VERSION = 1;
+    private final static int BUFFER_SIZE = 1 << 16;
+
+    // Types of the outputs and of the blocks in the files
+    private final static byte BLOCKS = 1;
+    private final static byte SIMILARITY_PAIRS = 2;
+    private final static byte UNILATERAL_BLOCK = 1;
+    private final static byte BILATERAL_BLOCK = 2;
+    private final static byte DECOMPOSED_BLOCK = 3;
+
+    private final File directory;
+
+    /**
+     * Checkpoint store constructor
+     *
+     * @param directory Directory of the checkpoint files (created when the first checkpoint is written)
+     */
+    public CheckpointStore(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getOutput(String key, Callable<T> step) throws Exception {
+        File file = getFile(key);
+        if (file.isFile()) {
+            try {
+                T output = (T) read(file);
+                System.out.println("Loaded checkpoint\t:\t" + file.getName());
+                return output;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Cannot read checkpoint " + file + ": " + e.getMessage());
+            }
+        }
+
+        T output = step.call();
+        if (isCheckpointed(output)) {
+            try {
+                write(file, output);
+            } catch (IOException e) {
+                // The run continues without the checkpoint
+                System.err.println("Cannot write checkpoint " + file + ": " + e.getMessage());
+            }
+        }
+
+        return output;
+    }
+
+    /**
+     * Check if the output of a step has a checkpoint
+     *
+     * @param key Key of the step's output
+     * @return True if the step will not run to get its output
+     */
+    public boolean contains(String key) {
+        return getFile(key).isFile();
+    }
+
+    /**
+     * Delete all checkpoint files of the directory
+     */
+    public void clear() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".ckpt"));
+        if (files != null) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    System.err.println("Cannot delete checkpoint " + file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the checkpoint file of a key
+     *
+     * @param key Key of the step's output
+     * @return File named after the hexadecimal SHA-256 hash of the key
+     */
+    private File getFile(String key) {
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8))) {
+                sb.append(String.format("%02x", b));
+            }
+            return new File(directory, sb.append(".ckpt").toString());
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Check if an output can be checkpointed (a list of blocks, or similarity pairs)
+     *
+     * @param output Output of a step
+     * @return True if the output is written to a checkpoint file
+     */
+    private static boolean isCheckpointed(Object output) {
+        if (output instanceof SimilarityPairs) {
+            return true;
+        }
+        if (!(output instanceof List)) {
+            return false;
+        }
+
+        for (Object element : (List<?>) output) {
+            if (!(element instanceof UnilateralBlock || element instanceof BilateralBlock
+                    || element instanceof DecomposedBlock)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write an output to a checkpoint file, through a temporary file of the same directory
+     *
+     * @param file   Checkpoint file
+     * @param output Blocks or similarity pairs
+     * @throws IOException If the file cannot be written
+     */
+    @SuppressWarnings("unchecked")
+    private void write(File file, Object output) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+
+        File tempFile = File.createTempFile("checkpoint", ".tmp", directory);
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                if (output instanceof SimilarityPairs) {
+                    out.writeByte(SIMILARITY_PAIRS);
+                    writeSimilarityPairs(out, (SimilarityPairs) output);
+                } else {
+                    out.writeByte(BLOCKS);
+                    writeBlocks(out, (List<AbstractBlock>) output);
+                }
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                System.err.println("Cannot delete checkpoint " + tempFile);
+            }
+        }
+    }
+
+    /**
+     * Read an output from a checkpoint file
+     *
+     * @param file Checkpoint file
+     * @return Blocks or similarity pairs
+     * @throws IOException If the file cannot be read, or is not a checkpoint
+     */
+    private static Object read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unknown checkpoint format");
+            }
+
+            byte type = in.readByte();
+            if (type == SIMILARITY_PAIRS) {
+                return readSimilarityPairs(in);
+            } else if (type == BLOCKS) {
+                return readBlocks(in);
+            }
+            throw new IOException("Unknown checkpoint type " + type);
+        }
+    }
+
+    /**
+     * Write the similarities of the compared pairs, and the capacity of the similarity pairs
+     *
+     * @param out  Stream to write to
+     * @param sims Similarity pairs
+     * @throws IOException If writing fails
+     */
+    private static void writeSimilarityPairs(DataOutputStream out, SimilarityPairs sims) throws IOException {
+        int[] entityIds1 = sims.getEntityIds1();
+        int[] entityIds2 = sims.getEntityIds2();
+        float[] similarities = sims.getSimilarities();
+        int noOfComparisons = sims.getNoOfComparisons();
+
+        out.writeBoolean(sims.isCleanCleanER());
+        out.writeInt(similarities.length);
+        out.writeInt(noOfComparisons);
+        for (int i = 0; i < noOfComparisons; i++) {
+            out.writeInt(entityIds1[i]);
+            out.writeInt(entityIds2[i]);
+            out.writeFloat(similarities[i]);
+        }
+    }
+
+    /**
+     * Read similarity pairs
+     *
+     * @param in Stream to read from
+     * @return Similarity pairs with the same capacity and compared pairs as the written ones
+     * @throws IOException If reading fails
+     */
+    private static SimilarityPairs readSimilarityPairs(DataInputStream in) throws IOException {
+        boolean isCleanCleanER = in.readBoolean();
+        SimilarityPairs sims = new SimilarityPairs(isCleanCleanER, in.readInt());
+        int noOfComparisons = in.readInt();
+        for (int i = 0; i < noOfComparisons; i++) {
+            Comparison comparison = new Comparison(isCleanCleanER, in.readInt(), in.readInt());
+            comparison.setUtilityMeasure(in.readFloat());
+            sims.addComparison(comparison);
+        }
+
+        return sims;
+    }
+
+    /**
+     * Write a list of blocks. Each block is written with its type, index, entropy (or weights) and entity arrays, and
+     * whether its utility measure was set (decomposed blocks do not have one).
+     *
+     * @param out    Stream to write to
+     * @param blocks Blocks to write
+     * @throws IOException If writing fails
+     */
+    private static void writeBlocks(DataOutputStream out, List<AbstractBlock> blocks) throws IOException {
+        out.writeInt(blocks.size());
+        for (AbstractBlock block : blocks) {
+            if (block instanceof DecomposedBlock) {
+                DecomposedBlock decomposedBlock = (DecomposedBlock) block;
+                out.writeByte(DECOMPOSED_BLOCK);
+                out.writeBoolean(decomposedBlock.isCleanCleanER());
+                writeArray(out, decomposedBlock.getEntities1());
+                writeArray(out, decomposedBlock.getEntities2());
+                writeArray(out, decomposedBlock.getWeights());
+
+                // The block indices are consecutive, starting from the index that was set (if any)
+                int[] blockIndices = decomposedBlock.getBlockIndices();
+                out.writeBoolean(blockIndices != null && 0 < blockIndices.length);
+                out.writeInt((blockIndices != null && 0 < blockIndices.length) ?
+                        blockIndices[0] : block.getBlockIndex());
+            } else {
+                if (block instanceof BilateralBlock) {
+                    out.writeByte(BILATERAL_BLOCK);
+                    out.writeFloat(block.getEntropy());
+                    writeArray(out, ((BilateralBlock) block).getIndex1Entities());
+                    writeArray(out, ((BilateralBlock) block).getIndex2Entities());
+                } else {
+                    out.writeByte(UNILATERAL_BLOCK);
+                    out.writeFloat(block.getEntropy());
+                    writeArray(out, ((UnilateralBlock) block).getEntities());
+                }
+                out.writeInt(block.getBlockIndex());
+                out.writeBoolean(block.getUtilityMeasure() != 0);
+            }
+        }
+    }
+
+    /**
+     * Read a list of blocks
+     *
+     * @param in Stream to read from
+     * @return Blocks equal to the written ones
+     * @throws IOException If reading fails
+     */
+    private static List<AbstractBlock> readBlocks(DataInputStream in) throws IOException {
+        int noOfBlocks = in.readInt();
+        List<AbstractBlock> blocks = new ArrayList<>(noOfBlocks);
+        for (int i = 0; i < noOfBlocks; i++) {
+            AbstractBlock block;
+            byte type = in.readByte();
+            if (type == DECOMPOSED_BLOCK) {
+                block = new DecomposedBlock(in.readBoolean(), readArray(in), readArray(in), readArray(in));
+                boolean hasBlockIndices = in.readBoolean();
+                int blockIndex = in.readInt();
+                if (hasBlockIndices) {
+                    block.setBlockIndex(blockIndex);
+                }
+            } else {
+                if (type == BILATERAL_BLOCK) {
+                    block = new BilateralBlock(in.readFloat(), readArray(in), readArray(in));
+                } else if (type == UNILATERAL_BLOCK) {
+                    block = new UnilateralBlock(in.readFloat(), readArray(in));
+                } else {
+                    throw new IOException("Unknown block type " + type);
+                }
+                block.setBlockIndex(in.readInt());
+
+                // The utility measure is computed from the entities of the block
+                if (in.readBoolean()) {
+                    block.setUtilityMeasure();
+                }
+            }
+            blocks.add(block);
+        }
+
+        return blocks;
+    }
+
+    private static void writeArray(DataOutputStream out, int[] array) throws IOException {
+        out.writeInt(array.length);
+        for (int value : array) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readArray(DataInputStream in) throws IOException {
+        int[] array = new int[in.readInt()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = in.readInt();
+        }
+        return array;
+    }
+}
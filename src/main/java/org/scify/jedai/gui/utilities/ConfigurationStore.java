@@ -0,0 +1,226 @@
+package org.scify.jedai.gui.utilities;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.scify.jedai.datamodel.Attribute;
+import org.scify.jedai.datamodel.EntityProfile;
+import org.scify.jedai.gui.model.JedaiMethodConfiguration;
+import org.scify.jedai.gui.wizard.WizardData;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Local store of the best automatic configurations found for each dataset and workflow shape, so that later runs on
+ * the same data can start from them. A configuration is the number of the grid configuration of each automatically
+ * configured method, in the order of the workflow's steps. Entries are keyed by a fingerprint of the input files
+ * (sizes and checksums), the attribute schema of the profiles, and the workflow's methods and their parameters.
+ */
+public class ConfigurationStore {
+    // Instances are created for each run (see getDefault), so they share a single lock for reading and updating
+    private static final Object LOCK = new Object();
+
+    private final File file;
+
+    /**
+     * Configuration store constructor
+     *
+     * @param file File that the store is saved in (created when the first configuration is stored)
+     */
+    public ConfigurationStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Get the store in the user's home directory
+     *
+     * @return Default configuration store
+     */
+    public static ConfigurationStore getDefault() {
+        return new ConfigurationStore(
+                new File(System.getProperty("user.home"), ".jedai" + File.separator + "autoconfig-store.properties"));
+    }
+
+    /**
+     * Get the stored configuration of a key
+     *
+     * @param key Key of the dataset and workflow shape
+     * @return Grid configuration of each automatically configured method and its F-Measure, or null if none is stored
+     * @throws IOException If the store cannot be read
+     */
+    public ImmutablePair<int[], Double> getConfiguration(String key) throws IOException {
+        String value;
+        synchronized (LOCK) {
+            value = PropertiesFiles.load(file).getProperty(key);
+        }
+        if (value == null) {
+            return null;
+        }
+
+        // Values are stored as "F-Measure;configuration1,configuration2,..."
+        String[] parts = value.split(";", -1);
+        int[] configuration = parts[1].isEmpty() ? new int[0] :
+                Arrays.stream(parts[1].split(",")).mapToInt(Integer::parseInt).toArray();
+        return new ImmutablePair<>(configuration, Double.parseDouble(parts[0]));
+    }
+
+    /**
+     * Store a configuration for a key, unless a configuration with the same or a higher F-Measure is already stored
+     * for it
+     *
+     * @param key           Key of the dataset and workflow shape
+     * @param configuration Grid configuration of each automatically configured method
+     * @param fMeasure      F-Measure of the configuration
+     * @throws IOException If the store cannot be read or written
+     */
+    public void putConfiguration(String key, int[] configuration, double fMeasure) throws IOException {
+        StringJoiner joiner = new StringJoiner(",");
+        for (int c : configuration) {
+            joiner.add(String.valueOf(c));
+        }
+
+        synchronized (LOCK) {
+            ImmutablePair<int[], Double> stored = getConfiguration(key);
+            if (stored != null && fMeasure <= stored.getRight()) {
+                return;
+            }
+
+            Properties properties = PropertiesFiles.load(file);
+            properties.setProperty(key, fMeasure + ";" + joiner);
+            PropertiesFiles.store(file, properties, "JedAI best automatic configurations");
+        }
+    }
+
+    /**
+     * Get the key of a workflow on a dataset, which is a hash of the dataset's fingerprint and the workflow's shape
+     *
+     * @param model      Wizard data with the data reading and workflow options
+     * @param profilesD1 Entity profiles of the 1st dataset
+     * @param profilesD2 Entity profiles of the 2nd dataset (null for Dirty ER)
+     * @return Key of the workflow and dataset
+     * @throws IOException If an input file cannot be read
+     */
+    public static String getKey(WizardData model, List<EntityProfile> profilesD1, List<EntityProfile> profilesD2)
+            throws IOException {
+        StringBuilder sb = new StringBuilder();
+
+        // Dataset fingerprint: input sources and attribute schema of the profiles
+        appendSource(sb, model.getEntityProfilesD1Type(), model.getEntityProfilesD1Parameters());
+        appendSchema(sb, profilesD1);
+        if (profilesD2 != null) {
+            appendSource(sb, model.getEntityProfilesD2Type(), model.getEntityProfilesD2Parameters());
+            appendSchema(sb, profilesD2);
+        }
+        appendSource(sb, model.getGroundTruthType(), model.getGroundTruthParameters());
+
+        // Workflow shape: methods and their (manual) parameters
+        sb.append(model.getWorkflow()).append('|').append(model.getErType()).append('\n');
+        appendMethod(sb, model.getSchemaClustering(), model.getSchemaClusteringConfigType(),
+                model.getSchemaClusteringParameters());
+        if (model.getBlockBuildingMethods() != null) {
+            for (JedaiMethodConfiguration method : model.getBlockBuildingMethods()) {
+                if (method.isEnabled()) {
+                    appendMethod(sb, method.getName(), method.getConfigurationType(), method.getManualParameters());
+                }
+            }
+        }
+        if (model.getBlockCleaningMethods() != null) {
+            for (JedaiMethodConfiguration method : model.getBlockCleaningMethods()) {
+                if (method.isEnabled()) {
+                    appendMethod(sb, method.getName(), method.getConfigurationType(), method.getManualParameters());
+                }
+            }
+        }
+        appendMethod(sb, model.getComparisonCleaning(), model.getComparisonCleaningConfigType(),
+                model.getComparisonCleaningParameters());
+        appendMethod(sb, model.getEntityMatching(), model.getEntityMatchingConfigType(),
+                model.getEntityMatchingParameters());
+        appendMethod(sb, model.getEntityClustering(), model.getEntityClusteringConfigType(),
+                model.getEntityClusteringParameters());
+
+        // Hash the key, so that it does not contain any parameters in plain text (e.g. database passwords)
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for (byte b : hash) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Append an input source to a fingerprint. Parameters that are files are represented by their size and checksum.
+     *
+     * @param sb         Fingerprint to append to
+     * @param type       Type of the reader
+     * @param parameters Parameters of the reader
+     * @throws IOException If an input file cannot be read
+     */
+    private static void appendSource(StringBuilder sb, String type, List<MutablePair<String, Object>> parameters)
+            throws IOException {
+        sb.append(type).append('\n');
+        if (parameters == null) {
+            return;
+        }
+
+        for (MutablePair<String, Object> parameter : parameters) {
+            sb.append(parameter.getLeft()).append('=');
+            File input = (parameter.getRight() != null) ? new File(parameter.getRight().toString()) : null;
+            if (input != null && input.isFile()) {
+                // Compute the checksum of the file
+                CRC32 crc = new CRC32();
+                try (InputStream in = new CheckedInputStream(new BufferedInputStream(new FileInputStream(input)), crc)) {
+                    byte[] buffer = new byte[8192];
+                    //noinspection StatementWithEmptyBody
+                    while (in.read(buffer) >= 0) {
+                    }
+                }
+                sb.append(input.length()).append(':').append(Long.toHexString(crc.getValue()));
+            } else {
+                sb.append(parameter.getRight());
+            }
+            sb.append('\n');
+        }
+    }
+
+    /**
+     * Append the attribute schema of a dataset (number of profiles and attribute names) to a fingerprint
+     *
+     * @param sb       Fingerprint to append to
+     * @param profiles Entity profiles of the dataset
+     */
+    private static void appendSchema(StringBuilder sb, List<EntityProfile> profiles) {
+        Set<String> attributeNames = new TreeSet<>();
+        for (EntityProfile profile : profiles) {
+            for (Attribute attribute : profile.getAttributes()) {
+                attributeNames.add(attribute.getName());
+            }
+        }
+        sb.append(profiles.size()).append(attributeNames).append('\n');
+    }
+
+    /**
+     * Append a method of the workflow to its shape
+     *
+     * @param sb         Shape to append to
+     * @param name       Name of the method
+     * @param configType Configuration type of the method
+     * @param parameters Manual parameters of the method (can be null)
+     */
+    private static void appendMethod(StringBuilder sb, String name, String configType,
+                                     List<MutablePair<String, Object>> parameters) {
+        sb.append(name).append('|').append(configType);
+        if (JedaiOptions.MANUAL_CONFIG.equals(configType) && parameters != null) {
+            sb.append(parameters);
+        }
+        sb.append('\n');
+    }
+}
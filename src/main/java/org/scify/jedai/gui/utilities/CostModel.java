@@ -0,0 +1,311 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.gui.model.JedaiMethodConfiguration;
+import org.scify.jedai.gui.wizard.WizardData;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Model of the cost of the steps of a blocking-based workflow, for estimating the running time and comparisons of a
+ * workflow before running it. Each step's method has a running time per unit of input (the tokens of the profiles for
+ * block building, and the input comparisons for the rest of the steps), and a ratio of the comparisons of its output
+ * to a reference number of comparisons (those of token blocking for block building, and the input comparisons for
+ * the rest). Both are learned from the steps of previous runs, which are stored in a local file. Methods that were
+ * never run use rough default costs. The parameters of the methods are not taken into account.
+ */
+public class CostModel {
+    // Default costs of the methods that were never run
+    private final static double BLOCK_BUILDING_SECONDS_PER_TOKEN = 1e-6;
+    private final static double BLOCK_CLEANING_SECONDS_PER_COMPARISON = 1e-8;
+    private final static double BLOCK_CLEANING_RATIO = 0.5;
+    private final static double COMPARISON_CLEANING_SECONDS_PER_COMPARISON = 1e-7;
+    private final static double COMPARISON_CLEANING_RATIO = 0.1;
+    private final static double ENTITY_MATCHING_SECONDS_PER_COMPARISON = 5e-6;
+    private final static double ENTITY_CLUSTERING_SECONDS_PER_COMPARISON = 1e-7;
+
+    // Instances are created for each run (see getDefault), so they share a single lock for reading and updating
+    private static final Object LOCK = new Object();
+
+    private final File file;
+
+    /**
+     * Estimated cost of a workflow step
+     */
+    public static class StepEstimate {
+        private final String step;
+        private final String method;
+        private final double comparisons;
+        private final double seconds;
+        private final boolean observed;
+
+        /**
+         * Step estimate constructor
+         *
+         * @param step        Name of the step
+         * @param method      Name of the step's method
+         * @param comparisons Estimated number of comparisons of the step's output
+         * @param seconds     Estimated running time of the step in seconds
+         * @param observed    True if the estimate is based on previous runs of the method, false if it uses defaults
+         */
+        public StepEstimate(String step, String method, double comparisons, double seconds, boolean observed) {
+            this.step = step;
+            this.method = method;
+            this.comparisons = comparisons;
+            this.seconds = seconds;
+            this.observed = observed;
+        }
+
+        public String getStep() {
+            return step;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public double getComparisons() {
+            return comparisons;
+        }
+
+        public double getSeconds() {
+            return seconds;
+        }
+
+        public boolean isObserved() {
+            return observed;
+        }
+    }
+
+    /**
+     * Cost model constructor
+     *
+     * @param file File that the observations are saved in (created when the first observation is added)
+     */
+    public CostModel(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Get the cost model in the user's home directory
+     *
+     * @return Default cost model
+     */
+    public static CostModel getDefault() {
+        return new CostModel(
+                new File(System.getProperty("user.home"), ".jedai" + File.separator + "cost-model.properties"));
+    }
+
+    /**
+     * Add an observation of a step's running time and output
+     *
+     * @param step      Name of the step (see JedaiOptions)
+     * @param method    Name of the step's method (see JedaiOptions)
+     * @param units     Units of input of the step (tokens for block building, input comparisons otherwise)
+     * @param reference Reference number of comparisons of the step's output (comparisons of token blocking for block
+     *                  building, input comparisons otherwise)
+     * @param output    Number of comparisons of the step's output
+     * @param seconds   Running time of the step in seconds
+     * @throws IOException If the observations cannot be read or written
+     */
+    public void addObservation(String step, String method, double units, double reference, double output,
+                               double seconds) throws IOException {
+        synchronized (LOCK) {
+            // Observations are stored as the sums "seconds;units;output;reference"
+            Properties properties = load();
+            String key = step + "|" + method;
+            double[] sums = getSums(properties, key);
+            if (sums == null) {
+                sums = new double[4];
+            }
+            sums[0] += seconds;
+            sums[1] += units;
+            sums[2] += output;
+            sums[3] += reference;
+            properties.setProperty(key, sums[0] + ";" + sums[1] + ";" + sums[2] + ";" + sums[3]);
+
+            PropertiesFiles.store(file, properties, "JedAI workflow step costs");
+        }
+    }
+
+    /**
+     * Estimate the cost of each step of the blocking-based workflow of the wizard data, and of its automatic
+     * configuration (if any). Schema clustering is not estimated.
+     *
+     * @param model      Wizard data with the workflow's methods
+     * @param statistics Statistics of the dataset(s)
+     * @return Estimate of each step (empty for the other workflows)
+     * @throws IOException If the observations cannot be read
+     */
+    public List<StepEstimate> estimate(WizardData model, DatasetStatistics statistics) throws IOException {
+        List<StepEstimate> estimates = new ArrayList<>();
+        if (!JedaiOptions.WORKFLOW_BLOCKING_BASED.equals(model.getWorkflow())) {
+            return estimates;
+        }
+
+        Properties properties = load();
+        double maxComparisons = statistics.getMaxComparisons();
+
+        // The blocks of all block building methods are used together
+        double comparisons = 0;
+        for (String method : getEnabledMethods(model.getBlockBuildingMethods())) {
+            StepEstimate estimate = estimateStep(properties, JedaiOptions.STEP_LABEL_BLOCK_BUILDING, method,
+                    statistics.getNoOfTokens(), statistics.getTokenBlockingComparisons(),
+                    BLOCK_BUILDING_SECONDS_PER_TOKEN, 1, maxComparisons);
+            estimates.add(estimate);
+            comparisons += estimate.getComparisons();
+        }
+
+        for (String method : getEnabledMethods(model.getBlockCleaningMethods())) {
+            StepEstimate estimate = estimateStep(properties, JedaiOptions.STEP_LABEL_BLOCK_CLEANING, method,
+                    comparisons, comparisons, BLOCK_CLEANING_SECONDS_PER_COMPARISON, BLOCK_CLEANING_RATIO,
+                    maxComparisons);
+            estimates.add(estimate);
+            comparisons = estimate.getComparisons();
+        }
+
+        if (model.getComparisonCleaning() != null && !model.getComparisonCleaning().equals(JedaiOptions.NO_CLEANING)) {
+            StepEstimate estimate = estimateStep(properties, JedaiOptions.STEP_LABEL_COMPARISON_CLEANING,
+                    model.getComparisonCleaning(), comparisons, comparisons,
+                    COMPARISON_CLEANING_SECONDS_PER_COMPARISON, COMPARISON_CLEANING_RATIO, maxComparisons);
+            estimates.add(estimate);
+            comparisons = estimate.getComparisons();
+        }
+
+        // Entity matching executes the comparisons of the blocks (the repeated ones only once), and entity clustering
+        // gets a similarity for each executed comparison
+        StepEstimate matchingEstimate = estimateStep(properties, JedaiOptions.STEP_LABEL_ENTITY_MATCHING,
+                model.getEntityMatching(), comparisons, comparisons, ENTITY_MATCHING_SECONDS_PER_COMPARISON, 1,
+                maxComparisons);
+        estimates.add(matchingEstimate);
+        comparisons = matchingEstimate.getComparisons();
+        estimates.add(estimateStep(properties, JedaiOptions.STEP_LABEL_ENTITY_CLUSTERING, model.getEntityClustering(),
+                comparisons, comparisons, ENTITY_CLUSTERING_SECONDS_PER_COMPARISON, 1, maxComparisons));
+
+        // Each trial of automatic configuration runs (roughly) the whole workflow, on one of the parallel threads
+        if (isAutomaticallyConfigured(model)) {
+            double seconds = 0;
+            boolean observed = true;
+            for (StepEstimate estimate : estimates) {
+                seconds += estimate.getSeconds();
+                observed &= estimate.isObserved();
+            }
+            int trials = model.getAutoConfigTrials();
+            seconds = trials * seconds / Math.max(1, model.getAutoConfigThreads());
+            if (model.getAutoConfigMaxSeconds() > 0) {
+                seconds = Math.min(seconds, model.getAutoConfigMaxSeconds());
+            }
+            estimates.add(new StepEstimate("Automatic Configuration", trials + " trials", trials * comparisons,
+                    seconds, observed));
+        }
+
+        return estimates;
+    }
+
+    /**
+     * Estimate the cost of a step
+     *
+     * @param properties     Stored observations
+     * @param step           Name of the step
+     * @param method         Name of the step's method
+     * @param units          Units of input of the step
+     * @param reference      Reference number of comparisons of the step's output
+     * @param secondsPerUnit Default running time per unit of input
+     * @param ratio          Default ratio of the output comparisons to the reference comparisons
+     * @param maxComparisons Maximum number of comparisons of the output
+     * @return Estimate of the step
+     */
+    private StepEstimate estimateStep(Properties properties, String step, String method, double units,
+                                      double reference, double secondsPerUnit, double ratio, double maxComparisons) {
+        double[] sums = getSums(properties, step + "|" + method);
+        boolean observed = (sums != null && 0 < sums[1] && 0 < sums[3]);
+        if (observed) {
+            secondsPerUnit = sums[0] / sums[1];
+            ratio = sums[2] / sums[3];
+        }
+
+        return new StepEstimate(step, method, Math.min(ratio * reference, maxComparisons), secondsPerUnit * units,
+                observed);
+    }
+
+    /**
+     * Get the stored sums of a step's observations
+     *
+     * @param properties Stored observations
+     * @param key        Key of the step and method
+     * @return Sums of the running times, units, output comparisons and reference comparisons (null if not stored)
+     */
+    private static double[] getSums(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return null;
+        }
+
+        String[] parts = value.split(";");
+        double[] sums = new double[4];
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] = Double.parseDouble(parts[i]);
+        }
+        return sums;
+    }
+
+    /**
+     * Get the names of the enabled methods of a list
+     *
+     * @param methods Method configurations (can be null)
+     * @return Names of the enabled methods
+     */
+    static List<String> getEnabledMethods(List<JedaiMethodConfiguration> methods) {
+        List<String> names = new ArrayList<>();
+        if (methods != null) {
+            for (JedaiMethodConfiguration method : methods) {
+                if (method.isEnabled()) {
+                    names.add(method.getName());
+                }
+            }
+        }
+
+        return names;
+    }
+
+    /**
+     * Check if any method of the workflow is configured automatically
+     *
+     * @param model Wizard data with the workflow's methods
+     * @return True if automatic configuration will run
+     */
+    private static boolean isAutomaticallyConfigured(WizardData model) {
+        List<JedaiMethodConfiguration> methods = new ArrayList<>();
+        if (model.getBlockBuildingMethods() != null) {
+            methods.addAll(model.getBlockBuildingMethods());
+        }
+        if (model.getBlockCleaningMethods() != null) {
+            methods.addAll(model.getBlockCleaningMethods());
+        }
+        for (JedaiMethodConfiguration method : methods) {
+            if (method.isEnabled() && JedaiOptions.AUTOMATIC_CONFIG.equals(method.getConfigurationType())) {
+                return true;
+            }
+        }
+
+        return JedaiOptions.AUTOMATIC_CONFIG.equals(model.getSchemaClusteringConfigType())
+                || JedaiOptions.AUTOMATIC_CONFIG.equals(model.getComparisonCleaningConfigType())
+                || JedaiOptions.AUTOMATIC_CONFIG.equals(model.getEntityMatchingConfigType())
+                || JedaiOptions.AUTOMATIC_CONFIG.equals(model.getEntityClusteringConfigType());
+    }
+
+    /**
+     * Load the stored observations
+     *
+     * @return Stored observations (empty if there are none yet)
+     * @throws IOException If the observations cannot be read
+     */
+    private Properties load() throws IOException {
+        synchronized (LOCK) {
+            return PropertiesFiles.load(file);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package org.scify.jedai.gui.utilities;
 
-import com.google.common.primitives.Ints;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.scify.jedai.datamodel.EntityProfile;
 import org.scify.jedai.datareader.entityreader.*;
@@ -21,13 +20,26 @@ import java.util.Set;
  */
 public class DataReader {
     /**
-     * Get a list of Entity Profiles, using the specified reader type (CSV, Database, RDF or Serialized)
+     * Get a list of Entity Profiles, using the specified reader type (CSV, Database, RDF, Serialized, XML or Binary)
      *
      * @param type       Type of reader. Available readers are specified in JedaiOptions helper class
      * @param parameters Parameters for Entity Reader
      * @return List of read entities
      */
     public static List<EntityProfile> getEntities(String type, List<MutablePair<String, Object>> parameters) {
+        return getEntities(type, parameters, null);
+    }
+
+    /**
+     * Get a list of Entity Profiles, reporting the progress of reading CSV files (which are read in parallel)
+     *
+     * @param type       Type of reader. Available readers are specified in JedaiOptions helper class
+     * @param parameters Parameters for Entity Reader
+     * @param progress   Listener of the reading progress (can be null)
+     * @return List of read entities
+     */
+    public static List<EntityProfile> getEntities(String type, List<MutablePair<String, Object>> parameters,
+                                                  ProgressListener progress) {
         List<EntityProfile> profiles = null;
         IEntityReader eReader = null;
 
@@ -45,11 +57,9 @@ public class DataReader {
                 Set<Integer> indicesToExcludeSet = (Set<Integer>) parameters.get(4).getRight();
 
                 // Initialize the Entity reader
-                EntityCSVReader csvReader = new EntityCSVReader(csvPath);
-                csvReader.setAttributeNamesInFirstRow(attributeNamesInFirstRow);
-                csvReader.setSeparator(separator);
-                csvReader.setIdIndex(idIndex);
-                csvReader.setAttributesToExclude(Ints.toArray(indicesToExcludeSet));
+                ParallelEntityCSVReader csvReader = new ParallelEntityCSVReader(csvPath, attributeNamesInFirstRow,
+                        separator, idIndex, indicesToExcludeSet);
+                csvReader.setProgressListener(progress);
 
                 eReader = csvReader;
                 break;
@@ -100,6 +110,13 @@ public class DataReader {
                         excludedAttributes.toArray(new String[0]));
                 eReader = xmlReader;
                 break;
+            case JedaiOptions.BINARY:
+                // Get parameters
+                String binaryPath = parameters.get(0).getRight().toString();
+
+                // Initialize the Entity reader
+                eReader = new EntityBinaryReader(binaryPath);
+                break;
         }
 
         if (eReader != null) {
@@ -0,0 +1,146 @@
+package org.scify.jedai.gui.utilities;
+
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.scify.jedai.datamodel.EntityProfile;
+import org.scify.jedai.datamodel.IdDuplicates;
+import org.scify.jedai.utilities.datastructures.AbstractDuplicatePropagation;
+import org.scify.jedai.utilities.datastructures.BilateralDuplicatePropagation;
+import org.scify.jedai.utilities.datastructures.UnilateralDuplicatePropagation;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Session-wide cache of the datasets and ground truths that are read with DataReader, so that the validation and
+ * exploration of the data reading step, the cost estimation and the workflow runs share one parsed copy of each file.
+ * The datasets are keyed on their reader type and parameters, and on the size and modification time of their file, so
+ * a file that changed is read again (and its previous copy is removed). The ground truths are also keyed on the
+ * datasets they were read for. The most recently used datasets are kept in memory, up to a memory budget that is set
+ * by the application when it starts: the step cache memory that is selected in the wizard, the one of the configuration
+ * that WorkflowRunner runs, or the dataset cache memory of the JobServer (nothing is cached until the budget is set).
+ * Datasets of databases are not cached, as their changes cannot be detected.
+ */
+public class DatasetCache {
+    private final static StepArtifactCache cache = new StepArtifactCache(0, null);
+
+    // Key of the current version of each file, by its reader type and parameters
+    private final static Map<String, String> fileVersions = new HashMap<>();
+
+    /**
+     * Get a list of Entity Profiles, reading them with DataReader if they are not cached (or their file changed)
+     *
+     * @param type       Type of reader. Available readers are specified in JedaiOptions helper class
+     * @param parameters Parameters for Entity Reader
+     * @return List of read entities (shared, so it should not be modified)
+     * @throws Exception If reading the entities fails
+     */
+    public static List<EntityProfile> getEntities(String type, List<MutablePair<String, Object>> parameters)
+            throws Exception {
+        return getEntities(type, parameters, null);
+    }
+
+    /**
+     * Get a list of Entity Profiles, reporting the progress of reading them if they are not cached
+     *
+     * @param type       Type of reader. Available readers are specified in JedaiOptions helper class
+     * @param parameters Parameters for Entity Reader
+     * @param progress   Listener of the reading progress (can be null)
+     * @return List of read entities (shared, so it should not be modified)
+     * @throws Exception If reading the entities fails
+     */
+    public static List<EntityProfile> getEntities(String type, List<MutablePair<String, Object>> parameters,
+                                                  ProgressListener progress) throws Exception {
+        String key = getKey(type, parameters);
+        if (key == null) {
+            return DataReader.getEntities(type, parameters, progress);
+        }
+
+        return cache.getOutput(key, () -> DataReader.getEntities(type, parameters, progress));
+    }
+
+    /**
+     * Get the ground truth of the given datasets, reading it with DataReader if it is not cached (or its file changed).
+     * A new duplicate propagation is returned on each call, as the performance classes modify it.
+     *
+     * @param type       Type of ground truth file (see JedaiOptions)
+     * @param parameters Parameters for reader
+     * @param erType     Clean-Clean or Dirty ER
+     * @param profilesD1 Entity Profiles for Dataset 1
+     * @param profilesD2 Entity Profiles for Dataset 2
+     * @return Ground truth (duplicate propagation)
+     * @throws Exception If reading the ground truth fails
+     */
+    public static AbstractDuplicatePropagation getGroundTruth(String type, List<MutablePair<String, Object>> parameters,
+                                                              String erType, List<EntityProfile> profilesD1,
+                                                              List<EntityProfile> profilesD2) throws Exception {
+        String key = getKey(type, parameters);
+        if (key == null) {
+            return DataReader.getGroundTruth(type, parameters, erType, profilesD1, profilesD2);
+        }
+
+        // The ids of the duplicates are the indices of the entities in the datasets (which are cached themselves)
+        key += erType + "|" + getListKey(profilesD1) + "|" + getListKey(profilesD2);
+        AbstractDuplicatePropagation dp = cache.getOutput(key,
+                () -> DataReader.getGroundTruth(type, parameters, erType, profilesD1, profilesD2));
+        if (dp == null) {
+            return null;
+        }
+
+        Set<IdDuplicates> duplicates = new HashSet<>(dp.getDuplicates());
+        if (erType.equals(JedaiOptions.DIRTY_ER)) {
+            return new UnilateralDuplicatePropagation(duplicates);
+        } else {
+            return new BilateralDuplicatePropagation(duplicates);
+        }
+    }
+
+    /**
+     * Get the key of a dataset or ground truth, with the current version of its file
+     *
+     * @param type       Type of reader
+     * @param parameters Parameters for reader
+     * @return Key of the reader type, parameters, and size and modification time of the file, or null if the data is
+     * not read from a file (or the file does not exist)
+     */
+    public static String getKey(String type, List<MutablePair<String, Object>> parameters) {
+        if (type == null || type.equals(JedaiOptions.DATABASE) || parameters == null || parameters.isEmpty()
+                || parameters.get(0).getRight() == null) {
+            return null;
+        }
+
+        File file = new File(parameters.get(0).getRight().toString());
+        if (!file.isFile()) {
+            return null;
+        }
+        String parametersKey = type + parameters;
+        String key = parametersKey + "|" + file.length() + "|" + file.lastModified() + "|";
+
+        // Remove the previous version of the file (and the ground truths that were read with it) from the cache
+        synchronized (fileVersions) {
+            String previousKey = fileVersions.put(parametersKey, key);
+            if (previousKey != null && !previousKey.equals(key)) {
+                cache.removeByPrefix(previousKey);
+            }
+        }
+
+        return key;
+    }
+
+    /**
+     * Set the memory budget of the cache, evicting the least recently used data to fit it. The cache is shared by the
+     * whole application, so this is only called by the application itself, not for each workflow.
+     *
+     * @param memory Memory budget in megabytes (0 to not cache)
+     */
+    public static void setMemoryBudget(int memory) {
+        cache.setLimits(memory * 1024L * 1024L, null);
+    }
+
+    private static String getListKey(List<EntityProfile> profiles) {
+        return (profiles == null) ? "-" : System.identityHashCode(profiles) + ":" + profiles.size();
+    }
+}
@@ -0,0 +1,147 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.datamodel.Attribute;
+import org.scify.jedai.datamodel.EntityProfile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Cheap statistics of the dataset(s), for estimating the cost of a workflow before running it. They are computed on a
+ * random sample of the profiles of each dataset: the number of tokens of the profiles, and a sketch of the tokens'
+ * frequencies, from which the number of comparisons of token blocking (one block per token, as in Standard Blocking)
+ * is estimated.
+ */
+public class DatasetStatistics {
+    // Maximum number of profiles of each dataset that the statistics are computed on
+    private final static int SAMPLE_SIZE = 5000;
+
+    private final int noOfProfilesD1;
+    private final int noOfProfilesD2;
+    private final double noOfTokens;
+    private final double tokenBlockingComparisons;
+
+    /**
+     * Dataset statistics constructor
+     *
+     * @param noOfProfilesD1           Number of profiles of the 1st dataset
+     * @param noOfProfilesD2           Number of profiles of the 2nd dataset (0 for Dirty ER)
+     * @param noOfTokens               Estimated number of tokens of all profiles
+     * @param tokenBlockingComparisons Estimated number of comparisons of token blocking
+     */
+    public DatasetStatistics(int noOfProfilesD1, int noOfProfilesD2, double noOfTokens,
+                             double tokenBlockingComparisons) {
+        this.noOfProfilesD1 = noOfProfilesD1;
+        this.noOfProfilesD2 = noOfProfilesD2;
+        this.noOfTokens = noOfTokens;
+        this.tokenBlockingComparisons = tokenBlockingComparisons;
+    }
+
+    /**
+     * Compute the statistics of the dataset(s)
+     *
+     * @param profilesD1 Entity profiles of the 1st dataset
+     * @param profilesD2 Entity profiles of the 2nd dataset (null for Dirty ER)
+     * @return Statistics of the dataset(s)
+     */
+    public static DatasetStatistics compute(List<EntityProfile> profilesD1, List<EntityProfile> profilesD2) {
+        Random random = new Random(SAMPLE_SIZE);
+
+        // Count the frequency of each token in the sample of each dataset (the number of profiles that contain it)
+        Map<String, int[]> tokenFrequencies = new HashMap<>();
+        double fractionD1 = addTokenFrequencies(tokenFrequencies, profilesD1, 0, random);
+        double fractionD2 = (profilesD2 != null) ? addTokenFrequencies(tokenFrequencies, profilesD2, 1, random) : 0;
+
+        // Estimate the number of comparisons of each token's block on all profiles. The number of pairs of sampled
+        // profiles that contain a token is that of all profiles times the probability that both are sampled.
+        double noOfTokens = 0;
+        double comparisons = 0;
+        for (int[] frequencies : tokenFrequencies.values()) {
+            noOfTokens += frequencies[0] / fractionD1;
+            if (profilesD2 == null) {
+                comparisons += frequencies[0] * (frequencies[0] - 1.0) / (2 * fractionD1 * fractionD1);
+            } else {
+                noOfTokens += frequencies[1] / fractionD2;
+                comparisons += frequencies[0] * (double) frequencies[1] / (fractionD1 * fractionD2);
+            }
+        }
+
+        return new DatasetStatistics(profilesD1.size(), (profilesD2 != null) ? profilesD2.size() : 0, noOfTokens,
+                comparisons);
+    }
+
+    /**
+     * Add the token frequencies of a random sample of a dataset's profiles to the frequencies of the tokens
+     *
+     * @param tokenFrequencies Frequency of each token in the sample of each dataset
+     * @param profiles         Entity profiles of the dataset
+     * @param dataset          Index of the dataset (0 or 1)
+     * @param random           Random generator to sample with
+     * @return Fraction of the profiles that were sampled
+     */
+    private static double addTokenFrequencies(Map<String, int[]> tokenFrequencies, List<EntityProfile> profiles,
+                                              int dataset, Random random) {
+        if (profiles.isEmpty()) {
+            return 1;
+        }
+
+        List<EntityProfile> sample = profiles;
+        if (SAMPLE_SIZE < profiles.size()) {
+            sample = new ArrayList<>(profiles);
+            Collections.shuffle(sample, random);
+            sample = sample.subList(0, SAMPLE_SIZE);
+        }
+
+        for (EntityProfile profile : sample) {
+            // Each token counts once per profile, as in the blocks of token blocking
+            Set<String> tokens = new HashSet<>();
+            for (Attribute attribute : profile.getAttributes()) {
+                for (String token : attribute.getValue().toLowerCase().split("[\\W_]")) {
+                    if (!token.isEmpty()) {
+                        tokens.add(token);
+                    }
+                }
+            }
+            for (String token : tokens) {
+                tokenFrequencies.computeIfAbsent(token, t -> new int[2])[dataset]++;
+            }
+        }
+
+        return sample.size() / (double) profiles.size();
+    }
+
+    /**
+     * Get the maximum number of comparisons, i.e. those of comparing every profile with every other one
+     *
+     * @return Number of comparisons of the brute-force approach
+     */
+    public double getMaxComparisons() {
+        if (noOfProfilesD2 == 0) {
+            return noOfProfilesD1 * (noOfProfilesD1 - 1.0) / 2;
+        }
+
+        return ((double) noOfProfilesD1) * noOfProfilesD2;
+    }
+
+    public int getNoOfProfilesD1() {
+        return noOfProfilesD1;
+    }
+
+    public int getNoOfProfilesD2() {
+        return noOfProfilesD2;
+    }
+
+    public double getNoOfTokens() {
+        return noOfTokens;
+    }
+
+    public double getTokenBlockingComparisons() {
+        return tokenBlockingComparisons;
+    }
+}
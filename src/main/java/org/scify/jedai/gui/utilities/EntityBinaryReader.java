@@ -0,0 +1,243 @@
+package org.scify.jedai.gui.utilities;
+
+import org.apache.jena.atlas.json.JsonArray;
+import org.apache.jena.atlas.json.JsonObject;
+import org.scify.jedai.datamodel.EntityProfile;
+import org.scify.jedai.datareader.entityreader.AbstractEntityReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Entity reader of the binary files of BinaryProfileWriter. The file is memory-mapped (in regions of up to 1 GB, which
+ * contain whole blocks), so only the pages of the blocks are read from the disk, and the blocks are decoded in
+ * parallel into the entity profiles.
+ */
+public class EntityBinaryReader extends AbstractEntityReader {
+    private final static long MAX_REGION_SIZE = 1L << 30;
+
+    public EntityBinaryReader(String filePath) {
+        super(filePath);
+    }
+
+    @Override
+    public List<EntityProfile> getEntityProfiles() {
+        if (!entityProfiles.isEmpty()) {
+            return entityProfiles;
+        }
+
+        try {
+            readProfiles();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read binary profiles file " + inputFilePath, e);
+        }
+        return entityProfiles;
+    }
+
+    /**
+     * Map the blocks of the file and decode their profiles
+     *
+     * @throws IOException If the file cannot be read, or is not a binary profiles file
+     */
+    private void readProfiles() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(inputFilePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < BinaryProfileWriter.HEADER_SIZE) {
+                throw new IOException("Not a binary profiles file");
+            }
+
+            // Header
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BinaryProfileWriter.HEADER_SIZE);
+            if (header.getInt() != BinaryProfileWriter.MAGIC || header.getInt() != BinaryProfileWriter.VERSION) {
+                throw new IOException("Not a binary profiles file (or an unknown version)");
+            }
+            boolean compressed = (header.get() & BinaryProfileWriter.FLAG_COMPRESSED) != 0;
+            int noOfProfiles = header.getInt();
+            int noOfBlocks = header.getInt();
+            long dictionaryOffset = header.getLong();
+            long blockTableOffset = header.getLong();
+            if (dictionaryOffset > blockTableOffset || blockTableOffset + 16L * noOfBlocks > fileSize) {
+                throw new IOException("Truncated binary profiles file");
+            }
+
+            // Dictionary of the attribute names
+            ByteBuffer dictionary = channel.map(FileChannel.MapMode.READ_ONLY, dictionaryOffset,
+                    blockTableOffset - dictionaryOffset);
+            String[] names = new String[dictionary.getInt()];
+            for (int i = 0; i < names.length; i++) {
+                byte[] bytes = new byte[dictionary.getInt()];
+                dictionary.get(bytes);
+                names[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            // Map the blocks, in regions that contain whole blocks
+            ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, blockTableOffset, 16L * noOfBlocks);
+            List<ByteBuffer> blocks = new ArrayList<>(noOfBlocks);
+            int[] rawLengths = new int[noOfBlocks];
+            MappedByteBuffer region = null;
+            long regionStart = 0;
+            for (int i = 0; i < noOfBlocks; i++) {
+                long offset = table.getLong();
+                int storedLength = table.getInt();
+                rawLengths[i] = table.getInt();
+
+                if (region == null || regionStart + region.capacity() < offset + storedLength) {
+                    regionStart = offset;
+                    region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart,
+                            Math.max(storedLength, Math.min(MAX_REGION_SIZE, dictionaryOffset - regionStart)));
+                }
+                ByteBuffer block = region.duplicate();
+                block.position((int) (offset - regionStart));
+                block.limit((int) (offset - regionStart) + storedLength);
+                blocks.add(block.slice());
+            }
+
+            // Decode the blocks in parallel, keeping the order of the profiles
+            List<List<EntityProfile>> decodedBlocks = IntStream.range(0, noOfBlocks).parallel()
+                    .mapToObj(i -> decodeBlock(blocks.get(i), rawLengths[i], compressed, names))
+                    .collect(Collectors.toList());
+            for (List<EntityProfile> decodedBlock : decodedBlocks) {
+                entityProfiles.addAll(decodedBlock);
+            }
+
+            if (entityProfiles.size() != noOfProfiles) {
+                throw new IOException("Expected " + noOfProfiles + " profiles, but read " + entityProfiles.size());
+            }
+        }
+    }
+
+    /**
+     * Decode the profiles of a block
+     *
+     * @param stored     Stored block
+     * @param rawLength  Length of the uncompressed block
+     * @param compressed True if the block is compressed
+     * @param names      Attribute names of the file
+     * @return Profiles of the block
+     */
+    private static List<EntityProfile> decodeBlock(ByteBuffer stored, int rawLength, boolean compressed,
+                                                   String[] names) {
+        ByteBuffer raw = compressed ? inflate(stored, rawLength) : stored;
+
+        int noOfProfiles = raw.getInt();
+        int noOfAttributes = raw.getInt();
+        int[] attributeStarts = new int[noOfProfiles + 1];
+        int[] nameIds = new int[noOfAttributes];
+        int[] urlOffsets = new int[noOfProfiles + 1];
+        int[] valueOffsets = new int[noOfAttributes + 1];
+        IntBuffer columns = raw.asIntBuffer();
+        columns.get(attributeStarts).get(nameIds).get(urlOffsets).get(valueOffsets);
+        raw.position(raw.position() + 4 * columns.position());
+
+        byte[] urls = new byte[urlOffsets[noOfProfiles]];
+        byte[] values = new byte[valueOffsets[noOfAttributes]];
+        raw.get(urls).get(values);
+
+        List<EntityProfile> profiles = new ArrayList<>(noOfProfiles);
+        for (int i = 0; i < noOfProfiles; i++) {
+            EntityProfile profile = new EntityProfile(new String(urls, urlOffsets[i],
+                    urlOffsets[i + 1] - urlOffsets[i], StandardCharsets.UTF_8));
+            for (int j = attributeStarts[i]; j < attributeStarts[i + 1]; j++) {
+                profile.addAttribute(names[nameIds[j]], new String(values, valueOffsets[j],
+                        valueOffsets[j + 1] - valueOffsets[j], StandardCharsets.UTF_8));
+            }
+            profiles.add(profile);
+        }
+
+        return profiles;
+    }
+
+    private static ByteBuffer inflate(ByteBuffer stored, int rawLength) {
+        byte[] input = new byte[stored.remaining()];
+        stored.get(input);
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            byte[] output = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(output, length, rawLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength) {
+                throw new IllegalStateException("Truncated compressed block");
+            }
+            return ByteBuffer.wrap(output);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted compressed block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public String getMethodConfiguration() {
+        return getParameterName(0) + "=" + inputFilePath;
+    }
+
+    @Override
+    public String getMethodInfo() {
+        return getMethodName() + ": it memory-maps a binary file of entity profiles (converted with the Data Reading "
+                + "step or BinaryProfileWriter) and decodes them into main memory.";
+    }
+
+    @Override
+    public String getMethodName() {
+        return "Binary Profiles Reader";
+    }
+
+    @Override
+    public String getMethodParameters() {
+        return getMethodName() + " involves a single parameter:\n1)" + getParameterDescription(0) + ".";
+    }
+
+    @Override
+    public JsonArray getParameterConfiguration() {
+        JsonObject obj = new JsonObject();
+        obj.put("class", "java.lang.String");
+        obj.put("name", getParameterName(0));
+        obj.put("defaultValue", "-");
+        obj.put("minValue", "-");
+        obj.put("maxValue", "-");
+        obj.put("stepValue", "-");
+        obj.put("description", getParameterDescription(0));
+
+        JsonArray array = new JsonArray();
+        array.add(obj);
+        return array;
+    }
+
+    @Override
+    public String getParameterDescription(int parameterId) {
+        if (parameterId == 0) {
+            return "The " + getParameterName(0) + " determines the absolute path to the binary profiles file that "
+                    + "will be read into main memory.";
+        }
+        return "invalid parameter id";
+    }
+
+    @Override
+    public String getParameterName(int parameterId) {
+        if (parameterId == 0) {
+            return "File Path";
+        }
+        return "invalid parameter id";
+    }
+}
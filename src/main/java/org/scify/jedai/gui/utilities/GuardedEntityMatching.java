@@ -0,0 +1,300 @@
+package org.scify.jedai.gui.utilities;
+
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.apache.jena.atlas.json.JsonArray;
+import org.scify.jedai.datamodel.AbstractBlock;
+import org.scify.jedai.datamodel.Comparison;
+import org.scify.jedai.datamodel.EntityProfile;
+import org.scify.jedai.datamodel.SimilarityPairs;
+import org.scify.jedai.entitymatching.IEntityMatching;
+import org.scify.jedai.utilities.enumerations.RepresentationModel;
+import org.scify.jedai.utilities.enumerations.SimilarityMetric;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Entity matching method that guards the global state of its text models with the TextModelLock, so that matchers
+ * used by concurrent trials, steps or jobs do not overwrite each other's document frequencies or graph comparator.
+ * The global values of the TF-IDF models are determined by the profiles and the representation model, so matchers
+ * that share them compare concurrently. A matcher whose global values have been overwritten by another one is
+ * constructed again before comparing, which builds them again.
+ */
+public class GuardedEntityMatching implements IEntityMatching {
+    // Models whose similarity reads the global document frequencies, which may be read concurrently
+    private static final EnumSet<RepresentationModel> GLOBAL_WEIGHT_MODELS = EnumSet.of(
+            RepresentationModel.CHARACTER_BIGRAMS_TF_IDF, RepresentationModel.CHARACTER_TRIGRAMS_TF_IDF,
+            RepresentationModel.CHARACTER_FOURGRAMS_TF_IDF, RepresentationModel.TOKEN_UNIGRAMS_TF_IDF,
+            RepresentationModel.TOKEN_BIGRAMS_TF_IDF, RepresentationModel.TOKEN_TRIGRAMS_TF_IDF);
+    // Models whose similarity only reads the models themselves
+    private static final EnumSet<RepresentationModel> LOCAL_MODELS = EnumSet.of(
+            RepresentationModel.CHARACTER_BIGRAMS, RepresentationModel.CHARACTER_TRIGRAMS,
+            RepresentationModel.CHARACTER_FOURGRAMS, RepresentationModel.TOKEN_UNIGRAMS,
+            RepresentationModel.TOKEN_BIGRAMS, RepresentationModel.TOKEN_TRIGRAMS);
+    // Models whose similarity only uses the graph comparator
+    private static final EnumSet<RepresentationModel> GRAPH_MODELS = EnumSet.of(
+            RepresentationModel.CHARACTER_BIGRAM_GRAPHS, RepresentationModel.CHARACTER_TRIGRAM_GRAPHS,
+            RepresentationModel.CHARACTER_FOURGRAM_GRAPHS, RepresentationModel.TOKEN_UNIGRAM_GRAPHS,
+            RepresentationModel.TOKEN_BIGRAM_GRAPHS, RepresentationModel.TOKEN_TRIGRAM_GRAPHS);
+
+    private final static String REPRESENTATION_MODEL = "Representation Model";
+    private final static String SIMILARITY_MEASURE = "Similarity Measure";
+    private final static String SIMILARITY_THRESHOLD = "Similarity Threshold";
+
+    private final String methodName;
+    private final List<EntityProfile> profilesD1;
+    private final List<EntityProfile> profilesD2;
+    // Method that holds the configuration, including the random configurations it has drawn
+    private final IEntityMatching configuredMethod;
+    // Method that compares: the configured method, or a copy constructed again with its configuration
+    private volatile IEntityMatching comparingMethod;
+    private volatile RepresentationModel representationModel;
+    private volatile GlobalValuesKey key;
+
+    private GuardedEntityMatching(String methodName, List<EntityProfile> profilesD1, List<EntityProfile> profilesD2,
+                                  IEntityMatching configuredMethod) {
+        this.methodName = methodName;
+        this.profilesD1 = profilesD1;
+        this.profilesD2 = profilesD2;
+        this.configuredMethod = configuredMethod;
+        this.comparingMethod = configuredMethod;
+        this.representationModel = getRepresentationModel(configuredMethod);
+        this.key = new GlobalValuesKey(representationModel, profilesD1, profilesD2);
+    }
+
+    /**
+     * Create an entity matching method (which builds its models) while no other section uses the text models.
+     *
+     * @param methodName Name of the entity matching method
+     * @param profilesD1 Entity profiles for 1st dataset
+     * @param profilesD2 Entity profiles for 2nd dataset (used for Clean-Clean ER, can be null)
+     * @param parameters Parameters of the method, or null for its default parameters
+     * @return Guarded entity matching method
+     */
+    public static GuardedEntityMatching create(String methodName, List<EntityProfile> profilesD1,
+                                               List<EntityProfile> profilesD2,
+                                               List<MutablePair<String, Object>> parameters) {
+        return TextModelLock.runExclusively(() -> new GuardedEntityMatching(methodName, profilesD1, profilesD2,
+                DynamicMethodConfiguration.configureEntityMatchingMethod(methodName, profilesD1, profilesD2,
+                        parameters)), guarded -> guarded.key);
+    }
+
+    /**
+     * Check if the given entity matching method can compare from several threads at once, which is not the case for
+     * the graph models (their similarity modifies a global comparator) or for unguarded methods.
+     *
+     * @param entityMatching Entity matching method
+     * @return True if its executeComparisons may be called concurrently
+     */
+    public static boolean supportsConcurrentComparisons(IEntityMatching entityMatching) {
+        if (!(entityMatching instanceof GuardedEntityMatching)) {
+            return false;
+        }
+
+        RepresentationModel representationModel = ((GuardedEntityMatching) entityMatching).representationModel;
+        return LOCAL_MODELS.contains(representationModel) || GLOBAL_WEIGHT_MODELS.contains(representationModel);
+    }
+
+    @Override
+    public float executeComparison(Comparison comparison) {
+        return compare(() -> comparingMethod.executeComparison(comparison));
+    }
+
+    @Override
+    public SimilarityPairs executeComparisons(List<AbstractBlock> blocks) {
+        return compare(() -> comparingMethod.executeComparisons(blocks));
+    }
+
+    @Override
+    public int getNumberOfGridConfigurations() {
+        return configuredMethod.getNumberOfGridConfigurations();
+    }
+
+    @Override
+    public void setNextRandomConfiguration() {
+        configure(configuredMethod::setNextRandomConfiguration);
+    }
+
+    @Override
+    public void setNumberedGridConfiguration(int iterationNumber) {
+        configure(() -> configuredMethod.setNumberedGridConfiguration(iterationNumber));
+    }
+
+    @Override
+    public void setNumberedRandomConfiguration(int iterationNumber) {
+        configure(() -> configuredMethod.setNumberedRandomConfiguration(iterationNumber));
+    }
+
+    @Override
+    public String getMethodConfiguration() {
+        return configuredMethod.getMethodConfiguration();
+    }
+
+    @Override
+    public String getMethodInfo() {
+        return configuredMethod.getMethodInfo();
+    }
+
+    @Override
+    public String getMethodName() {
+        return configuredMethod.getMethodName();
+    }
+
+    @Override
+    public String getMethodParameters() {
+        return configuredMethod.getMethodParameters();
+    }
+
+    @Override
+    public JsonArray getParameterConfiguration() {
+        return configuredMethod.getParameterConfiguration();
+    }
+
+    @Override
+    public String getParameterDescription(int parameterId) {
+        return configuredMethod.getParameterDescription(parameterId);
+    }
+
+    @Override
+    public String getParameterName(int parameterId) {
+        return configuredMethod.getParameterName(parameterId);
+    }
+
+    /**
+     * Get the method that currently compares, which is constructed again when its global values are overwritten
+     *
+     * @return Comparing method
+     */
+    IEntityMatching getComparingMethod() {
+        return comparingMethod;
+    }
+
+    /**
+     * Change the configuration of the method, which builds its models again, while no other section uses the text
+     * models.
+     *
+     * @param configuration Changes the configuration
+     */
+    private void configure(Runnable configuration) {
+        TextModelLock.runExclusively(() -> {
+            configuration.run();
+            representationModel = getRepresentationModel(configuredMethod);
+            key = new GlobalValuesKey(representationModel, profilesD1, profilesD2);
+            comparingMethod = configuredMethod;
+            return key;
+        }, newKey -> newKey);
+    }
+
+    /**
+     * Run a comparison with the lock its representation model needs, constructing the comparing method again first
+     * if its global values have been overwritten.
+     *
+     * @param comparison Comparison to run
+     * @param <T>        Type of the comparison's result
+     * @return Result of the comparison
+     */
+    private <T> T compare(Supplier<T> comparison) {
+        if (LOCAL_MODELS.contains(representationModel)) {
+            return comparison.get();
+        }
+
+        if (GRAPH_MODELS.contains(representationModel)) {
+            // Graph similarity does not read the global values, but keeps its state in the shared comparator
+            return TextModelLock.runWithGraphComparator(comparison);
+        }
+
+        Runnable rebuild = () -> comparingMethod = constructAgain();
+        if (GLOBAL_WEIGHT_MODELS.contains(representationModel)) {
+            // Global weights are only read while comparing, so share them with other comparisons
+            return TextModelLock.runWithGlobalValues(key, rebuild, comparison);
+        }
+
+        // Any other model also compares one at a time
+        return TextModelLock.runWithGlobalValues(key, rebuild,
+                () -> TextModelLock.runWithGraphComparator(comparison));
+    }
+
+    /**
+     * Construct the method again with its current configuration, which builds its models and their global values.
+     *
+     * @return New method with the same configuration
+     */
+    private IEntityMatching constructAgain() {
+        List<MutablePair<String, Object>> parameters = new ArrayList<>();
+        parameters.add(new MutablePair<>(REPRESENTATION_MODEL, representationModel));
+        parameters.add(new MutablePair<>(SIMILARITY_MEASURE, SimilarityMetric.valueOf(
+                getParameterValue(configuredMethod, SIMILARITY_MEASURE))));
+        if (methodName.equals(JedaiOptions.GROUP_LINKAGE)) {
+            parameters.add(new MutablePair<>(SIMILARITY_THRESHOLD, Float.parseFloat(
+                    getParameterValue(configuredMethod, SIMILARITY_THRESHOLD))));
+        }
+
+        return DynamicMethodConfiguration.configureEntityMatchingMethod(methodName, profilesD1, profilesD2,
+                parameters);
+    }
+
+    /**
+     * Get the representation model of an entity matching method from its configuration
+     *
+     * @param method Entity matching method
+     * @return Its representation model
+     */
+    private static RepresentationModel getRepresentationModel(IEntityMatching method) {
+        return RepresentationModel.valueOf(getParameterValue(method, REPRESENTATION_MODEL));
+    }
+
+    /**
+     * Get the value of a parameter from the configuration of an entity matching method
+     *
+     * @param method        Entity matching method
+     * @param parameterName Name of the parameter
+     * @return Value of the parameter
+     */
+    private static String getParameterValue(IEntityMatching method, String parameterName) {
+        for (String parameter : method.getMethodConfiguration().split("[,\t]")) {
+            String[] nameAndValue = parameter.trim().split("=", 2);
+            if (nameAndValue.length == 2 && nameAndValue[0].equals(parameterName)) {
+                return nameAndValue[1];
+            }
+        }
+
+        throw new IllegalStateException("No " + parameterName + " in the configuration of " + method.getMethodName());
+    }
+
+    /**
+     * Key of the global values of the text models, which are determined by the profiles they were built from and by
+     * the representation model.
+     */
+    private static class GlobalValuesKey {
+        private final RepresentationModel representationModel;
+        private final List<EntityProfile> profilesD1;
+        private final List<EntityProfile> profilesD2;
+
+        GlobalValuesKey(RepresentationModel representationModel, List<EntityProfile> profilesD1,
+                        List<EntityProfile> profilesD2) {
+            this.representationModel = representationModel;
+            this.profilesD1 = profilesD1;
+            this.profilesD2 = profilesD2;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof GlobalValuesKey)) {
+                return false;
+            }
+
+            // The profiles are compared by identity, as the lists are shared by the trials of a workflow
+            GlobalValuesKey other = (GlobalValuesKey) o;
+            return representationModel == other.representationModel && profilesD1 == other.profilesD1
+                    && profilesD2 == other.profilesD2;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * representationModel.hashCode() + System.identityHashCode(profilesD1))
+                    + System.identityHashCode(profilesD2);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.datamodel.Comparison;
+import org.scify.jedai.datamodel.EquivalenceCluster;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental version of Connected Components Clustering, which keeps the clusters in a union-find structure and adds
+ * each new comparison to them in (almost) constant time, instead of re-clustering the whole similarity graph. Produces
+ * the same clusters as JedAI's ConnectedComponentsClustering on the same comparisons.
+ */
+public class IncrementalClustering {
+    private final boolean isCleanCleanEr;
+    private final int datasetLimit;
+    private final float threshold;
+
+    // Union-find structure (entities of the 2nd dataset start at datasetLimit)
+    private final int[] parent;
+    private final int[] size;
+    private final int[] sizeD1;
+
+    // Members of each cluster, as a linked list that starts at the cluster's root
+    private final int[] nextMember;
+    private final int[] lastMember;
+
+    private MergeListener mergeListener;
+
+    private int maxEntityId1 = -1;
+    private int maxEntityId2 = -1;
+    private int noOfComparisons = 0;
+
+    /**
+     * Incremental clustering constructor
+     *
+     * @param isCleanCleanEr True if Clean-Clean ER is used, false for Dirty ER
+     * @param noOfEntitiesD1 Number of entity profiles in the 1st dataset
+     * @param noOfEntitiesD2 Number of entity profiles in the 2nd dataset (ignored for Dirty ER)
+     * @param threshold      Similarity threshold. Only comparisons with a higher similarity connect two entities.
+     */
+    public IncrementalClustering(boolean isCleanCleanEr, int noOfEntitiesD1, int noOfEntitiesD2, float threshold) {
+        this.isCleanCleanEr = isCleanCleanEr;
+        this.datasetLimit = isCleanCleanEr ? noOfEntitiesD1 : 0;
+        this.threshold = threshold;
+
+        int noOfEntities = isCleanCleanEr ? noOfEntitiesD1 + noOfEntitiesD2 : noOfEntitiesD1;
+        this.parent = new int[noOfEntities];
+        this.size = new int[noOfEntities];
+        this.sizeD1 = new int[noOfEntities];
+        this.nextMember = new int[noOfEntities];
+        this.lastMember = new int[noOfEntities];
+        for (int i = 0; i < noOfEntities; i++) {
+            parent[i] = i;
+            size[i] = 1;
+            sizeD1[i] = (i < datasetLimit || !isCleanCleanEr) ? 1 : 0;
+            nextMember[i] = -1;
+            lastMember[i] = i;
+        }
+    }
+
+    /**
+     * Listener that is notified each time two clusters are about to be merged
+     */
+    public interface MergeListener {
+        /**
+         * Called before merging two clusters, while both roots are still valid
+         *
+         * @param root1 Root of the 1st cluster
+         * @param root2 Root of the 2nd cluster
+         */
+        void beforeMerge(int root1, int root2);
+    }
+
+    /**
+     * Set the listener to notify about cluster merges
+     *
+     * @param mergeListener Merge listener (null to remove it)
+     */
+    public void setMergeListener(MergeListener mergeListener) {
+        this.mergeListener = mergeListener;
+    }
+
+    /**
+     * Check if an entity clustering method can be executed incrementally
+     *
+     * @param methodName Name of the entity clustering method (see JedaiOptions)
+     * @return True if the method is supported by this class
+     */
+    public static boolean isSupported(String methodName) {
+        return JedaiOptions.CONNECTED_COMPONENTS_CLUSTERING.equals(methodName);
+    }
+
+    /**
+     * Add a compared pair of entities to the clusters.
+     *
+     * @param comparison Comparison, with its similarity set as its utility measure
+     * @return True if the comparison merged two clusters, false if the clusters did not change
+     */
+    public boolean addComparison(Comparison comparison) {
+        return addComparison(comparison.getEntityId1(), comparison.getEntityId2(), comparison.getUtilityMeasure());
+    }
+
+    /**
+     * Add a compared pair of entities to the clusters.
+     *
+     * @param entityId1  ID of the 1st entity
+     * @param entityId2  ID of the 2nd entity (in the 2nd dataset, for Clean-Clean ER)
+     * @param similarity Similarity of the entities
+     * @return True if the comparison merged two clusters, false if the clusters did not change
+     */
+    public boolean addComparison(int entityId1, int entityId2, float similarity) {
+        noOfComparisons++;
+
+        // Keep the max. entity IDs, as JedAI only creates clusters up to the max. compared entity ID
+        maxEntityId1 = Math.max(maxEntityId1, entityId1);
+        maxEntityId2 = Math.max(maxEntityId2, entityId2);
+
+        if (similarity <= threshold) {
+            return false;
+        }
+
+        return union(entityId1, entityId2 + datasetLimit);
+    }
+
+    public boolean isCleanCleanEr() {
+        return isCleanCleanEr;
+    }
+
+    /**
+     * Get the number of entities of the 1st dataset, which is the node of the 1st entity of the 2nd dataset (0 for
+     * Dirty ER).
+     *
+     * @return Dataset limit
+     */
+    public int getDatasetLimit() {
+        return datasetLimit;
+    }
+
+    /**
+     * Get the number of nodes (entities of both datasets) of the clustering
+     *
+     * @return Number of nodes
+     */
+    public int getNoOfNodes() {
+        return parent.length;
+    }
+
+    /**
+     * Get the number of entities in a cluster
+     *
+     * @param root Root of the cluster
+     * @return Size of the cluster
+     */
+    public int getClusterSize(int root) {
+        return size[root];
+    }
+
+    /**
+     * Get the number of entities of the 1st dataset in a cluster (equal to the cluster's size for Dirty ER)
+     *
+     * @param root Root of the cluster
+     * @return Number of entities of the 1st dataset
+     */
+    public int getClusterSizeD1(int root) {
+        return sizeD1[root];
+    }
+
+    /**
+     * Get the next member of a cluster. Starting from the cluster's root, this iterates over all of its members.
+     *
+     * @param node Current member of the cluster
+     * @return Next member of the cluster, or -1 if there are no more members
+     */
+    public int getNextMember(int node) {
+        return nextMember[node];
+    }
+
+    /**
+     * Find the root (cluster representative) of an entity, halving the path to it along the way.
+     *
+     * @param node Entity (for the 2nd dataset, its ID plus the number of entities of the 1st dataset)
+     * @return Root of the entity's cluster
+     */
+    public int find(int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+
+        return node;
+    }
+
+    /**
+     * Merge the clusters of two entities, attaching the smaller cluster to the larger one.
+     *
+     * @param node1 1st entity
+     * @param node2 2nd entity
+     * @return True if the entities were in different clusters
+     */
+    private boolean union(int node1, int node2) {
+        int root1 = find(node1);
+        int root2 = find(node2);
+
+        if (root1 == root2) {
+            return false;
+        }
+
+        if (size[root1] < size[root2]) {
+            int temp = root1;
+            root1 = root2;
+            root2 = temp;
+        }
+
+        if (mergeListener != null) {
+            mergeListener.beforeMerge(root1, root2);
+        }
+
+        parent[root2] = root1;
+        size[root1] += size[root2];
+        sizeD1[root1] += sizeD1[root2];
+
+        // Append the members of the 2nd cluster to the members of the 1st
+        nextMember[lastMember[root1]] = root2;
+        lastMember[root1] = lastMember[root2];
+
+        return true;
+    }
+
+    /**
+     * Create the equivalence clusters for the comparisons added so far.
+     *
+     * @return Equivalence clusters
+     */
+    public EquivalenceCluster[] getDuplicates() {
+        if (noOfComparisons == 0) {
+            return new EquivalenceCluster[0];
+        }
+
+        // Map each root to the index of its cluster
+        int[] clusterIndex = new int[parent.length];
+        for (int i = 0; i < clusterIndex.length; i++) {
+            clusterIndex[i] = -1;
+        }
+        List<EquivalenceCluster> clusters = new ArrayList<>();
+
+        if (isCleanCleanEr) {
+            for (int id = 0; id <= maxEntityId1; id++) {
+                getCluster(id, clusterIndex, clusters).addEntityIdD1(id);
+            }
+            for (int id = 0; id <= maxEntityId2; id++) {
+                getCluster(id + datasetLimit, clusterIndex, clusters).addEntityIdD2(id);
+            }
+        } else {
+            int maxEntityId = Math.max(maxEntityId1, maxEntityId2);
+            for (int id = 0; id <= maxEntityId; id++) {
+                getCluster(id, clusterIndex, clusters).addEntityIdD1(id);
+            }
+        }
+
+        return clusters.toArray(new EquivalenceCluster[0]);
+    }
+
+    /**
+     * Get the equivalence cluster of an entity, creating it if this is the first entity of the cluster
+     *
+     * @param node         Entity
+     * @param clusterIndex Cluster index of each root (-1 for roots without a cluster yet)
+     * @param clusters     List of the clusters created so far
+     * @return Equivalence cluster of the entity
+     */
+    private EquivalenceCluster getCluster(int node, int[] clusterIndex, List<EquivalenceCluster> clusters) {
+        int root = find(node);
+
+        if (clusterIndex[root] == -1) {
+            clusterIndex[root] = clusters.size();
+            clusters.add(new EquivalenceCluster());
+        }
+
+        return clusters.get(clusterIndex[root]);
+    }
+}
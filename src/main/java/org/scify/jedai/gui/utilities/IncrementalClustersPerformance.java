@@ -0,0 +1,180 @@
+package org.scify.jedai.gui.utilities;
+
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.scify.jedai.datamodel.IdDuplicates;
+import org.scify.jedai.utilities.datastructures.AbstractDuplicatePropagation;
+
+/**
+ * Keeps the recall, precision and F-Measure of an incremental clustering up to date as its clusters are merged, without
+ * re-evaluating all clusters with ClustersPerformance after each merge. The ground truth is read once into primitive
+ * indices. Gives the same results as ClustersPerformance for the clusters of the IncrementalClustering.
+ */
+public class IncrementalClustersPerformance implements IncrementalClustering.MergeListener {
+    private final IncrementalClustering clustering;
+    private final int existingDuplicates;
+
+    // Ground truth pairs, as keys of their (ordered) nodes in the clustering
+    private final TLongSet duplicatePairs;
+
+    // Ground truth partners of each node (Dirty ER only), in compressed sparse row format
+    private int[] partnerOffsets;
+    private int[] partners;
+
+    private long detectedDuplicates = 0;
+    private long totalMatches = 0;
+
+    /**
+     * Incremental clusters performance constructor. Registers itself as the merge listener of the clustering, which
+     * should not contain any merged clusters yet.
+     *
+     * @param clustering           Incremental clustering to evaluate
+     * @param duplicatePropagation Duplicate propagation with the ground truth
+     */
+    public IncrementalClustersPerformance(IncrementalClustering clustering,
+                                          AbstractDuplicatePropagation duplicatePropagation) {
+        this.clustering = clustering;
+        this.existingDuplicates = duplicatePropagation.getExistingDuplicates();
+
+        int noOfNodes = clustering.getNoOfNodes();
+        int datasetLimit = clustering.getDatasetLimit();
+
+        // Index the ground truth pairs (Dirty ER pairs are stored once, regardless of their order)
+        duplicatePairs = new TLongHashSet(duplicatePropagation.getDuplicates().size());
+        for (IdDuplicates pair : duplicatePropagation.getDuplicates()) {
+            int node1 = pair.getEntityId1();
+            int node2 = pair.getEntityId2() + datasetLimit;
+
+            if (node1 == node2 || noOfNodes <= node1 || noOfNodes <= node2) {
+                continue;
+            }
+
+            duplicatePairs.add(getPairKey(node1, node2));
+        }
+
+        if (!clustering.isCleanCleanEr()) {
+            indexPartners(noOfNodes);
+        }
+
+        clustering.setMergeListener(this);
+    }
+
+    /**
+     * Create the compressed sparse row index with the ground truth partners of each node, from the indexed pairs.
+     *
+     * @param noOfNodes Number of nodes of the clustering
+     */
+    private void indexPartners(int noOfNodes) {
+        // Count the partners of each node
+        partnerOffsets = new int[noOfNodes + 1];
+        duplicatePairs.forEach(key -> {
+            partnerOffsets[(int) (key >>> 32) + 1]++;
+            partnerOffsets[(int) key + 1]++;
+            return true;
+        });
+        for (int i = 0; i < noOfNodes; i++) {
+            partnerOffsets[i + 1] += partnerOffsets[i];
+        }
+
+        // Add the partners of each node after its offset
+        partners = new int[partnerOffsets[noOfNodes]];
+        int[] nextIndex = new int[noOfNodes];
+        System.arraycopy(partnerOffsets, 0, nextIndex, 0, noOfNodes);
+        duplicatePairs.forEach(key -> {
+            int node1 = (int) (key >>> 32);
+            int node2 = (int) key;
+            partners[nextIndex[node1]++] = node2;
+            partners[nextIndex[node2]++] = node1;
+            return true;
+        });
+    }
+
+    /**
+     * Get the key of a pair of nodes, which does not depend on their order
+     *
+     * @param node1 1st node
+     * @param node2 2nd node
+     * @return Key of the pair
+     */
+    private static long getPairKey(int node1, int node2) {
+        return (((long) Math.min(node1, node2)) << 32) | Math.max(node1, node2);
+    }
+
+    /**
+     * Update the matches and detected duplicates before two clusters are merged
+     *
+     * @param root1 Root of the 1st cluster
+     * @param root2 Root of the 2nd cluster
+     */
+    @Override
+    public void beforeMerge(int root1, int root2) {
+        if (clustering.isCleanCleanEr()) {
+            // As in ClustersPerformance, only clusters with exactly one entity from each dataset are matches
+            removeCleanCleanMatch(root1);
+            removeCleanCleanMatch(root2);
+
+            if (clustering.getClusterSize(root1) == 1 && clustering.getClusterSize(root2) == 1
+                    && clustering.getClusterSizeD1(root1) != clustering.getClusterSizeD1(root2)) {
+                totalMatches++;
+                if (duplicatePairs.contains(getPairKey(root1, root2))) {
+                    detectedDuplicates++;
+                }
+            }
+        } else {
+            // All pairs of entities between the two clusters become matches
+            int size1 = clustering.getClusterSize(root1);
+            int size2 = clustering.getClusterSize(root2);
+            totalMatches += (long) size1 * size2;
+
+            // Find the duplicates between them, by checking the partners of the smaller cluster's members
+            int smallerRoot = (size1 < size2) ? root1 : root2;
+            int largerRoot = (smallerRoot == root1) ? root2 : root1;
+            for (int node = smallerRoot; node != -1; node = clustering.getNextMember(node)) {
+                for (int i = partnerOffsets[node]; i < partnerOffsets[node + 1]; i++) {
+                    if (clustering.find(partners[i]) == largerRoot) {
+                        detectedDuplicates++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove a Clean-Clean ER cluster from the matches (and detected duplicates), if it is a match
+     *
+     * @param root Root of the cluster
+     */
+    private void removeCleanCleanMatch(int root) {
+        if (clustering.getClusterSize(root) != 2 || clustering.getClusterSizeD1(root) != 1) {
+            return;
+        }
+
+        totalMatches--;
+        if (duplicatePairs.contains(getPairKey(root, clustering.getNextMember(root)))) {
+            detectedDuplicates--;
+        }
+    }
+
+    public long getDetectedDuplicates() {
+        return detectedDuplicates;
+    }
+
+    public long getTotalMatches() {
+        return totalMatches;
+    }
+
+    public float getRecall() {
+        return (0 < existingDuplicates) ? (float) detectedDuplicates / existingDuplicates : 0;
+    }
+
+    public float getPrecision() {
+        return (0 < totalMatches) ? (float) detectedDuplicates / totalMatches : 0;
+    }
+
+    public float getFMeasure() {
+        float precision = getPrecision();
+        float recall = getRecall();
+
+        return (0 < precision && 0 < recall) ? 2 * precision * recall / (precision + recall) : 0;
+    }
+}
@@ -21,6 +21,7 @@ public class JedaiOptions {
     public static final String RDF = "RDF";
     public static final String SERIALIZED = "Serialized";
     public static final String XML = "XML";
+    public static final String BINARY = "Binary";
 
     // Schema Clustering Methods
     public static final String NO_SCHEMA_CLUSTERING = "No Schema Clustering";
@@ -121,6 +122,13 @@ public class JedaiOptions {
     public static final String AUTOCONFIG_STEPBYSTEP = "Step-by-step";
     public static final String AUTOCONFIG_RANDOMSEARCH = "Random Search";
     public static final String AUTOCONFIG_GRIDSEARCH = "Grid Search";
+    public static final String AUTOCONFIG_SUCCESSIVEHALVING = "Successive Halving";
+    public static final String AUTOCONFIG_MODELBASED = "Model-based (TPE)";
+    public static final String WARMSTART_NONE = "None";
+    public static final String WARMSTART_SEED = "Seed Model-based Search";
+    public static final String WARMSTART_REUSE = "Reuse Best Configuration";
+    public static final String PARETO_COST_COMPARISONS = "Executed Comparisons";
+    public static final String PARETO_COST_TIME = "Running Time (sec.)";
 
     // JedAI workflow step names & descriptions
     public static final String STEP_LABEL_WELCOME = "Welcome";
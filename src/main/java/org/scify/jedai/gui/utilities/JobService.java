@@ -0,0 +1,146 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.gui.wizard.WizardData;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs submitted workflow jobs with a bounded number of concurrent workflows. The jobs that are submitted while the
+ * maximum number of workflows runs wait in a queue, in their order of submission. Each job writes its results to a
+ * directory of its own (named after its id) in the results directory of the service. The service keeps up to a maximum
+ * number of finished jobs: when a job is submitted, the oldest finished jobs beyond it are forgotten (their results
+ * directories are kept).
+ * <p>
+ * Concurrent workflows share JedAI's global state, so the sections that use it run one at a time across all jobs:
+ * building text models and comparing those with global values (see TextModelLock), similarity joins, and updating
+ * the local stores in ~/.jedai (automatic configurations and step costs, which are also replaced atomically).
+ */
+public class JobService {
+    private final static int DEFAULT_MAX_FINISHED_JOBS = 1000;
+
+    private final ExecutorService executor;
+    private final File resultsDirectory;
+    private final int maxFinishedJobs;
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final Map<Integer, WorkflowJob> jobs = new ConcurrentSkipListMap<>();
+
+    /**
+     * Job service constructor
+     *
+     * @param concurrency      Maximum number of workflows that run concurrently
+     * @param resultsDirectory Directory to write the results of the jobs to
+     */
+    public JobService(int concurrency, File resultsDirectory) {
+        this(concurrency, resultsDirectory, DEFAULT_MAX_FINISHED_JOBS);
+    }
+
+    /**
+     * Job service constructor
+     *
+     * @param concurrency      Maximum number of workflows that run concurrently
+     * @param resultsDirectory Directory to write the results of the jobs to
+     * @param maxFinishedJobs  Maximum number of finished jobs to keep
+     */
+    public JobService(int concurrency, File resultsDirectory, int maxFinishedJobs) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("The concurrency must be positive: " + concurrency);
+        }
+        if (maxFinishedJobs < 0) {
+            throw new IllegalArgumentException("The maximum number of finished jobs must not be negative: "
+                    + maxFinishedJobs);
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "workflow-job-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.resultsDirectory = resultsDirectory;
+        this.maxFinishedJobs = maxFinishedJobs;
+    }
+
+    /**
+     * Submit a workflow to run when a slot is available
+     *
+     * @param model Wizard data with the workflow's configuration
+     * @return Queued job of the workflow
+     */
+    public WorkflowJob submit(WizardData model) {
+        removeFinishedJobs();
+
+        int id = nextId.getAndIncrement();
+        WorkflowJob job = new WorkflowJob(id, model, new File(resultsDirectory, "job-" + id));
+        jobs.put(id, job);
+        executor.execute(job);
+
+        return job;
+    }
+
+    /**
+     * Get a submitted job
+     *
+     * @param id Id of the job
+     * @return Job, or null if no job has this id
+     */
+    public WorkflowJob getJob(int id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Get the submitted jobs
+     *
+     * @return Jobs in their order of submission
+     */
+    public List<WorkflowJob> getJobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    /**
+     * Cancel a job
+     *
+     * @param id Id of the job
+     * @return True if the job was queued or running
+     */
+    public boolean cancel(int id) {
+        WorkflowJob job = jobs.get(id);
+        return job != null && job.cancel();
+    }
+
+    /**
+     * Forget the oldest finished jobs beyond the maximum number of finished jobs
+     */
+    private synchronized void removeFinishedJobs() {
+        List<Integer> finishedJobs = new ArrayList<>();
+        for (WorkflowJob job : jobs.values()) {
+            if (job.isFinished()) {
+                finishedJobs.add(job.getId());
+            }
+        }
+
+        // The jobs are in their order of submission, so the oldest are first
+        for (int id : finishedJobs.subList(0, Math.max(0, finishedJobs.size() - maxFinishedJobs))) {
+            jobs.remove(id);
+        }
+    }
+
+    /**
+     * Cancel the queued and running jobs, and stop the threads of the service
+     */
+    public void shutdown() {
+        for (WorkflowJob job : jobs.values()) {
+            job.cancel();
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,419 @@
+package org.scify.jedai.gui.utilities;
+
+import com.google.common.primitives.Ints;
+import com.opencsv.CSVReader;
+import org.scify.jedai.datamodel.EntityProfile;
+import org.scify.jedai.datareader.entityreader.EntityCSVReader;
+import org.scify.jedai.datareader.entityreader.IEntityReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Entity reader of CSV files that parses chunks of a file in parallel, with the same parser (OpenCSV) and profiles as
+ * EntityCSVReader. The file is split into chunks of about 8 MB at record boundaries, with a scan of its bytes that
+ * follows the quotes and escapes of the parser, so that quoted line breaks do not split records. The chunks are parsed
+ * concurrently, and their profiles are put together in the order of the file, so the profiles (and their generated
+ * ids) are the same as the ones of EntityCSVReader. The progress (bytes and records that were read, and the estimated
+ * remaining time) is reported to a listener.
+ * <p>
+ * Small files, files of charsets whose line breaks and quotes are not single ASCII bytes, and files whose chunks are
+ * not parsed into the records of the scan (e.g. because of unbalanced quotes) are read with EntityCSVReader instead.
+ */
+public class ParallelEntityCSVReader implements IEntityReader {
+    private final static int DEFAULT_CHUNK_SIZE = 1 << 23;
+    private final static int BUFFER_SIZE = 1 << 16;
+    private final static long PROGRESS_INTERVAL = 500;
+
+    private final String filePath;
+    private final boolean attributeNamesInFirstRow;
+    private final char separator;
+    private final int idIndex;
+    private final Set<Integer> attributesToExclude;
+    private final int chunkSize;
+    private ProgressListener progress = status -> {
+    };
+
+    /**
+     * Chunk of a file, which starts at a record boundary and contains whole records
+     */
+    private static class Chunk {
+        private final long start;
+        private final long end;
+        private final long firstRecord;
+        private final long noOfRecords;
+
+        private Chunk(long start, long end, long firstRecord, long noOfRecords) {
+            this.start = start;
+            this.end = end;
+            this.firstRecord = firstRecord;
+            this.noOfRecords = noOfRecords;
+        }
+    }
+
+    /**
+     * Parallel entity CSV reader constructor, with the parameters of EntityCSVReader
+     *
+     * @param filePath                 Path of the CSV file
+     * @param attributeNamesInFirstRow True if the first row contains the attribute names
+     * @param separator                Separator of the attribute values
+     * @param idIndex                  Index of the column of the entity ids (negative to generate the ids)
+     * @param attributesToExclude      Indices of the columns to exclude
+     */
+    public ParallelEntityCSVReader(String filePath, boolean attributeNamesInFirstRow, char separator, int idIndex,
+                                   Set<Integer> attributesToExclude) {
+        this(filePath, attributeNamesInFirstRow, separator, idIndex, attributesToExclude, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Parallel entity CSV reader constructor, with the size of the chunks (files smaller than two chunks are read
+     * sequentially)
+     *
+     * @param filePath                 Path of the CSV file
+     * @param attributeNamesInFirstRow True if the first row contains the attribute names
+     * @param separator                Separator of the attribute values
+     * @param idIndex                  Index of the column of the entity ids (negative to generate the ids)
+     * @param attributesToExclude      Indices of the columns to exclude
+     * @param chunkSize                Minimum size of the chunks, in bytes
+     */
+    ParallelEntityCSVReader(String filePath, boolean attributeNamesInFirstRow, char separator, int idIndex,
+                            Set<Integer> attributesToExclude, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be positive: " + chunkSize);
+        }
+
+        this.filePath = filePath;
+        this.attributeNamesInFirstRow = attributeNamesInFirstRow;
+        this.separator = separator;
+        this.idIndex = idIndex;
+        this.chunkSize = chunkSize;
+
+        // EntityCSVReader.setIdIndex also excludes the column of the ids
+        this.attributesToExclude = new HashSet<>(attributesToExclude);
+        this.attributesToExclude.add(idIndex);
+    }
+
+    /**
+     * Set the listener of the reading progress
+     *
+     * @param progress Listener of the reading progress (null to not report it)
+     */
+    public void setProgressListener(ProgressListener progress) {
+        this.progress = (progress != null) ? progress : status -> {
+        };
+    }
+
+    @Override
+    public List<EntityProfile> getEntityProfiles() {
+        File file = new File(filePath);
+        Charset charset = Charset.defaultCharset();
+        boolean isAsciiCompatible = charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+                || charset.equals(StandardCharsets.ISO_8859_1);
+        if (file.length() < 2L * chunkSize || !isAsciiCompatible || separator == '"' || separator == '\\'
+                || separator == '\n' || separator == '\r') {
+            return readSequentially();
+        }
+
+        try {
+            return readInParallel(file, charset);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Cannot read " + filePath + " in parallel, reading it sequentially: " + e);
+            return readSequentially();
+        }
+    }
+
+    /**
+     * Read the file with EntityCSVReader
+     *
+     * @return Entity profiles, or null if the file cannot be read
+     */
+    private List<EntityProfile> readSequentially() {
+        EntityCSVReader csvReader = new EntityCSVReader(filePath);
+        csvReader.setAttributeNamesInFirstRow(attributeNamesInFirstRow);
+        csvReader.setSeparator(separator);
+        csvReader.setIdIndex(idIndex);
+        csvReader.setAttributesToExclude(Ints.toArray(attributesToExclude));
+
+        return csvReader.getEntityProfiles();
+    }
+
+    /**
+     * Split the file into chunks and parse them in parallel
+     *
+     * @param file    CSV file
+     * @param charset Charset of the file
+     * @return Entity profiles, or null if the file has no records or the id index is invalid (as with EntityCSVReader)
+     * @throws IOException If the file cannot be read, or its chunks do not contain the records of the scan
+     */
+    private List<EntityProfile> readInParallel(File file, Charset charset) throws IOException {
+        long startTime = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            progress.setStatus("Splitting " + file.getName() + "...");
+            List<Chunk> chunks = split(channel, size);
+
+            // The first record contains the attribute names, or the first profile
+            String[] firstRecord;
+            try (CSVReader csvReader = new CSVReader(new InputStreamReader(Files.newInputStream(file.toPath()),
+                    charset), separator)) {
+                firstRecord = csvReader.readNext();
+            }
+            if (firstRecord == null) {
+                System.err.println("Empty file given as input.");
+                return null;
+            }
+            if (firstRecord.length - 1 < idIndex) {
+                System.err.println("Id index does not correspond to a valid column index! Counting starts from 0.");
+                return null;
+            }
+            String[] attributeNames = new String[firstRecord.length];
+            for (int i = 0; i < attributeNames.length; i++) {
+                attributeNames[i] = attributeNamesInFirstRow ? firstRecord[i] : "attribute" + (i + 1);
+            }
+
+            // Parse the chunks in parallel, reporting the progress every so often
+            AtomicLong bytesRead = new AtomicLong();
+            AtomicLong recordsRead = new AtomicLong();
+            AtomicLong lastReport = new AtomicLong(startTime);
+            List<List<EntityProfile>> chunkProfiles = IntStream.range(0, chunks.size()).parallel()
+                    .mapToObj(i -> {
+                        Chunk chunk = chunks.get(i);
+                        List<EntityProfile> profiles = parseChunk(channel, chunk, charset, attributeNames);
+                        reportProgress(file, size, bytesRead.addAndGet(chunk.end - chunk.start),
+                                recordsRead.addAndGet(chunk.noOfRecords), startTime, lastReport);
+                        return profiles;
+                    })
+                    .collect(Collectors.toList());
+
+            List<EntityProfile> profiles = new ArrayList<>(chunkProfiles.stream().mapToInt(List::size).sum());
+            for (List<EntityProfile> chunkProfile : chunkProfiles) {
+                profiles.addAll(chunkProfile);
+            }
+            return profiles;
+        }
+    }
+
+    /**
+     * Split a CSV file into chunks that start at record boundaries. The bytes are scanned with the states of the
+     * parser (OpenCSV with its default quote and escape characters): in quotes or in a field, a quote or escape
+     * followed by a quote and an escape followed by an escape are escaped characters, and other quotes start or end
+     * the quotes. Line breaks (LF, CR or CRLF) end records outside of quotes.
+     *
+     * @param channel Channel of the file
+     * @param size    Size of the file
+     * @return Chunks of the file, with the number of records of each one
+     * @throws IOException If the file cannot be read
+     */
+    private List<Chunk> split(FileChannel channel, long size) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        boolean inQuotes = false;
+        boolean inField = false;
+        boolean afterEscape = false;    // An escape that escapes the next character if it is a quote or escape
+        boolean afterQuote = false;     // A quote that is escaped by the next character if it is a quote
+        boolean afterCR = false;        // A CR outside of quotes (a line break, with the next LF if any)
+        long chunkStart = 0;
+        long chunkFirstRecord = 0;
+        long noOfRecords = 0;
+        long lineStart = 0;
+        long position = 0;
+        while (channel.read(buffer, position) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                long i = position++;
+
+                // A CR that is not followed by a LF ends the line before this byte
+                if (afterCR) {
+                    afterCR = false;
+                    boolean isCRLF = b == '\n';
+                    lineStart = isCRLF ? i + 1 : i;
+                    if (chunkSize <= lineStart - chunkStart) {
+                        chunks.add(new Chunk(chunkStart, lineStart, chunkFirstRecord, noOfRecords - chunkFirstRecord));
+                        chunkStart = lineStart;
+                        chunkFirstRecord = noOfRecords;
+                    }
+                    if (isCRLF) {
+                        continue;
+                    }
+                }
+
+                // Characters that are escaped by the previous escape or quote
+                if (afterEscape) {
+                    afterEscape = false;
+                    if (b == '"' || b == '\\') {
+                        continue;
+                    }
+                } else if (afterQuote) {
+                    afterQuote = false;
+                    if (b == '"') {
+                        continue;
+                    }
+                    inQuotes = !inQuotes;
+                }
+
+                if (b == '\\') {
+                    afterEscape = inQuotes || inField;
+                } else if (b == '"') {
+                    if (inQuotes || inField) {
+                        afterQuote = true;
+                    } else {
+                        inQuotes = true;
+                    }
+                    inField = !inField;
+                } else if (b == '\r' || b == '\n') {
+                    if (!inQuotes) {
+                        inField = false;
+                        noOfRecords++;
+                        if (b == '\r') {
+                            afterCR = true;
+                        } else {
+                            lineStart = i + 1;
+                            if (chunkSize <= lineStart - chunkStart) {
+                                chunks.add(new Chunk(chunkStart, lineStart, chunkFirstRecord,
+                                        noOfRecords - chunkFirstRecord));
+                                chunkStart = lineStart;
+                                chunkFirstRecord = noOfRecords;
+                            }
+                        }
+                    }
+                } else if (b == separator && !inQuotes) {
+                    inField = false;
+                } else {
+                    inField = true;
+                }
+            }
+            buffer.clear();
+        }
+
+        // The last line is a record, unless the file ends with a line break
+        if (lineStart < size && !afterCR) {
+            noOfRecords++;
+        }
+        if (chunkStart < size) {
+            chunks.add(new Chunk(chunkStart, size, chunkFirstRecord, noOfRecords - chunkFirstRecord));
+        }
+        return chunks;
+    }
+
+    /**
+     * Parse the records of a chunk into entity profiles, as EntityCSVReader does: the records with more values than
+     * the attribute names, or with at least two fewer, are skipped, and a record with one fewer value fails with an
+     * ArrayIndexOutOfBoundsException (which makes getEntityProfiles read the file with EntityCSVReader, which fails in
+     * the same way). The excluded columns include the one of the ids.
+     *
+     * @param channel        Channel of the file
+     * @param chunk          Chunk to parse
+     * @param charset        Charset of the file
+     * @param attributeNames Names of the attributes
+     * @return Profiles of the chunk's records
+     */
+    private List<EntityProfile> parseChunk(FileChannel channel, Chunk chunk, Charset charset,
+                                           String[] attributeNames) {
+        List<String[]> records;
+        try {
+            records = readRecords(channel, chunk, charset);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        if (records.size() != chunk.noOfRecords) {
+            throw new IllegalStateException("Expected " + chunk.noOfRecords + " records at byte " + chunk.start
+                    + ", but parsed " + records.size());
+        }
+
+        List<EntityProfile> profiles = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            // The records are counted from 1, after the attribute names (if any)
+            long recordIndex = chunk.firstRecord + i;
+            if (attributeNamesInFirstRow && recordIndex == 0) {
+                continue;
+            }
+            long counter = attributeNamesInFirstRow ? recordIndex : recordIndex + 1;
+
+            String[] record = records.get(i);
+            if (record.length < attributeNames.length - 1) {
+                System.err.println("Line with missing attribute names : " + Arrays.toString(record));
+                continue;
+            }
+            if (attributeNames.length < record.length) {
+                System.err.println("Line with missing more attributes : " + Arrays.toString(record));
+                continue;
+            }
+
+            EntityProfile profile = new EntityProfile((idIndex < 0) ? "id" + counter : record[idIndex]);
+            for (int j = 0; j < attributeNames.length; j++) {
+                if (!attributesToExclude.contains(j) && !record[j].trim().isEmpty()) {
+                    profile.addAttribute(attributeNames[j], record[j]);
+                }
+            }
+            profiles.add(profile);
+        }
+
+        return profiles;
+    }
+
+    /**
+     * Read the bytes of a chunk and parse its records
+     *
+     * @param channel Channel of the file
+     * @param chunk   Chunk to parse
+     * @param charset Charset of the file
+     * @return Records of the chunk
+     * @throws IOException If the file cannot be read
+     */
+    private List<String[]> readRecords(FileChannel channel, Chunk chunk, Charset charset) throws IOException {
+        byte[] bytes = new byte[(int) (chunk.end - chunk.start)];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, chunk.start + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file " + filePath);
+            }
+        }
+
+        try (CSVReader csvReader = new CSVReader(new InputStreamReader(new ByteArrayInputStream(bytes), charset),
+                separator)) {
+            return csvReader.readAll();
+        }
+    }
+
+    /**
+     * Report the progress of the reading, at most every half second
+     *
+     * @param file        CSV file
+     * @param size        Size of the file
+     * @param bytesRead   Bytes of the chunks that were parsed
+     * @param recordsRead Records of the chunks that were parsed
+     * @param startTime   Time that the reading started
+     * @param lastReport  Time of the last report
+     */
+    private void reportProgress(File file, long size, long bytesRead, long recordsRead, long startTime,
+                                AtomicLong lastReport) {
+        long now = System.currentTimeMillis();
+        long last = lastReport.get();
+        if (bytesRead < size && (now - last < PROGRESS_INTERVAL || !lastReport.compareAndSet(last, now))) {
+            return;
+        }
+
+        double secondsLeft = (now - startTime) / 1000.0 * (size - bytesRead) / bytesRead;
+        progress.setStatus(String.format(Locale.ROOT, "Reading %s: %.1f of %.1f MB, %d records (%.0f sec. left)",
+                file.getName(), bytesRead / 1048576.0, size / 1048576.0, recordsRead, secondsLeft));
+    }
+}
@@ -0,0 +1,247 @@
+package org.scify.jedai.gui.utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Executes the trials of an automatic configuration search in parallel, on a bounded thread pool with one thread per
+ * given instance (e.g. method instance, or set of method instances). JedAI's methods keep their random configurations
+ * internally, so each thread only uses its own instance: thread t runs trials t, t+n, t+2n, ... (n: number of
+ * instances), which makes trial j the (j / n)-th trial of instance (j % n).
+ * A search can have a budget: when it runs out, no new trials start and the best of the completed trials is returned.
+ * Trial 0 always runs, and each thread stops at its first skipped trial, so the trials of each instance are still
+ * numbered in order. When the workflow is cancelled, the running trials stop too (by throwing a
+ * WorkflowCancelledException), and the best of the completed trials is returned (if any trial completed).
+ *
+ * @param <T> Type of the instances that the trials run with
+ */
+public class ParallelSearch<T> {
+    private final List<T> instances;
+    private final SearchBudget budget;
+    private double[] performance;
+    private double bestPerformance;
+
+    // Progress of the running search, for its budget
+    private int noOfCompletedTrials;
+    private int trialsWithoutImprovement;
+    private double bestCompletedPerformance;
+    private volatile boolean stopped;
+
+    /**
+     * Trial of a search
+     *
+     * @param <T> Type of the instance that the trial runs with
+     */
+    public interface Trial<T> {
+        /**
+         * Run a trial and return its performance
+         *
+         * @param instance Instance of the thread that runs the trial
+         * @param trial    Number of the trial
+         * @return Performance of the trial (higher is better)
+         * @throws Exception If the trial fails
+         */
+        double run(T instance, int trial) throws Exception;
+    }
+
+    /**
+     * Parallel search constructor
+     *
+     * @param instances Instances to run the trials with, one per thread (at least one)
+     */
+    public ParallelSearch(List<T> instances) {
+        this(instances, null);
+    }
+
+    /**
+     * Parallel search constructor
+     *
+     * @param instances Instances to run the trials with, one per thread (at least one)
+     * @param budget    Budget of the search (null for no budget besides the number of trials)
+     */
+    public ParallelSearch(List<T> instances, SearchBudget budget) {
+        this.instances = instances;
+        this.budget = budget;
+    }
+
+    /**
+     * Run all trials (or until the budget runs out) and return the best one, which is the first trial with the highest
+     * performance (as in a sequential search), or trial 0 if no trial had a performance higher than 0.
+     *
+     * @param noOfTrials Number of trials
+     * @param trial      Trial to run
+     * @return Number of the best trial
+     * @throws WorkflowCancelledException If the workflow was cancelled before any trial completed
+     * @throws Exception                  If any trial fails
+     */
+    public int findBestTrial(int noOfTrials, Trial<T> trial) throws Exception {
+        performance = new double[noOfTrials];
+        noOfCompletedTrials = 0;
+        trialsWithoutImprovement = 0;
+        bestCompletedPerformance = 0;
+        stopped = false;
+        int noOfThreads = instances.size();
+
+        if (noOfThreads == 1) {
+            // No need for a thread pool
+            for (int j = 0; j < noOfTrials && !isStopped(j) && runTrial(trial, instances.get(0), j); j++) {
+                completeTrial(performance[j]);
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(noOfThreads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < noOfThreads; i++) {
+                    int thread = i;
+                    futures.add(executor.submit(() -> {
+                        for (int j = thread; j < noOfTrials && !isStopped(j) && runTrial(trial, instances.get(thread), j);
+                             j += noOfThreads) {
+                            completeTrial(performance[j]);
+                        }
+                        return null;
+                    }));
+                }
+
+                // Wait for all trials to finish (throws the exception of any failed thread)
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        if (noOfCompletedTrials == 0 && budget != null && budget.isCancelled()) {
+            throw new WorkflowCancelledException();
+        }
+
+        // Keep the first trial with the best performance
+        int bestTrial = 0;
+        bestPerformance = 0;
+        for (int j = 0; j < noOfTrials; j++) {
+            if (bestPerformance < performance[j]) {
+                bestTrial = j;
+                bestPerformance = performance[j];
+            }
+        }
+
+        return bestTrial;
+    }
+
+    /**
+     * Run a trial and keep its performance
+     *
+     * @param trial    Trial to run
+     * @param instance Instance of the thread that runs the trial
+     * @param j        Number of the trial
+     * @return True if the trial completed, false if it stopped because the workflow was cancelled (then the search
+     * stops too)
+     * @throws Exception If the trial fails
+     */
+    private boolean runTrial(Trial<T> trial, T instance, int j) throws Exception {
+        try {
+            performance[j] = trial.run(instance, j);
+            return true;
+        } catch (WorkflowCancelledException e) {
+            stopped = true;
+            return false;
+        }
+    }
+
+    /**
+     * Check if the budget has run out before a trial starts. Once it runs out, the search stays stopped.
+     *
+     * @param trial Number of the trial
+     * @return True if the trial should not run
+     */
+    private boolean isStopped(int trial) {
+        if (budget != null && budget.isCancelled()) {
+            stopped = true;
+            return true;
+        }
+        if (trial > 0 && !stopped && budget != null) {
+            synchronized (this) {
+                stopped = budget.isTimeUp() || budget.hasConverged(trialsWithoutImprovement);
+            }
+        }
+
+        return trial > 0 && stopped;
+    }
+
+    /**
+     * Update the progress of the search with a completed trial
+     *
+     * @param trialPerformance Performance of the trial
+     */
+    private synchronized void completeTrial(double trialPerformance) {
+        noOfCompletedTrials++;
+        if (budget != null && budget.isImprovement(trialPerformance, bestCompletedPerformance)) {
+            trialsWithoutImprovement = 0;
+        } else {
+            trialsWithoutImprovement++;
+        }
+        bestCompletedPerformance = Math.max(bestCompletedPerformance, trialPerformance);
+    }
+
+    /**
+     * Get the number of trials that the last search ran, which is less than its number of trials if its budget ran out
+     *
+     * @return Number of completed trials
+     */
+    public int getNoOfCompletedTrials() {
+        return noOfCompletedTrials;
+    }
+
+    /**
+     * Get the performance of the best trial of the last search
+     *
+     * @return Best performance
+     */
+    public double getBestPerformance() {
+        return bestPerformance;
+    }
+
+    /**
+     * Get the performance of a trial of the last search
+     *
+     * @param trial Number of the trial
+     * @return Performance of the trial (0 if it did not run)
+     */
+    public double getPerformance(int trial) {
+        return performance[trial];
+    }
+
+    /**
+     * Get the instance that ran a trial
+     *
+     * @param trial Number of the trial
+     * @return Instance of the thread that ran the trial
+     */
+    public T getInstance(int trial) {
+        return instances.get(trial % instances.size());
+    }
+
+    /**
+     * Get the number of a trial among the trials of its instance (e.g. for restoring its random configuration)
+     *
+     * @param trial Number of the trial
+     * @return Number of the trial for its instance
+     */
+    public int getInstanceTrial(int trial) {
+        return trial / instances.size();
+    }
+
+    /**
+     * Get the number of threads to use for a search, bounded by the number of trials
+     *
+     * @param threads    Requested number of threads
+     * @param noOfTrials Number of trials
+     * @return Number of threads to use (at least 1)
+     */
+    public static int getNoOfThreads(int threads, int noOfTrials) {
+        return Math.max(1, Math.min(threads, noOfTrials));
+    }
+}
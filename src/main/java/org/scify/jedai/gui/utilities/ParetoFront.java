@@ -0,0 +1,130 @@
+package org.scify.jedai.gui.utilities;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Quality and cost of the trials of an automatic configuration search, for choosing an operating point other than
+ * the configuration with the highest quality. The cost of a trial is either the number of comparisons that its
+ * configuration executes, or its running time. The Pareto front for a cost is the set of trials that no other trial
+ * beats in both quality and cost.
+ */
+public class ParetoFront {
+    private final String name;
+    private final String qualityName;
+    private final List<Point> points;
+
+    /**
+     * Quality and cost of a trial
+     */
+    public static class Point {
+        private final double quality;
+        private final double comparisons;
+        private final double time;
+        private final String configuration;
+
+        /**
+         * Point constructor
+         *
+         * @param quality       Quality of the trial (higher is better)
+         * @param comparisons   Number of comparisons that the trial executed
+         * @param time          Running time of the trial in seconds
+         * @param configuration Description of the trial's configuration
+         */
+        public Point(double quality, double comparisons, double time, String configuration) {
+            this.quality = quality;
+            this.comparisons = comparisons;
+            this.time = time;
+            this.configuration = configuration;
+        }
+
+        public double getQuality() {
+            return quality;
+        }
+
+        public double getComparisons() {
+            return comparisons;
+        }
+
+        public double getTime() {
+            return time;
+        }
+
+        public String getConfiguration() {
+            return configuration;
+        }
+    }
+
+    /**
+     * Pareto front constructor
+     *
+     * @param name        Name of the search (e.g. the method that it configures)
+     * @param qualityName Name of the quality measure (e.g. F-Measure)
+     */
+    public ParetoFront(String name, String qualityName) {
+        this.name = name;
+        this.qualityName = qualityName;
+        this.points = new ArrayList<>();
+    }
+
+    /**
+     * Add the quality and cost of a trial (trials can be added in parallel)
+     *
+     * @param quality       Quality of the trial (higher is better)
+     * @param comparisons   Number of comparisons that the trial executed
+     * @param time          Running time of the trial in seconds
+     * @param configuration Description of the trial's configuration
+     */
+    public synchronized void addPoint(double quality, double comparisons, double time, String configuration) {
+        points.add(new Point(quality, comparisons, time, configuration));
+    }
+
+    /**
+     * Get the Pareto front for a cost, from the lowest cost (and quality) to the highest
+     *
+     * @param timeCost If true, the cost is the running time, otherwise the number of comparisons
+     * @return Trials that no other trial beats in both quality and cost
+     */
+    public synchronized List<Point> getFront(boolean timeCost) {
+        ToDoubleFunction<Point> cost = timeCost ? Point::getTime : Point::getComparisons;
+
+        // Sort the trials by cost, and those with the same cost from the highest quality to the lowest
+        List<Point> sortedPoints = new ArrayList<>(points);
+        sortedPoints.sort(Comparator.comparingDouble(cost)
+                .thenComparing(Comparator.comparingDouble(Point::getQuality).reversed()));
+
+        // Keep each trial with a higher quality than all trials of lower cost
+        List<Point> front = new ArrayList<>();
+        for (Point point : sortedPoints) {
+            if (front.isEmpty() || front.get(front.size() - 1).getQuality() < point.getQuality()) {
+                front.add(point);
+            }
+        }
+
+        return front;
+    }
+
+    /**
+     * Get the number of trials that were added
+     *
+     * @return Number of trials
+     */
+    public synchronized int getNoOfPoints() {
+        return points.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getQualityName() {
+        return qualityName;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
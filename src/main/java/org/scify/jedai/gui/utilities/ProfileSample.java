@@ -0,0 +1,189 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.datamodel.EntityProfile;
+import org.scify.jedai.datamodel.IdDuplicates;
+import org.scify.jedai.utilities.datastructures.AbstractDuplicatePropagation;
+import org.scify.jedai.utilities.datastructures.BilateralDuplicatePropagation;
+import org.scify.jedai.utilities.datastructures.UnilateralDuplicatePropagation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Sample of the entity profiles of the dataset(s), with the ground truth restricted to the sampled profiles. The
+ * profiles of a sample get new IDs, by their order in the sample's lists.
+ */
+public class ProfileSample {
+    private final List<EntityProfile> profilesD1;
+    private final List<EntityProfile> profilesD2;
+    private final AbstractDuplicatePropagation duplicatePropagation;
+
+    public ProfileSample(List<EntityProfile> profilesD1, List<EntityProfile> profilesD2,
+                         AbstractDuplicatePropagation duplicatePropagation) {
+        this.profilesD1 = profilesD1;
+        this.profilesD2 = profilesD2;
+        this.duplicatePropagation = duplicatePropagation;
+    }
+
+    public List<EntityProfile> getProfilesD1() {
+        return profilesD1;
+    }
+
+    public List<EntityProfile> getProfilesD2() {
+        return profilesD2;
+    }
+
+    public AbstractDuplicatePropagation getDuplicatePropagation() {
+        return duplicatePropagation;
+    }
+
+    /**
+     * Create nested stratified samples of the entity profiles. The duplicates of the ground truth are sampled as
+     * groups (its connected components), separately from the profiles without duplicates of each dataset, so that
+     * every sample has the same ratio of duplicates and keeps all duplicates of its profiles. Each sample contains
+     * the profiles of the smaller ones.
+     *
+     * @param profilesD1           Entity profiles of the 1st dataset
+     * @param profilesD2           Entity profiles of the 2nd dataset (null for Dirty ER)
+     * @param duplicatePropagation Duplicate propagation with the ground truth
+     * @param fractions            Fraction of each stratum to sample, for each sample (1 for all profiles)
+     * @param random               Random generator to sample with
+     * @return Sample for each fraction
+     */
+    public static List<ProfileSample> getStratifiedSamples(List<EntityProfile> profilesD1,
+                                                           List<EntityProfile> profilesD2,
+                                                           AbstractDuplicatePropagation duplicatePropagation,
+                                                           double[] fractions, Random random) {
+        // Profiles of both datasets are nodes, with the 2nd dataset's after the 1st's
+        int noOfEntitiesD1 = profilesD1.size();
+        int noOfNodes = noOfEntitiesD1 + ((profilesD2 != null) ? profilesD2.size() : 0);
+        int datasetLimit = (profilesD2 != null) ? noOfEntitiesD1 : 0;
+
+        // Find the groups of duplicates, with union-find over the ground truth
+        int[] parent = new int[noOfNodes];
+        for (int i = 0; i < noOfNodes; i++) {
+            parent[i] = i;
+        }
+        Set<IdDuplicates> duplicates = duplicatePropagation.getDuplicates();
+        for (IdDuplicates duplicate : duplicates) {
+            int root1 = getRoot(parent, duplicate.getEntityId1());
+            int root2 = getRoot(parent, datasetLimit + duplicate.getEntityId2());
+            parent[root1] = root2;
+        }
+
+        // Split the nodes into the strata (groups of duplicates, profiles of each dataset without duplicates)
+        int[] groupSizes = new int[noOfNodes];
+        for (int i = 0; i < noOfNodes; i++) {
+            groupSizes[getRoot(parent, i)]++;
+        }
+        List<List<Integer>> groups = new ArrayList<>();
+        List<Integer> singlesD1 = new ArrayList<>();
+        List<Integer> singlesD2 = new ArrayList<>();
+        int[] groupIndices = new int[noOfNodes];
+        Arrays.fill(groupIndices, -1);
+        for (int i = 0; i < noOfNodes; i++) {
+            int root = getRoot(parent, i);
+            if (groupSizes[root] == 1) {
+                (i < noOfEntitiesD1 ? singlesD1 : singlesD2).add(i);
+            } else {
+                if (groupIndices[root] < 0) {
+                    groupIndices[root] = groups.size();
+                    groups.add(new ArrayList<>());
+                }
+                groups.get(groupIndices[root]).add(i);
+            }
+        }
+
+        // Shuffle each stratum once, so that each sample is a prefix of it and contains the smaller samples
+        Collections.shuffle(groups, random);
+        Collections.shuffle(singlesD1, random);
+        Collections.shuffle(singlesD2, random);
+
+        List<ProfileSample> samples = new ArrayList<>();
+        for (double fraction : fractions) {
+            // Select the nodes of the sample
+            boolean[] isSampled = new boolean[noOfNodes];
+            for (List<Integer> group : groups.subList(0, getSampleSize(groups.size(), fraction))) {
+                for (int node : group) {
+                    isSampled[node] = true;
+                }
+            }
+            for (int node : singlesD1.subList(0, getSampleSize(singlesD1.size(), fraction))) {
+                isSampled[node] = true;
+            }
+            for (int node : singlesD2.subList(0, getSampleSize(singlesD2.size(), fraction))) {
+                isSampled[node] = true;
+            }
+
+            // Keep the sampled profiles in their original order, and map their IDs to their index in the sample
+            int[] sampleIds = new int[noOfNodes];
+            List<EntityProfile> sampleD1 = new ArrayList<>();
+            List<EntityProfile> sampleD2 = (profilesD2 != null) ? new ArrayList<>() : null;
+            for (int i = 0; i < noOfNodes; i++) {
+                if (isSampled[i]) {
+                    if (i < noOfEntitiesD1) {
+                        sampleIds[i] = sampleD1.size();
+                        sampleD1.add(profilesD1.get(i));
+                    } else {
+                        sampleIds[i] = sampleD2.size();
+                        sampleD2.add(profilesD2.get(i - noOfEntitiesD1));
+                    }
+                }
+            }
+
+            // Restrict the ground truth to the sampled profiles (groups are sampled whole, so both or none are)
+            Set<IdDuplicates> sampleDuplicates = new HashSet<>();
+            for (IdDuplicates duplicate : duplicates) {
+                int node1 = duplicate.getEntityId1();
+                int node2 = datasetLimit + duplicate.getEntityId2();
+                if (isSampled[node1]) {
+                    sampleDuplicates.add(new IdDuplicates(sampleIds[node1], sampleIds[node2]));
+                }
+            }
+            AbstractDuplicatePropagation sampleDuplicatePropagation = (profilesD2 != null) ?
+                    new BilateralDuplicatePropagation(sampleDuplicates) :
+                    new UnilateralDuplicatePropagation(sampleDuplicates);
+
+            samples.add(new ProfileSample(sampleD1, sampleD2, sampleDuplicatePropagation));
+        }
+
+        return samples;
+    }
+
+    /**
+     * Get the root of a node's tree in a union-find structure, compressing the path to it
+     *
+     * @param parent Parent of each node
+     * @param node   Node to get the root of
+     * @return Root of the node
+     */
+    private static int getRoot(int[] parent, int node) {
+        int root = node;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[node] != root) {
+            int next = parent[node];
+            parent[node] = root;
+            node = next;
+        }
+
+        return root;
+    }
+
+    /**
+     * Get the number of items to sample from a stratum
+     *
+     * @param size     Size of the stratum
+     * @param fraction Fraction of the stratum to sample
+     * @return Number of items to sample (at least one, if the stratum is not empty)
+     */
+    private static int getSampleSize(int size, double fraction) {
+        return (int) Math.min(size, Math.ceil(size * fraction));
+    }
+}
@@ -0,0 +1,14 @@
+package org.scify.jedai.gui.utilities;
+
+/**
+ * Listener of the progress of a running workflow, which is notified of the workflow's status (e.g. the step that is
+ * running). It is called from the thread that runs the workflow, and from the threads of its parallel trials.
+ */
+public interface ProgressListener {
+    /**
+     * Notify the listener of the current status of the workflow
+     *
+     * @param status Description of the current status
+     */
+    void setStatus(String status);
+}
@@ -0,0 +1,61 @@
+package org.scify.jedai.gui.utilities;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Loading and storing the properties files of the local stores (automatic configurations, step costs). Files are
+ * replaced atomically, so that readers never see a partially written file.
+ */
+final class PropertiesFiles {
+    private PropertiesFiles() {
+    }
+
+    /**
+     * Load a properties file
+     *
+     * @param file File to load
+     * @return Loaded properties (empty if the file does not exist yet)
+     * @throws IOException If the file cannot be read
+     */
+    static Properties load(File file) throws IOException {
+        Properties properties = new Properties();
+        if (file.isFile()) {
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+            }
+        }
+
+        return properties;
+    }
+
+    /**
+     * Store properties to a file, through a temporary file of the same directory
+     *
+     * @param file       File to store the properties in
+     * @param properties Properties to store
+     * @param comments   Comments to write at the top of the file
+     * @throws IOException If the file cannot be written
+     */
+    static void store(File file, Properties properties, String comments) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+
+        File tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            try (OutputStream out = new FileOutputStream(tempFile)) {
+                properties.store(out, comments);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                System.err.println("Cannot delete temporary file " + tempFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.scify.jedai.gui.utilities;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Budget of automatic configuration, besides its number of trials. The wall-clock limit is a deadline that is shared
+ * by all searches of a workflow, while the convergence criterion applies to each search separately: a search stops
+ * when its best performance has not improved by more than minImprovement in its last (patience) trials. The budget
+ * also runs out when the workflow is cancelled.
+ */
+public class SearchBudget {
+    private final long deadline;
+    private final int patience;
+    private final double minImprovement;
+    private final AtomicBoolean cancelled;
+
+    /**
+     * Search budget constructor
+     *
+     * @param deadline       Time (in milliseconds, as System.currentTimeMillis()) after which no new trials start
+     *                       (Long.MAX_VALUE for no limit)
+     * @param patience       Number of trials without improvement after which a search stops (0 for no limit)
+     * @param minImprovement Minimum increase of the best performance that counts as an improvement
+     */
+    public SearchBudget(long deadline, int patience, double minImprovement) {
+        this(deadline, patience, minImprovement, new AtomicBoolean());
+    }
+
+    /**
+     * Search budget constructor
+     *
+     * @param deadline       Time (in milliseconds, as System.currentTimeMillis()) after which no new trials start
+     *                       (Long.MAX_VALUE for no limit)
+     * @param patience       Number of trials without improvement after which a search stops (0 for no limit)
+     * @param minImprovement Minimum increase of the best performance that counts as an improvement
+     * @param cancelled      Flag that is set when the workflow is cancelled (shared with the workflow)
+     */
+    public SearchBudget(long deadline, int patience, double minImprovement, AtomicBoolean cancelled) {
+        this.deadline = deadline;
+        this.patience = patience;
+        this.minImprovement = minImprovement;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Create a search budget that starts now
+     *
+     * @param maxSeconds     Maximum wall-clock time of automatic configuration in seconds (0 for no limit)
+     * @param patience       Number of trials without improvement after which a search stops (0 for no limit)
+     * @param minImprovement Minimum increase of the best performance that counts as an improvement
+     * @param cancelled      Flag that is set when the workflow is cancelled (shared with the workflow)
+     * @return Search budget
+     */
+    public static SearchBudget startingNow(int maxSeconds, int patience, double minImprovement,
+                                           AtomicBoolean cancelled) {
+        long deadline = (maxSeconds > 0) ? System.currentTimeMillis() + 1000L * maxSeconds : Long.MAX_VALUE;
+        return new SearchBudget(deadline, patience, minImprovement, cancelled);
+    }
+
+    /**
+     * Get a budget with the same deadline, but without the convergence criterion (e.g. for searches whose trials
+     * are not comparable with each other in order)
+     *
+     * @return Search budget with only the deadline
+     */
+    public SearchBudget getTimeBudget() {
+        return new SearchBudget(deadline, 0, 0, cancelled);
+    }
+
+    /**
+     * Check if the wall-clock limit has been reached
+     *
+     * @return True if no new trials should start
+     */
+    public boolean isTimeUp() {
+        return deadline <= System.currentTimeMillis();
+    }
+
+    /**
+     * Check if the workflow was cancelled
+     *
+     * @return True if no new trials should start, and the running ones should stop
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Check if a search has converged
+     *
+     * @param trialsWithoutImprovement Number of the search's latest trials that did not improve its best performance
+     * @return True if the search should stop
+     */
+    public boolean hasConverged(int trialsWithoutImprovement) {
+        return 0 < patience && patience <= trialsWithoutImprovement;
+    }
+
+    /**
+     * Check if a performance improves on the best performance of a search
+     *
+     * @param performance     Performance of a trial
+     * @param bestPerformance Best performance of the search so far
+     * @return True if the performance is higher than the best one by more than the minimum improvement
+     */
+    public boolean isImprovement(double performance, double bestPerformance) {
+        return bestPerformance + minImprovement < performance;
+    }
+}
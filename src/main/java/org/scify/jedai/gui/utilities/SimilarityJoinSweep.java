@@ -0,0 +1,162 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.datamodel.Comparison;
+import org.scify.jedai.datamodel.SimilarityPairs;
+import org.scify.jedai.similarityjoins.ISimilarityJoin;
+import org.scify.jedai.similarityjoins.characterbased.AbstractCharacterBasedJoin;
+
+import java.util.Arrays;
+
+/**
+ * Answers a similarity join for many thresholds with a single run of the join. The pairs of a join are also returned
+ * by the same join with any looser threshold, so the join runs once with the loosest threshold, its pairs are sorted
+ * from the strictest to the loosest, and the pairs of each stricter threshold are a prefix of them.
+ * Character-based joins return the pairs with an edit distance up to the threshold, with a similarity of
+ * 1 - distance / threshold, so their pairs are sorted by edit distance. Token-based joins return the pairs with a
+ * Jaccard similarity of at least the threshold, so their pairs are sorted by descending similarity.
+ */
+public class SimilarityJoinSweep {
+    private final boolean isCleanCleanEr;
+    private final boolean isEditDistance;
+
+    private final int[] entityIds1;
+    private final int[] entityIds2;
+
+    // Edit distance (character-based joins) or similarity (token-based joins) of each pair
+    private final float[] values;
+
+    // Indices of the pairs and their values, sorted from the strictest to the loosest
+    private final int[] sortedPairs;
+    private final float[] sortedValues;
+
+    /**
+     * Similarity join sweep constructor. Sorts the pairs of the join.
+     *
+     * @param sims Similarity pairs returned by the join
+     * @param join Similarity join method, configured with the threshold it returned the pairs with
+     */
+    public SimilarityJoinSweep(SimilarityPairs sims, ISimilarityJoin join) {
+        this.isCleanCleanEr = sims.isCleanCleanER();
+        this.isEditDistance = isEditDistanceJoin(join);
+
+        int noOfPairs = sims.getNoOfComparisons();
+        this.entityIds1 = Arrays.copyOf(sims.getEntityIds1(), noOfPairs);
+        this.entityIds2 = Arrays.copyOf(sims.getEntityIds2(), noOfPairs);
+        this.values = new float[noOfPairs];
+
+        float threshold = getThreshold(join);
+        float[] similarities = sims.getSimilarities();
+        for (int i = 0; i < noOfPairs; i++) {
+            // Get the edit distance back from the similarity of character-based joins
+            values[i] = isEditDistance ? Math.round((1 - similarities[i]) * threshold) : similarities[i];
+        }
+
+        // Sort the pairs as longs, with the (order-preserving) bits of the value before the pair's index
+        long[] keys = new long[noOfPairs];
+        for (int i = 0; i < noOfPairs; i++) {
+            int bits = Float.floatToIntBits(isEditDistance ? values[i] : -values[i]);
+            bits ^= (bits >> 31) & Integer.MAX_VALUE;
+            keys[i] = ((long) bits << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        this.sortedPairs = new int[noOfPairs];
+        this.sortedValues = new float[noOfPairs];
+        for (int i = 0; i < noOfPairs; i++) {
+            sortedPairs[i] = (int) keys[i];
+            sortedValues[i] = values[sortedPairs[i]];
+        }
+    }
+
+    /**
+     * Get the number of pairs that the join returns with the given threshold
+     *
+     * @param threshold Threshold of the join (not looser than the one it ran with)
+     * @return Number of pairs
+     */
+    public int getNoOfPairs(float threshold) {
+        // Binary search for the first pair that is not returned with the threshold
+        int low = 0;
+        int high = sortedValues.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            boolean isReturned = isEditDistance ?
+                    sortedValues[middle] <= threshold : threshold <= sortedValues[middle];
+            if (isReturned) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Get the similarity pairs that the join returns with the given threshold, in the order that the join returned
+     * them.
+     *
+     * @param threshold Threshold of the join (not looser than the one it ran with)
+     * @return Similarity pairs of the threshold
+     */
+    public SimilarityPairs getSimilarityPairs(float threshold) {
+        int noOfPairs = getNoOfPairs(threshold);
+        int[] pairs = Arrays.copyOf(sortedPairs, noOfPairs);
+        Arrays.sort(pairs);
+
+        SimilarityPairs sims = new SimilarityPairs(isCleanCleanEr, noOfPairs);
+        for (int pair : pairs) {
+            Comparison comparison = new Comparison(isCleanCleanEr, entityIds1[pair], entityIds2[pair]);
+            comparison.setUtilityMeasure(isEditDistance ? 1 - values[pair] / threshold : values[pair]);
+            sims.addComparison(comparison);
+        }
+
+        return sims;
+    }
+
+    /**
+     * Get the threshold that a similarity join method is currently configured with. JedAI does not provide a getter
+     * for it, so it is read from the method's configuration, where it is the first parameter.
+     *
+     * @param join Similarity join method
+     * @return Threshold of the method
+     */
+    public static float getThreshold(ISimilarityJoin join) {
+        String configuration = join.getMethodConfiguration();
+        int start = configuration.indexOf('=') + 1;
+        int end = configuration.indexOf(',', start);
+
+        return Float.parseFloat(configuration.substring(start, (end < 0) ? configuration.length() : end).trim());
+    }
+
+    /**
+     * Get the loosest of the given thresholds of a similarity join method, which is the highest edit distance for
+     * character-based joins, and the lowest similarity for token-based joins.
+     *
+     * @param join       Similarity join method
+     * @param thresholds Thresholds of the method
+     * @return Index of the first loosest threshold
+     */
+    public static int getLoosestThreshold(ISimilarityJoin join, float[] thresholds) {
+        boolean isEditDistance = isEditDistanceJoin(join);
+
+        int loosest = 0;
+        for (int i = 0; i < thresholds.length; i++) {
+            if (isEditDistance ? thresholds[loosest] < thresholds[i] : thresholds[i] < thresholds[loosest]) {
+                loosest = i;
+            }
+        }
+
+        return loosest;
+    }
+
+    /**
+     * Check if a similarity join method uses an edit distance threshold (instead of a similarity threshold)
+     *
+     * @param join Similarity join method
+     * @return True if the method is a character-based join
+     */
+    private static boolean isEditDistanceJoin(ISimilarityJoin join) {
+        return join instanceof AbstractCharacterBasedJoin;
+    }
+}
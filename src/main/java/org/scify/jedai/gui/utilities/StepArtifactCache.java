@@ -0,0 +1,383 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.datamodel.AbstractBlock;
+import org.scify.jedai.datamodel.Attribute;
+import org.scify.jedai.datamodel.EntityProfile;
+import org.scify.jedai.datamodel.SimilarityPairs;
+import org.scify.jedai.utilities.datastructures.AbstractDuplicatePropagation;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Cache for the outputs of the workflow steps of consecutive runs (datasets, attribute clusters, blocks and
+ * similarities), so that a run only executes the steps whose configuration changed since a previous run. Keeps the
+ * most recently used outputs in memory, up to a memory budget (estimated from the size of each output). Outputs that
+ * are evicted from memory can be spilled to files of a directory, and read back when they are needed again (if they
+ * are serializable, otherwise they are dropped). It can be shared by runs in parallel: if a run needs an output that
+ * another run is computing (or reading back), it waits for it. The files are written and read outside of the cache's
+ * lock, so that a run does not wait for the file of another output.
+ */
+public class StepArtifactCache implements StepCache {
+    private final Map<String, Artifact> artifacts;
+    private final Map<String, File> spilledArtifacts;
+    // Outputs that are computed or read back from their spill file
+    private final Map<String, FutureTask<Object>> pendingArtifacts;
+    // Evicted outputs that are being written to their spill file
+    private final Map<String, Object> spillingArtifacts;
+    private long memoryBudget;
+    private long memoryUsage;
+    private File spillDirectory;
+
+    /**
+     * Output of a step that is kept in memory
+     */
+    private static class Artifact {
+        private final Object output;
+        private final long size;
+
+        private Artifact(Object output, long size) {
+            this.output = output;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Evicted output that is to be written to its spill file
+     */
+    private static class Eviction {
+        private final String key;
+        private final Object output;
+        private final File file;
+
+        private Eviction(String key, Object output, File file) {
+            this.key = key;
+            this.output = output;
+            this.file = file;
+        }
+    }
+
+    /**
+     * Step artifact cache constructor
+     *
+     * @param memoryBudget   Maximum (estimated) size of the outputs that are kept in memory, in bytes (0 to not cache)
+     * @param spillDirectory Directory to spill the outputs that are evicted from memory to (null to drop them)
+     */
+    public StepArtifactCache(long memoryBudget, File spillDirectory) {
+        this.artifacts = new LinkedHashMap<>(16, 0.75f, true);
+        this.spilledArtifacts = new HashMap<>();
+        this.pendingArtifacts = new HashMap<>();
+        this.spillingArtifacts = new HashMap<>();
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getOutput(String key, Callable<T> step) throws Exception {
+        FutureTask<Object> task;
+        boolean isNew = false;
+        synchronized (this) {
+            Artifact artifact = artifacts.get(key);
+            if (artifact != null) {
+                return (T) artifact.output;
+            }
+            if (spillingArtifacts.containsKey(key)) {
+                return (T) spillingArtifacts.get(key);
+            }
+
+            task = pendingArtifacts.get(key);
+            if (task == null) {
+                File file = spilledArtifacts.get(key);
+                task = new FutureTask<>(() -> {
+                    Object output = (file != null) ? readSpilledOutput(key, file) : null;
+                    return (output != null) ? output : step.call();
+                });
+                pendingArtifacts.put(key, task);
+                isNew = true;
+            }
+        }
+
+        // Read the spill file or run the step outside of the lock, so that other steps can run in parallel
+        if (isNew) {
+            task.run();
+
+            List<Eviction> evictions = new ArrayList<>();
+            synchronized (this) {
+                pendingArtifacts.remove(key, task);
+                Object output = getDone(task);
+                if (output != null && !artifacts.containsKey(key)) {
+                    Artifact artifact = new Artifact(output, estimateSize(output));
+                    artifacts.put(key, artifact);
+                    memoryUsage += artifact.size;
+                    evict(evictions);
+                }
+            }
+            spill(evictions);
+        }
+
+        try {
+            return (T) task.get();
+        } catch (ExecutionException e) {
+            // Failures are not cached
+            throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Check if the output of a step is cached (in memory or spilled)
+     *
+     * @param key Key of the step's output
+     * @return True if the step will not run to get its output
+     */
+    public synchronized boolean contains(String key) {
+        return artifacts.containsKey(key) || spilledArtifacts.containsKey(key) || pendingArtifacts.containsKey(key)
+                || spillingArtifacts.containsKey(key);
+    }
+
+    /**
+     * Set the memory budget and spill directory of the cache, evicting outputs to fit the new budget
+     *
+     * @param memoryBudget   Maximum (estimated) size of the outputs that are kept in memory, in bytes (0 to not cache)
+     * @param spillDirectory Directory to spill the outputs that are evicted from memory to (null to drop them)
+     */
+    public void setLimits(long memoryBudget, File spillDirectory) {
+        List<Eviction> evictions = new ArrayList<>();
+        synchronized (this) {
+            this.memoryBudget = memoryBudget;
+            this.spillDirectory = spillDirectory;
+            evict(evictions);
+        }
+        spill(evictions);
+    }
+
+    /**
+     * Remove the outputs whose keys start with a prefix from the cache, and delete their spill files
+     *
+     * @param keyPrefix Prefix of the keys of the steps' outputs
+     */
+    public void removeByPrefix(String keyPrefix) {
+        List<File> files = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Artifact>> iterator = artifacts.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Artifact> entry = iterator.next();
+                if (entry.getKey().startsWith(keyPrefix)) {
+                    iterator.remove();
+                    memoryUsage -= entry.getValue().size;
+                }
+            }
+
+            // Outputs that are being spilled have their files deleted when the spill ends
+            spillingArtifacts.keySet().removeIf(key -> key.startsWith(keyPrefix));
+
+            Iterator<Map.Entry<String, File>> spillIterator = spilledArtifacts.entrySet().iterator();
+            while (spillIterator.hasNext()) {
+                Map.Entry<String, File> entry = spillIterator.next();
+                if (entry.getKey().startsWith(keyPrefix)) {
+                    spillIterator.remove();
+                    files.add(entry.getValue());
+                }
+            }
+        }
+
+        deleteFiles(files);
+    }
+
+    /**
+     * Remove all outputs from the cache, and delete their spill files
+     */
+    public void clear() {
+        List<File> files;
+        synchronized (this) {
+            artifacts.clear();
+            memoryUsage = 0;
+            spillingArtifacts.clear();
+            files = new ArrayList<>(spilledArtifacts.values());
+            spilledArtifacts.clear();
+        }
+
+        deleteFiles(files);
+    }
+
+    /**
+     * Get the (estimated) size of the outputs that are kept in memory
+     *
+     * @return Size in bytes
+     */
+    public synchronized long getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * Evict the least recently used outputs until the rest fit in the memory budget (which may include the newest
+     * output, if it does not fit by itself). Must be called while holding the lock.
+     *
+     * @param evictions List to add the outputs that are to be spilled to
+     */
+    private void evict(List<Eviction> evictions) {
+        Iterator<Map.Entry<String, Artifact>> iterator = artifacts.entrySet().iterator();
+        while (memoryUsage > memoryBudget && iterator.hasNext()) {
+            Map.Entry<String, Artifact> entry = iterator.next();
+            iterator.remove();
+            memoryUsage -= entry.getValue().size;
+
+            // Spill the output if there is a spill directory and the output is serializable (and not spilled yet)
+            String key = entry.getKey();
+            Object output = entry.getValue().output;
+            if (spillDirectory != null && output instanceof Serializable && !spilledArtifacts.containsKey(key)
+                    && !spillingArtifacts.containsKey(key)) {
+                spillingArtifacts.put(key, output);
+                evictions.add(new Eviction(key, output, new File(spillDirectory, getHash(key) + ".ser")));
+            }
+        }
+    }
+
+    /**
+     * Write evicted outputs to their spill files, without holding the lock. The outputs remain available until their
+     * files are written.
+     *
+     * @param evictions Evicted outputs
+     */
+    private void spill(List<Eviction> evictions) {
+        for (Eviction eviction : evictions) {
+            File file = eviction.file;
+            boolean isWritten = false;
+            try {
+                File directory = file.getParentFile();
+                if (!directory.isDirectory() && !directory.mkdirs()) {
+                    throw new IOException("Cannot create directory " + directory);
+                }
+                try (ObjectOutputStream out = new ObjectOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(file)))) {
+                    out.writeObject(eviction.output);
+                }
+                file.deleteOnExit();
+                isWritten = true;
+            } catch (IOException e) {
+                // The output is dropped (e.g. if a list contains objects that are not serializable)
+            }
+
+            // Keep the file, unless the output was removed from the cache while it was written
+            boolean isKept;
+            synchronized (this) {
+                isKept = spillingArtifacts.remove(eviction.key) != null && isWritten;
+                if (isKept) {
+                    spilledArtifacts.put(eviction.key, file);
+                }
+            }
+            if (!isKept && !file.delete() && file.exists()) {
+                System.err.println("Cannot delete step cache file " + file);
+            }
+        }
+    }
+
+    /**
+     * Read an output from its spill file, without holding the lock
+     *
+     * @param key  Key of the step's output
+     * @param file Spill file of the output
+     * @return Output of the step, or null if it cannot be read
+     */
+    private Object readSpilledOutput(String key, File file) {
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Cannot read step cache file " + file + ": " + e.getMessage());
+            synchronized (this) {
+                spilledArtifacts.remove(key, file);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Get the output of a step that has run, without its failure
+     *
+     * @param task Task of the step
+     * @return Output of the step, or null if it failed
+     */
+    private static Object getDone(FutureTask<Object> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException | InterruptedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Delete the spill files of removed outputs
+     *
+     * @param files Spill files
+     */
+    private static void deleteFiles(List<File> files) {
+        for (File file : files) {
+            if (!file.delete()) {
+                System.err.println("Cannot delete step cache file " + file);
+            }
+        }
+    }
+
+    /**
+     * Get the hash of a key, for naming its spill file
+     *
+     * @param key Key of the step's output
+     * @return Hexadecimal SHA-256 hash of the key
+     */
+    private static String getHash(String key) {
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8))) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Estimate the size of a step's output in memory. The estimates are rough, based on the sizes of the arrays and
+     * strings that the outputs consist of.
+     *
+     * @param output Output of the step
+     * @return Estimated size in bytes
+     */
+    static long estimateSize(Object output) {
+        long size = 16;
+        if (output instanceof List) {
+            for (Object element : (List<?>) output) {
+                size += 8;
+                if (element instanceof EntityProfile) {
+                    EntityProfile profile = (EntityProfile) element;
+                    size += 48 + 2L * profile.getEntityUrl().length();
+                    for (Attribute attribute : profile.getAttributes()) {
+                        size += 80 + 2L * (attribute.getName().length() + attribute.getValue().length());
+                    }
+                } else if (element instanceof AbstractBlock) {
+                    size += 48 + 4L * (long) ((AbstractBlock) element).getTotalBlockAssignments();
+                }
+            }
+        } else if (output instanceof SimilarityPairs) {
+            size += 12L * ((SimilarityPairs) output).getSimilarities().length;
+        } else if (output instanceof AbstractDuplicatePropagation) {
+            size += 64L * ((AbstractDuplicatePropagation) output).getDuplicates().size();
+        } else if (output instanceof Object[]) {
+            size += 1024L * ((Object[]) output).length;
+        }
+
+        return size;
+    }
+}
@@ -0,0 +1,22 @@
+package org.scify.jedai.gui.utilities;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache for the outputs of workflow steps. Each output is keyed by the configuration of its step and of every step
+ * before it (see TrialStepCache.getKey), so that only the steps whose configuration changed (and the steps after them)
+ * are run again.
+ */
+public interface StepCache {
+    /**
+     * Get the output of a step from the cache, or run the step if its output is not cached. The output may be shared,
+     * so it should not be modified.
+     *
+     * @param key  Key of the step's output
+     * @param step Step to run
+     * @param <T>  Type of the step's output
+     * @return Output of the step
+     * @throws Exception If the step fails
+     */
+    <T> T getOutput(String key, Callable<T> step) throws Exception;
+}
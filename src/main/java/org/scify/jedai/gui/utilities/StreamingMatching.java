@@ -0,0 +1,142 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.datamodel.AbstractBlock;
+import org.scify.jedai.datamodel.Comparison;
+import org.scify.jedai.datamodel.ComparisonIterator;
+import org.scify.jedai.datamodel.SimilarityPairs;
+import org.scify.jedai.entitymatching.IEntityMatching;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Executes the comparisons of blocks with an entity matching method as a stream. A producer thread takes the blocks
+ * in order, releases each one from the blocks list, and splits their comparisons into batches, which are compared by
+ * a pool of threads. The batches that are waiting or being compared are kept in a bounded queue, in the order of the
+ * blocks: the producer waits while the queue is full (so that the comparisons in memory are bounded by the queue's
+ * capacity), and the similarities of the batches are added from the head of the queue, so they are the same as those
+ * of the method's executeComparisons.
+ * The entity matching instance is shared by the threads, as JedAI's methods only read the representations of the
+ * profiles when comparing them. The graph models modify a global comparator when comparing, so their batches are
+ * compared by a single thread.
+ */
+public class StreamingMatching {
+    // Number of comparisons of each batch
+    private final static int BATCH_SIZE = 1000;
+
+    private final IEntityMatching entityMatching;
+    private final int noOfThreads;
+    private final int capacity;
+
+    /**
+     * Streaming matching constructor
+     *
+     * @param entityMatching Entity matching method to compare the profiles with
+     * @param noOfThreads    Number of threads that compare the batches (at least one, and one if the method does not
+     *                       support concurrent comparisons)
+     * @param capacity       Maximum number of batches that can wait or be compared at the same time
+     */
+    public StreamingMatching(IEntityMatching entityMatching, int noOfThreads, int capacity) {
+        this.entityMatching = entityMatching;
+        this.noOfThreads = GuardedEntityMatching.supportsConcurrentComparisons(entityMatching) ?
+                Math.max(1, noOfThreads) : 1;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Execute the comparisons of the given blocks. The blocks list is emptied while its comparisons are executed, so
+     * that the blocks can be garbage collected.
+     *
+     * @param blocks         Blocks to execute the comparisons of
+     * @param isCleanCleanER True for Clean-Clean ER, false for Dirty ER
+     * @return Similarities of the comparisons that have a similarity higher than 0
+     * @throws Exception If comparing the profiles fails
+     */
+    public SimilarityPairs executeComparisons(List<AbstractBlock> blocks, boolean isCleanCleanER) throws Exception {
+        // The pairs have the same capacity as those of the method's executeComparisons
+        SimilarityPairs sims = new SimilarityPairs(isCleanCleanER, blocks);
+
+        // The producer adds an empty batch after the last one
+        CompletableFuture<List<Comparison>> end = CompletableFuture.completedFuture(null);
+        BlockingQueue<Future<List<Comparison>>> queue = new ArrayBlockingQueue<>(capacity);
+
+        ExecutorService executor = Executors.newFixedThreadPool(noOfThreads + 1);
+        try {
+            // The producer adds the empty batch when it finishes or fails (it is only interrupted after the stream
+            // has stopped)
+            Future<?> producer = executor.submit(() -> {
+                try {
+                    List<Comparison> batch = new ArrayList<>(BATCH_SIZE);
+                    for (int i = 0; i < blocks.size(); i++) {
+                        ComparisonIterator iterator = blocks.get(i).getComparisonIterator();
+                        blocks.set(i, null);
+                        while (iterator.hasNext()) {
+                            batch.add(iterator.next());
+                            if (batch.size() == BATCH_SIZE) {
+                                queue.put(compareBatch(executor, batch));
+                                batch = new ArrayList<>(BATCH_SIZE);
+                            }
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        queue.put(compareBatch(executor, batch));
+                    }
+                    blocks.clear();
+                    queue.put(end);
+                } catch (RuntimeException e) {
+                    queue.put(end);
+                    throw e;
+                }
+                return null;
+            });
+
+            // Add the similarities of the batches in order, until the empty batch
+            Future<List<Comparison>> next;
+            while ((next = queue.take()) != end) {
+                for (Comparison comparison : next.get()) {
+                    sims.addComparison(comparison);
+                }
+            }
+
+            // Throw the producer's exception, if it failed
+            producer.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return sims;
+    }
+
+    /**
+     * Submit a batch of comparisons to be compared
+     *
+     * @param executor Executor to compare the batch on
+     * @param batch    Comparisons of the batch
+     * @return Future with the comparisons that have a similarity higher than 0 (with their similarity set)
+     */
+    private Future<List<Comparison>> compareBatch(ExecutorService executor, List<Comparison> batch) {
+        return executor.submit(() -> {
+            List<Comparison> similarComparisons = new ArrayList<>();
+            for (Comparison comparison : batch) {
+                float similarity = entityMatching.executeComparison(comparison);
+                if (0 < similarity) {
+                    comparison.setUtilityMeasure(similarity);
+                    similarComparisons.add(comparison);
+                }
+            }
+            return similarComparisons;
+        });
+    }
+}
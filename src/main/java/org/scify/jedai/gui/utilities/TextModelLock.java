@@ -0,0 +1,112 @@
+package org.scify.jedai.gui.utilities;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * JVM-wide locks for the global state of JedAI's text models: the document frequencies and document count of the
+ * TF-IDF models (reset by RepresentationModel.resetGlobalValues and updated by every model constructor), and the
+ * comparator shared by the graph models. Every section that builds text models (entity matching, schema clustering,
+ * LSH blocking) runs exclusively and records the key of the global values it leaves behind, so that a matcher can tell
+ * whether the values its models were built with have been overwritten since.
+ */
+public final class TextModelLock {
+    private static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
+    private static final Object COMPARATOR_LOCK = new Object();
+    // Key of the current global values, or null if they were left by a section without one
+    private static Object globalValuesKey = null;
+
+    private TextModelLock() {
+    }
+
+    /**
+     * Run a section that builds and compares text models (and thus overwrites their global values and uses the graph
+     * comparator), while no other section that builds or compares text models is running.
+     *
+     * @param section Section to run
+     * @param <T>     Type of the section's result
+     * @return Result of the section
+     */
+    public static <T> T runExclusively(Supplier<T> section) {
+        LOCK.writeLock().lock();
+        try {
+            synchronized (COMPARATOR_LOCK) {
+                globalValuesKey = null;
+                return section.get();
+            }
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Run a section that builds text models, while no other section uses their global values. The global values are
+     * then the ones of the key of the section's result.
+     *
+     * @param section Section to run
+     * @param keyOf   Gets the key of the global values from the section's result
+     * @param <T>     Type of the section's result
+     * @return Result of the section
+     */
+    static <T> T runExclusively(Supplier<T> section, Function<T, Object> keyOf) {
+        LOCK.writeLock().lock();
+        try {
+            globalValuesKey = null;
+            T result = section.get();
+            globalValuesKey = keyOf.apply(result);
+            return result;
+        } finally {
+            LOCK.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Run a section that reads the global values of the given key, sharing them with other sections that read them.
+     * If the global values have been overwritten, they are first built again, exclusively.
+     *
+     * @param key     Key of the global values the section reads
+     * @param rebuild Builds the global values of the key again
+     * @param section Section to run
+     * @param <T>     Type of the section's result
+     * @return Result of the section
+     */
+    static <T> T runWithGlobalValues(Object key, Runnable rebuild, Supplier<T> section) {
+        LOCK.readLock().lock();
+        if (!key.equals(globalValuesKey)) {
+            LOCK.readLock().unlock();
+            LOCK.writeLock().lock();
+            try {
+                // Another thread may have built them while waiting for the lock
+                if (!key.equals(globalValuesKey)) {
+                    globalValuesKey = null;
+                    rebuild.run();
+                    globalValuesKey = key;
+                }
+                LOCK.readLock().lock();
+            } finally {
+                LOCK.writeLock().unlock();
+            }
+        }
+
+        try {
+            return section.get();
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    /**
+     * Run a section that uses the comparator of the graph models, which does not read the global values but keeps
+     * the state of each comparison in itself.
+     *
+     * @param section Section to run
+     * @param <T>     Type of the section's result
+     * @return Result of the section
+     */
+    static <T> T runWithGraphComparator(Supplier<T> section) {
+        synchronized (COMPARATOR_LOCK) {
+            return section.get();
+        }
+    }
+}
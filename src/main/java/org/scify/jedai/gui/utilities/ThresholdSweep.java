@@ -0,0 +1,139 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.datamodel.SimilarityPairs;
+import org.scify.jedai.utilities.datastructures.AbstractDuplicatePropagation;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates Connected Components Clustering on the same similarity pairs for many similarity thresholds in a single
+ * pass, instead of clustering the pairs and creating a ClustersPerformance for each threshold. The similarity edges
+ * are sorted once, and the thresholds are swept in descending order, adding the edges above each threshold to an
+ * incremental clustering whose performance is updated on each merge.
+ */
+public class ThresholdSweep {
+    private final int noOfEntitiesD1;
+    private final int noOfEntitiesD2;
+    private final boolean isCleanCleanEr;
+    private final AbstractDuplicatePropagation duplicatePropagation;
+
+    private final int[] entityIds1;
+    private final int[] entityIds2;
+    private final float[] similarities;
+
+    // Indices of the similarity pairs, sorted by descending similarity
+    private final int[] sortedPairs;
+
+    private float[] recalls;
+    private float[] precisions;
+    private float[] fMeasures;
+    private int bestThreshold;
+
+    /**
+     * Threshold sweep constructor. Sorts the similarity pairs by similarity.
+     *
+     * @param sims                 Similarity pairs to cluster
+     * @param noOfEntitiesD1       Number of entity profiles in the 1st dataset
+     * @param noOfEntitiesD2       Number of entity profiles in the 2nd dataset (ignored for Dirty ER)
+     * @param duplicatePropagation Duplicate propagation with the ground truth
+     */
+    public ThresholdSweep(SimilarityPairs sims, int noOfEntitiesD1, int noOfEntitiesD2,
+                          AbstractDuplicatePropagation duplicatePropagation) {
+        this.noOfEntitiesD1 = noOfEntitiesD1;
+        this.noOfEntitiesD2 = noOfEntitiesD2;
+        this.isCleanCleanEr = sims.isCleanCleanER();
+        this.duplicatePropagation = duplicatePropagation;
+
+        int noOfPairs = sims.getNoOfComparisons();
+        this.entityIds1 = sims.getEntityIds1();
+        this.entityIds2 = sims.getEntityIds2();
+        this.similarities = sims.getSimilarities();
+
+        // Sort the pairs as longs, with the (order-preserving) bits of the similarity before the pair's index
+        long[] keys = new long[noOfPairs];
+        for (int i = 0; i < noOfPairs; i++) {
+            int bits = Float.floatToIntBits(similarities[i]);
+            bits ^= (bits >> 31) & Integer.MAX_VALUE;
+            keys[i] = ((long) bits << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        this.sortedPairs = new int[noOfPairs];
+        for (int i = 0; i < noOfPairs; i++) {
+            sortedPairs[i] = (int) keys[noOfPairs - 1 - i];
+        }
+    }
+
+    /**
+     * Evaluate the clusters of each given threshold. As in ConnectedComponentsClustering, a pair connects its entities
+     * if its similarity is higher than the threshold.
+     *
+     * @param thresholds Similarity thresholds to evaluate
+     */
+    public void sweep(float[] thresholds) {
+        int noOfThresholds = thresholds.length;
+        recalls = new float[noOfThresholds];
+        precisions = new float[noOfThresholds];
+        fMeasures = new float[noOfThresholds];
+
+        // Visit the thresholds in descending order
+        long[] keys = new long[noOfThresholds];
+        for (int i = 0; i < noOfThresholds; i++) {
+            int bits = Float.floatToIntBits(thresholds[i]);
+            bits ^= (bits >> 31) & Integer.MAX_VALUE;
+            keys[i] = ((long) bits << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        // The pairs are only added when they are above the current threshold, so the clustering accepts all of them
+        IncrementalClustering clustering = new IncrementalClustering(
+                isCleanCleanEr, noOfEntitiesD1, noOfEntitiesD2, Float.NEGATIVE_INFINITY);
+        IncrementalClustersPerformance performance =
+                new IncrementalClustersPerformance(clustering, duplicatePropagation);
+
+        int nextPair = 0;
+        for (int i = noOfThresholds - 1; 0 <= i; i--) {
+            int thresholdIndex = (int) keys[i];
+            float threshold = thresholds[thresholdIndex];
+
+            // Add the pairs with a similarity higher than the threshold
+            while (nextPair < sortedPairs.length && threshold < similarities[sortedPairs[nextPair]]) {
+                int pair = sortedPairs[nextPair++];
+                clustering.addComparison(entityIds1[pair], entityIds2[pair], similarities[pair]);
+            }
+
+            recalls[thresholdIndex] = performance.getRecall();
+            precisions[thresholdIndex] = performance.getPrecision();
+            fMeasures[thresholdIndex] = performance.getFMeasure();
+        }
+
+        // Keep the first threshold with the best F-Measure
+        bestThreshold = 0;
+        for (int i = 0; i < noOfThresholds; i++) {
+            if (fMeasures[bestThreshold] < fMeasures[i]) {
+                bestThreshold = i;
+            }
+        }
+    }
+
+    public float[] getRecalls() {
+        return recalls;
+    }
+
+    public float[] getPrecisions() {
+        return precisions;
+    }
+
+    public float[] getFMeasures() {
+        return fMeasures;
+    }
+
+    /**
+     * Get the index of the best of the last swept thresholds, which is the first one with the highest F-Measure
+     *
+     * @return Index of the best threshold
+     */
+    public int getBestThreshold() {
+        return bestThreshold;
+    }
+}
@@ -0,0 +1,199 @@
+package org.scify.jedai.gui.utilities;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sequential model-based search with Tree-structured Parzen Estimators (TPE), which proposes the next configuration
+ * from the history of trials. Each configuration has a value for each parameter, which is the number of a grid
+ * configuration of an automatically configured method. The trials are split into the best ones and the rest, the
+ * density of each parameter's values is estimated for each group, and the proposal is the candidate (sampled from the
+ * densities of the best trials) that is most likely to be among the best trials.
+ * Trials can run in parallel: the configurations that were proposed but have not finished yet are counted among the
+ * worst trials, so that parallel proposals explore different configurations. The search can be seeded with known good
+ * configurations, which are proposed first.
+ */
+public class TpeSearch {
+    // Fraction of the trials that are considered the best ones
+    private final static double GOOD_FRACTION = 0.25;
+    // Number of random trials before the proposals use the densities
+    private final static int NO_OF_STARTUP_TRIALS = 10;
+    // Number of candidates that are sampled for each proposal
+    private final static int NO_OF_CANDIDATES = 24;
+    // Weight of a trial's value, and of the values next to it (grid configurations are ordered by their parameters)
+    private final static double VALUE_WEIGHT = 1;
+    private final static double NEIGHBOR_WEIGHT = 0.5;
+
+    private final int[] noOfValues;
+    private final Random random;
+
+    private final List<int[]> configurations;
+    private final List<Double> performances;
+    private final List<int[]> pendingConfigurations;
+    private final Deque<int[]> seedConfigurations;
+
+    /**
+     * TPE search constructor
+     *
+     * @param noOfValues Number of values of each parameter
+     * @param random     Random generator for the proposals
+     */
+    public TpeSearch(int[] noOfValues, Random random) {
+        this.noOfValues = noOfValues;
+        this.random = random;
+        this.configurations = new ArrayList<>();
+        this.performances = new ArrayList<>();
+        this.pendingConfigurations = new ArrayList<>();
+        this.seedConfigurations = new ArrayDeque<>();
+    }
+
+    /**
+     * Add a configuration to propose before any other (e.g. the best configuration of a previous search)
+     *
+     * @param configuration Value of each parameter
+     */
+    public synchronized void addSeedConfiguration(int[] configuration) {
+        seedConfigurations.add(configuration);
+    }
+
+    /**
+     * Propose the next configuration to evaluate. It is pending until its performance is added with addTrial.
+     *
+     * @return Value of each parameter
+     */
+    public synchronized int[] proposeConfiguration() {
+        int[] configuration;
+        if (!seedConfigurations.isEmpty()) {
+            configuration = seedConfigurations.poll();
+        } else if (configurations.size() < NO_OF_STARTUP_TRIALS) {
+            // Not enough trials for the densities, propose a random configuration
+            configuration = new int[noOfValues.length];
+            for (int i = 0; i < noOfValues.length; i++) {
+                configuration[i] = random.nextInt(noOfValues[i]);
+            }
+        } else {
+            configuration = proposeFromDensities();
+        }
+
+        pendingConfigurations.add(configuration);
+        return configuration;
+    }
+
+    /**
+     * Add the performance of a proposed configuration to the history of trials
+     *
+     * @param configuration Configuration returned by proposeConfiguration
+     * @param performance   Performance of the configuration (higher is better)
+     */
+    public synchronized void addTrial(int[] configuration, double performance) {
+        pendingConfigurations.remove(configuration);
+        configurations.add(configuration);
+        performances.add(performance);
+    }
+
+    /**
+     * Propose the candidate with the highest ratio of its density among the best trials to its density among the
+     * rest of the trials (and the pending configurations)
+     *
+     * @return Value of each parameter
+     */
+    private int[] proposeFromDensities() {
+        // Split the trials into the best ones and the rest
+        int noOfTrials = configurations.size();
+        List<Integer> trials = new ArrayList<>();
+        for (int j = 0; j < noOfTrials; j++) {
+            trials.add(j);
+        }
+        trials.sort(Comparator.comparing(performances::get).reversed());
+        int noOfGoodTrials = (int) Math.max(1, Math.ceil(GOOD_FRACTION * noOfTrials));
+
+        List<int[]> goodConfigurations = new ArrayList<>();
+        List<int[]> badConfigurations = new ArrayList<>(pendingConfigurations);
+        for (int j = 0; j < noOfTrials; j++) {
+            (j < noOfGoodTrials ? goodConfigurations : badConfigurations).add(configurations.get(trials.get(j)));
+        }
+
+        double[][] goodDensities = new double[noOfValues.length][];
+        double[][] badDensities = new double[noOfValues.length][];
+        for (int i = 0; i < noOfValues.length; i++) {
+            goodDensities[i] = getDensity(goodConfigurations, i);
+            badDensities[i] = getDensity(badConfigurations, i);
+        }
+
+        // Sample candidates from the densities of the best trials, and keep the one most likely to be among them
+        int[] bestCandidate = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < NO_OF_CANDIDATES; c++) {
+            int[] candidate = new int[noOfValues.length];
+            double score = 0;
+            for (int i = 0; i < noOfValues.length; i++) {
+                candidate[i] = sample(goodDensities[i]);
+                score += Math.log(goodDensities[i][candidate[i]]) - Math.log(badDensities[i][candidate[i]]);
+            }
+
+            if (bestScore < score) {
+                bestCandidate = candidate;
+                bestScore = score;
+            }
+        }
+
+        return bestCandidate;
+    }
+
+    /**
+     * Estimate the density of a parameter's values in a group of configurations. Every value has a uniform prior
+     * weight, so that values that were not tried can still be proposed.
+     *
+     * @param configurations Configurations of the group
+     * @param parameter      Index of the parameter
+     * @return Probability of each value of the parameter
+     */
+    private double[] getDensity(List<int[]> configurations, int parameter) {
+        int size = noOfValues[parameter];
+        double[] density = new double[size];
+        for (int v = 0; v < size; v++) {
+            density[v] = VALUE_WEIGHT / size;
+        }
+
+        double totalWeight = VALUE_WEIGHT;
+        for (int[] configuration : configurations) {
+            int value = configuration[parameter];
+            density[value] += VALUE_WEIGHT;
+            totalWeight += VALUE_WEIGHT;
+            for (int neighbor = value - 1; neighbor <= value + 1; neighbor += 2) {
+                if (0 <= neighbor && neighbor < size) {
+                    density[neighbor] += NEIGHBOR_WEIGHT;
+                    totalWeight += NEIGHBOR_WEIGHT;
+                }
+            }
+        }
+
+        for (int v = 0; v < size; v++) {
+            density[v] /= totalWeight;
+        }
+
+        return density;
+    }
+
+    /**
+     * Sample a value from a density
+     *
+     * @param density Probability of each value
+     * @return Sampled value
+     */
+    private int sample(double[] density) {
+        double r = random.nextDouble();
+        for (int v = 0; v < density.length - 1; v++) {
+            r -= density[v];
+            if (r < 0) {
+                return v;
+            }
+        }
+
+        return density.length - 1;
+    }
+}
@@ -0,0 +1,89 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.utilities.IDocumentation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Cache for the outputs of the workflow steps of automatic configuration trials. Each output is keyed by the
+ * configuration of its step and of every step before it, so a trial only recomputes the first step whose
+ * configuration changed and the steps after it. Keeps the most recently used outputs, up to a maximum number.
+ * It can be shared by trials that run in parallel: if a trial needs an output that another trial is computing, it
+ * waits for it.
+ */
+public class TrialStepCache implements StepCache {
+    private final Map<String, FutureTask<Object>> outputs;
+
+    /**
+     * Trial step cache constructor
+     *
+     * @param maxEntries Maximum number of step outputs to keep
+     */
+    public TrialStepCache(int maxEntries) {
+        this.outputs = new LinkedHashMap<String, FutureTask<Object>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FutureTask<Object>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the key of a step's output
+     *
+     * @param upstreamKey Key of the previous step's output (empty for the first step)
+     * @param method      Method of the step (can be null, if the step is skipped)
+     * @return Key of the step's output
+     */
+    public static String getKey(String upstreamKey, IDocumentation method) {
+        if (method == null) {
+            return upstreamKey + "/-";
+        }
+
+        return upstreamKey + "/" + method.getMethodName() + "{" + method.getMethodConfiguration() + "}";
+    }
+
+    /**
+     * Get the output of a step from the cache, or run the step if its output is not cached. The output is shared with
+     * other trials, so it should not be modified.
+     *
+     * @param key  Key of the step's output
+     * @param step Step to run
+     * @param <T>  Type of the step's output
+     * @return Output of the step
+     * @throws Exception If the step fails
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getOutput(String key, Callable<T> step) throws Exception {
+        FutureTask<Object> task;
+        boolean isNew = false;
+        synchronized (outputs) {
+            task = outputs.get(key);
+            if (task == null) {
+                task = new FutureTask<>(step::call);
+                outputs.put(key, task);
+                isNew = true;
+            }
+        }
+
+        // Run the step outside of the lock, so that other steps can run in parallel
+        if (isNew) {
+            task.run();
+        }
+
+        try {
+            return (T) task.get();
+        } catch (ExecutionException e) {
+            // Do not cache failures
+            synchronized (outputs) {
+                outputs.remove(key, task);
+            }
+            throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.scify.jedai.gui.utilities;
+
+import javafx.beans.property.Property;
+import javafx.collections.FXCollections;
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.scify.jedai.gui.model.JedaiMethodConfiguration;
+import org.scify.jedai.gui.wizard.WizardData;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Saves the configuration of a workflow (the properties of the wizard data) to a file, and loads it back, e.g. for
+ * running a workflow that was configured in the wizard without the GUI. Each property is saved by its field name, so
+ * properties that are added to the wizard data are saved too, and the files of older versions can still be loaded
+ * (missing properties keep their default values). The file is a Java serialization of the property values: the
+ * parameters of the methods are saved with their types (e.g. numbers, enumerations and sets of values). Since saved
+ * configurations are also submitted to the job server, loading only accepts the classes of property values, and
+ * rejects any other class before it is instantiated.
+ */
+public class WizardDataFile {
+    // Properties of the running session, which are not saved
+    private final static String WORKFLOW_RUNNING = "workflowRunning";
+    // Classes that saved configurations consist of (besides the boxed primitives and JedAI's enumerations)
+    private final static Set<String> ALLOWED_CLASSES = new HashSet<>(Arrays.asList(
+            String.class.getName(), Number.class.getName(), Boolean.class.getName(), Character.class.getName(),
+            Enum.class.getName(), HashMap.class.getName(), LinkedHashMap.class.getName(),
+            ArrayList.class.getName(), HashSet.class.getName(), Pair.class.getName(), MutablePair.class.getName(),
+            MethodConfiguration.class.getName()));
+
+    /**
+     * Configuration of a block building or cleaning method, without the JavaFX properties
+     */
+    private static class MethodConfiguration implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final boolean enabled;
+        private final String configurationType;
+        private final ArrayList<MutablePair<String, Object>> manualParameters;
+
+        private MethodConfiguration(JedaiMethodConfiguration method) {
+            this.name = method.getName();
+            this.enabled = method.isEnabled();
+            this.configurationType = method.getConfigurationType();
+            this.manualParameters = copyParameters(method.getManualParameters());
+        }
+
+        private JedaiMethodConfiguration toJedaiMethodConfiguration() {
+            JedaiMethodConfiguration method = new JedaiMethodConfiguration(name);
+            method.setEnabled(enabled);
+            method.setConfigurationType(configurationType);
+            if (manualParameters != null) {
+                method.setManualParameters(FXCollections.observableArrayList(manualParameters));
+            }
+            return method;
+        }
+    }
+
+    /**
+     * Object input stream that only resolves the classes of saved configurations
+     */
+    private static class ConfigurationInputStream extends ObjectInputStream {
+        private ConfigurationInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            String name = desc.getName();
+            boolean boxedPrimitive = name.startsWith("java.lang.") && Number.class.isAssignableFrom(
+                    Class.forName(name, false, Number.class.getClassLoader()));
+            if (!ALLOWED_CLASSES.contains(name) && !boxedPrimitive && !name.startsWith("org.scify.jedai.")) {
+                throw new InvalidClassException(name, "Not allowed in a workflow configuration");
+            }
+
+            // Resolving does not initialize the class, so JedAI's classes can be checked after resolving them
+            Class<?> cls = super.resolveClass(desc);
+            if (name.startsWith("org.scify.jedai.") && !cls.isEnum() && cls != MethodConfiguration.class) {
+                throw new InvalidClassException(name, "Not allowed in a workflow configuration");
+            }
+            return cls;
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException("Proxy classes are not allowed in a workflow configuration");
+        }
+    }
+
+    /**
+     * Save the configuration of a workflow to a file
+     *
+     * @param model Wizard data with the workflow's configuration
+     * @param file  File to save the configuration to
+     * @throws IOException If the file cannot be written, or a parameter value cannot be serialized
+     */
+    public static void save(WizardData model, File file) throws IOException {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Field field : WizardData.class.getDeclaredFields()) {
+            if (!Property.class.isAssignableFrom(field.getType()) || field.getName().equals(WORKFLOW_RUNNING)) {
+                continue;
+            }
+
+            Object value = getProperty(model, field).getValue();
+            if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                if (!list.isEmpty() && list.get(0) instanceof JedaiMethodConfiguration) {
+                    ArrayList<MethodConfiguration> methods = new ArrayList<>();
+                    for (Object method : list) {
+                        methods.add(new MethodConfiguration((JedaiMethodConfiguration) method));
+                    }
+                    value = methods;
+                } else {
+                    value = new ArrayList<>(list);
+                }
+            }
+            values.put(field.getName(), value);
+        }
+
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeObject(values);
+        }
+    }
+
+    /**
+     * Load the configuration of a workflow from a file
+     *
+     * @param file File with a saved configuration
+     * @return Wizard data with the saved configuration
+     * @throws IOException If the file cannot be read, or is not a saved configuration
+     */
+    public static WizardData load(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return load(in);
+        } catch (IOException e) {
+            throw new IOException("Cannot load workflow configuration file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Load the configuration of a workflow from a stream, e.g. a configuration that was submitted to the job server
+     *
+     * @param stream Stream with a saved configuration (not closed)
+     * @return Wizard data with the saved configuration
+     * @throws IOException If the stream cannot be read, or is not a saved configuration
+     */
+    @SuppressWarnings("unchecked")
+    public static WizardData load(InputStream stream) throws IOException {
+        Map<String, Object> values;
+        try {
+            values = (Map<String, Object>) new ConfigurationInputStream(stream).readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Not a workflow configuration", e);
+        }
+
+        WizardData model = new WizardData();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            Field field;
+            try {
+                field = WizardData.class.getDeclaredField(entry.getKey());
+            } catch (NoSuchFieldException e) {
+                System.err.println("Ignoring unknown property " + entry.getKey());
+                continue;
+            }
+
+            Object value = entry.getValue();
+            if (value instanceof List) {
+                List<Object> list = new ArrayList<>();
+                for (Object element : (List<?>) value) {
+                    list.add((element instanceof MethodConfiguration) ?
+                            ((MethodConfiguration) element).toJedaiMethodConfiguration() : element);
+                }
+                value = FXCollections.observableArrayList(list);
+            }
+            ((Property<Object>) getProperty(model, field)).setValue(value);
+        }
+
+        return model;
+    }
+
+    /**
+     * Get a property of the wizard data by its field
+     *
+     * @param model Wizard data
+     * @param field Field of the property
+     * @return Property
+     */
+    private static Property<?> getProperty(WizardData model, Field field) {
+        try {
+            field.setAccessible(true);
+            return (Property<?>) field.get(model);
+        } catch (IllegalAccessException e) {
+            // The field was made accessible
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Copy the parameters of a method to a serializable list
+     *
+     * @param parameters Parameters (can be null)
+     * @return Copy of the parameters, or null
+     */
+    private static ArrayList<MutablePair<String, Object>> copyParameters(List<MutablePair<String, Object>> parameters) {
+        return (parameters != null) ? new ArrayList<>(parameters) : null;
+    }
+}
@@ -0,0 +1,38 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.utilities.ClustersPerformance;
+
+/**
+ * Thrown when a workflow stops because it was cancelled. The results of the steps that completed before the
+ * cancellation (e.g. the performance per step and the Pareto fronts) are kept by the workflow manager. A progressive
+ * workflow also keeps the clusters of the comparisons that it executed before the cancellation, and their performance
+ * is given by the exception.
+ */
+public class WorkflowCancelledException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final transient ClustersPerformance partialPerformance;
+
+    public WorkflowCancelledException() {
+        this(null);
+    }
+
+    /**
+     * Workflow cancelled exception constructor
+     *
+     * @param partialPerformance Performance of the clusters of the workflow until it was cancelled (null if none)
+     */
+    public WorkflowCancelledException(ClustersPerformance partialPerformance) {
+        super("The workflow was cancelled");
+        this.partialPerformance = partialPerformance;
+    }
+
+    /**
+     * Get the performance of the clusters of the workflow until it was cancelled (those of the workflow manager)
+     *
+     * @return Performance of the partial clusters, or null if the workflow was cancelled before clustering
+     */
+    public ClustersPerformance getPartialPerformance() {
+        return partialPerformance;
+    }
+}
@@ -0,0 +1,176 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.datamodel.EntityProfile;
+import org.scify.jedai.gui.model.WorkflowResult;
+import org.scify.jedai.gui.wizard.WizardData;
+import org.scify.jedai.gui.wizard.WorkflowRunner;
+import org.scify.jedai.utilities.ClustersPerformance;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A workflow run that was submitted to the job service. The job keeps its status, its timings and the performance of
+ * its workflow and steps, which are read by other threads while it runs, and writes the clusters and the performance
+ * of the steps to its output directory (see WorkflowRunner). Once the workflow ends, the job only keeps the scalar
+ * metrics of its performance, not its clusters or ground truth.
+ */
+public class WorkflowJob implements Runnable {
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    private final int id;
+    private final WizardData model;
+    private final File outputDirectory;
+    private final long submitTime;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String progress = "";
+    private volatile String error;
+    private volatile long startTime;
+    private volatile long endTime;
+    private volatile WorkflowResult performance;
+    private volatile List<WorkflowResult> performancePerStep = new ArrayList<>();
+    private volatile WorkflowManager workflowMgr;
+    private volatile boolean cancelled;
+
+    /**
+     * Workflow job constructor
+     *
+     * @param id              Id of the job
+     * @param model           Wizard data with the workflow's configuration
+     * @param outputDirectory Directory to write the job's results to
+     */
+    public WorkflowJob(int id, WizardData model, File outputDirectory) {
+        this.id = id;
+        this.model = model;
+        this.outputDirectory = outputDirectory;
+        this.submitTime = System.currentTimeMillis();
+    }
+
+    @Override
+    public void run() {
+        // The job may have been cancelled while it was queued
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            workflowMgr = WorkflowRunner.createWorkflowManager(model);
+            startTime = System.currentTimeMillis();
+            status = Status.RUNNING;
+        }
+
+        ClustersPerformance clp = null;
+        Status endStatus = Status.FAILED;
+        try {
+            clp = WorkflowRunner.run(workflowMgr, model, outputDirectory, status -> progress = status);
+            endStatus = Status.COMPLETED;
+        } catch (WorkflowCancelledException e) {
+            // Keep the partial results of a progressive workflow
+            clp = e.getPartialPerformance();
+            endStatus = Status.CANCELLED;
+        } catch (Exception e) {
+            error = e.toString();
+            System.err.println("Job " + id + " failed: " + e);
+        } finally {
+            performancePerStep = new ArrayList<>(workflowMgr.getPerformancePerStep());
+            endTime = System.currentTimeMillis();
+            if (clp != null) {
+                List<EntityProfile> profiles = workflowMgr.getProfilesD1();
+                performance = new WorkflowResult("Total", clp.getRecall(), clp.getPrecision(), clp.getFMeasure(),
+                        getRunningTime(), (profiles != null) ? profiles.size() : 0, clp.getEntityClusters(), 0);
+            }
+
+            // Release the datasets, the outputs of the steps and the clusters
+            workflowMgr = null;
+            status = endStatus;
+        }
+    }
+
+    /**
+     * Cancel the job. A queued job does not run, and a running one stops at its next step.
+     *
+     * @return True if the job was queued or running
+     */
+    public synchronized boolean cancel() {
+        if (status == Status.QUEUED && !cancelled) {
+            cancelled = true;
+            status = Status.CANCELLED;
+            endTime = System.currentTimeMillis();
+            return true;
+        }
+
+        WorkflowManager mgr = workflowMgr;
+        if (status == Status.RUNNING && mgr != null) {
+            mgr.cancel();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the time that the job waited in the queue
+     *
+     * @return Waiting time in seconds (until now, if the job is still queued)
+     */
+    public double getQueueTime() {
+        long end = (startTime != 0) ? startTime : ((endTime != 0) ? endTime : System.currentTimeMillis());
+        return (end - submitTime) / 1000.0;
+    }
+
+    /**
+     * Get the running time of the job
+     *
+     * @return Running time in seconds (until now, if the job is still running), or 0 if the job did not start
+     */
+    public double getRunningTime() {
+        if (startTime == 0) {
+            return 0;
+        }
+        return (((endTime != 0) ? endTime : System.currentTimeMillis()) - startTime) / 1000.0;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getProgress() {
+        return progress;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getSubmitTime() {
+        return submitTime;
+    }
+
+    public File getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    /**
+     * Get the performance of the job's workflow
+     *
+     * @return Recall, precision, F-Measure, running time and number of clusters, or null if the workflow has not
+     * ended or failed
+     */
+    public WorkflowResult getPerformance() {
+        return performance;
+    }
+
+    public List<WorkflowResult> getPerformancePerStep() {
+        return performancePerStep;
+    }
+}
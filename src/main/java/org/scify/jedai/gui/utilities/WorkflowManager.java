@@ -1,11 +1,13 @@
 package org.scify.jedai.gui.utilities;
 
-import javafx.application.Platform;
 import javafx.collections.ObservableList;
-import javafx.scene.control.Label;
+import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.scify.jedai.blockbuilding.IBlockBuilding;
+import org.scify.jedai.blockbuilding.LSHMinHashBlocking;
+import org.scify.jedai.blockbuilding.LSHSuperBitBlocking;
 import org.scify.jedai.blockprocessing.IBlockProcessing;
+import org.scify.jedai.configuration.IConfiguration;
 import org.scify.jedai.datamodel.*;
 import org.scify.jedai.entityclustering.IEntityClustering;
 import org.scify.jedai.entitymatching.IEntityMatching;
@@ -18,15 +20,52 @@ import org.scify.jedai.schemaclustering.ISchemaClustering;
 import org.scify.jedai.similarityjoins.ISimilarityJoin;
 import org.scify.jedai.utilities.BlocksPerformance;
 import org.scify.jedai.utilities.ClustersPerformance;
+import org.scify.jedai.utilities.IDocumentation;
 import org.scify.jedai.utilities.datastructures.AbstractDuplicatePropagation;
+import org.scify.jedai.utilities.datastructures.BilateralDuplicatePropagation;
+import org.scify.jedai.utilities.datastructures.UnilateralDuplicatePropagation;
 import org.scify.jedai.utilities.enumerations.BlockBuildingMethod;
 
+import java.io.IOException;
 import java.nio.channels.FileLock;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class WorkflowManager {
-    private final static int NO_OF_TRIALS = 100;
+    private final static int HALVING_FACTOR = 3;
+    private final static int MIN_SAMPLE_SIZE = 500;
+
+    // Minimum number of comparisons of each partition of the blocks that entity matching runs in parallel
+    private final static int MIN_PARTITION_COMPARISONS = 10000;
+
+    // Number of batches of comparisons that each thread of streaming entity matching can have queued
+    private final static int STREAMING_BATCHES_PER_THREAD = 4;
+
+    // Executor that independent parts of a workflow's steps run concurrently on (shared by all workflows)
+    private final static ExecutorService STEP_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "workflow-step");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Name of the parameter of the entity clustering methods that incremental clustering supports
+    private final static String SIMILARITY_THRESHOLD = "Similarity Threshold";
+    // Similarity joins (e.g. PartEnumJoin) keep their state in static fields, so only one join runs at a time
+    private final static Object SIMILARITY_JOIN_LOCK = new Object();
     private final WizardData model;
     private final String erType;
     private final List<WorkflowResult> performancePerStep;
@@ -40,6 +79,15 @@ public class WorkflowManager {
     private List<EntityProfile> profilesD2;
     private AbstractDuplicatePropagation duplicatePropagation;
 
+    // Set when the workflow is cancelled (shared with the managers of the samples and the search budget)
+    private AtomicBoolean cancelled = new AtomicBoolean();
+
+    // Budget of the automatic configuration searches (set when the workflow runs)
+    private SearchBudget searchBudget = new SearchBudget(Long.MAX_VALUE, 0, 0, cancelled);
+
+    // Best grid configuration of each method that step-by-step grid search configured
+    private final Map<IConfiguration, Integer> bestGridConfigurations = new IdentityHashMap<>();
+
     private ISimilarityJoin similarityJoinMethod;
     private ISchemaClustering schemaClusteringMethod;
     private List<IBlockBuilding> blBuMethods;
@@ -50,6 +98,20 @@ public class WorkflowManager {
     private List<Integer> recallIterations;
     private List<Double> recallCurve;
 
+    // Quality and cost of the trials of each automatic configuration search, for choosing an operating point
+    private final List<ParetoFront> paretoFronts;
+
+    // Cache of the step outputs of previous runs (can be null), and key of the datasets that the steps run on
+    private StepArtifactCache artifactCache;
+    private String datasetsKey = "";
+
+    // Checkpoints of the step outputs on disk (can be null), and the cache of the run that uses them. Checkpoints
+    // outlive the session, so they are only used if every source has a version (e.g. a file's size and modification
+    // time), as otherwise a changed source (e.g. a database table) would have the same key.
+    private boolean datasetsVersioned = false;
+    private CheckpointStore checkpointStore;
+    private StepCache runCache;
+
     public WorkflowManager(WizardData model) {
         // Set the model and ER type
         this.model = model;
@@ -62,6 +124,7 @@ public class WorkflowManager {
 
         // Initialize performance per step list
         this.performancePerStep = new ArrayList<>();
+        this.paretoFronts = new ArrayList<>();
     }
 
     public List<WorkflowResult> getPerformancePerStep() {
@@ -88,10 +151,59 @@ public class WorkflowManager {
         return recallCurve;
     }
 
+    public List<ParetoFront> getParetoFronts() {
+        return paretoFronts;
+    }
+
+    /**
+     * Set the cache of the step outputs of previous runs, which the datasets and the steps of a workflow without
+     * automatic configuration are taken from (and added to)
+     *
+     * @param artifactCache Step artifact cache (null to run all steps)
+     */
+    public void setArtifactCache(StepArtifactCache artifactCache) {
+        this.artifactCache = artifactCache;
+    }
+
+    /**
+     * Set the store of the checkpoints of the step outputs, which the steps of a workflow without automatic
+     * configuration are loaded from (and saved to), behind the step artifact cache. Checkpoints are only used for
+     * datasets that were read by readDatasets, as their keys start with the datasets' key.
+     *
+     * @param checkpointStore Checkpoint store (null to not use checkpoints)
+     */
+    public void setCheckpointStore(CheckpointStore checkpointStore) {
+        this.checkpointStore = checkpointStore;
+    }
+
     public List<Integer> getRecallIterations() {
         return recallIterations;
     }
 
+    /**
+     * Cancel the running workflow. The workflow stops at the next step (or trial of automatic configuration, or
+     * comparison of prioritization), and executeFullWorkflow throws a WorkflowCancelledException. The performance of
+     * the steps and trials that completed is kept.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Stop the workflow if it was cancelled
+     *
+     * @throws WorkflowCancelledException If the workflow was cancelled
+     */
+    private void checkCancelled() throws WorkflowCancelledException {
+        if (cancelled.get()) {
+            throw new WorkflowCancelledException();
+        }
+    }
+
     /**
      * Create instances of the methods that will be used for running the workflow
      *
@@ -100,103 +212,198 @@ public class WorkflowManager {
     public void createMethodInstances(boolean isCleanCleanEr) {
         // Initialize methods that exist in both blocking-based and progressive workflows
         if (isBlockingBasedWorkflow || isProgressiveWorkflow) {
-            // Get schema clustering method (will become null if no schema clustering method was selected)
-            if (!model.getSchemaClusteringConfigType().equals(JedaiOptions.MANUAL_CONFIG)) {
-                // Default (or automatic, later) configuration of schema clustering
-                schemaClusteringMethod = MethodMapping.getSchemaClusteringMethodByName(model.getSchemaClustering());
+            schemaClusteringMethod = getSchemaClusteringMethodInstance();
+            blBuMethods = getBlockBuildingMethodInstances();
+            blClMethods = getBlockCleaningMethodInstances(isCleanCleanEr);
+            comparisonCleaningMethod = getComparisonCleaningMethodInstance(isCleanCleanEr);
+        }
+
+        // Get entity clustering method
+        ec = getEntityClusteringMethodInstance();
+
+        // Get similarity join method
+        if (isJoinBasedWorkflow) {
+            if (model.getSimilarityJoinConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
+                // Get an instance of the method, its threshold will be set by automatic configuration
+                similarityJoinMethod = MethodMapping.getSimilarityJoinMethodByName(model.getSimilarityJoin());
             } else {
-                // Manual configuration of schema clustering
-                schemaClusteringMethod = DynamicMethodConfiguration.configureSchemaClusteringMethod(
-                        model.getSchemaClustering(),
-                        model.getSchemaClusteringParameters()
+                // Manually configure the method
+                similarityJoinMethod = DynamicMethodConfiguration.configureSimilarityJoinMethod(
+                        model.getSimilarityJoin(),
+                        model.getSimilarityJoinParameters()
                 );
             }
+        }
+    }
 
-            // Get list of enabled block building method instances
-            blBuMethods = new ArrayList<>();
-            for (JedaiMethodConfiguration methodConfig : model.getBlockBuildingMethods()) {
-                // Ignore disabled methods
-                if (!methodConfig.isEnabled())
-                    continue;
+    /**
+     * Get an instance of the currently selected schema clustering method
+     *
+     * @return Schema clustering method, or null if no schema clustering method was selected
+     */
+    private ISchemaClustering getSchemaClusteringMethodInstance() {
+        if (!model.getSchemaClusteringConfigType().equals(JedaiOptions.MANUAL_CONFIG)) {
+            // Default (or automatic, later) configuration of schema clustering
+            return MethodMapping.getSchemaClusteringMethodByName(model.getSchemaClustering());
+        } else {
+            // Manual configuration of schema clustering
+            return DynamicMethodConfiguration.configureSchemaClusteringMethod(
+                    model.getSchemaClustering(),
+                    model.getSchemaClusteringParameters()
+            );
+        }
+    }
 
-                // Create instance of this method
-                BlockBuildingMethod blockingWorkflow = MethodMapping.blockBuildingMethods.get(methodConfig.getName());
+    /**
+     * Get instances of the enabled block building methods
+     *
+     * @return List of block building methods
+     */
+    private List<IBlockBuilding> getBlockBuildingMethodInstances() {
+        List<IBlockBuilding> blockBuildingMethods = new ArrayList<>();
+        for (JedaiMethodConfiguration methodConfig : model.getBlockBuildingMethods()) {
+            // Ignore disabled methods
+            if (!methodConfig.isEnabled())
+                continue;
 
-                // Check if the user set any custom parameters for block building
-                IBlockBuilding blockBuildingMethod;
-                if (!methodConfig.getConfigurationType().equals(JedaiOptions.MANUAL_CONFIG)) {
-                    // Auto or default configuration selected: use default configuration
-                    blockBuildingMethod = BlockBuildingMethod.getDefaultConfiguration(blockingWorkflow);
-                } else {
-                    // Manual configuration selected, create method with the saved parameters
-                    ObservableList<MutablePair<String, Object>> blBuParams = methodConfig.getManualParameters();
-                    blockBuildingMethod = DynamicMethodConfiguration.configureBlockBuildingMethod(blockingWorkflow, blBuParams);
-                }
+            // Create instance of this method
+            BlockBuildingMethod blockingWorkflow = MethodMapping.blockBuildingMethods.get(methodConfig.getName());
 
-                blBuMethods.add(blockBuildingMethod);
+            // Check if the user set any custom parameters for block building
+            IBlockBuilding blockBuildingMethod;
+            if (!methodConfig.getConfigurationType().equals(JedaiOptions.MANUAL_CONFIG)) {
+                // Auto or default configuration selected: use default configuration
+                blockBuildingMethod = BlockBuildingMethod.getDefaultConfiguration(blockingWorkflow);
+            } else {
+                // Manual configuration selected, create method with the saved parameters
+                ObservableList<MutablePair<String, Object>> blBuParams = methodConfig.getManualParameters();
+                blockBuildingMethod = DynamicMethodConfiguration.configureBlockBuildingMethod(blockingWorkflow, blBuParams);
             }
 
-            // Get list of enabled block cleaning method instances
-            blClMethods = new ArrayList<>();
-            for (JedaiMethodConfiguration blClMethodConfig : model.getBlockCleaningMethods()) {
-                // Ignore disabled methods
-                if (!blClMethodConfig.isEnabled())
-                    continue;
+            blockBuildingMethods.add(blockBuildingMethod);
+        }
 
-                // Create instance of this method
-                IBlockProcessing blockCleaningMethod;
-                if (!blClMethodConfig.getConfigurationType().equals(JedaiOptions.MANUAL_CONFIG)) {
-                    // Auto or default configuration selected: use default configuration
-                    blockCleaningMethod = MethodMapping.getMethodByName(blClMethodConfig.getName(), isCleanCleanEr);
-                } else {
-                    // Manual configuration selected, create method with the saved parameters
-                    blockCleaningMethod = DynamicMethodConfiguration.configureBlockCleaningMethod(
-                            blClMethodConfig.getName(), blClMethodConfig.getManualParameters());
-                }
+        return blockBuildingMethods;
+    }
+
+    /**
+     * Get instances of the enabled block cleaning methods
+     *
+     * @param isCleanCleanEr If we are using clean-clean ER or not
+     * @return List of block cleaning methods
+     */
+    private List<IBlockProcessing> getBlockCleaningMethodInstances(boolean isCleanCleanEr) {
+        List<IBlockProcessing> blockCleaningMethods = new ArrayList<>();
+        for (JedaiMethodConfiguration blClMethodConfig : model.getBlockCleaningMethods()) {
+            // Ignore disabled methods
+            if (!blClMethodConfig.isEnabled())
+                continue;
 
-                blClMethods.add(blockCleaningMethod);
+            // Create instance of this method
+            IBlockProcessing blockCleaningMethod;
+            if (!blClMethodConfig.getConfigurationType().equals(JedaiOptions.MANUAL_CONFIG)) {
+                // Auto or default configuration selected: use default configuration
+                blockCleaningMethod = MethodMapping.getMethodByName(blClMethodConfig.getName(), isCleanCleanEr);
+            } else {
+                // Manual configuration selected, create method with the saved parameters
+                blockCleaningMethod = DynamicMethodConfiguration.configureBlockCleaningMethod(
+                        blClMethodConfig.getName(), blClMethodConfig.getManualParameters());
             }
+
+            blockCleaningMethods.add(blockCleaningMethod);
         }
 
-        // Get comparison cleaning method
-        if (isBlockingBasedWorkflow || isProgressiveWorkflow) {
-            String coClMethod = model.getComparisonCleaning();
-            comparisonCleaningMethod = null;
-            if (coClMethod != null && !coClMethod.equals(JedaiOptions.NO_CLEANING)) {
-                // Create comparison cleaning method
-                if (!model.getComparisonCleaningConfigType().equals(JedaiOptions.MANUAL_CONFIG)) {
-                    // Auto or default configuration selected: use default configuration
-                    comparisonCleaningMethod = MethodMapping.getMethodByName(coClMethod, isCleanCleanEr);
-                } else {
-                    // Manual configuration selected, create method with the saved parameters
-                    ObservableList<MutablePair<String, Object>> coClParams = model.getComparisonCleaningParameters();
-                    comparisonCleaningMethod = DynamicMethodConfiguration.configureComparisonCleaningMethod(coClMethod, coClParams);
-                }
-            }
+        return blockCleaningMethods;
+    }
+
+    /**
+     * Get an instance of the currently selected comparison cleaning method
+     *
+     * @param isCleanCleanEr If we are using clean-clean ER or not
+     * @return Comparison cleaning method, or null if no comparison cleaning was selected
+     */
+    private IBlockProcessing getComparisonCleaningMethodInstance(boolean isCleanCleanEr) {
+        String coClMethod = model.getComparisonCleaning();
+        if (coClMethod == null || coClMethod.equals(JedaiOptions.NO_CLEANING)) {
+            return null;
         }
 
-        // Get entity clustering method
+        // Create comparison cleaning method
+        if (!model.getComparisonCleaningConfigType().equals(JedaiOptions.MANUAL_CONFIG)) {
+            // Auto or default configuration selected: use default configuration
+            return MethodMapping.getMethodByName(coClMethod, isCleanCleanEr);
+        } else {
+            // Manual configuration selected, create method with the saved parameters
+            ObservableList<MutablePair<String, Object>> coClParams = model.getComparisonCleaningParameters();
+            return DynamicMethodConfiguration.configureComparisonCleaningMethod(coClMethod, coClParams);
+        }
+    }
+
+    /**
+     * Get an instance of the currently selected entity clustering method
+     *
+     * @return Entity clustering method
+     */
+    private IEntityClustering getEntityClusteringMethodInstance() {
         String entityClusteringMethod = model.getEntityClustering();
 
         if (!model.getEntityClusteringConfigType().equals(JedaiOptions.MANUAL_CONFIG)) {
             // Auto or default configuration selected: use default configuration
-            ec = MethodMapping.getEntityClusteringMethod(entityClusteringMethod);
+            return MethodMapping.getEntityClusteringMethod(entityClusteringMethod);
         } else {
             // Manual configuration selected, create method with the saved parameters
             ObservableList<MutablePair<String, Object>> ecParams = model.getEntityClusteringParameters();
-            ec = DynamicMethodConfiguration.configureEntityClusteringMethod(entityClusteringMethod, ecParams);
+            return DynamicMethodConfiguration.configureEntityClusteringMethod(entityClusteringMethod, ecParams);
         }
+    }
 
-        // Get similarity join method
-        if (isJoinBasedWorkflow) {
-            // Manually configure the method
-            similarityJoinMethod = DynamicMethodConfiguration.configureSimilarityJoinMethod(
-                    model.getSimilarityJoin(),
-                    model.getSimilarityJoinParameters()
-            );
+    /**
+     * Create a new set of instances of the blocking-based workflow's methods, with their own copy of the ground truth,
+     * for running a workflow in parallel with others.
+     *
+     * @return New set of method instances
+     */
+    private WorkflowMethods createWorkflowMethods() {
+        boolean isCleanCleanEr = erType.equals(JedaiOptions.CLEAN_CLEAN_ER);
+
+        return new WorkflowMethods(
+                getSchemaClusteringMethodInstance(),
+                getBlockBuildingMethodInstances(),
+                getBlockCleaningMethodInstances(isCleanCleanEr),
+                getComparisonCleaningMethodInstance(isCleanCleanEr),
+                getEntityMatchingMethodInstance(profilesD1, profilesD2),
+                getEntityClusteringMethodInstance(),
+                copyDuplicatePropagation()
+        );
+    }
+
+    /**
+     * Create a copy of the ground truth's duplicate propagation. Performance classes modify the duplicate propagation,
+     * so each thread that measures performance needs its own.
+     *
+     * @return New duplicate propagation with the same duplicates
+     */
+    private AbstractDuplicatePropagation copyDuplicatePropagation() {
+        Set<IdDuplicates> duplicates = new HashSet<>(duplicatePropagation.getDuplicates());
+
+        if (erType.equals(JedaiOptions.CLEAN_CLEAN_ER)) {
+            return new BilateralDuplicatePropagation(duplicates);
+        } else {
+            return new UnilateralDuplicatePropagation(duplicates);
         }
     }
 
+    /**
+     * Get the workflow's own method instances (created by createMethodInstances) as a set
+     *
+     * @param entityMatching Entity matching method to use (can be null, to create a new one when running the workflow)
+     * @return Set of the workflow's method instances
+     */
+    private WorkflowMethods getWorkflowMethods(IEntityMatching entityMatching) {
+        return new WorkflowMethods(schemaClusteringMethod, blBuMethods, blClMethods, comparisonCleaningMethod,
+                entityMatching, ec, duplicatePropagation);
+    }
+
     /**
      * Get an instance of the currently selected entity matching method, configured as required by the selected options
      * in the Wizard.
@@ -210,33 +417,71 @@ public class WorkflowManager {
         // Get entity matching method
         String entityMatchingMethodStr = model.getEntityMatching();
 
-        if (!model.getEntityMatchingConfigType().equals(JedaiOptions.MANUAL_CONFIG)) {
-            // Default or automatic config, use default values
-            return DynamicMethodConfiguration
-                    .configureEntityMatchingMethod(entityMatchingMethodStr, profilesD1, profilesD2, null);
-        } else {
-            // Manual configuration, use given parameters
-            ObservableList<MutablePair<String, Object>> emParams = model.getEntityMatchingParameters();
+        // Default or automatic config use default values, manual configuration uses the given parameters
+        ObservableList<MutablePair<String, Object>> emParams =
+                model.getEntityMatchingConfigType().equals(JedaiOptions.MANUAL_CONFIG) ?
+                        model.getEntityMatchingParameters() : null;
+
+        // Guard the global state of the method's text models against other threads and jobs
+        return GuardedEntityMatching.create(entityMatchingMethodStr, profilesD1, profilesD2, emParams);
+    }
+
+    /**
+     * Create an incremental version of the selected entity clustering method, configured with the same similarity
+     * threshold, if the method can be executed incrementally.
+     *
+     * @return Incremental clustering, or null if the selected method does not support it
+     */
+    private IncrementalClustering getIncrementalClustering() {
+        if (!IncrementalClustering.isSupported(model.getEntityClustering())) {
+            return null;
+        }
+
+        return new IncrementalClustering(
+                erType.equals(JedaiOptions.CLEAN_CLEAN_ER),
+                profilesD1.size(),
+                (profilesD2 != null) ? profilesD2.size() : 0,
+                getSimilarityThreshold(ec)
+        );
+    }
 
-            return DynamicMethodConfiguration
-                    .configureEntityMatchingMethod(entityMatchingMethodStr, profilesD1, profilesD2, emParams);
+    /**
+     * Get the similarity threshold that an entity clustering method is currently configured with. JedAI does not
+     * provide a getter for it, so it is read from the method's configuration ("[parameter name]=[value]" for each of
+     * its parameters, separated by commas).
+     *
+     * @param ec Entity clustering method
+     * @return Similarity threshold of the method
+     * @throws IllegalStateException If the method has no similarity threshold parameter
+     */
+    private static float getSimilarityThreshold(IEntityClustering ec) {
+        String[] values = ec.getMethodConfiguration().split(",");
+        int noOfParameters = ec.getParameterConfiguration().size();
+        for (int i = 0; i < noOfParameters && i < values.length; i++) {
+            String prefix = ec.getParameterName(i) + "=";
+            if (ec.getParameterName(i).equals(SIMILARITY_THRESHOLD) && values[i].trim().startsWith(prefix)) {
+                return Float.parseFloat(values[i].trim().substring(prefix.length()));
+            }
         }
+
+        throw new IllegalStateException("No " + SIMILARITY_THRESHOLD + " in the configuration of "
+                + ec.getMethodName() + ": " + ec.getMethodConfiguration());
     }
 
     /**
      * When bestIteration is null, set the next random configuraiton for each method in the workflow that should be
      * automatically configured. If it is set, set these methods to that configuration.
      *
-     * @param entityMatchingMethod Entity matching method to use
-     * @param bestIteration        Best iteration (optional)
+     * @param methods       Set of method instances to configure
+     * @param bestIteration Best iteration (optional)
      */
-    private void iterateHolisticRandom(IEntityMatching entityMatchingMethod, Integer bestIteration) {
+    private void iterateHolisticRandom(WorkflowMethods methods, Integer bestIteration) {
         // Check if schema clustering parameters should be set automatically
         if (model.getSchemaClusteringConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
             if (bestIteration == null) {
-                schemaClusteringMethod.setNextRandomConfiguration();
+                methods.getSchemaClustering().setNextRandomConfiguration();
             } else {
-                schemaClusteringMethod.setNumberedRandomConfiguration(bestIteration);
+                methods.getSchemaClustering().setNumberedRandomConfiguration(bestIteration);
             }
         }
 
@@ -252,10 +497,11 @@ public class WorkflowManager {
                     // Method is enabled, check if we should configure automatically
                     if (methodConfig.getConfigurationType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
                         // Get instance of the method and set next random configuration
+                        IBlockBuilding blockBuildingMethod = methods.getBlockBuilding().get(enabledMethodIndex);
                         if (bestIteration == null) {
-                            blBuMethods.get(enabledMethodIndex).setNextRandomConfiguration();
+                            blockBuildingMethod.setNextRandomConfiguration();
                         } else {
-                            blBuMethods.get(enabledMethodIndex).setNumberedRandomConfiguration(bestIteration);
+                            blockBuildingMethod.setNumberedRandomConfiguration(bestIteration);
                         }
                     }
 
@@ -277,10 +523,11 @@ public class WorkflowManager {
                     // Method is enabled, check if we should configure automatically
                     if (blClConfig.getConfigurationType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
                         // Get instance of the method and set next random configuration
+                        IBlockProcessing blockCleaningMethod = methods.getBlockCleaning().get(enabledMethodIndex);
                         if (bestIteration == null) {
-                            blClMethods.get(enabledMethodIndex).setNextRandomConfiguration();
+                            blockCleaningMethod.setNextRandomConfiguration();
                         } else {
-                            blClMethods.get(enabledMethodIndex).setNumberedRandomConfiguration(bestIteration);
+                            blockCleaningMethod.setNumberedRandomConfiguration(bestIteration);
                         }
                     }
 
@@ -293,31 +540,43 @@ public class WorkflowManager {
         // Check if comparison cleaning parameters should be set automatically
         if (model.getComparisonCleaningConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
             if (bestIteration == null) {
-                comparisonCleaningMethod.setNextRandomConfiguration();
+                methods.getComparisonCleaning().setNextRandomConfiguration();
             } else {
-                comparisonCleaningMethod.setNumberedRandomConfiguration(bestIteration);
+                methods.getComparisonCleaning().setNumberedRandomConfiguration(bestIteration);
             }
         }
 
-        // Check if entity matching parameters should be set automatically
-        if (model.getEntityMatchingConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
+        // Check if entity matching parameters should be set automatically (unless the set has no entity matching
+        // instance, which successive halving creates for each sample)
+        if (model.getEntityMatchingConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)
+                && methods.getEntityMatching() != null) {
             if (bestIteration == null) {
-                entityMatchingMethod.setNextRandomConfiguration();
+                methods.getEntityMatching().setNextRandomConfiguration();
             } else {
-                entityMatchingMethod.setNumberedRandomConfiguration(bestIteration);
+                methods.getEntityMatching().setNumberedRandomConfiguration(bestIteration);
             }
         }
 
         // Check if entity clustering parameters should be set automatically
         if (model.getEntityClusteringConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
             if (bestIteration == null) {
-                ec.setNextRandomConfiguration();
+                methods.getEntityClustering().setNextRandomConfiguration();
             } else {
-                ec.setNumberedRandomConfiguration(bestIteration);
+                methods.getEntityClustering().setNumberedRandomConfiguration(bestIteration);
             }
         }
     }
 
+    /**
+     * Add the reading time of a dataset or ground truth to the performance per step list
+     *
+     * @param name Name of the read source
+     * @param time Time it took to read the source (in milliseconds)
+     */
+    private void addReadingPerformance(String name, double time) {
+        performancePerStep.add(new WorkflowResult(name, -1, -1, -1, time / 1000.0, -1, -1, -1));
+    }
+
     /**
      * Add a blocks performance result to the performance per step list
      *
@@ -334,99 +593,505 @@ public class WorkflowManager {
     /**
      * Execute a full blocking-based workflow.
      *
-     * @param statusLabel Label to show current workflow status.
+     * @param progress Listener of the workflow's progress
      * @return Clusters performance object
      * @throws Exception When running a workflow fails
      */
-    private ClustersPerformance executeFullBlockingBasedWorkflow(Label statusLabel) throws Exception {
+    private ClustersPerformance executeFullBlockingBasedWorkflow(ProgressListener progress) throws Exception {
         // Check if automatic configuration was chosen for ANY method in the workflow
         if (anyAutomaticConfig()) {
+            // Get the best configuration that a previous run stored for the same data and workflow, and reuse it
+            // instead of searching, if selected
+            String storeKey = getConfigurationStoreKey();
+            int[] storedConfiguration = getStoredConfiguration(storeKey);
+            if (storedConfiguration != null && JedaiOptions.WARMSTART_REUSE.equals(model.getWarmStart())) {
+                System.out.println("Reusing stored configuration\t:\t" + Arrays.toString(storedConfiguration));
+                WorkflowMethods methods = getWorkflowMethods(getEntityMatchingMethodInstance(profilesD1, profilesD2));
+                setGridConfiguration(getAutomaticallyConfiguredMethods(methods), storedConfiguration);
+                return this.runBlockingBasedWorkflow(progress, methods, true, null, null);
+            }
+
             // Run the rest of the workflow with holistic, or step-by-step
             if (model.getAutoConfigType().equals(JedaiOptions.AUTOCONFIG_HOLISTIC)) {
-                // Holistic random configuration (holistic grid is not supported at this time)
-                int bestIteration = 0;
-                double bestFMeasure = 0;
+                // Holistic random configuration (holistic grid is not supported at this time), evaluated on all
+                // profiles or with successive halving on samples of them, or holistic model-based search
+                if (model.getSearchType().equals(JedaiOptions.AUTOCONFIG_SUCCESSIVEHALVING)) {
+                    return runHolisticSuccessiveHalvingWorkflow(progress);
+                }
+                if (model.getSearchType().equals(JedaiOptions.AUTOCONFIG_MODELBASED)) {
+                    return runHolisticModelBasedWorkflow(progress, storeKey,
+                            JedaiOptions.WARMSTART_SEED.equals(model.getWarmStart()) ? storedConfiguration : null);
+                }
+                return runHolisticRandomWorkflow(progress);
+            } else {
+                // Step-by-step automatic configuration. Set random or grid depending on the selected search type.
+                return runStepByStepWorkflow(
+                        progress, model.getSearchType().equals(JedaiOptions.AUTOCONFIG_RANDOMSEARCH), storeKey
+                );
+            }
+        } else {
+            // Run workflow without any automatic configuration, reusing the step outputs of previous runs
+            runCache = createRunCache();
+            return this.runBlockingBasedWorkflow(progress, getWorkflowMethods(null), true, runCache, null);
+        }
+    }
 
-                // Create entity matching method instance
-                IEntityMatching em = this.getEntityMatchingMethodInstance(profilesD1, profilesD2);
+    /**
+     * Run the holistic random search of the blocking-based workflow, and then the workflow with the best configuration.
+     * Trials run in parallel, each thread with its own set of method instances.
+     *
+     * @param progress Listener of the workflow's progress
+     * @return Clusters performance object of the final run
+     * @throws Exception When running a workflow fails
+     */
+    private ClustersPerformance runHolisticRandomWorkflow(ProgressListener progress) throws Exception {
+        int noOfTrials = model.getAutoConfigTrials();
+        int noOfThreads = ParallelSearch.getNoOfThreads(model.getAutoConfigThreads(), noOfTrials);
+
+        // The 1st set uses the workflow's own instances, the rest get new ones
+        List<WorkflowMethods> methodSets = new ArrayList<>();
+        methodSets.add(getWorkflowMethods(getEntityMatchingMethodInstance(profilesD1, profilesD2)));
+        for (int i = 1; i < noOfThreads; i++) {
+            methodSets.add(createWorkflowMethods());
+        }
 
-                for (int j = 0; j < NO_OF_TRIALS; j++) {
-                    int finalJ = j;
-                    Platform.runLater(() -> statusLabel.setText("Auto-configuration " + finalJ + "/" + NO_OF_TRIALS));
+        // Steps that are not configured automatically have the same output in all trials, so their outputs are cached
+        // (enough entries for the latest outputs of all steps of each thread, plus the common ones)
+        int noOfSteps = 2 + methodSets.get(0).getBlockBuilding().size() + methodSets.get(0).getBlockCleaning().size();
+        TrialStepCache cache = new TrialStepCache(noOfSteps * (noOfThreads + 1));
 
-                    // Set the next automatic random configuration
-                    iterateHolisticRandom(em, null);
+        ParetoFront front = new ParetoFront("Holistic random search", "F-Measure");
+        paretoFronts.add(front);
 
-                    // Run a workflow and check its F-measure
-                    ClustersPerformance clp = this.runBlockingBasedWorkflow(statusLabel, schemaClusteringMethod, blBuMethods,
-                            blClMethods, comparisonCleaningMethod, ec, false);
+        AtomicInteger completedTrials = new AtomicInteger();
+        ParallelSearch<WorkflowMethods> search = new ParallelSearch<>(methodSets, searchBudget);
+        int bestIteration = search.findBestTrial(noOfTrials, (methods, j) -> {
+            // Set the next automatic random configuration
+            iterateHolisticRandom(methods, null);
 
-                    // If there was a problem with this random workflow, skip this iteration
-                    if (clp == null) {
-                        continue;
-                    }
+            // Run a workflow and check its F-measure
+            ClustersPerformance clp = runBlockingBasedWorkflow(progress, methods, false, cache, front);
 
-                    // Keep this iteration if it has the best F-measure so far
-                    double fMeasure = clp.getFMeasure();
-                    if (bestFMeasure < fMeasure) {
-                        bestIteration = j;
-                        bestFMeasure = fMeasure;
+            int completed = completedTrials.incrementAndGet();
+            progress.setStatus("Auto-configuration " + completed + "/" + noOfTrials);
+
+            // If there was a problem with this random workflow, skip this iteration
+            return (clp != null) ? clp.getFMeasure() : 0;
+        });
+
+        System.out.println("Completed trials\t:\t" + search.getNoOfCompletedTrials());
+        System.out.println("Best Iteration\t:\t" + bestIteration);
+        System.out.println("Best FMeasure\t:\t" + search.getBestPerformance());
+
+        // Before running the workflow, configure the methods of the best trial's set using its parameters
+        WorkflowMethods bestMethods = search.getInstance(bestIteration);
+        iterateHolisticRandom(bestMethods, search.getInstanceTrial(bestIteration));
+
+        // Run the final workflow
+        return this.runBlockingBasedWorkflow(progress, bestMethods, true, null, null);
+    }
+
+    /**
+     * Run the holistic model-based (TPE) search of the blocking-based workflow, and then the workflow with the best
+     * configuration. Each parameter of the search is the grid configuration of a method that should be automatically
+     * configured, and each trial evaluates the configuration that the search proposes from the previous trials. The
+     * best configuration is stored for later runs.
+     *
+     * @param progress          Listener of the workflow's progress
+     * @param storeKey          Key of the workflow and dataset in the configuration store (null to not store)
+     * @param seedConfiguration Configuration to evaluate first (can be null)
+     * @return Clusters performance object of the final run
+     * @throws Exception When running a workflow fails
+     */
+    private ClustersPerformance runHolisticModelBasedWorkflow(ProgressListener progress, String storeKey,
+                                                              int[] seedConfiguration) throws Exception {
+        int noOfTrials = model.getAutoConfigTrials();
+        int noOfThreads = ParallelSearch.getNoOfThreads(model.getAutoConfigThreads(), noOfTrials);
+
+        // The 1st set uses the workflow's own instances, the rest get new ones
+        List<WorkflowMethods> methodSets = new ArrayList<>();
+        methodSets.add(getWorkflowMethods(getEntityMatchingMethodInstance(profilesD1, profilesD2)));
+        for (int i = 1; i < noOfThreads; i++) {
+            methodSets.add(createWorkflowMethods());
+        }
+
+        // Get the parameters of the search
+        List<IConfiguration> automaticMethods = getAutomaticallyConfiguredMethods(methodSets.get(0));
+        int[] noOfGridConfigurations = new int[automaticMethods.size()];
+        for (int i = 0; i < noOfGridConfigurations.length; i++) {
+            noOfGridConfigurations[i] = Math.max(1, automaticMethods.get(i).getNumberOfGridConfigurations());
+        }
+        TpeSearch tpe = new TpeSearch(noOfGridConfigurations, new Random());
+        if (seedConfiguration != null) {
+            tpe.addSeedConfiguration(seedConfiguration);
+        }
+
+        // Steps that are not configured automatically have the same output in all trials, so their outputs are cached
+        int noOfSteps = 2 + methodSets.get(0).getBlockBuilding().size() + methodSets.get(0).getBlockCleaning().size();
+        TrialStepCache cache = new TrialStepCache(noOfSteps * (noOfThreads + 1));
+
+        ParetoFront front = new ParetoFront("Holistic model-based search", "F-Measure");
+        paretoFronts.add(front);
+
+        int[][] configurations = new int[noOfTrials][];
+        AtomicInteger completedTrials = new AtomicInteger();
+        ParallelSearch<WorkflowMethods> search = new ParallelSearch<>(methodSets, searchBudget);
+        int bestIteration = search.findBestTrial(noOfTrials, (methods, j) -> {
+            // Set the configuration that the search proposes
+            configurations[j] = tpe.proposeConfiguration();
+            setGridConfiguration(getAutomaticallyConfiguredMethods(methods), configurations[j]);
+
+            // Run a workflow and check its F-measure (0 if there was a problem with this workflow)
+            ClustersPerformance clp = runBlockingBasedWorkflow(progress, methods, false, cache, front);
+            double fMeasure = (clp != null) ? clp.getFMeasure() : 0;
+            tpe.addTrial(configurations[j], fMeasure);
+
+            int completed = completedTrials.incrementAndGet();
+            progress.setStatus("Auto-configuration " + completed + "/" + noOfTrials);
+
+            return fMeasure;
+        });
+
+        System.out.println("Completed trials\t:\t" + search.getNoOfCompletedTrials());
+        System.out.println("Best Iteration\t:\t" + bestIteration);
+        System.out.println("Best FMeasure\t:\t" + search.getBestPerformance());
+
+        storeConfiguration(storeKey, configurations[bestIteration], search.getBestPerformance());
+
+        // Before running the workflow, configure the methods of the best trial's set using its configuration
+        WorkflowMethods bestMethods = search.getInstance(bestIteration);
+        setGridConfiguration(getAutomaticallyConfiguredMethods(bestMethods), configurations[bestIteration]);
+
+        // Run the final workflow
+        return this.runBlockingBasedWorkflow(progress, bestMethods, true, null, null);
+    }
+
+    /**
+     * Get the methods of a set that should be automatically configured, in the order of the workflow's steps
+     *
+     * @param methods Set of method instances
+     * @return Methods to configure automatically
+     */
+    private List<IConfiguration> getAutomaticallyConfiguredMethods(WorkflowMethods methods) {
+        List<IConfiguration> automaticMethods = new ArrayList<>();
+        if (model.getSchemaClusteringConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
+            automaticMethods.add(methods.getSchemaClustering());
+        }
+
+        // The block building and cleaning instances are those of the enabled methods
+        if (model.getBlockBuildingMethods() != null) {
+            int enabledMethodIndex = 0;
+            for (JedaiMethodConfiguration methodConfig : model.getBlockBuildingMethods()) {
+                if (methodConfig.isEnabled()) {
+                    if (methodConfig.getConfigurationType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
+                        automaticMethods.add(methods.getBlockBuilding().get(enabledMethodIndex));
+                    }
+                    enabledMethodIndex++;
+                }
+            }
+        }
+        if (model.getBlockCleaningMethods() != null) {
+            int enabledMethodIndex = 0;
+            for (JedaiMethodConfiguration methodConfig : model.getBlockCleaningMethods()) {
+                if (methodConfig.isEnabled()) {
+                    if (methodConfig.getConfigurationType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
+                        automaticMethods.add(methods.getBlockCleaning().get(enabledMethodIndex));
                     }
+                    enabledMethodIndex++;
                 }
+            }
+        }
 
-                System.out.println("Best Iteration\t:\t" + bestIteration);
-                System.out.println("Best FMeasure\t:\t" + bestFMeasure);
+        if (model.getComparisonCleaningConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
+            automaticMethods.add(methods.getComparisonCleaning());
+        }
+        if (model.getEntityMatchingConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
+            automaticMethods.add(methods.getEntityMatching());
+        }
+        if (model.getEntityClusteringConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
+            automaticMethods.add(methods.getEntityClustering());
+        }
 
-                // Before running the workflow, we should configure the methods using the best iteration's parameters
-                iterateHolisticRandom(em, bestIteration);
+        return automaticMethods;
+    }
 
-                // Run the final workflow (whether there was an automatic configuration or not)
-                return this.runBlockingBasedWorkflow(statusLabel, schemaClusteringMethod, blBuMethods, blClMethods,
-                        comparisonCleaningMethod, ec, true);
-            } else {
-                // Step-by-step automatic configuration. Set random or grid depending on the selected search type.
-                return runStepByStepWorkflow(
-                        statusLabel, model.getSearchType().equals(JedaiOptions.AUTOCONFIG_RANDOMSEARCH)
-                );
+    /**
+     * Get a description of the configuration of a set's methods that should be automatically configured
+     *
+     * @param methods Set of method instances
+     * @return Name and configuration of each automatically configured method
+     */
+    private String getConfigurationDescription(WorkflowMethods methods) {
+        StringJoiner description = new StringJoiner("; ");
+        for (IConfiguration method : getAutomaticallyConfiguredMethods(methods)) {
+            IDocumentation documentation = (IDocumentation) method;
+            description.add(documentation.getMethodName() + ": " + documentation.getMethodConfiguration());
+        }
+
+        return description.toString();
+    }
+
+    /**
+     * Set the grid configuration of each of the given methods
+     *
+     * @param methods        Methods to configure
+     * @param configurations Number of the grid configuration of each method
+     */
+    private static void setGridConfiguration(List<IConfiguration> methods, int[] configurations) {
+        for (int i = 0; i < configurations.length; i++) {
+            methods.get(i).setNumberedGridConfiguration(configurations[i]);
+        }
+    }
+
+    /**
+     * Get the key of the workflow and its dataset in the configuration store
+     *
+     * @return Key of the workflow and dataset (null if the input files cannot be read)
+     */
+    private String getConfigurationStoreKey() {
+        try {
+            return ConfigurationStore.getKey(model, profilesD1, profilesD2);
+        } catch (IOException e) {
+            System.err.println("Cannot compute the dataset fingerprint: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Get the best configuration that a previous run stored for the workflow and dataset, if it is still valid for
+     * the methods that should be automatically configured
+     *
+     * @param storeKey Key of the workflow and dataset in the configuration store (can be null)
+     * @return Grid configuration of each automatically configured method, or null if none is stored
+     */
+    private int[] getStoredConfiguration(String storeKey) {
+        if (storeKey == null) {
+            return null;
+        }
+
+        ImmutablePair<int[], Double> stored;
+        try {
+            stored = ConfigurationStore.getDefault().getConfiguration(storeKey);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Cannot read the configuration store: " + e.getMessage());
+            return null;
+        }
+        if (stored == null) {
+            return null;
+        }
+
+        // Check that the configuration matches the methods' grid configurations
+        int[] configuration = stored.getLeft();
+        List<IConfiguration> automaticMethods = getAutomaticallyConfiguredMethods(getWorkflowMethods(null));
+        if (configuration.length != automaticMethods.size()) {
+            return null;
+        }
+        for (int i = 0; i < configuration.length; i++) {
+            if (Math.max(1, automaticMethods.get(i).getNumberOfGridConfigurations()) <= configuration[i]) {
+                return null;
             }
-        } else {
-            // Run workflow without any automatic configuration
-            return this.runBlockingBasedWorkflow(statusLabel, schemaClusteringMethod, blBuMethods, blClMethods,
-                    comparisonCleaningMethod, ec, true);
+        }
+
+        System.out.println("Stored configuration FMeasure\t:\t" + stored.getRight());
+        return configuration;
+    }
+
+    /**
+     * Store the best configuration of a search for later runs on the same workflow and dataset
+     *
+     * @param storeKey      Key of the workflow and dataset in the configuration store (null to not store)
+     * @param configuration Grid configuration of each automatically configured method
+     * @param fMeasure      F-Measure of the configuration
+     */
+    private void storeConfiguration(String storeKey, int[] configuration, double fMeasure) {
+        if (storeKey == null || configuration == null) {
+            return;
+        }
+
+        try {
+            ConfigurationStore.getDefault().putConfiguration(storeKey, configuration, fMeasure);
+        } catch (IOException e) {
+            System.err.println("Cannot write the configuration store: " + e.getMessage());
         }
     }
 
+    /**
+     * Run the holistic successive halving search of the blocking-based workflow, and then the workflow with the best
+     * configuration. The random configurations are first evaluated on a small stratified sample of the profiles. Only
+     * the best 1/HALVING_FACTOR of them are evaluated again on a HALVING_FACTOR times larger sample, and so on, until
+     * the last ones are evaluated on all profiles.
+     *
+     * @param progress Listener of the workflow's progress
+     * @return Clusters performance object of the final run
+     * @throws Exception When running a workflow fails
+     */
+    private ClustersPerformance runHolisticSuccessiveHalvingWorkflow(ProgressListener progress) throws Exception {
+        boolean isCleanCleanEr = erType.equals(JedaiOptions.CLEAN_CLEAN_ER);
+        int noOfTrials = model.getAutoConfigTrials();
+        Random random = new Random();
+
+        // Get the sample fraction of each rung, with the last rung (at least HALVING_FACTOR configurations) on all
+        // profiles, and each previous rung on a HALVING_FACTOR times smaller sample. The number of rungs is limited
+        // so that the first sample has at least MIN_SAMPLE_SIZE profiles, so no two rungs have the same sample.
+        int noOfProfiles = profilesD1.size() + ((profilesD2 != null) ? profilesD2.size() : 0);
+        int noOfRungs = 1;
+        while (Math.pow(HALVING_FACTOR, noOfRungs + 1) <= noOfTrials
+                && noOfProfiles / Math.pow(HALVING_FACTOR, noOfRungs) >= MIN_SAMPLE_SIZE) {
+            noOfRungs++;
+        }
+        double[] fractions = new double[noOfRungs];
+        for (int rung = 0; rung < noOfRungs; rung++) {
+            fractions[rung] = Math.pow(HALVING_FACTOR, rung - noOfRungs + 1);
+        }
+        List<ProfileSample> samples =
+                ProfileSample.getStratifiedSamples(profilesD1, profilesD2, duplicatePropagation, fractions, random);
+
+        // Create the method instances of each configuration and set their random configuration. Entity matching is
+        // bound to the profiles, so it is created for each sample, and its random configuration is one of its grid
+        // configurations (as in JedAI's random configuration of entity matching).
+        List<WorkflowMethods> configurations = new ArrayList<>();
+        int[] matchingConfigurations = new int[noOfTrials];
+        int noOfMatchingConfigurations = getEntityMatchingMethodInstance(
+                samples.get(0).getProfilesD1(), samples.get(0).getProfilesD2()).getNumberOfGridConfigurations();
+        for (int i = 0; i < noOfTrials; i++) {
+            WorkflowMethods configuration = new WorkflowMethods(getSchemaClusteringMethodInstance(),
+                    getBlockBuildingMethodInstances(), getBlockCleaningMethodInstances(isCleanCleanEr),
+                    getComparisonCleaningMethodInstance(isCleanCleanEr), null, getEntityClusteringMethodInstance(),
+                    null);
+            iterateHolisticRandom(configuration, null);
+            configurations.add(configuration);
+            matchingConfigurations[i] = random.nextInt(noOfMatchingConfigurations);
+        }
+
+        // Steps that are not configured automatically have the same output in all trials of a rung, so their outputs
+        // are cached (enough entries for the latest outputs of all steps of each thread, plus the common ones)
+        int noOfSteps = 2 + configurations.get(0).getBlockBuilding().size()
+                + configurations.get(0).getBlockCleaning().size();
+
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < noOfTrials; i++) {
+            candidates.add(i);
+        }
+        int bestConfiguration = 0;
+        for (int rung = 0; rung < noOfRungs; rung++) {
+            // Evaluate the candidates of the rung on its sample, in parallel
+            WorkflowManager sampleManager = (fractions[rung] < 1) ? getSampleManager(samples.get(rung)) : this;
+            int noOfThreads = ParallelSearch.getNoOfThreads(model.getAutoConfigThreads(), candidates.size());
+            TrialStepCache cache = new TrialStepCache(noOfSteps * (noOfThreads + 1));
+
+            // Each rung has its own front, as the quality and cost of its trials depend on the size of its sample
+            ParetoFront front = new ParetoFront("Successive halving, rung " + (rung + 1) + " ("
+                    + Math.round(100 * fractions[rung]) + "% of profiles)", "F-Measure");
+            paretoFronts.add(front);
+
+            List<Integer> rungCandidates = candidates;
+            String rungStatus = "Auto-configuration " + (rung + 1) + "/" + noOfRungs + ": ";
+            AtomicInteger completedTrials = new AtomicInteger();
+            ParallelSearch<WorkflowManager> search =
+                    new ParallelSearch<>(Collections.nCopies(noOfThreads, sampleManager), searchBudget.getTimeBudget());
+            int bestTrial = search.findBestTrial(rungCandidates.size(), (manager, j) -> {
+                int configuration = rungCandidates.get(j);
+                ClustersPerformance clp = manager.runBlockingBasedWorkflow(progress, manager.getConfigurationMethods(
+                        configurations.get(configuration), matchingConfigurations[configuration]), false, cache, front);
+
+                int completed = completedTrials.incrementAndGet();
+                progress.setStatus(rungStatus + completed + "/" + rungCandidates.size());
+
+                // If there was a problem with this random workflow, skip this configuration
+                return (clp != null) ? clp.getFMeasure() : 0;
+            });
+            bestConfiguration = rungCandidates.get(bestTrial);
+
+            System.out.println("Rung " + (rung + 1) + "\t:\t" + search.getNoOfCompletedTrials() + " configurations on "
+                    + sampleManager.profilesD1.size() + ((sampleManager.profilesD2 != null) ?
+                    "/" + sampleManager.profilesD2.size() : "") + " profiles, best FMeasure "
+                    + search.getBestPerformance());
+
+            // If the time budget ran out, keep the best configuration of this rung
+            if (search.getNoOfCompletedTrials() < rungCandidates.size()) {
+                break;
+            }
+
+            // Promote the best candidates to the next rung (the first ones in case of ties)
+            List<Integer> trials = new ArrayList<>();
+            for (int j = 0; j < rungCandidates.size(); j++) {
+                trials.add(j);
+            }
+            trials.sort((j1, j2) -> Double.compare(search.getPerformance(j2), search.getPerformance(j1)));
+            candidates = new ArrayList<>();
+            for (int j : trials.subList(0, (rungCandidates.size() + HALVING_FACTOR - 1) / HALVING_FACTOR)) {
+                candidates.add(rungCandidates.get(j));
+            }
+        }
+
+        System.out.println("Best Iteration\t:\t" + bestConfiguration);
+
+        // Run the final workflow with the best configuration, which records the running time and performance of each
+        // step (the trials of the last rung, although on all profiles, do not)
+        return this.runBlockingBasedWorkflow(progress, getConfigurationMethods(
+                configurations.get(bestConfiguration), matchingConfigurations[bestConfiguration]), true, null, null);
+    }
+
+    /**
+     * Create a workflow manager that runs workflows on a sample of this manager's profiles
+     *
+     * @param sample Sample of the profiles, with its ground truth
+     * @return Workflow manager of the sample
+     */
+    private WorkflowManager getSampleManager(ProfileSample sample) {
+        WorkflowManager sampleManager = new WorkflowManager(model);
+        sampleManager.profilesD1 = sample.getProfilesD1();
+        sampleManager.profilesD2 = sample.getProfilesD2();
+        sampleManager.duplicatePropagation = sample.getDuplicatePropagation();
+        sampleManager.cancelled = cancelled;
+
+        return sampleManager;
+    }
+
+    /**
+     * Get a set of method instances that runs a configuration of successive halving on this manager's profiles. The
+     * set has the configuration's instances, a new entity matching instance for the profiles, and a copy of the
+     * ground truth.
+     *
+     * @param configuration         Method instances of the configuration (without entity matching & ground truth)
+     * @param matchingConfiguration Grid configuration of entity matching (used if it is configured automatically)
+     * @return Set of method instances
+     */
+    private WorkflowMethods getConfigurationMethods(WorkflowMethods configuration, int matchingConfiguration) {
+        IEntityMatching entityMatching = getEntityMatchingMethodInstance(profilesD1, profilesD2);
+        if (model.getEntityMatchingConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
+            entityMatching.setNumberedGridConfiguration(matchingConfiguration);
+        }
+
+        return new WorkflowMethods(configuration.getSchemaClustering(), configuration.getBlockBuilding(),
+                configuration.getBlockCleaning(), configuration.getComparisonCleaning(), entityMatching,
+                configuration.getEntityClustering(), copyDuplicatePropagation());
+    }
+
     /**
      * Execute a full join-based workflow.
      *
-     * @param statusLabel Label to show current workflow status.
+     * @param progress Listener of the workflow's progress
      * @return Clusters performance object
+     * @throws Exception If evaluating a configuration of automatic configuration fails
      */
-    private ClustersPerformance executeFullJoinBasedWorkflow(Label statusLabel) {
+    private ClustersPerformance executeFullJoinBasedWorkflow(ProgressListener progress) throws Exception {
         // todo: make this method use addBlocksPerformance()...
         float overheadStart = System.currentTimeMillis();
-        boolean isDirtyEr = erType.equals(JedaiOptions.DIRTY_ER);
 
         // Similarity Join
-        Platform.runLater(() -> statusLabel.setText("Running similarity join..."));
         SimilarityPairs simPairs;
-        if (isDirtyEr) {
-            simPairs = similarityJoinMethod.executeFiltering(
-                    model.getDataset1Attribute(),
-                    profilesD1
-            );
+        if (model.getSimilarityJoinConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
+            simPairs = optimizeSimilarityJoin(progress,
+                    model.getSearchType().equals(JedaiOptions.AUTOCONFIG_RANDOMSEARCH));
         } else {
-            simPairs = similarityJoinMethod.executeFiltering(
-                    model.getDataset1Attribute(),
-                    model.getDataset2Attribute(),
-                    profilesD1,
-                    profilesD2
-            );
+            progress.setStatus("Running similarity join...");
+            simPairs = runSimilarityJoin(similarityJoinMethod);
         }
 
         // Entity Clustering
-        Platform.runLater(() -> statusLabel.setText("Running entity clustering..."));
-        // todo: should probably have automatic configuration?
+        checkCancelled();
+        progress.setStatus("Running entity clustering...");
         entityClusters = ec.getDuplicates(simPairs);
 
         // Create clusters performance
@@ -439,16 +1104,177 @@ public class WorkflowManager {
         return clp;
     }
 
+    /**
+     * Run a similarity join method on the selected attributes of the datasets
+     *
+     * @param join Similarity join method
+     * @return Similarity pairs returned by the join
+     */
+    private SimilarityPairs runSimilarityJoin(ISimilarityJoin join) {
+        synchronized (SIMILARITY_JOIN_LOCK) {
+            if (erType.equals(JedaiOptions.DIRTY_ER)) {
+                return join.executeFiltering(
+                        model.getDataset1Attribute(),
+                        profilesD1
+                );
+            } else {
+                return join.executeFiltering(
+                        model.getDataset1Attribute(),
+                        model.getDataset2Attribute(),
+                        profilesD1,
+                        profilesD2
+                );
+            }
+        }
+    }
+
+    /**
+     * Automatically configure the threshold of the similarity join, and the entity clustering method if it should be
+     * automatically configured. The join only runs once, with the loosest of the thresholds to evaluate, and the pairs
+     * of every other threshold are filtered from its output. Prints the recall, precision and F-Measure of each
+     * threshold, and sets the best configuration to the methods.
+     *
+     * @param progress    Listener of the workflow's progress
+     * @param random      If true, evaluate random thresholds of the join, otherwise its grid configurations
+     * @return Similarity pairs of the best threshold
+     * @throws Exception If evaluating a configuration fails
+     */
+    private SimilarityPairs optimizeSimilarityJoin(ProgressListener progress, boolean random) throws Exception {
+        boolean clusteringAutomatic = model.getEntityClusteringConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG);
+
+        // Get the threshold of each configuration to evaluate
+        int noOfConfigurations = random ?
+                model.getAutoConfigTrials() : similarityJoinMethod.getNumberOfGridConfigurations();
+        float[] thresholds = new float[noOfConfigurations];
+        for (int i = 0; i < noOfConfigurations; i++) {
+            if (random) {
+                similarityJoinMethod.setNextRandomConfiguration();
+            } else {
+                similarityJoinMethod.setNumberedGridConfiguration(i);
+            }
+            thresholds[i] = SimilarityJoinSweep.getThreshold(similarityJoinMethod);
+        }
+
+        // Run the join once, with the loosest threshold
+        progress.setStatus("Running similarity join...");
+        int loosestConfiguration = SimilarityJoinSweep.getLoosestThreshold(similarityJoinMethod, thresholds);
+        if (random) {
+            similarityJoinMethod.setNumberedRandomConfiguration(loosestConfiguration);
+        } else {
+            similarityJoinMethod.setNumberedGridConfiguration(loosestConfiguration);
+        }
+        final SimilarityJoinSweep joinSweep =
+                new SimilarityJoinSweep(runSimilarityJoin(similarityJoinMethod), similarityJoinMethod);
+
+        // Create entity clustering instances for each thread (with its own copy of the ground truth)
+        progress.setStatus("Similarity join optimization...");
+        int noOfThreads = ParallelSearch.getNoOfThreads(model.getAutoConfigThreads(), noOfConfigurations);
+        List<WorkflowMethods> methodSets = new ArrayList<>();
+        methodSets.add(new WorkflowMethods(null, null, null, null, null, ec, duplicatePropagation));
+        for (int i = 1; i < noOfThreads; i++) {
+            methodSets.add(new WorkflowMethods(null, null, null, null, null,
+                    getEntityClusteringMethodInstance(), copyDuplicatePropagation()));
+        }
+        ParallelSearch<WorkflowMethods> search = new ParallelSearch<>(methodSets, searchBudget);
+
+        // Connected components can be evaluated for all of its grid thresholds in a single pass. Otherwise, each
+        // random search trial evaluates a random configuration of entity clustering, and each grid search trial all
+        // of its grid configurations.
+        boolean sweepClustering =
+                clusteringAutomatic && IncrementalClustering.isSupported(model.getEntityClustering());
+        int innerLoops = (clusteringAutomatic && !sweepClustering && !random) ? ec.getNumberOfGridConfigurations() : 1;
+
+        // Evaluate the pairs of each threshold, keeping the performance of its best entity clustering configuration
+        float[] recalls = new float[noOfConfigurations];
+        float[] precisions = new float[noOfConfigurations];
+        float[] fMeasures = new float[noOfConfigurations];
+        int[] bestInnerIterations = new int[noOfConfigurations];
+        int bestIteration = search.findBestTrial(noOfConfigurations, (methods, j) -> {
+            final SimilarityPairs sims = joinSweep.getSimilarityPairs(thresholds[j]);
+
+            if (sweepClustering) {
+                ThresholdSweep sweep = sweepClusteringConfigurations(
+                        methods.getEntityClustering(), sims, methods.getDuplicatePropagation(), false);
+                bestInnerIterations[j] = sweep.getBestThreshold();
+                recalls[j] = sweep.getRecalls()[bestInnerIterations[j]];
+                precisions[j] = sweep.getPrecisions()[bestInnerIterations[j]];
+                fMeasures[j] = sweep.getFMeasures()[bestInnerIterations[j]];
+                return fMeasures[j];
+            }
+
+            for (int k = 0; k < innerLoops; k++) {
+                if (clusteringAutomatic) {
+                    if (random) {
+                        methods.getEntityClustering().setNextRandomConfiguration();
+                    } else {
+                        methods.getEntityClustering().setNumberedGridConfiguration(k);
+                    }
+                }
+
+                final EquivalenceCluster[] clusters = methods.getEntityClustering().getDuplicates(sims);
+                final ClustersPerformance clp = new ClustersPerformance(clusters, methods.getDuplicatePropagation());
+                clp.setStatistics();
+                if (k == 0 || fMeasures[j] < clp.getFMeasure()) {
+                    bestInnerIterations[j] = k;
+                    recalls[j] = clp.getRecall();
+                    precisions[j] = clp.getPrecision();
+                    fMeasures[j] = clp.getFMeasure();
+                }
+            }
+            return fMeasures[j];
+        });
+
+        // Print the performance of each threshold, from the strictest to the loosest
+        System.out.println("\nThreshold\tRecall\tPrecision\tF-Measure");
+        Integer[] order = new Integer[noOfConfigurations];
+        for (int i = 0; i < noOfConfigurations; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i1, i2) -> Integer.compare(
+                joinSweep.getNoOfPairs(thresholds[i1]), joinSweep.getNoOfPairs(thresholds[i2])));
+        for (int i : order) {
+            System.out.println(thresholds[i] + "\t" + recalls[i] + "\t" + precisions[i] + "\t" + fMeasures[i]);
+        }
+        System.out.println("\nBest Iteration\t:\t" + bestIteration);
+        System.out.println("Best FMeasure\t:\t" + search.getBestPerformance());
+
+        // Set the best configuration to the methods
+        if (random) {
+            similarityJoinMethod.setNumberedRandomConfiguration(bestIteration);
+        } else {
+            similarityJoinMethod.setNumberedGridConfiguration(bestIteration);
+        }
+        System.out.println("Similarity Join\t:\t" + similarityJoinMethod.getMethodConfiguration());
+
+        if (clusteringAutomatic) {
+            if (sweepClustering || !random) {
+                ec.setNumberedGridConfiguration(bestInnerIterations[bestIteration]);
+            } else {
+                // Use the instance that ran the best trial, to restore its random configuration
+                ec = search.getInstance(bestIteration).getEntityClustering();
+                ec.setNumberedRandomConfiguration(search.getInstanceTrial(bestIteration));
+            }
+        }
+
+        return joinSweep.getSimilarityPairs(thresholds[bestIteration]);
+    }
+
     /**
      * Execute a full progressive ER workflow.
      *
-     * @param statusLabel Label to show current workflow status.
+     * @param progress Listener of the workflow's progress
      * @return Clusters performance object
+     * @throws Exception If a block building method fails
      */
-    private ClustersPerformance executeFullProgressiveWorkflow(Label statusLabel) {
+    private ClustersPerformance executeFullProgressiveWorkflow(ProgressListener progress) throws Exception {
+        // The outputs of the steps before prioritization are reused from previous runs and checkpoints
+        runCache = createRunCache();
+
         // Run schema clustering if it's not null (can't measure its performance)
-        Platform.runLater(() -> statusLabel.setText("Running schema clustering..."));
-        AttributeClusters[] clusters = runSchemaClustering(schemaClusteringMethod);
+        progress.setStatus("Running schema clustering...");
+        String scKey = TrialStepCache.getKey(datasetsKey, schemaClusteringMethod);
+        AttributeClusters[] clusters = runCachedStep(runCache, scKey,
+                () -> runSchemaClustering(schemaClusteringMethod));
 
         // Initialize a few variables
         double overheadStart;
@@ -457,25 +1283,33 @@ public class WorkflowManager {
 
         // Block Building (optional in progressive workflow) & block cleaning
         List<AbstractBlock> blocks = new ArrayList<>();
+        String blocksKey = scKey;
         double originalRecall = 0;
         if (blBuMethods != null && blBuMethods.size() > 0) {
-            Platform.runLater(() -> statusLabel.setText("Running block building..."));
+            checkCancelled();
+            progress.setStatus("Running block building...");
 
-            //noinspection Duplicates
+            // Run the methods concurrently
+            List<Callable<List<AbstractBlock>>> steps = new ArrayList<>();
             for (IBlockBuilding bb : blBuMethods) {
-                // Start time measurement
-                overheadStart = System.currentTimeMillis();
+                steps.add(() -> runCachedStep(runCache, TrialStepCache.getKey(scKey, bb),
+                        () -> this.runBlockBuilding(erType, clusters, profilesD1, profilesD2, bb)));
+            }
+            double[] times = new double[steps.size()];
+            List<List<AbstractBlock>> methodBlocks = runConcurrently(steps, times);
 
-                // Run the method
-                blocks.addAll(this.runBlockBuilding(erType, clusters, profilesD1, profilesD2, bb));
+            //noinspection Duplicates
+            for (int i = 0; i < blBuMethods.size(); i++) {
+                IBlockBuilding bb = blBuMethods.get(i);
+                blocks.addAll(methodBlocks.get(i));
+                blocksKey = TrialStepCache.getKey(blocksKey, bb);
 
                 // Get blocks performance to print
-                overheadEnd = System.currentTimeMillis();
                 blp = new BlocksPerformance(blocks, duplicatePropagation);
                 blp.setStatistics();
 
                 // Print performance
-                double totalTime = overheadEnd - overheadStart;
+                double totalTime = times[i];
                 blp.printStatistics((float) totalTime, bb.getMethodConfiguration(), bb.getMethodName());
 
                 // Save the performance of block building
@@ -484,12 +1318,15 @@ public class WorkflowManager {
             System.out.println("Original blocks\t:\t" + blocks.size());
 
             // Block Cleaning
-            Platform.runLater(() -> statusLabel.setText("Running block cleaning..."));
+            progress.setStatus("Running block cleaning...");
 
             if (blClMethods != null && !blClMethods.isEmpty()) {
                 // Execute the methods
                 for (IBlockProcessing currentMethod : blClMethods) {
-                    blocks = runBlockProcessing(duplicatePropagation, true, blocks, currentMethod);
+                    checkCancelled();
+                    blocksKey = TrialStepCache.getKey(blocksKey, currentMethod);
+                    blocks = runCachedBlockProcessing(runCache, blocksKey, duplicatePropagation, true, blocks,
+                            currentMethod, null);
 
                     if (blocks.isEmpty()) {
                         return null;
@@ -501,8 +1338,11 @@ public class WorkflowManager {
 
             // Comparison Cleaning
             if (comparisonCleaningMethod != null) {
-                Platform.runLater(() -> statusLabel.setText("Running comparison cleaning..."));
-                blocks = runBlockProcessing(duplicatePropagation, true, blocks, comparisonCleaningMethod);
+                checkCancelled();
+                progress.setStatus("Running comparison cleaning...");
+                blocksKey = TrialStepCache.getKey(blocksKey, comparisonCleaningMethod);
+                blocks = runCachedBlockProcessing(runCache, blocksKey, duplicatePropagation, true, blocks,
+                        comparisonCleaningMethod, null);
 
                 if (blocks.isEmpty()) {
                     return null;
@@ -515,8 +1355,10 @@ public class WorkflowManager {
         // If we have blocks, run an initial entity matching/clustering before the similarity matching
         if (!blocks.isEmpty()) {
             // Entity matching
-            IEntityMatching originalEntityMatching = getEntityMatchingMethodInstance(profilesD1, profilesD2);
-            SimilarityPairs originalSims = originalEntityMatching.executeComparisons(blocks);
+            checkCancelled();
+            List<AbstractBlock> matchingBlocks = blocks;
+            SimilarityPairs originalSims = runCachedStep(runCache, getEntityMatchingKey(blocksKey),
+                    () -> executeComparisons(getEntityMatchingMethodInstance(profilesD1, profilesD2), matchingBlocks));
             System.out.println("Executed comparisons\t:\t" + originalSims.getNoOfComparisons());
 
             // Entity clustering
@@ -532,7 +1374,8 @@ public class WorkflowManager {
         }
 
         // Prioritization
-        Platform.runLater(() -> statusLabel.setText("Running prioritization..."));
+        checkCancelled();
+        progress.setStatus("Running prioritization...");
         overheadStart = System.currentTimeMillis();
         boolean isDirtyEr = model.getErType().equals(JedaiOptions.DIRTY_ER);
 
@@ -578,8 +1421,9 @@ public class WorkflowManager {
 
         // Run prioritization
         if (!blocks.isEmpty()) {
-            // Block-based schedule (there were block building methods selected)
-            prioritization.developBlockBasedSchedule(blocks);
+            // Block-based schedule (there were block building methods selected), on a copy of the blocks list, as
+            // the blocks may be cached
+            prioritization.developBlockBasedSchedule(new ArrayList<>(blocks));
         } else {
             // Entity-based schedule (directly with input entities!)
             if (isDirtyEr) {
@@ -592,42 +1436,96 @@ public class WorkflowManager {
         }
 
         // Entity Matching
-        Platform.runLater(() -> statusLabel.setText("Running entity matching..."));
+        checkCancelled();
+        progress.setStatus("Running entity matching...");
         IEntityMatching entityMatching = getEntityMatchingMethodInstance(profilesD1, profilesD2);
-        SimilarityPairs sims = new SimilarityPairs(
-                !isDirtyEr,
-                (int) ((!blocks.isEmpty() && !isDirtyEr) ? totalComparisons : budget)
-        );
 
-        recallCurve = new ArrayList<>();
+        // Cluster incrementally if the method supports it, otherwise re-cluster all similarity pairs at checkpoints
+        IncrementalClustering incrementalEc = getIncrementalClustering();
+        IncrementalClustersPerformance incrementalClp = null;
+        int checkpoint = Math.max(1, model.getClusteringCheckpoint());
+        SimilarityPairs sims = null;
+        if (incrementalEc != null) {
+            // Ground truth is indexed once, and the performance is updated on each merge
+            incrementalClp = new IncrementalClustersPerformance(incrementalEc, duplicatePropagation);
+        } else {
+            sims = new SimilarityPairs(
+                    !isDirtyEr,
+                    (int) ((!blocks.isEmpty() && !isDirtyEr) ? totalComparisons : budget)
+            );
+        }
+
+        // Iterations at which the clusters were evaluated, and their recall
+        List<Integer> evaluatedIterations = new ArrayList<>();
+        List<Double> evaluatedRecalls = new ArrayList<>();
+
         ClustersPerformance clp = null;
+        int iteration = 0;
         while (prioritization.hasNext()) {
+            // Stop at the current comparison if the workflow was cancelled, and evaluate the comparisons so far
+            if (cancelled.get()) {
+                break;
+            }
+
             // Get the comparison
             Comparison comparison = prioritization.next();
+            iteration++;
 
             // Calculate the similarity
             float similarity = entityMatching.executeComparison(comparison);
             comparison.setUtilityMeasure(similarity);
 
-            sims.addComparison(comparison);
-
-            // Run clustering
-            entityClusters = ec.getDuplicates(sims);
+            // Run clustering & calculate new clusters performance
+            double recall;
+            if (incrementalEc != null) {
+                // Performance can only change when the comparison merges two clusters
+                if (!incrementalEc.addComparison(comparison) && !evaluatedIterations.isEmpty()) {
+                    continue;
+                }
+                recall = incrementalClp.getRecall();
+            } else {
+                sims.addComparison(comparison);
 
-            // Calculate new clusters performance
-            clp = new ClustersPerformance(entityClusters, duplicatePropagation);
-            clp.setStatistics();
+                if (iteration % checkpoint != 0) {
+                    continue;
+                }
+                entityClusters = ec.getDuplicates(sims);
 
-            double recall = clp.getRecall();
+                clp = new ClustersPerformance(entityClusters, duplicatePropagation);
+                clp.setStatistics();
+                recall = clp.getRecall();
+            }
 
             // Add current recall to the list
-            recallCurve.add(recall);
+            evaluatedIterations.add(iteration);
+            evaluatedRecalls.add(recall);
 
             // If we reached the original recall, stop
             if (originalRecall <= recall) {
                 break;
             }
         }
+
+        // Evaluate the last comparisons, if they were not evaluated at a checkpoint
+        if (iteration > 0 && (evaluatedIterations.isEmpty()
+                || evaluatedIterations.get(evaluatedIterations.size() - 1) != iteration)) {
+            if (incrementalEc == null) {
+                entityClusters = ec.getDuplicates(sims);
+                clp = new ClustersPerformance(entityClusters, duplicatePropagation);
+                clp.setStatistics();
+                evaluatedRecalls.add((double) clp.getRecall());
+            } else {
+                evaluatedRecalls.add((double) incrementalClp.getRecall());
+            }
+            evaluatedIterations.add(iteration);
+        }
+
+        // Create the final clusters (and their performance object) of incremental clustering only once, at the end
+        if (incrementalEc != null && iteration > 0) {
+            entityClusters = incrementalEc.getDuplicates();
+            clp = new ClustersPerformance(entityClusters, duplicatePropagation);
+            clp.setStatistics();
+        }
         overheadEnd = System.currentTimeMillis();
 
         // Print clustering performance
@@ -655,30 +1553,14 @@ public class WorkflowManager {
             );
         }
 
-        // Create recallIterations
-        int maxPoints = 500;
-        if (recallCurve.size() > maxPoints) {
-            // Needs undersampling
-            List<Double> newPoints = new ArrayList<>(maxPoints);
-            recallIterations = new ArrayList<>(maxPoints);
-
-            int step = recallCurve.size() / maxPoints;
-            for (int i = 0; i < maxPoints; i++) {
-                newPoints.add(recallCurve.get(i * step));
-                recallIterations.add(i * step);
-            }
-
-            recallCurve = newPoints;
-        } else {
-            // Add iterations from 1 to recallCurve.size()
-            recallIterations = new ArrayList<>(recallCurve.size());
+        // Create recall curve & iterations (undersampled, if needed)
+        setRecallCurve(evaluatedIterations, evaluatedRecalls, iteration, 500);
 
-            for (int i = 1; i <= recallCurve.size(); i++) {
-                recallIterations.add(i);
-            }
+        // The clusters of the comparisons before the cancellation are kept, and returned as partial results
+        if (cancelled.get()) {
+            throw new WorkflowCancelledException(clp);
         }
 
-
         return clp;
     }
 
@@ -686,18 +1568,29 @@ public class WorkflowManager {
      * Execute a full workflow. This method is called by the execute workflow button, and does everything required to
      * run the full workflow.
      *
+     * @param progress Listener of the workflow's progress (null to not report it)
      * @return ClustersPerformance object for the final run of the workflow
      * @throws Exception If runBlockingBasedWorkflow returns null...
      */
-    public ClustersPerformance executeFullWorkflow(Label statusLabel) throws Exception {
+    public ClustersPerformance executeFullWorkflow(ProgressListener progress) throws Exception {
+        if (progress == null) {
+            progress = status -> {
+            };
+        }
+
+        // The time budget of automatic configuration starts now
+        searchBudget = SearchBudget.startingNow(model.getAutoConfigMaxSeconds(), model.getAutoConfigPatience(),
+                model.getAutoConfigMinImprovement(), cancelled);
+        checkCancelled();
+
         // Run appropriate method depending on selected workflow
         switch (model.getWorkflow()) {
             case JedaiOptions.WORKFLOW_BLOCKING_BASED:
-                return executeFullBlockingBasedWorkflow(statusLabel);
+                return executeFullBlockingBasedWorkflow(progress);
             case JedaiOptions.WORKFLOW_JOIN_BASED:
-                return executeFullJoinBasedWorkflow(statusLabel);
+                return executeFullJoinBasedWorkflow(progress);
             case JedaiOptions.WORKFLOW_PROGRESSIVE:
-                return executeFullProgressiveWorkflow(statusLabel);
+                return executeFullProgressiveWorkflow(progress);
             default:
                 return null;
         }
@@ -742,22 +1635,74 @@ public class WorkflowManager {
     }
 
     /**
-     * Read the datasets
+     * Read the datasets, or get them from the dataset cache of the session (for files, whose keys include their size
+     * and modification time) or the step artifact cache (for databases). The datasets are read concurrently, and the
+     * ground truth (whose duplicates refer to the datasets' profiles) is read once both are ready. The reading time of
+     * each source is added to the performance per step.
      *
      * @param output Enable/disable details output
+     * @throws Exception If reading a dataset fails
      */
-    public void readDatasets(boolean output) {
-        // Read dataset 1
-        profilesD1 = DataReader.getEntitiesD1(model);
+    public void readDatasets(boolean output) throws Exception {
+        readDatasets(output, null);
+    }
 
-        // In case Clean-Clear ER was selected, also read dataset 2
-        profilesD2 = null;
+    /**
+     * Read the datasets (as readDatasets(boolean) does), reporting the progress of reading CSV files
+     *
+     * @param output   Enable/disable details output
+     * @param progress Listener of the reading progress (can be null)
+     * @throws Exception If reading a dataset fails
+     */
+    public void readDatasets(boolean output, ProgressListener progress) throws Exception {
+        // Dataset 1
+        List<Callable<List<EntityProfile>>> steps = new ArrayList<>();
+        String d1Type = model.getEntityProfilesD1Type();
+        List<MutablePair<String, Object>> d1Parameters = model.getEntityProfilesD1Parameters();
+        String d1Key = "D1:" + getSourceKey(d1Type, d1Parameters);
+        steps.add(() -> runCachedStep(getSourceCache(d1Type, d1Parameters), d1Key,
+                () -> DatasetCache.getEntities(d1Type, d1Parameters, progress)));
+
+        // In case Clean-Clear ER was selected, also dataset 2
+        String d2Key = "D2:-";
         if (erType.equals(JedaiOptions.CLEAN_CLEAN_ER)) {
-            profilesD2 = DataReader.getEntitiesD2(model);
+            String d2Type = model.getEntityProfilesD2Type();
+            List<MutablePair<String, Object>> d2Parameters = model.getEntityProfilesD2Parameters();
+            d2Key = "D2:" + getSourceKey(d2Type, d2Parameters);
+            String key = d2Key;
+            steps.add(() -> runCachedStep(getSourceCache(d2Type, d2Parameters), key,
+                    () -> DatasetCache.getEntities(d2Type, d2Parameters, progress)));
+        }
+
+        // Read the datasets concurrently
+        double[] times = new double[steps.size()];
+        List<List<EntityProfile>> datasets = runConcurrently(steps, times);
+        profilesD1 = datasets.get(0);
+        profilesD2 = (datasets.size() > 1) ? datasets.get(1) : null;
+        addReadingPerformance("Dataset 1 Reading", times[0]);
+        if (profilesD2 != null) {
+            addReadingPerformance("Dataset 2 Reading", times[1]);
         }
 
-        // Read ground truth
-        duplicatePropagation = DataReader.getGroundTruth(model, profilesD1, profilesD2);
+        // Read ground truth (the one of the step artifact cache is copied, as performance classes modify it)
+        long gtStart = System.currentTimeMillis();
+        String gtType = model.getGroundTruthType();
+        List<MutablePair<String, Object>> gtParameters = model.getGroundTruthParameters();
+        String gtKey = d1Key + "/" + d2Key + "/GT:" + getSourceKey(gtType, gtParameters);
+        StepCache gtCache = getSourceCache(gtType, gtParameters);
+        duplicatePropagation = runCachedStep(gtCache, gtKey,
+                () -> DatasetCache.getGroundTruth(gtType, gtParameters, erType, profilesD1, profilesD2));
+        datasetsKey = gtKey;
+        datasetsVersioned = DatasetCache.getKey(d1Type, d1Parameters) != null
+                && DatasetCache.getKey(gtType, gtParameters) != null;
+        if (erType.equals(JedaiOptions.CLEAN_CLEAN_ER)) {
+            datasetsVersioned &= DatasetCache.getKey(
+                    model.getEntityProfilesD2Type(), model.getEntityProfilesD2Parameters()) != null;
+        }
+        if (gtCache != null) {
+            duplicatePropagation = copyDuplicatePropagation();
+        }
+        addReadingPerformance("Ground Truth Reading", System.currentTimeMillis() - gtStart);
 
         // Print details
         if (output) {
@@ -779,7 +1724,6 @@ public class WorkflowManager {
                                                    List<AbstractBlock> blocks, IBlockProcessing currentMethod) {
         double overheadStart;
         double overheadEnd;
-        BlocksPerformance blp;
         overheadStart = System.currentTimeMillis();
 
         if (!blocks.isEmpty()) {
@@ -787,22 +1731,32 @@ public class WorkflowManager {
             overheadEnd = System.currentTimeMillis();
 
             if (finalRun) {
-                // Print blocks performance
-                blp = new BlocksPerformance(blocks, duProp);
-                blp.setStatistics();
-
-                float totalTime = (float) (overheadEnd - overheadStart);
-                blp.printStatistics(totalTime, currentMethod.getMethodConfiguration(),
-                        currentMethod.getMethodName());
-
-                // Save the performance of block processing
-                this.addBlocksPerformance(currentMethod.getMethodName(), totalTime, blp);
+                addBlockProcessingPerformance(duProp, blocks, currentMethod, (float) (overheadEnd - overheadStart));
             }
         }
 
         return blocks;
     }
 
+    /**
+     * Print and save the performance of the blocks of a block processing method
+     *
+     * @param duProp        Duplicate propagation (from ground-truth)
+     * @param blocks        Processed blocks
+     * @param currentMethod Method that processed the blocks
+     * @param totalTime     Time it took to process the blocks (in milliseconds)
+     */
+    private void addBlockProcessingPerformance(AbstractDuplicatePropagation duProp, List<AbstractBlock> blocks,
+                                               IBlockProcessing currentMethod, float totalTime) {
+        // Print blocks performance
+        BlocksPerformance blp = new BlocksPerformance(blocks, duProp);
+        blp.setStatistics();
+        blp.printStatistics(totalTime, currentMethod.getMethodConfiguration(), currentMethod.getMethodName());
+
+        // Save the performance of block processing
+        this.addBlocksPerformance(currentMethod.getMethodName(), totalTime, blp);
+    }
+
     /**
      * Run a block building method and return its blocks
      *
@@ -816,6 +1770,19 @@ public class WorkflowManager {
     private List<AbstractBlock> runBlockBuilding(String erType, AttributeClusters[] clusters,
                                                  List<EntityProfile> profilesD1, List<EntityProfile> profilesD2,
                                                  IBlockBuilding bb) {
+        if (bb instanceof LSHMinHashBlocking || bb instanceof LSHSuperBitBlocking) {
+            // LSH blocking builds text models with global weights
+            return TextModelLock.runExclusively(() -> buildBlocks(erType, clusters, profilesD1, profilesD2, bb));
+        }
+        return buildBlocks(erType, clusters, profilesD1, profilesD2, bb);
+    }
+
+    /**
+     * Run a block building method, without guarding the text models. See runBlockBuilding.
+     */
+    private List<AbstractBlock> buildBlocks(String erType, AttributeClusters[] clusters,
+                                            List<EntityProfile> profilesD1, List<EntityProfile> profilesD2,
+                                            IBlockBuilding bb) {
         if (erType.equals(JedaiOptions.DIRTY_ER)) {
             if (clusters == null) {
                 // Dirty ER without schema clustering
@@ -843,14 +1810,16 @@ public class WorkflowManager {
      */
     private AttributeClusters[] runSchemaClustering(ISchemaClustering method) {
         if (method != null) {
-            // Run schema clustering
-            if (erType.equals(JedaiOptions.DIRTY_ER)) {
-                // Dirty ER
-                return method.getClusters(profilesD1);
-            } else {
-                // Clean-Clean ER
-                return method.getClusters(profilesD1, profilesD2);
-            }
+            // Run schema clustering, which builds text models
+            return TextModelLock.runExclusively(() -> {
+                if (erType.equals(JedaiOptions.DIRTY_ER)) {
+                    // Dirty ER
+                    return method.getClusters(profilesD1);
+                } else {
+                    // Clean-Clean ER
+                    return method.getClusters(profilesD1, profilesD2);
+                }
+            });
         } else {
             return null;
         }
@@ -859,25 +1828,29 @@ public class WorkflowManager {
     /**
      * Run a blocking-based workflow with the given methods and return its ClustersPerformance
      *
-     * @param statusLabel Label to set status on
-     * @param sc          Schema clustering method
-     * @param blBuMethods List of block building methods
-     * @param blClMethods List of block cleaning methods
-     * @param coCl        Comparison cleaning method
-     * @param ec          Entity clustering method
+     * @param progress    Listener of the workflow's progress
+     * @param methods     Set of method instances to run (if its entity matching method is null, a new one is created)
      * @param finalRun    Set to true to print messages while running workflow & save performance of each step
+     * @param cache       Cache to get the outputs of the steps before entity matching from (null to run all steps)
+     * @param front       Pareto front to add the F-Measure and cost of the workflow to (null to not add it). Its
+     *                    running time does not include the steps that it got from the cache.
      * @return ClustersPerformance object of the executed workflow
      * @throws Exception In case the Entity Matching method is null (shouldn't happen though)
      */
-    private ClustersPerformance runBlockingBasedWorkflow(Label statusLabel, ISchemaClustering sc,
-                                                         List<IBlockBuilding> blBuMethods,
-                                                         List<IBlockProcessing> blClMethods, IBlockProcessing coCl,
-                                                         IEntityClustering ec, boolean finalRun) throws Exception {
+    private ClustersPerformance runBlockingBasedWorkflow(ProgressListener progress, WorkflowMethods methods,
+                                                         boolean finalRun, StepCache cache, ParetoFront front)
+            throws Exception {
+        long startTime = System.currentTimeMillis();
+        AbstractDuplicatePropagation duProp = methods.getDuplicatePropagation();
+
         // Run schema clustering if it's not null (can't measure its performance)
+        checkCancelled();
         if (finalRun)
-            Platform.runLater(() -> statusLabel.setText("Running schema clustering..."));
+            progress.setStatus("Running schema clustering...");
 
-        AttributeClusters[] clusters = runSchemaClustering(sc);
+        ISchemaClustering sc = methods.getSchemaClustering();
+        String scKey = TrialStepCache.getKey(datasetsKey, sc);
+        AttributeClusters[] clusters = runCachedStep(cache, scKey, () -> runSchemaClustering(sc));
 
         // Initialize a few variables
         double overheadStart;
@@ -885,29 +1858,51 @@ public class WorkflowManager {
         BlocksPerformance blp;
 
         // Run block building methods
+        checkCancelled();
         if (finalRun)
-            Platform.runLater(() -> statusLabel.setText("Running block building..."));
+            progress.setStatus("Running block building...");
+
+        // The final run's step costs are added to the cost model, by the names of the methods in the wizard (only for
+        // the steps that ran, not those whose outputs were cached or checkpointed)
+        DatasetStatistics statistics = finalRun ? DatasetStatistics.compute(profilesD1, profilesD2) : null;
+        List<String> blBuNames = CostModel.getEnabledMethods(model.getBlockBuildingMethods());
+        List<String> blClNames = CostModel.getEnabledMethods(model.getBlockCleaningMethods());
+
+        // Run the methods concurrently (the blocks of each one only depend on schema clustering)
+        List<Callable<List<AbstractBlock>>> steps = new ArrayList<>();
+        boolean[] isBuilt = new boolean[methods.getBlockBuilding().size()];
+        for (IBlockBuilding bb : methods.getBlockBuilding()) {
+            int index = steps.size();
+            steps.add(() -> runCachedStep(cache, TrialStepCache.getKey(scKey, bb),
+                    () -> this.runBlockBuilding(erType, clusters, profilesD1, profilesD2, bb), isBuilt, index));
+        }
+        double[] times = new double[steps.size()];
+        List<List<AbstractBlock>> blBuBlocks = runConcurrently(steps, times);
 
+        // Merge the blocks in the order of the methods
         List<AbstractBlock> blocks = new ArrayList<>();
-        for (IBlockBuilding bb : blBuMethods) {
-            // Start time measurement
-            overheadStart = System.currentTimeMillis();
-
-            // Run the method
-            blocks.addAll(this.runBlockBuilding(erType, clusters, profilesD1, profilesD2, bb));
+        String blocksKey = scKey;
+        for (int i = 0; i < methods.getBlockBuilding().size(); i++) {
+            IBlockBuilding bb = methods.getBlockBuilding().get(i);
+            List<AbstractBlock> methodBlocks = blBuBlocks.get(i);
+            blocks.addAll(methodBlocks);
+            blocksKey = TrialStepCache.getKey(blocksKey, bb);
 
             // Get blocks performance to print
-            overheadEnd = System.currentTimeMillis();
-            blp = new BlocksPerformance(blocks, duplicatePropagation);
-            blp.setStatistics();
             if (finalRun) {
-                float totalTime =(float) (overheadEnd - overheadStart);
+                blp = new BlocksPerformance(blocks, duProp);
+                blp.setStatistics();
+                float totalTime = (float) times[i];
 
                 // Print performance
                 blp.printStatistics(totalTime, bb.getMethodConfiguration(), bb.getMethodName());
 
                 // Save the performance of block building
                 this.addBlocksPerformance(bb.getMethodName(), totalTime, blp);
+                if (isBuilt[i]) {
+                    addStepCost(JedaiOptions.STEP_LABEL_BLOCK_BUILDING, blBuNames.get(i), statistics.getNoOfTokens(),
+                            statistics.getTokenBlockingComparisons(), getNoOfComparisons(methodBlocks), totalTime);
+                }
             }
         }
 
@@ -916,12 +1911,26 @@ public class WorkflowManager {
 
         // Run Block Cleaning
         if (finalRun)
-            Platform.runLater(() -> statusLabel.setText("Running block cleaning..."));
+            progress.setStatus("Running block cleaning...");
 
+        List<IBlockProcessing> blClMethods = methods.getBlockCleaning();
         if (blClMethods != null && !blClMethods.isEmpty()) {
             // Execute the methods
-            for (IBlockProcessing currentMethod : blClMethods) {
-                blocks = runBlockProcessing(duplicatePropagation, finalRun, blocks, currentMethod);
+            for (int i = 0; i < blClMethods.size(); i++) {
+                IBlockProcessing currentMethod = blClMethods.get(i);
+                checkCancelled();
+                double inputComparisons = finalRun ? getNoOfComparisons(blocks) : 0;
+                overheadStart = System.currentTimeMillis();
+
+                blocksKey = TrialStepCache.getKey(blocksKey, currentMethod);
+                boolean[] isProcessed = new boolean[1];
+                blocks = runCachedBlockProcessing(cache, blocksKey, duProp, finalRun, blocks, currentMethod,
+                        isProcessed);
+
+                if (finalRun && isProcessed[0]) {
+                    addStepCost(JedaiOptions.STEP_LABEL_BLOCK_CLEANING, blClNames.get(i), inputComparisons,
+                            inputComparisons, getNoOfComparisons(blocks), System.currentTimeMillis() - overheadStart);
+                }
 
                 if (blocks.isEmpty()) {
                     return null;
@@ -930,10 +1939,23 @@ public class WorkflowManager {
         }
 
         // Run Comparison Cleaning
+        checkCancelled();
         if (finalRun)
-            Platform.runLater(() -> statusLabel.setText("Running comparison cleaning..."));
+            progress.setStatus("Running comparison cleaning...");
+        IBlockProcessing coCl = methods.getComparisonCleaning();
         if (coCl != null) {
-            blocks = runBlockProcessing(duplicatePropagation, finalRun, blocks, coCl);
+            double inputComparisons = finalRun ? getNoOfComparisons(blocks) : 0;
+            overheadStart = System.currentTimeMillis();
+
+            blocksKey = TrialStepCache.getKey(blocksKey, coCl);
+            boolean[] isProcessed = new boolean[1];
+            blocks = runCachedBlockProcessing(cache, blocksKey, duProp, finalRun, blocks, coCl, isProcessed);
+
+            if (finalRun && isProcessed[0]) {
+                addStepCost(JedaiOptions.STEP_LABEL_COMPARISON_CLEANING, model.getComparisonCleaning(),
+                        inputComparisons, inputComparisons, getNoOfComparisons(blocks),
+                        System.currentTimeMillis() - overheadStart);
+            }
 
             if (blocks.isEmpty()) {
                 return null;
@@ -941,35 +1963,388 @@ public class WorkflowManager {
         }
 
         // Run Entity Matching
+        checkCancelled();
         if (finalRun)
-            Platform.runLater(() -> statusLabel.setText("Running entity matching..."));
+            progress.setStatus("Running entity matching...");
         SimilarityPairs simPairs;
 
-        // Create the entity matching method here because it requires the entity profiles
-        IEntityMatching entityMatching = getEntityMatchingMethodInstance(profilesD1, profilesD2);
-        if (entityMatching == null)
-            throw new Exception("Entity Matching method is null!");
-
-        simPairs = entityMatching.executeComparisons(blocks);
+        // The final run compares the partitions of the blocks in parallel (trials already run in parallel), or streams
+        // the comparisons of the blocks, releasing the blocks (unless they are cached). The similarities are only
+        // cached across runs, where the entity matching method is configured as in the wizard.
+        double inputComparisons = finalRun ? getNoOfComparisons(blocks) : 0;
+        List<AbstractBlock> matchingBlocks = (cache != null) ? new ArrayList<>(blocks) : blocks;
+        overheadStart = System.currentTimeMillis();
+        boolean[] isMatched = new boolean[1];
+        simPairs = runCachedStep((cache == runCache) ? cache : null, getEntityMatchingKey(blocksKey), () -> {
+            // Create the entity matching method here (if needed) because it requires the entity profiles
+            IEntityMatching entityMatching = methods.getEntityMatching();
+            if (entityMatching == null)
+                entityMatching = getEntityMatchingMethodInstance(profilesD1, profilesD2);
+            if (entityMatching == null)
+                throw new Exception("Entity Matching method is null!");
+
+            if (finalRun && model.isStreamingMatching()) {
+                int noOfThreads = Runtime.getRuntime().availableProcessors();
+                return new StreamingMatching(entityMatching, noOfThreads, STREAMING_BATCHES_PER_THREAD * noOfThreads)
+                        .executeComparisons(matchingBlocks, erType.equals(JedaiOptions.CLEAN_CLEAN_ER));
+            } else if (finalRun) {
+                return executeComparisons(entityMatching, matchingBlocks);
+            } else {
+                return entityMatching.executeComparisons(matchingBlocks);
+            }
+        }, isMatched, 0);
+        if (finalRun && isMatched[0]) {
+            addStepCost(JedaiOptions.STEP_LABEL_ENTITY_MATCHING, model.getEntityMatching(), inputComparisons,
+                    inputComparisons, simPairs.getNoOfComparisons(), System.currentTimeMillis() - overheadStart);
+        }
 
         // Run Entity Clustering
+        checkCancelled();
         if (finalRun)
-            Platform.runLater(() -> statusLabel.setText("Running entity clustering..."));
+            progress.setStatus("Running entity clustering...");
 
+        IEntityClustering ec = methods.getEntityClustering();
         overheadStart = System.currentTimeMillis();
-        entityClusters = ec.getDuplicates(simPairs);
+        EquivalenceCluster[] clusterResults = ec.getDuplicates(simPairs);
         overheadEnd = System.currentTimeMillis();
 
+        // Only the final run's clusters are kept, as trials may run in parallel
+        if (finalRun)
+            entityClusters = clusterResults;
+
         // Print clustering performance
-        ClustersPerformance clp = new ClustersPerformance(entityClusters, duplicatePropagation);
+        ClustersPerformance clp = new ClustersPerformance(clusterResults, duProp);
         clp.setStatistics();
-        if (finalRun)
+        if (finalRun) {
             clp.printStatistics((float)(overheadEnd - overheadStart), ec.getMethodName(),
                     ec.getMethodConfiguration());
+            addStepCost(JedaiOptions.STEP_LABEL_ENTITY_CLUSTERING, model.getEntityClustering(),
+                    simPairs.getNoOfComparisons(), simPairs.getNoOfComparisons(), simPairs.getNoOfComparisons(),
+                    overheadEnd - overheadStart);
+        }
+
+        // Add the F-Measure and the cost of the workflow to the front
+        if (front != null) {
+            front.addPoint(clp.getFMeasure(), simPairs.getNoOfComparisons(),
+                    (overheadEnd - startTime) / 1000.0, getConfigurationDescription(methods));
+        }
 
         return clp;
     }
 
+    /**
+     * Get the key of the similarities of the entity matching method that is selected in the wizard
+     *
+     * @param blocksKey Key of the blocks that are compared
+     * @return Key of the similarities
+     */
+    private String getEntityMatchingKey(String blocksKey) {
+        String parameters = model.getEntityMatchingConfigType().equals(JedaiOptions.MANUAL_CONFIG) ?
+                String.valueOf(model.getEntityMatchingParameters()) : model.getEntityMatchingConfigType();
+
+        return blocksKey + "/" + model.getEntityMatching() + "{" + parameters + "}";
+    }
+
+    /**
+     * Add the cost of a step of the final run to the cost model
+     *
+     * @param step      Name of the step (see JedaiOptions)
+     * @param method    Name of the step's method (see JedaiOptions)
+     * @param units     Units of input of the step (tokens for block building, input comparisons otherwise)
+     * @param reference Reference number of comparisons of the step's output
+     * @param output    Number of comparisons of the step's output
+     * @param time      Time it took to run the step (in milliseconds)
+     */
+    private void addStepCost(String step, String method, double units, double reference, double output,
+                             double time) {
+        try {
+            CostModel.getDefault().addObservation(step, method, units, reference, output, time / 1000.0);
+        } catch (IOException e) {
+            System.err.println("Cannot write the cost model: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the number of comparisons of a list of blocks (without printing it, unlike getTotalComparisons)
+     *
+     * @param blocks List of blocks
+     * @return Number of comparisons
+     */
+    private static double getNoOfComparisons(List<AbstractBlock> blocks) {
+        double comparisons = 0;
+        for (AbstractBlock block : blocks) {
+            comparisons += block.getNoOfComparisons();
+        }
+
+        return comparisons;
+    }
+
+    /**
+     * Run independent workflow steps concurrently on the step executor, and measure the running time of
+     * each one. A single step runs on the calling thread.
+     *
+     * @param steps Steps to run
+     * @param times Array to set the running time of each step in (in milliseconds)
+     * @param <T>   Type of the steps' output
+     * @return Output of each step, in the order of the steps
+     * @throws Exception The exception of the first step (in order) that failed
+     */
+    private static <T> List<T> runConcurrently(List<Callable<T>> steps, double[] times) throws Exception {
+        List<T> outputs = new ArrayList<>();
+        if (steps.size() == 1) {
+            long start = System.currentTimeMillis();
+            outputs.add(steps.get(0).call());
+            times[0] = System.currentTimeMillis() - start;
+            return outputs;
+        }
+
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < steps.size(); i++) {
+            int index = i;
+            futures.add(STEP_EXECUTOR.submit(() -> {
+                long start = System.currentTimeMillis();
+                T output = steps.get(index).call();
+                times[index] = System.currentTimeMillis() - start;
+                return output;
+            }));
+        }
+
+        try {
+            for (Future<T> future : futures) {
+                outputs.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            // Do not leave the rest of the steps running, and throw the step's own exception
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+
+        return outputs;
+    }
+
+    /**
+     * Execute the comparisons of blocks with an entity matching method, in parallel on partitions of the blocks with
+     * balanced numbers of comparisons. The method's instance is shared by the partitions, since JedAI's entity matching
+     * methods build the representations of the profiles when they are created, and only read them when comparing
+     * (with the exception of the graph models, whose comparisons modify a global comparator, so they are executed
+     * sequentially). The similarities of the partitions are merged in the order of the blocks, so they are the same
+     * as those of executing the comparisons of all blocks at once.
+     *
+     * @param entityMatching Entity matching method
+     * @param blocks         Blocks to execute the comparisons of
+     * @return Similarities of the comparisons
+     * @throws Exception If executing the comparisons fails
+     */
+    private static SimilarityPairs executeComparisons(IEntityMatching entityMatching, List<AbstractBlock> blocks)
+            throws Exception {
+        double comparisons = getNoOfComparisons(blocks);
+        int noOfPartitions = (int) Math.min(Runtime.getRuntime().availableProcessors(),
+                comparisons / MIN_PARTITION_COMPARISONS);
+        if (noOfPartitions < 2 || !GuardedEntityMatching.supportsConcurrentComparisons(entityMatching)) {
+            return entityMatching.executeComparisons(blocks);
+        }
+        List<List<AbstractBlock>> partitions = partitionBlocks(blocks, noOfPartitions);
+        if (partitions.size() < 2) {
+            return entityMatching.executeComparisons(blocks);
+        }
+
+        List<Callable<SimilarityPairs>> steps = new ArrayList<>();
+        for (List<AbstractBlock> partition : partitions) {
+            steps.add(() -> entityMatching.executeComparisons(partition));
+        }
+        List<SimilarityPairs> partitionSims = runConcurrently(steps, new double[steps.size()]);
+
+        // Merge the similarities into pairs with the same capacity as those of all blocks
+        SimilarityPairs sims = new SimilarityPairs(partitionSims.get(0).isCleanCleanER(), blocks);
+        for (SimilarityPairs partitionPairs : partitionSims) {
+            int[] entityIds1 = partitionPairs.getEntityIds1();
+            int[] entityIds2 = partitionPairs.getEntityIds2();
+            float[] similarities = partitionPairs.getSimilarities();
+            for (int i = 0; i < partitionPairs.getNoOfComparisons(); i++) {
+                Comparison comparison = new Comparison(sims.isCleanCleanER(), entityIds1[i], entityIds2[i]);
+                comparison.setUtilityMeasure(similarities[i]);
+                sims.addComparison(comparison);
+            }
+        }
+
+        return sims;
+    }
+
+    /**
+     * Split blocks into consecutive partitions with (roughly) the same number of comparisons
+     *
+     * @param blocks         Blocks to split
+     * @param noOfPartitions Maximum number of partitions
+     * @return Partitions of the blocks, in the order of the blocks (fewer than requested if a block is too large)
+     */
+    private static List<List<AbstractBlock>> partitionBlocks(List<AbstractBlock> blocks, int noOfPartitions) {
+        List<List<AbstractBlock>> partitions = new ArrayList<>();
+        double totalComparisons = getNoOfComparisons(blocks);
+        double comparisons = 0;
+        int start = 0;
+        for (int i = 0; i < blocks.size(); i++) {
+            // End the partition at the block that reaches its share of the comparisons
+            comparisons += blocks.get(i).getNoOfComparisons();
+            if (partitions.size() + 1 < noOfPartitions
+                    && (partitions.size() + 1) * totalComparisons / noOfPartitions <= comparisons) {
+                partitions.add(blocks.subList(start, i + 1));
+                start = i + 1;
+            }
+        }
+        if (start < blocks.size()) {
+            partitions.add(blocks.subList(start, blocks.size()));
+        }
+
+        return partitions;
+    }
+
+    /**
+     * Create the cache of a run with the methods configured as in the wizard, which gets the step outputs from the
+     * step artifact cache, and then from the checkpoints (if any of them is set, and the sources have versions)
+     *
+     * @return Cache of the run (null to run all steps)
+     */
+    private StepCache createRunCache() {
+        if (checkpointStore == null || !datasetsVersioned) {
+            return artifactCache;
+        }
+        if (artifactCache == null) {
+            return checkpointStore;
+        }
+
+        return new StepCache() {
+            @Override
+            public <T> T getOutput(String key, Callable<T> step) throws Exception {
+                return artifactCache.getOutput(key, () -> checkpointStore.getOutput(key, step));
+            }
+        };
+    }
+
+    /**
+     * Get the key of the data of a reader, with the version of its file if it is read from a file
+     *
+     * @param type       Type of reader
+     * @param parameters Parameters for reader
+     * @return Key of the data
+     */
+    private static String getSourceKey(String type, List<MutablePair<String, Object>> parameters) {
+        String key = DatasetCache.getKey(type, parameters);
+        return (key != null) ? key : type + parameters;
+    }
+
+    /**
+     * Get the cache of the data of a reader in the step artifact cache. The data of files are cached by the dataset
+     * cache of the session instead.
+     *
+     * @param type       Type of reader
+     * @param parameters Parameters for reader
+     * @return Step artifact cache, or null if the data are read from a file (or it is not set)
+     */
+    private StepCache getSourceCache(String type, List<MutablePair<String, Object>> parameters) {
+        return (DatasetCache.getKey(type, parameters) == null) ? artifactCache : null;
+    }
+
+    /**
+     * Run a workflow step, or get its output from a cache
+     *
+     * @param cache Cache to get the step's output from (null to always run the step)
+     * @param key   Key of the step's output
+     * @param step  Step to run
+     * @param <T>   Type of the step's output
+     * @return Output of the step
+     * @throws Exception If the step fails
+     */
+    private static <T> T runCachedStep(StepCache cache, String key, Callable<T> step) throws Exception {
+        return (cache != null) ? cache.getOutput(key, step) : step.call();
+    }
+
+    /**
+     * Run a workflow step, or get its output from a cache, and report whether the step actually ran
+     *
+     * @param cache Cache to get the step's output from (null to always run the step)
+     * @param key   Key of the step's output
+     * @param step  Step to run
+     * @param isRun Set to true at the step's index if the step ran (it is left unchanged if its output was cached)
+     * @param index Index of the step
+     * @param <T>   Type of the step's output
+     * @return Output of the step
+     * @throws Exception If the step fails
+     */
+    private static <T> T runCachedStep(StepCache cache, String key, Callable<T> step, boolean[] isRun, int index)
+            throws Exception {
+        return runCachedStep(cache, key, () -> {
+            isRun[index] = true;
+            return step.call();
+        });
+    }
+
+    /**
+     * Process blocks using a given block processing method, or get the processed blocks from a cache. The processed
+     * blocks of a cache are shared, so the method is given a copy of the blocks list (some methods sort it).
+     *
+     * @param cache         Cache to get the processed blocks from (null to always process the blocks)
+     * @param key           Key of the processed blocks
+     * @param duProp        Duplicate propagation (from ground-truth)
+     * @param finalRun      Set to true to print clusters performance
+     * @param blocks        Blocks to process
+     * @param currentMethod Method to process the blocks with
+     * @param isProcessed   Set to true (at index 0) if the blocks were processed, false if they were cached (can be
+     *                      null)
+     * @return Processed list of blocks
+     * @throws Exception If processing the blocks fails
+     */
+    private List<AbstractBlock> runCachedBlockProcessing(StepCache cache, String key,
+                                                         AbstractDuplicatePropagation duProp, boolean finalRun,
+                                                         List<AbstractBlock> blocks, IBlockProcessing currentMethod,
+                                                         boolean[] isProcessed)
+            throws Exception {
+        boolean[] processed = (isProcessed != null) ? isProcessed : new boolean[1];
+        processed[0] = (cache == null);
+        if (cache == null) {
+            return runBlockProcessing(duProp, finalRun, blocks, currentMethod);
+        }
+
+        List<AbstractBlock> processedBlocks = cache.getOutput(key, () -> {
+            processed[0] = true;
+            return runBlockProcessing(duProp, finalRun, new ArrayList<>(blocks), currentMethod);
+        });
+
+        // The final run saves the performance of the cached blocks too (with no running time)
+        if (finalRun && !processed[0] && !processedBlocks.isEmpty()) {
+            addBlockProcessingPerformance(duProp, processedBlocks, currentMethod, 0);
+        }
+
+        return processedBlocks;
+    }
+
+    /**
+     * Copy a list of blocks, so that processing and evaluating the copies does not modify the original blocks.
+     *
+     * @param blocks List of blocks
+     * @return Copies of the blocks
+     */
+    private static List<AbstractBlock> copyBlocks(List<AbstractBlock> blocks) {
+        List<AbstractBlock> copies = new ArrayList<>(blocks.size());
+        for (AbstractBlock block : blocks) {
+            AbstractBlock copy;
+            if (block instanceof BilateralBlock) {
+                BilateralBlock bilateralBlock = (BilateralBlock) block;
+                copy = new BilateralBlock(block.getEntropy(), bilateralBlock.getIndex1Entities().clone(),
+                        bilateralBlock.getIndex2Entities().clone());
+            } else {
+                copy = new UnilateralBlock(block.getEntropy(), ((UnilateralBlock) block).getEntities().clone());
+            }
+            copy.setBlockIndex(block.getBlockIndex());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
     /**
      * Get total comparisons that will be made for a list of blocks
      *
@@ -985,61 +2360,170 @@ public class WorkflowManager {
         return originalComparisons;
     }
 
+    /**
+     * Set the recall curve of the progressive workflow, with (at most) maxPoints evenly spaced iterations. The recall
+     * of each iteration is that of the latest evaluation at or before it.
+     *
+     * @param evaluatedIterations Iterations at which the clusters were evaluated (ascending)
+     * @param evaluatedRecalls    Recall of each evaluated iteration
+     * @param totalIterations     Total number of iterations
+     * @param maxPoints           Maximum number of points in the curve
+     */
+    private void setRecallCurve(List<Integer> evaluatedIterations, List<Double> evaluatedRecalls,
+                                int totalIterations, int maxPoints) {
+        recallCurve = new ArrayList<>();
+        recallIterations = new ArrayList<>();
+
+        // Undersample if needed
+        int step = Math.max(1, (totalIterations + maxPoints - 1) / maxPoints);
+        int evaluationIndex = -1;
+        for (int i = 1; i <= totalIterations; i += step) {
+            // Find the latest evaluation up to this iteration
+            while (evaluationIndex + 1 < evaluatedIterations.size()
+                    && evaluatedIterations.get(evaluationIndex + 1) <= i) {
+                evaluationIndex++;
+            }
+
+            // Skip iterations before the first evaluation
+            if (evaluationIndex >= 0) {
+                recallIterations.add(i);
+                recallCurve.add(evaluatedRecalls.get(evaluationIndex));
+            }
+        }
+    }
+
     /**
      * Optimize a given block processing method randomly using the given list of blocks.
      * Modifies the original block processing object and sets it to use the best found
-     * random configuration.
+     * random configuration. The configurations are evaluated in parallel, with one instance of the method per thread.
      *
-     * @param bp     Block processing method object
-     * @param blocks Blocks to optimize with
-     * @param random If true will use random search, otherwise grid
+     * @param bp         Block processing method object
+     * @param methodName Name of the method (see JedaiOptions), to create more instances of it
+     * @param blocks     Blocks to optimize with
+     * @param random     If true will use random search, otherwise grid
+     * @return Block processing method object with the best configuration (bp, or another instance of the method)
+     * @throws Exception If evaluating a configuration fails
      */
-    private void optimizeBlockProcessing(IBlockProcessing bp, List<AbstractBlock> blocks, boolean random) {
-        List<AbstractBlock> cleanedBlocks;
-        double bestA = 0;
-        int bestIteration = 0;
+    private IBlockProcessing optimizeBlockProcessing(IBlockProcessing bp, String methodName,
+                                                     List<AbstractBlock> blocks, boolean random) throws Exception {
         double originalComparisons = getTotalComparisons(blocks);
+        int iterationsNum = random ? model.getAutoConfigTrials() : bp.getNumberOfGridConfigurations();
+        int noOfThreads = ParallelSearch.getNoOfThreads(model.getAutoConfigThreads(), iterationsNum);
+
+        // Create an instance of the method for each thread, with its own copy of the ground truth and blocks (some
+        // methods sort the list of blocks they are given, and evaluating the blocks sets their indices)
+        boolean isCleanCleanEr = erType.equals(JedaiOptions.CLEAN_CLEAN_ER);
+        List<ImmutablePair<IBlockProcessing, AbstractDuplicatePropagation>> instances = new ArrayList<>();
+        instances.add(new ImmutablePair<>(bp, duplicatePropagation));
+        for (int i = 1; i < noOfThreads; i++) {
+            instances.add(new ImmutablePair<>(
+                    MethodMapping.getMethodByName(methodName, isCleanCleanEr), copyDuplicatePropagation()));
+        }
+        List<List<AbstractBlock>> threadBlocks = new ArrayList<>();
+        for (int i = 0; i < noOfThreads; i++) {
+            threadBlocks.add((i == 0) ? blocks : copyBlocks(blocks));
+        }
+
+        ParetoFront front = new ParetoFront(bp.getMethodName(), "Recall (PC)");
+        paretoFronts.add(front);
 
-        int iterationsNum = random ? NO_OF_TRIALS : bp.getNumberOfGridConfigurations();
-        for (int j = 0; j < iterationsNum; j++) {
+        ParallelSearch<ImmutablePair<IBlockProcessing, AbstractDuplicatePropagation>> search =
+                new ParallelSearch<>(instances, searchBudget);
+        int bestIteration = search.findBestTrial(iterationsNum, (instance, j) -> {
+            IBlockProcessing method = instance.getLeft();
             if (random) {
-                bp.setNextRandomConfiguration();
+                method.setNextRandomConfiguration();
             } else {
-                bp.setNumberedGridConfiguration(j);
+                method.setNumberedGridConfiguration(j);
             }
-            cleanedBlocks = bp.refineBlocks(blocks);
+            long trialStart = System.currentTimeMillis();
+            List<AbstractBlock> cleanedBlocks = method.refineBlocks(threadBlocks.get(j % noOfThreads));
+            long trialEnd = System.currentTimeMillis();
             if (cleanedBlocks.isEmpty()) {
-                continue;
+                return 0;
             }
 
-            BlocksPerformance blp = new BlocksPerformance(cleanedBlocks, duplicatePropagation);
+            BlocksPerformance blp = new BlocksPerformance(cleanedBlocks, instance.getRight());
             blp.setStatistics();
             double recall = blp.getPc();
             double rr = 1 - blp.getAggregateCardinality() / originalComparisons;
-            double a = rr * recall;
-            if (bestA < a) {
-                bestIteration = j;
-                bestA = a;
-            }
-        }
+            front.addPoint(recall, blp.getAggregateCardinality(), (trialEnd - trialStart) / 1000.0,
+                    method.getMethodConfiguration());
+            return rr * recall;
+        });
         System.out.println("\n\nBest iteration\t:\t" + bestIteration);
-        System.out.println("Best performance\t:\t" + bestA);
+        System.out.println("Best performance\t:\t" + search.getBestPerformance());
 
         if (random) {
-            bp.setNumberedRandomConfiguration(bestIteration);
+            // Only the instance that ran the best iteration can restore its random configuration
+            IBlockProcessing bestMethod = search.getInstance(bestIteration).getLeft();
+            bestMethod.setNumberedRandomConfiguration(search.getInstanceTrial(bestIteration));
+            return bestMethod;
         } else {
             bp.setNumberedGridConfiguration(bestIteration);
+            bestGridConfigurations.put(bp, bestIteration);
+            return bp;
+        }
+    }
+
+    /**
+     * Evaluate the grid configurations (or as many new random configurations as the trial budget) of an entity
+     * clustering method that IncrementalClustering supports on the same similarity pairs, with a single threshold
+     * sweep.
+     *
+     * @param ec     Entity clustering method
+     * @param sims   Similarity pairs to cluster
+     * @param duProp Duplicate propagation (from ground-truth)
+     * @param random If true, evaluate new random configurations of the method, otherwise its grid configurations
+     * @return Threshold sweep with the performance of each configuration, by grid or random configuration number
+     */
+    private ThresholdSweep sweepClusteringConfigurations(IEntityClustering ec, SimilarityPairs sims,
+                                                         AbstractDuplicatePropagation duProp, boolean random) {
+        int noOfConfigurations = random ? model.getAutoConfigTrials() : ec.getNumberOfGridConfigurations();
+        float[] thresholds = new float[noOfConfigurations];
+        for (int i = 0; i < noOfConfigurations; i++) {
+            if (random) {
+                ec.setNextRandomConfiguration();
+            } else {
+                ec.setNumberedGridConfiguration(i);
+            }
+            thresholds[i] = getSimilarityThreshold(ec);
         }
+
+        ThresholdSweep sweep = new ThresholdSweep(
+                sims, profilesD1.size(), (profilesD2 != null) ? profilesD2.size() : 0, duProp);
+        sweep.sweep(thresholds);
+        return sweep;
+    }
+
+    /**
+     * Cluster the given similarity pairs with a set's entity clustering method and return the clusters' F-Measure
+     *
+     * @param methods Set of method instances (entity clustering method & duplicate propagation)
+     * @param sims    Similarity pairs to cluster
+     * @return F-Measure of the clusters
+     */
+    private static double getFMeasure(WorkflowMethods methods, SimilarityPairs sims) {
+        final EquivalenceCluster[] clusters = methods.getEntityClustering().getDuplicates(sims);
+
+        final ClustersPerformance clp = new ClustersPerformance(clusters, methods.getDuplicatePropagation());
+        clp.setStatistics();
+        return clp.getFMeasure();
     }
 
     /**
-     * Run a step by step workflow, using random or grid search based on the given parameter.
+     * Run a step by step workflow, using random or grid search based on the given parameter. The best grid
+     * configurations are stored for later runs.
      *
-     * @param statusLabel Label to show status
+     * @param progress    Listener of the workflow's progress
      * @param random      If true, will use random search. Otherwise, grid.
+     * @param storeKey    Key of the workflow and dataset in the configuration store (null to not store)
      * @return ClustersPerformance of the workflow result
+     * @throws Exception If evaluating a configuration fails
      */
-    private ClustersPerformance runStepByStepWorkflow(Label statusLabel, boolean random) {
+    private ClustersPerformance runStepByStepWorkflow(ProgressListener progress, boolean random, String storeKey)
+            throws Exception {
+        bestGridConfigurations.clear();
         double bestA = 0;
         int bestIteration = 0;
 
@@ -1051,7 +2535,8 @@ public class WorkflowManager {
         // Schema Clustering local optimization
         AttributeClusters[] scClusters = null;
         if (!model.getSchemaClustering().equals(JedaiOptions.NO_SCHEMA_CLUSTERING)) {
-            Platform.runLater(() -> statusLabel.setText("Schema Clustering optimization..."));
+            checkCancelled();
+            progress.setStatus("Schema Clustering optimization...");
 
             // Optimize schema clustering
 //          if (model.getSchemaClusteringConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) { }
@@ -1059,16 +2544,12 @@ public class WorkflowManager {
 
             // Execute schema clustering method
             ISchemaClustering sc = MethodMapping.getSchemaClusteringMethodByName(model.getSchemaClustering());
-
-            if (erType.equals(JedaiOptions.DIRTY_ER)) {
-                scClusters = sc.getClusters(profilesD1);
-            } else {
-                scClusters = sc.getClusters(profilesD1, profilesD2);
-            }
+            scClusters = runSchemaClustering(sc);
         }
 
         // Block Building local optimization
-        Platform.runLater(() -> statusLabel.setText("Block Building optimization..."));
+        checkCancelled();
+        progress.setStatus("Block Building optimization...");
         time1 = System.currentTimeMillis();
         final List<AbstractBlock> blocks = new ArrayList<>();
 
@@ -1091,34 +2572,43 @@ public class WorkflowManager {
                         originalComparisons = ((double) profilesD1.size()) * profilesD2.size();
                     }
 
-                    iterationsNum = random ? NO_OF_TRIALS : bb.getNumberOfGridConfigurations();
+                    iterationsNum = random ? model.getAutoConfigTrials() : bb.getNumberOfGridConfigurations();
+
+                    ParetoFront front = new ParetoFront("Block Building: " + bb.getMethodName(), "Recall (PC)");
+                    paretoFronts.add(front);
 
-                    for (int j = 0; j < iterationsNum; j++) {
+                    // Evaluate the configurations with the method's instance (no parallel trials)
+                    final AttributeClusters[] clusters = scClusters;
+                    final double comparisons = originalComparisons;
+                    ParallelSearch<IBlockBuilding> search =
+                            new ParallelSearch<>(Collections.singletonList(bb), searchBudget);
+                    bestIteration = search.findBestTrial(iterationsNum, (method, j) -> {
                         // Set next configuration
                         if (random) {
-                            bb.setNextRandomConfiguration();
+                            method.setNextRandomConfiguration();
                         } else {
-                            bb.setNumberedGridConfiguration(j);
+                            method.setNumberedGridConfiguration(j);
                         }
 
                         // Process the blocks
+                        long trialStart = System.currentTimeMillis();
                         final List<AbstractBlock> originalBlocks = new ArrayList<>(blocks);
-                        originalBlocks.addAll(runBlockBuilding(erType, scClusters, profilesD1, profilesD2, bb));
+                        originalBlocks.addAll(runBlockBuilding(erType, clusters, profilesD1, profilesD2, method));
+                        long trialEnd = System.currentTimeMillis();
 
                         if (originalBlocks.isEmpty()) {
-                            continue;
+                            return 0;
                         }
 
                         final BlocksPerformance methodBlp = new BlocksPerformance(originalBlocks, duplicatePropagation);
                         methodBlp.setStatistics();
                         double recall = methodBlp.getPc();
-                        double rr = 1 - methodBlp.getAggregateCardinality() / originalComparisons;
-                        double a = rr * recall;
-                        if (bestA < a) {
-                            bestIteration = j;
-                            bestA = a;
-                        }
-                    }
+                        double rr = 1 - methodBlp.getAggregateCardinality() / comparisons;
+                        front.addPoint(recall, methodBlp.getAggregateCardinality(), (trialEnd - trialStart) / 1000.0,
+                                method.getMethodConfiguration());
+                        return rr * recall;
+                    });
+                    bestA = search.getBestPerformance();
                     System.out.println("\n\nBest iteration\t:\t" + bestIteration);
                     System.out.println("Best performance\t:\t" + bestA);
 
@@ -1127,17 +2617,15 @@ public class WorkflowManager {
                         bb.setNumberedRandomConfiguration(bestIteration);
                     } else {
                         bb.setNumberedGridConfiguration(bestIteration);
+                        bestGridConfigurations.put(bb, bestIteration);
                     }
                 }
 
                 // Process the blocks with block building
-                Platform.runLater(() -> statusLabel.setText("Running block building..."));
+                checkCancelled();
+                progress.setStatus("Running block building...");
 
-                if (erType.equals(JedaiOptions.DIRTY_ER)) {
-                    blocks.addAll(bb.getBlocks(profilesD1));
-                } else {
-                    blocks.addAll(bb.getBlocks(profilesD1, profilesD2));
-                }
+                blocks.addAll(runBlockBuilding(erType, null, profilesD1, profilesD2, bb));
 
                 time2 = System.currentTimeMillis();
                 totalTimeMillis = time2 - time1;
@@ -1154,7 +2642,8 @@ public class WorkflowManager {
         }
 
         // Block Cleaning methods local optimization
-        Platform.runLater(() -> statusLabel.setText("Running block cleaning..."));
+        checkCancelled();
+        progress.setStatus("Running block cleaning...");
 
         List<AbstractBlock> cleanedBlocks = blocks;
         if (model.getBlockCleaningMethods() != null && !model.getBlockCleaningMethods().isEmpty()) {
@@ -1176,7 +2665,8 @@ public class WorkflowManager {
                 // Check if we should configure this method automatically
                 if (blClConfig.getConfigurationType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
                     // Optimize the method
-                    optimizeBlockProcessing(bp, blocks, random);
+                    bp = optimizeBlockProcessing(bp, blClConfig.getName(), blocks, random);
+                    blClMethods.set(enabledMethodIndex, bp);
                 }
 
                 // Process blocks with this method
@@ -1197,13 +2687,15 @@ public class WorkflowManager {
         }
 
         // Comparison Cleaning local optimization
-        Platform.runLater(() -> statusLabel.setText("Running comparison cleaning..."));
+        checkCancelled();
+        progress.setStatus("Running comparison cleaning...");
         time1 = System.currentTimeMillis();
 
         List<AbstractBlock> finalBlocks;
         if (model.getComparisonCleaningConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
             // Optimize the comparison cleaning method
-            optimizeBlockProcessing(comparisonCleaningMethod, cleanedBlocks, random);
+            comparisonCleaningMethod = optimizeBlockProcessing(
+                    comparisonCleaningMethod, model.getComparisonCleaning(), cleanedBlocks, random);
         }
 
         finalBlocks = comparisonCleaningMethod.refineBlocks(cleanedBlocks);
@@ -1229,105 +2721,151 @@ public class WorkflowManager {
             String optimizationMsg = (matchingAutomatic ? "matching" : "") +
                     (matchingAutomatic && clusteringAutomatic ? " & " : "") +
                     (clusteringAutomatic ? "clustering" : "");
-            Platform.runLater(() -> statusLabel.setText("Entity " + optimizationMsg + " optimization..."));
+            checkCancelled();
+            progress.setStatus("Entity " + optimizationMsg + " optimization...");
+
+            // Create entity matching & clustering instances for each thread (with its own copy of the ground truth).
+            // The entity matching method is only configured by the trials if it is automatic, otherwise they share it.
+            int trialsNum = random ? model.getAutoConfigTrials() : (matchingAutomatic ?
+                    entityMatchingMethod.getNumberOfGridConfigurations() : ec.getNumberOfGridConfigurations());
+            int noOfThreads = ParallelSearch.getNoOfThreads(model.getAutoConfigThreads(), trialsNum);
+            List<WorkflowMethods> methodSets = new ArrayList<>();
+            methodSets.add(new WorkflowMethods(null, null, null, null, entityMatchingMethod, ec, duplicatePropagation));
+            for (int i = 1; i < noOfThreads; i++) {
+                methodSets.add(new WorkflowMethods(null, null, null, null,
+                        matchingAutomatic ? getEntityMatchingMethodInstance(profilesD1, profilesD2) :
+                                entityMatchingMethod, getEntityClusteringMethodInstance(),
+                        copyDuplicatePropagation()));
+            }
+            ParallelSearch<WorkflowMethods> search = new ParallelSearch<>(methodSets, searchBudget);
 
-            double bestFMeasure = 0;
+            // When entity matching is not configured automatically, its similarities are the same for all trials
+            final SimilarityPairs fixedSims =
+                    matchingAutomatic ? null : entityMatchingMethod.executeComparisons(finalBlocks);
+
+            // Connected components can be evaluated for all thresholds on the same similarities in a single pass
+            boolean sweepClustering =
+                    clusteringAutomatic && IncrementalClustering.isSupported(model.getEntityClustering());
 
             // Check if we are using random search or grid search
-            if (random) {
-                bestIteration = 0;
+            if (random && !matchingAutomatic && sweepClustering) {
+                // Optimize entity clustering with random search, sweeping the random thresholds
+                ThresholdSweep sweep = sweepClusteringConfigurations(ec, fixedSims, duplicatePropagation, true);
+                bestIteration = sweep.getBestThreshold();
+                System.out.println("\nBest Iteration\t:\t" + bestIteration);
+                System.out.println("Best FMeasure\t:\t" + sweep.getFMeasures()[bestIteration]);
 
+                time1 = System.currentTimeMillis();
+                ec.setNumberedRandomConfiguration(bestIteration);
+            } else if (random) {
                 // Optimize entity matching and clustering with random search
-                for (int j = 0; j < NO_OF_TRIALS; j++) {
+                bestIteration = search.findBestTrial(trialsNum, (methods, j) -> {
                     // Set entity matching parameters automatically if needed
-                    if (model.getEntityMatchingConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
-                        entityMatchingMethod.setNextRandomConfiguration();
+                    SimilarityPairs sims = fixedSims;
+                    if (matchingAutomatic) {
+                        methods.getEntityMatching().setNextRandomConfiguration();
+                        sims = methods.getEntityMatching().executeComparisons(finalBlocks);
                     }
-                    final SimilarityPairs sims =
-                            entityMatchingMethod.executeComparisons(finalBlocks);
 
                     // Set entity clustering parameters automatically if needed
-                    if (model.getEntityClusteringConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
-                        ec.setNextRandomConfiguration();
-                    }
-                    final EquivalenceCluster[] clusters = ec.getDuplicates(sims);
-
-                    final ClustersPerformance clp = new ClustersPerformance(clusters, duplicatePropagation);
-                    clp.setStatistics();
-                    double fMeasure = clp.getFMeasure();
-                    if (bestFMeasure < fMeasure) {
-                        bestIteration = j;
-                        bestFMeasure = fMeasure;
+                    if (clusteringAutomatic) {
+                        methods.getEntityClustering().setNextRandomConfiguration();
                     }
-                }
+                    return getFMeasure(methods, sims);
+                });
                 System.out.println("\nBest Iteration\t:\t" + bestIteration);
-                System.out.println("Best FMeasure\t:\t" + bestFMeasure);
+                System.out.println("Best FMeasure\t:\t" + search.getBestPerformance());
 
                 time1 = System.currentTimeMillis();
 
-                // Set the best iteration's parameters to the methods that should be automatically configured
-                if (model.getEntityMatchingConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
-                    entityMatchingMethod.setNumberedRandomConfiguration(bestIteration);
+                // Set the best iteration's parameters to the methods that should be automatically configured, using
+                // the instances that ran it
+                WorkflowMethods bestMethods = search.getInstance(bestIteration);
+                entityMatchingMethod = bestMethods.getEntityMatching();
+                ec = bestMethods.getEntityClustering();
+                if (matchingAutomatic) {
+                    entityMatchingMethod.setNumberedRandomConfiguration(search.getInstanceTrial(bestIteration));
                 }
-                if (model.getEntityClusteringConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
-                    ec.setNumberedRandomConfiguration(bestIteration);
+                if (clusteringAutomatic) {
+                    ec.setNumberedRandomConfiguration(search.getInstanceTrial(bestIteration));
                 }
             } else {
                 // Optimize entity matching and clustering with grid search
-                boolean emAutoConfig = model.getEntityMatchingConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG);
-                boolean ecAutoConfig = model.getEntityClusteringConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG);
-
-                int bestInnerIteration = 0;
-                int bestOuterIteration = 0;
+                int bestInnerIteration;
+                int bestOuterIteration;
+                double bestFMeasure;
 
                 // Get number of loops for each
-                int outerLoops = (emAutoConfig) ? entityMatchingMethod.getNumberOfGridConfigurations() : 1;
-                int innerLoops = (ecAutoConfig) ? ec.getNumberOfGridConfigurations() : 1;
-
-                // Iterate all entity matching configurations
-                for (int j = 0; j < outerLoops; j++) {
-                    if (emAutoConfig) {
-                        entityMatchingMethod.setNumberedGridConfiguration(j);
-                    }
-                    final SimilarityPairs sims = entityMatchingMethod.executeComparisons(finalBlocks);
-
-                    // Iterate all entity clustering configurations
-                    for (int k = 0; k < innerLoops; k++) {
-                        if (ecAutoConfig) {
-                            ec.setNumberedGridConfiguration(k);
+                int outerLoops = (matchingAutomatic) ? entityMatchingMethod.getNumberOfGridConfigurations() : 1;
+                int innerLoops = (clusteringAutomatic) ? ec.getNumberOfGridConfigurations() : 1;
+
+                if (matchingAutomatic) {
+                    // Search the entity matching configurations in parallel. Each one runs the comparisons once and
+                    // then iterates all entity clustering configurations.
+                    int[] bestInnerIterations = new int[outerLoops];
+                    bestOuterIteration = search.findBestTrial(outerLoops, (methods, j) -> {
+                        methods.getEntityMatching().setNumberedGridConfiguration(j);
+                        final SimilarityPairs sims = methods.getEntityMatching().executeComparisons(finalBlocks);
+
+                        if (sweepClustering) {
+                            ThresholdSweep sweep = sweepClusteringConfigurations(
+                                    methods.getEntityClustering(), sims, methods.getDuplicatePropagation(), false);
+                            bestInnerIterations[j] = sweep.getBestThreshold();
+                            return sweep.getFMeasures()[bestInnerIterations[j]];
                         }
-                        final EquivalenceCluster[] clusters = ec.getDuplicates(sims);
-
-                        final ClustersPerformance clp = new ClustersPerformance(clusters, duplicatePropagation);
-                        clp.setStatistics();
-                        double fMeasure = clp.getFMeasure();
-                        if (bestFMeasure < fMeasure) {
-                            bestInnerIteration = k;
-                            bestOuterIteration = j;
-                            bestFMeasure = fMeasure;
+
+                        double bestInnerFMeasure = 0;
+                        for (int k = 0; k < innerLoops; k++) {
+                            if (clusteringAutomatic) {
+                                methods.getEntityClustering().setNumberedGridConfiguration(k);
+                            }
+                            double fMeasure = getFMeasure(methods, sims);
+                            if (bestInnerFMeasure < fMeasure) {
+                                bestInnerIterations[j] = k;
+                                bestInnerFMeasure = fMeasure;
+                            }
                         }
-                    }
+                        return bestInnerFMeasure;
+                    });
+                    bestInnerIteration = bestInnerIterations[bestOuterIteration];
+                    bestFMeasure = search.getBestPerformance();
+                } else if (sweepClustering) {
+                    // Sweep all entity clustering thresholds on the same similarities
+                    bestOuterIteration = 0;
+                    ThresholdSweep sweep = sweepClusteringConfigurations(ec, fixedSims, duplicatePropagation, false);
+                    bestInnerIteration = sweep.getBestThreshold();
+                    bestFMeasure = sweep.getFMeasures()[bestInnerIteration];
+                } else {
+                    // Search the entity clustering configurations in parallel, on the same similarities
+                    bestOuterIteration = 0;
+                    bestInnerIteration = search.findBestTrial(innerLoops, (methods, k) -> {
+                        methods.getEntityClustering().setNumberedGridConfiguration(k);
+                        return getFMeasure(methods, fixedSims);
+                    });
+                    bestFMeasure = search.getBestPerformance();
                 }
                 System.out.println("\nBest Inner Iteration\t:\t" + bestInnerIteration);
                 System.out.println("\nBest Outer Iteration\t:\t" + bestOuterIteration);
                 System.out.println("Best FMeasure\t:\t" + bestFMeasure);
 
                 // Set the best iteration's parameters to the methods that should be automatically configured
-                if (model.getEntityMatchingConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
+                if (matchingAutomatic) {
                     entityMatchingMethod.setNumberedGridConfiguration(bestOuterIteration);
+                    bestGridConfigurations.put(entityMatchingMethod, bestOuterIteration);
                 }
-                if (model.getEntityClusteringConfigType().equals(JedaiOptions.AUTOMATIC_CONFIG)) {
+                if (clusteringAutomatic) {
                     ec.setNumberedGridConfiguration(bestInnerIteration);
+                    bestGridConfigurations.put(ec, bestInnerIteration);
                 }
             }
         }
 
         // Run entity matching with final configuration
-        Platform.runLater(() -> statusLabel.setText("Running entity matching..."));
-        final SimilarityPairs sims = entityMatchingMethod.executeComparisons(finalBlocks);
+        progress.setStatus("Running entity matching...");
+        final SimilarityPairs sims = executeComparisons(entityMatchingMethod, finalBlocks);
 
         // Run entity clustering with final configuration
-        Platform.runLater(() -> statusLabel.setText("Running entity clustering..."));
+        progress.setStatus("Running entity clustering...");
         entityClusters = ec.getDuplicates(sims);
 
         time2 = System.currentTimeMillis();
@@ -1338,6 +2876,21 @@ public class WorkflowManager {
         // todo: Could set the entire configuration details instead of entity clustering method name & config.
         clp.printStatistics((float)totalTimeMillis, ec.getMethodName(), ec.getMethodConfiguration());
 
+        // Store the best grid configurations, if all automatically configured methods have one
+        if (!random) {
+            List<IConfiguration> automaticMethods =
+                    getAutomaticallyConfiguredMethods(getWorkflowMethods(entityMatchingMethod));
+            int[] configuration = new int[automaticMethods.size()];
+            for (int i = 0; i < configuration.length; i++) {
+                Integer gridConfiguration = bestGridConfigurations.get(automaticMethods.get(i));
+                if (gridConfiguration == null) {
+                    return clp;
+                }
+                configuration[i] = gridConfiguration;
+            }
+            storeConfiguration(storeKey, configuration, clp.getFMeasure());
+        }
+
         return clp;
     }
 }
@@ -0,0 +1,65 @@
+package org.scify.jedai.gui.utilities;
+
+import org.scify.jedai.blockbuilding.IBlockBuilding;
+import org.scify.jedai.blockprocessing.IBlockProcessing;
+import org.scify.jedai.entityclustering.IEntityClustering;
+import org.scify.jedai.entitymatching.IEntityMatching;
+import org.scify.jedai.schemaclustering.ISchemaClustering;
+import org.scify.jedai.utilities.datastructures.AbstractDuplicatePropagation;
+
+import java.util.List;
+
+/**
+ * Set of method instances that a blocking-based workflow runs with. JedAI's methods keep their (random) configuration
+ * and statistics internally, so each workflow that runs in parallel needs its own set.
+ */
+public class WorkflowMethods {
+    private final ISchemaClustering schemaClustering;
+    private final List<IBlockBuilding> blockBuilding;
+    private final List<IBlockProcessing> blockCleaning;
+    private final IBlockProcessing comparisonCleaning;
+    private final IEntityMatching entityMatching;
+    private final IEntityClustering entityClustering;
+    private final AbstractDuplicatePropagation duplicatePropagation;
+
+    public WorkflowMethods(ISchemaClustering schemaClustering, List<IBlockBuilding> blockBuilding,
+                           List<IBlockProcessing> blockCleaning, IBlockProcessing comparisonCleaning,
+                           IEntityMatching entityMatching, IEntityClustering entityClustering,
+                           AbstractDuplicatePropagation duplicatePropagation) {
+        this.schemaClustering = schemaClustering;
+        this.blockBuilding = blockBuilding;
+        this.blockCleaning = blockCleaning;
+        this.comparisonCleaning = comparisonCleaning;
+        this.entityMatching = entityMatching;
+        this.entityClustering = entityClustering;
+        this.duplicatePropagation = duplicatePropagation;
+    }
+
+    public ISchemaClustering getSchemaClustering() {
+        return schemaClustering;
+    }
+
+    public List<IBlockBuilding> getBlockBuilding() {
+        return blockBuilding;
+    }
+
+    public List<IBlockProcessing> getBlockCleaning() {
+        return blockCleaning;
+    }
+
+    public IBlockProcessing getComparisonCleaning() {
+        return comparisonCleaning;
+    }
+
+    public IEntityMatching getEntityMatching() {
+        return entityMatching;
+    }
+
+    public IEntityClustering getEntityClustering() {
+        return entityClustering;
+    }
+
+    public AbstractDuplicatePropagation getDuplicatePropagation() {
+        return duplicatePropagation;
+    }
+}
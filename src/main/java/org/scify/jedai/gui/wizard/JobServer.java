@@ -0,0 +1,342 @@
+package org.scify.jedai.gui.wizard;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.scify.jedai.gui.model.WorkflowResult;
+import org.scify.jedai.gui.utilities.DatasetCache;
+import org.scify.jedai.gui.utilities.JobService;
+import org.scify.jedai.gui.utilities.WizardDataFile;
+import org.scify.jedai.gui.utilities.WorkflowJob;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Local HTTP server of a job service, for submitting workflow configurations that were saved in the wizard (see
+ * WizardDataFile) and fetching their results. The server only listens on the loopback address, and every request
+ * must authenticate with the server's token (the JEDAI_JOBS_TOKEN environment variable, or a random token that is
+ * printed at startup) in an "Authorization: Bearer {token}" header. Requests from web pages (with an Origin header)
+ * are rejected. Usage:
+ * <pre>
+ * java -cp jedai-ui.jar org.scify.jedai.gui.wizard.JobServer [port] [concurrent workflows] [results directory]
+ *     [dataset cache memory (MB)]
+ * </pre>
+ * The jobs share the datasets they read, up to the dataset cache memory of the server (the step cache memory of the
+ * submitted configurations only applies to their own steps).
+ * API:
+ * <ul>
+ * <li>POST /jobs with a saved configuration as the body (up to 1 MB): submit a job, and get its status</li>
+ * <li>GET /jobs: get the status of all jobs</li>
+ * <li>GET /jobs/{id}: get the status, timings and performance (total and per step) of a job</li>
+ * <li>GET /jobs/{id}/clusters and /jobs/{id}/steps: get the clusters and the performance of the steps of a completed
+ * job, as CSV</li>
+ * <li>DELETE /jobs/{id}: cancel a queued or running job</li>
+ * </ul>
+ * Statuses are returned as JSON.
+ */
+public class JobServer {
+    private final static int DEFAULT_PORT = 8642;
+    private final static int DEFAULT_DATASET_CACHE_MEMORY = 512;
+    private final static int MAX_CONFIGURATION_SIZE = 1024 * 1024;
+    private final static String TOKEN_VARIABLE = "JEDAI_JOBS_TOKEN";
+
+    private final JobService jobService;
+    private final HttpServer server;
+    private final byte[] token;
+
+    /**
+     * Job server constructor
+     *
+     * @param port       Port to listen on (0 for any free port)
+     * @param jobService Job service to run the submitted jobs
+     * @param token      Token that requests must authenticate with
+     * @throws IOException If the server cannot listen on the port
+     */
+    public JobServer(int port, JobService jobService, String token) throws IOException {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("The token must not be empty");
+        }
+
+        this.jobService = jobService;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/jobs", this::handle);
+    }
+
+    public static void main(String[] args) {
+        try {
+            int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+            int concurrency = (args.length > 1) ? Integer.parseInt(args[1]) : 1;
+            File resultsDirectory = new File((args.length > 2) ? args[2] : "jedai-jobs");
+            int datasetCacheMemory = (args.length > 3) ? Integer.parseInt(args[3]) : DEFAULT_DATASET_CACHE_MEMORY;
+            if (datasetCacheMemory < 0) {
+                throw new IllegalArgumentException("The dataset cache memory must not be negative");
+            }
+            DatasetCache.setMemoryBudget(datasetCacheMemory);
+
+            // Use the token of the environment, or generate one and print it
+            String token = System.getenv(TOKEN_VARIABLE);
+            boolean generatedToken = (token == null || token.isEmpty());
+            if (generatedToken) {
+                byte[] bytes = new byte[24];
+                new SecureRandom().nextBytes(bytes);
+                token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+            }
+
+            JobServer jobServer = new JobServer(port, new JobService(concurrency, resultsDirectory), token);
+            jobServer.start();
+            System.out.println("Job server\t:\thttp://localhost:" + jobServer.getPort() + "/jobs");
+            if (generatedToken) {
+                System.out.println("Token\t\t:\t" + token);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Usage: JobServer [port] [concurrent workflows] [results directory] "
+                    + "[dataset cache memory (MB)]");
+            e.printStackTrace();
+            System.exit(2);
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stop the server, and cancel its jobs
+     */
+    public void stop() {
+        server.stop(0);
+        jobService.shutdown();
+    }
+
+    /**
+     * Get the port that the server listens on
+     *
+     * @return Port number
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Handle a request to the jobs API
+     *
+     * @param exchange Request and response
+     * @throws IOException If the response cannot be sent
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            // Web pages cannot set the token, but reject their requests before reading anything else
+            if (exchange.getRequestHeaders().containsKey("Origin")) {
+                sendError(exchange, 403, "Cross-origin requests are not allowed");
+                return;
+            }
+            if (!isAuthorized(exchange)) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                sendError(exchange, 401, "Missing or invalid token");
+                return;
+            }
+
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().replaceAll("^/jobs/?|/$", "").split("/");
+
+            if (path[0].isEmpty()) {
+                if (method.equals("GET")) {
+                    StringBuilder sb = new StringBuilder("[");
+                    List<WorkflowJob> jobs = jobService.getJobs();
+                    for (int i = 0; i < jobs.size(); i++) {
+                        sb.append((i > 0) ? "," : "").append(toJson(jobs.get(i)));
+                    }
+                    send(exchange, 200, "application/json", sb.append("]").toString());
+                } else if (method.equals("POST")) {
+                    byte[] body = readBody(exchange);
+                    if (body == null) {
+                        sendError(exchange, 413, "The configuration is larger than " + MAX_CONFIGURATION_SIZE
+                                + " bytes");
+                        return;
+                    }
+
+                    WizardData model;
+                    try (InputStream in = new ByteArrayInputStream(body)) {
+                        model = WizardDataFile.load(in);
+                    } catch (IOException e) {
+                        sendError(exchange, 400, e.getMessage());
+                        return;
+                    }
+                    send(exchange, 201, "application/json", toJson(jobService.submit(model)));
+                } else {
+                    sendError(exchange, 405, "Method not allowed");
+                }
+                return;
+            }
+
+            WorkflowJob job = null;
+            if (path.length <= 2 && path[0].matches("\\d{1,9}")) {
+                job = jobService.getJob(Integer.parseInt(path[0]));
+            }
+            if (job == null) {
+                sendError(exchange, 404, "No such job");
+                return;
+            }
+
+            if (path.length == 1 && method.equals("GET")) {
+                send(exchange, 200, "application/json", toJson(job));
+            } else if (path.length == 1 && method.equals("DELETE")) {
+                if (job.cancel()) {
+                    send(exchange, 202, "application/json", toJson(job));
+                } else {
+                    sendError(exchange, 409, "The job is " + job.getStatus());
+                }
+            } else if (path.length == 2 && method.equals("GET")
+                    && (path[1].equals("clusters") || path[1].equals("steps"))) {
+                File file = new File(job.getOutputDirectory(), path[1] + ".csv");
+                if (job.getStatus() != WorkflowJob.Status.COMPLETED || !file.isFile()) {
+                    sendError(exchange, 409, "The job is " + job.getStatus());
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Type", "text/csv");
+                exchange.sendResponseHeaders(200, file.length());
+                try (OutputStream out = exchange.getResponseBody()) {
+                    Files.copy(file.toPath(), out);
+                }
+            } else {
+                sendError(exchange, 404, "Not found");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Read the body of a request, up to the maximum size of a configuration
+     *
+     * @param exchange Request and response
+     * @return Body of the request, or null if it is larger than the maximum size
+     * @throws IOException If the body cannot be read
+     */
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        // Reject a declared size before reading anything
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null && contentLength.matches("\\d+")
+                && (contentLength.length() > 9 || Integer.parseInt(contentLength) > MAX_CONFIGURATION_SIZE)) {
+            return null;
+        }
+
+        // The size may not be declared (or be wrong), so read at most one byte more than the maximum
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = ByteStreams.toByteArray(ByteStreams.limit(in, MAX_CONFIGURATION_SIZE + 1));
+        }
+        return (body.length <= MAX_CONFIGURATION_SIZE) ? body : null;
+    }
+
+    /**
+     * Check if a request authenticates with the server's token
+     *
+     * @param exchange Request and response
+     * @return True if the request has the token in its Authorization header
+     */
+    private boolean isAuthorized(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return false;
+        }
+
+        // Compare in constant time
+        byte[] requestToken = authorization.substring("Bearer ".length()).trim().getBytes(StandardCharsets.UTF_8);
+        return MessageDigest.isEqual(requestToken, token);
+    }
+
+    private static void send(HttpExchange exchange, int code, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int code, String message) throws IOException {
+        send(exchange, code, "application/json", "{\"error\":" + quote(message) + "}");
+    }
+
+    /**
+     * Get the status of a job as a JSON object
+     *
+     * @param job Workflow job
+     * @return JSON object with the job's status, timings and performance
+     */
+    private static String toJson(WorkflowJob job) {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("\"id\":").append(job.getId());
+        sb.append(",\"status\":").append(quote(job.getStatus().name()));
+        sb.append(",\"progress\":").append(quote(job.getProgress()));
+        sb.append(",\"submitted\":").append(job.getSubmitTime());
+        sb.append(",\"queueTime\":").append(toJson(job.getQueueTime()));
+        sb.append(",\"runningTime\":").append(toJson(job.getRunningTime()));
+        if (job.getError() != null) {
+            sb.append(",\"error\":").append(quote(job.getError()));
+        }
+
+        WorkflowResult performance = job.getPerformance();
+        if (performance != null) {
+            sb.append(",\"recall\":").append(toJson(performance.getRecall()));
+            sb.append(",\"precision\":").append(toJson(performance.getPrecision()));
+            sb.append(",\"f1\":").append(toJson(performance.getF1Measure()));
+        }
+
+        sb.append(",\"steps\":[");
+        List<WorkflowResult> steps = job.getPerformancePerStep();
+        for (int i = 0; i < steps.size(); i++) {
+            WorkflowResult step = steps.get(i);
+            sb.append((i > 0) ? "," : "").append("{\"name\":").append(quote(step.getResultName()));
+            sb.append(",\"recall\":").append(toJson(step.getRecall()));
+            sb.append(",\"precision\":").append(toJson(step.getPrecision()));
+            sb.append(",\"f1\":").append(toJson(step.getF1Measure()));
+            sb.append(",\"time\":").append(toJson(step.getTotalTime())).append("}");
+        }
+
+        return sb.append("]}").toString();
+    }
+
+    private static String toJson(double value) {
+        return (Double.isNaN(value) || Double.isInfinite(value)) ? "null" : String.format(Locale.ROOT, "%.6f", value);
+    }
+
+    /**
+     * Quote a string as a JSON string
+     *
+     * @param s String (can be null)
+     * @return JSON string, or null
+     */
+    private static String quote(String s) {
+        if (s == null) {
+            return "null";
+        }
+
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -10,6 +10,7 @@ import org.scify.jedai.datareader.groundtruthreader.GtCSVReader;
 import org.scify.jedai.datareader.groundtruthreader.GtRDFReader;
 import org.scify.jedai.datareader.groundtruthreader.GtSerializationReader;
 import org.scify.jedai.entityclustering.*;
+import org.scify.jedai.gui.utilities.EntityBinaryReader;
 import org.scify.jedai.gui.utilities.JedaiOptions;
 import org.scify.jedai.prioritization.*;
 import org.scify.jedai.schemaclustering.AttributeNameClustering;
@@ -196,6 +197,8 @@ public class MethodMapping {
                     return new EntityDBReader("");
                 case JedaiOptions.XML:
                     return new EntityXMLreader("");
+                case JedaiOptions.BINARY:
+                    return new EntityBinaryReader("");
             }
         }
 
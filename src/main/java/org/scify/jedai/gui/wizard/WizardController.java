@@ -6,7 +6,6 @@ import javafx.beans.binding.When;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.fxml.FXML;
 import javafx.scene.Parent;
 import javafx.scene.control.Button;
@@ -20,9 +19,11 @@ import org.apache.commons.lang3.tuple.MutablePair;
 import org.scify.jedai.entitymatching.GroupLinkage;
 import org.scify.jedai.entitymatching.ProfileMatcher;
 import org.scify.jedai.gui.model.JedaiMethodConfiguration;
+import org.scify.jedai.gui.utilities.DatasetCache;
 import org.scify.jedai.gui.utilities.DialogHelper;
 import org.scify.jedai.gui.utilities.DynamicMethodConfiguration;
 import org.scify.jedai.gui.utilities.JedaiOptions;
+import org.scify.jedai.gui.utilities.TextModelLock;
 import org.scify.jedai.gui.utilities.WorkflowStep;
 import org.scify.jedai.utilities.IDocumentation;
 import org.scify.jedai.utilities.enumerations.BlockBuildingMethod;
@@ -87,6 +88,11 @@ public class WizardController {
         // Add a listener to change the intermediate steps of the workflow then the selected workflow changes
         this.model.workflowProperty().addListener((observable, oldValue, newValue) -> switchWorkflow(newValue));
 
+        // The datasets of the session are cached with the memory budget of the step cache
+        DatasetCache.setMemoryBudget(this.model.getStepCacheMemory());
+        this.model.stepCacheMemoryProperty().addListener((observable, oldValue, newValue) ->
+                DatasetCache.setMemoryBudget(newValue.intValue()));
+
         // Switch to the default selected workflow
         this.switchWorkflow(this.model.getWorkflow());
 
@@ -175,7 +181,7 @@ public class WizardController {
                         JedaiOptions.STEP_LABEL_SIMILARITY_JOIN,
                         JedaiOptions.STEP_DESCRIPTION_SIMILARITY_JOIN,
                         "wizard-fxml/steps/SimilarityJoin.fxml",
-                        new SimpleStringProperty(JedaiOptions.MANUAL_CONFIG) // Similarity Join is always manual config.
+                        model.similarityJoinConfigTypeProperty()
                 ));
 
         this.availableSteps.put(JedaiOptions.STEP_LABEL_PRIORITIZATION,
@@ -218,7 +224,7 @@ public class WizardController {
         // Initialize last steps
         this.finalSteps = new ArrayList<>(
                 Arrays.asList(
-//                        availableSteps.get(JedaiOptions.STEP_LABEL_SELECTION_CONFIRMATION),
+                        availableSteps.get(JedaiOptions.STEP_LABEL_SELECTION_CONFIRMATION),
                         availableSteps.get(JedaiOptions.STEP_LABEL_WORKFLOW_EXECUTION)
                 )
         );
@@ -505,8 +511,10 @@ public class WizardController {
                     parametersProperty = model.entityMatchingParametersProperty();
 
                     methodName = model.getEntityMatching();
-                    method = (methodName.equals(JedaiOptions.GROUP_LINKAGE)) ?
-                            new GroupLinkage(new ArrayList<>()) : new ProfileMatcher(new ArrayList<>());
+                    // Creating the method builds (empty) text models, which resets their global values
+                    boolean groupLinkage = methodName.equals(JedaiOptions.GROUP_LINKAGE);
+                    method = TextModelLock.runExclusively(() -> groupLinkage ?
+                            new GroupLinkage(new ArrayList<>()) : new ProfileMatcher(new ArrayList<>()));
 
                     break;
                 case JedaiOptions.STEP_LABEL_ENTITY_CLUSTERING:
@@ -52,8 +52,9 @@ public class WizardData {
     private final StringProperty entityClusteringConfigType = new SimpleStringProperty();
     private final ListProperty<MutablePair<String, Object>> entityClusteringParameters = new SimpleListProperty<>();
 
-    // Similarity Join (always manual config)
+    // Similarity Join
     private final StringProperty similarityJoin = new SimpleStringProperty();
+    private final StringProperty similarityJoinConfigType = new SimpleStringProperty();
     private final ListProperty<MutablePair<String, Object>> similarityJoinParameters = new SimpleListProperty<>();
     private final StringProperty dataset1Attribute = new SimpleStringProperty();
     private final StringProperty dataset2Attribute = new SimpleStringProperty();
@@ -62,10 +63,27 @@ public class WizardData {
     private final StringProperty prioritization = new SimpleStringProperty();
     private final StringProperty prioritizationConfigType = new SimpleStringProperty();
     private final ListProperty<MutablePair<String, Object>> prioritizationParameters = new SimpleListProperty<>();
+    private final IntegerProperty clusteringCheckpoint = new SimpleIntegerProperty(1000);
 
     // Automatic Configuration
     private final StringProperty autoConfigType = new SimpleStringProperty();
     private final StringProperty searchType = new SimpleStringProperty();
+    private final IntegerProperty autoConfigThreads =
+            new SimpleIntegerProperty(Runtime.getRuntime().availableProcessors());
+    private final IntegerProperty autoConfigTrials = new SimpleIntegerProperty(100);
+    private final IntegerProperty autoConfigMaxSeconds = new SimpleIntegerProperty(0);
+    private final IntegerProperty autoConfigPatience = new SimpleIntegerProperty(0);
+    private final DoubleProperty autoConfigMinImprovement = new SimpleDoubleProperty(0.001);
+    private final StringProperty warmStart = new SimpleStringProperty();
+
+    // Cost estimation
+    private final IntegerProperty runTimeBudget = new SimpleIntegerProperty(0);
+
+    // Execution
+    private final BooleanProperty streamingMatching = new SimpleBooleanProperty(false);
+    private final IntegerProperty stepCacheMemory = new SimpleIntegerProperty(512);
+    private final BooleanProperty stepCacheSpill = new SimpleBooleanProperty(false);
+    private final StringProperty checkpointDirectory = new SimpleStringProperty("");
 
     /**
      * Clone a WizardData object (return a new WizardData object, with the same properties of the given one)
@@ -102,6 +120,7 @@ public class WizardData {
 
         // Similarity Join
         clone.setSimilarityJoin(data.getSimilarityJoin());
+        clone.setSimilarityJoinConfigType(data.getSimilarityJoinConfigType());
         if (data.getSimilarityJoinParameters() != null)
             clone.setSimilarityJoinParameters(
                     FXCollections.observableArrayList(data.getSimilarityJoinParameters()));
@@ -114,6 +133,7 @@ public class WizardData {
         if (data.getPrioritizationParameters() != null)
             clone.setPrioritizationParameters(
                     FXCollections.observableArrayList(data.getPrioritizationParameters()));
+        clone.setClusteringCheckpoint(data.getClusteringCheckpoint());
 
         // Block Building
         ObservableList<JedaiMethodConfiguration> newBlBuMethods = FXCollections.observableArrayList();
@@ -155,6 +175,25 @@ public class WizardData {
             clone.setEntityClusteringParameters(
                     FXCollections.observableArrayList(data.getEntityClusteringParameters()));
 
+        // Automatic Configuration
+        clone.setAutoConfigType(data.getAutoConfigType());
+        clone.setSearchType(data.getSearchType());
+        clone.setAutoConfigThreads(data.getAutoConfigThreads());
+        clone.setAutoConfigTrials(data.getAutoConfigTrials());
+        clone.setAutoConfigMaxSeconds(data.getAutoConfigMaxSeconds());
+        clone.setAutoConfigPatience(data.getAutoConfigPatience());
+        clone.setAutoConfigMinImprovement(data.getAutoConfigMinImprovement());
+        clone.setWarmStart(data.getWarmStart());
+
+        // Cost estimation
+        clone.setRunTimeBudget(data.getRunTimeBudget());
+
+        // Execution
+        clone.setStreamingMatching(data.isStreamingMatching());
+        clone.setStepCacheMemory(data.getStepCacheMemory());
+        clone.setStepCacheSpill(data.isStepCacheSpill());
+        clone.setCheckpointDirectory(data.getCheckpointDirectory());
+
         return clone;
     }
 
@@ -462,6 +501,18 @@ public class WizardData {
         this.similarityJoin.set(similarityJoin);
     }
 
+    public String getSimilarityJoinConfigType() {
+        return similarityJoinConfigType.get();
+    }
+
+    public StringProperty similarityJoinConfigTypeProperty() {
+        return similarityJoinConfigType;
+    }
+
+    public void setSimilarityJoinConfigType(String similarityJoinConfigType) {
+        this.similarityJoinConfigType.set(similarityJoinConfigType);
+    }
+
     public ObservableList<MutablePair<String, Object>> getSimilarityJoinParameters() {
         return similarityJoinParameters.get();
     }
@@ -534,6 +585,18 @@ public class WizardData {
         this.prioritizationParameters.set(prioritizationParameters);
     }
 
+    public int getClusteringCheckpoint() {
+        return clusteringCheckpoint.get();
+    }
+
+    public IntegerProperty clusteringCheckpointProperty() {
+        return clusteringCheckpoint;
+    }
+
+    public void setClusteringCheckpoint(int clusteringCheckpoint) {
+        this.clusteringCheckpoint.set(clusteringCheckpoint);
+    }
+
     public String getAutoConfigType() {
         return autoConfigType.get();
     }
@@ -557,4 +620,136 @@ public class WizardData {
     public void setSearchType(String searchType) {
         this.searchType.set(searchType);
     }
+
+    public int getAutoConfigThreads() {
+        return autoConfigThreads.get();
+    }
+
+    public IntegerProperty autoConfigThreadsProperty() {
+        return autoConfigThreads;
+    }
+
+    public void setAutoConfigThreads(int autoConfigThreads) {
+        this.autoConfigThreads.set(autoConfigThreads);
+    }
+
+    public int getAutoConfigTrials() {
+        return autoConfigTrials.get();
+    }
+
+    public IntegerProperty autoConfigTrialsProperty() {
+        return autoConfigTrials;
+    }
+
+    public void setAutoConfigTrials(int autoConfigTrials) {
+        this.autoConfigTrials.set(autoConfigTrials);
+    }
+
+    public int getAutoConfigMaxSeconds() {
+        return autoConfigMaxSeconds.get();
+    }
+
+    public IntegerProperty autoConfigMaxSecondsProperty() {
+        return autoConfigMaxSeconds;
+    }
+
+    public void setAutoConfigMaxSeconds(int autoConfigMaxSeconds) {
+        this.autoConfigMaxSeconds.set(autoConfigMaxSeconds);
+    }
+
+    public int getAutoConfigPatience() {
+        return autoConfigPatience.get();
+    }
+
+    public IntegerProperty autoConfigPatienceProperty() {
+        return autoConfigPatience;
+    }
+
+    public void setAutoConfigPatience(int autoConfigPatience) {
+        this.autoConfigPatience.set(autoConfigPatience);
+    }
+
+    public double getAutoConfigMinImprovement() {
+        return autoConfigMinImprovement.get();
+    }
+
+    public DoubleProperty autoConfigMinImprovementProperty() {
+        return autoConfigMinImprovement;
+    }
+
+    public void setAutoConfigMinImprovement(double autoConfigMinImprovement) {
+        this.autoConfigMinImprovement.set(autoConfigMinImprovement);
+    }
+
+    public String getWarmStart() {
+        return warmStart.get();
+    }
+
+    public StringProperty warmStartProperty() {
+        return warmStart;
+    }
+
+    public void setWarmStart(String warmStart) {
+        this.warmStart.set(warmStart);
+    }
+
+    public int getRunTimeBudget() {
+        return runTimeBudget.get();
+    }
+
+    public IntegerProperty runTimeBudgetProperty() {
+        return runTimeBudget;
+    }
+
+    public void setRunTimeBudget(int runTimeBudget) {
+        this.runTimeBudget.set(runTimeBudget);
+    }
+
+    public boolean isStreamingMatching() {
+        return streamingMatching.get();
+    }
+
+    public BooleanProperty streamingMatchingProperty() {
+        return streamingMatching;
+    }
+
+    public void setStreamingMatching(boolean streamingMatching) {
+        this.streamingMatching.set(streamingMatching);
+    }
+
+    public int getStepCacheMemory() {
+        return stepCacheMemory.get();
+    }
+
+    public IntegerProperty stepCacheMemoryProperty() {
+        return stepCacheMemory;
+    }
+
+    public void setStepCacheMemory(int stepCacheMemory) {
+        this.stepCacheMemory.set(stepCacheMemory);
+    }
+
+    public boolean isStepCacheSpill() {
+        return stepCacheSpill.get();
+    }
+
+    public BooleanProperty stepCacheSpillProperty() {
+        return stepCacheSpill;
+    }
+
+    public void setStepCacheSpill(boolean stepCacheSpill) {
+        this.stepCacheSpill.set(stepCacheSpill);
+    }
+
+    public String getCheckpointDirectory() {
+        return checkpointDirectory.get();
+    }
+
+    public StringProperty checkpointDirectoryProperty() {
+        return checkpointDirectory;
+    }
+
+    public void setCheckpointDirectory(String checkpointDirectory) {
+        this.checkpointDirectory.set(checkpointDirectory);
+    }
 }
@@ -0,0 +1,150 @@
+package org.scify.jedai.gui.wizard;
+
+import org.scify.jedai.datamodel.EquivalenceCluster;
+import org.scify.jedai.datawriter.ClustersPerformanceWriter;
+import org.scify.jedai.gui.model.WorkflowResult;
+import org.scify.jedai.gui.utilities.CheckpointStore;
+import org.scify.jedai.gui.utilities.DatasetCache;
+import org.scify.jedai.gui.utilities.JedaiOptions;
+import org.scify.jedai.gui.utilities.ProgressListener;
+import org.scify.jedai.gui.utilities.WizardDataFile;
+import org.scify.jedai.gui.utilities.WorkflowManager;
+import org.scify.jedai.utilities.ClustersPerformance;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs a workflow without the GUI, with a configuration that was saved in the wizard (see WizardDataFile). The
+ * datasets are read, the workflow is executed, and its entity clusters and the performance of each step are written
+ * to an output directory. Usage:
+ * <pre>
+ * java -cp jedai-ui.jar org.scify.jedai.gui.wizard.WorkflowRunner &lt;configuration file&gt; &lt;output directory&gt;
+ * </pre>
+ */
+public class WorkflowRunner {
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: WorkflowRunner <configuration file> <output directory>");
+            System.exit(2);
+        }
+
+        try {
+            run(new File(args[0]), new File(args[1]));
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Run a workflow with a saved configuration, and write its results
+     *
+     * @param configurationFile File with the saved configuration of the workflow
+     * @param outputDirectory   Directory to write the clusters (clusters.csv) and the performance of the steps
+     *                          (steps.csv) to
+     * @throws Exception If the workflow fails, or the results cannot be written
+     */
+    public static void run(File configurationFile, File outputDirectory) throws Exception {
+        WizardData model = WizardDataFile.load(configurationFile);
+
+        // The runner runs a single workflow, so the datasets are cached with the memory budget of its step cache
+        DatasetCache.setMemoryBudget(model.getStepCacheMemory());
+        WorkflowManager workflowMgr = createWorkflowManager(model);
+        run(workflowMgr, model, outputDirectory, status -> System.out.println("Status\t:\t" + status));
+
+        System.out.println("Results\t:\t" + outputDirectory.getAbsolutePath());
+    }
+
+    /**
+     * Create the workflow manager of a configuration, with the checkpoint directory and step cache memory that were
+     * selected in the wizard
+     *
+     * @param model Wizard data with the workflow's configuration
+     * @return Workflow manager
+     */
+    public static WorkflowManager createWorkflowManager(WizardData model) {
+        WorkflowManager workflowMgr = new WorkflowManager(model);
+        if (model.getCheckpointDirectory() != null && !model.getCheckpointDirectory().isEmpty()) {
+            workflowMgr.setCheckpointStore(new CheckpointStore(new File(model.getCheckpointDirectory())));
+        }
+        return workflowMgr;
+    }
+
+    /**
+     * Read the datasets and run the workflow of a workflow manager, and write its results
+     *
+     * @param workflowMgr     Workflow manager of the configuration
+     * @param model           Wizard data with the workflow's configuration
+     * @param outputDirectory Directory to write the clusters (clusters.csv) and the performance of the steps
+     *                        (steps.csv) to
+     * @param progress        Listener of the workflow's progress
+     * @return Performance of the workflow's clusters
+     * @throws Exception If the workflow fails or is cancelled, or the results cannot be written
+     */
+    public static ClustersPerformance run(WorkflowManager workflowMgr, WizardData model, File outputDirectory,
+                                          ProgressListener progress) throws Exception {
+        if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new IOException("Cannot create directory " + outputDirectory);
+        }
+        long startTime = System.currentTimeMillis();
+
+        // Data reading
+        progress.setStatus("Reading datasets...");
+        workflowMgr.readDatasets(true, progress);
+
+        // Prepare methods for rest of workflow
+        boolean isCleanCleanEr = (model.getErType().equals(JedaiOptions.CLEAN_CLEAN_ER));
+        workflowMgr.createMethodInstances(isCleanCleanEr);
+
+        // Execute the workflow
+        ClustersPerformance clp = workflowMgr.executeFullWorkflow(progress);
+        if (clp == null) {
+            throw new Exception("ClustersPerformance while running the final workflow is null!");
+        }
+        double totalTimeSeconds = (System.currentTimeMillis() - startTime) / 1000.0;
+
+        // Write the entity clusters
+        EquivalenceCluster[] entityClusters = workflowMgr.getEntityClusters();
+        ClustersPerformanceWriter cpw = new ClustersPerformanceWriter(entityClusters,
+                workflowMgr.getDuplicatePropagation());
+        cpw.printDetailedResultsToCSV(workflowMgr.getProfilesD1(), workflowMgr.getProfilesD2(),
+                new File(outputDirectory, "clusters.csv").getAbsolutePath());
+
+        // Write the performance of each step, and of the whole workflow
+        WorkflowResult total = new WorkflowResult("Total", clp.getRecall(), clp.getPrecision(), clp.getFMeasure(),
+                totalTimeSeconds, workflowMgr.getProfilesD1().size(), entityClusters.length, 0);
+        writeSteps(new File(outputDirectory, "steps.csv"), workflowMgr.getPerformancePerStep(), total);
+
+        return clp;
+    }
+
+    /**
+     * Write the performance of the steps of a workflow to a CSV file
+     *
+     * @param file  File to write to
+     * @param steps Performance of each step
+     * @param total Performance of the whole workflow (written last)
+     * @throws FileNotFoundException If the file cannot be created
+     */
+    private static void writeSteps(File file, List<WorkflowResult> steps, WorkflowResult total)
+            throws FileNotFoundException {
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println("Step,Recall,Precision,F1-measure,Time (sec.),Input instances,Clusters");
+            for (WorkflowResult step : steps) {
+                writeStep(writer, step);
+            }
+            writeStep(writer, total);
+        }
+    }
+
+    private static void writeStep(PrintWriter writer, WorkflowResult step) {
+        writer.println(String.format(Locale.ROOT, "\"%s\",%f,%f,%f,%.3f,%d,%d",
+                step.getResultName().replace("\"", "\"\""), step.getRecall(), step.getPrecision(),
+                step.getF1Measure(), step.getTotalTime(), step.getInputInstances(), step.getNumOfClusters()));
+    }
+}
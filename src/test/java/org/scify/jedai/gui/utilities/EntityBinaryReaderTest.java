@@ -0,0 +1,113 @@
+package org.scify.jedai.gui.utilities;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.scify.jedai.datamodel.Attribute;
+import org.scify.jedai.datamodel.EntityProfile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that EntityBinaryReader reads back the profiles that BinaryProfileWriter writes, in files of several blocks,
+ * compressed or not, and rejects truncated files.
+ */
+public class EntityBinaryReaderTest {
+    private final static int NO_OF_ENTITIES = 30000;
+    private final static String[] WORDS = {"Ελλάδα", "München", "日本語", "naïve", "plain", "ascii", "façade", "😀"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsUncompressedProfiles() throws IOException {
+        checkRoundTrip(folder.newFile("profiles.bin"), false);
+    }
+
+    @Test
+    public void readsCompressedProfiles() throws IOException {
+        checkRoundTrip(folder.newFile("profiles.bin"), true);
+    }
+
+    @Test
+    public void rejectsTruncatedFile() throws IOException {
+        File file = folder.newFile("profiles.bin");
+        BinaryProfileWriter.write(getProfiles(), file, true);
+        try (RandomAccessFile truncated = new RandomAccessFile(file, "rw")) {
+            truncated.setLength(truncated.length() / 2);
+        }
+
+        try {
+            new EntityBinaryReader(file.getAbsolutePath()).getEntityProfiles();
+            fail("The truncated file was read");
+        } catch (UncheckedIOException e) {
+            // Expected
+        }
+    }
+
+    private static void checkRoundTrip(File file, boolean compress) throws IOException {
+        List<EntityProfile> profiles = getProfiles();
+        BinaryProfileWriter.write(profiles, file, compress);
+
+        // Number of blocks, after the magic number, version, flags and number of profiles
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(file.toPath()), 0, BinaryProfileWriter.HEADER_SIZE);
+        assertEquals(BinaryProfileWriter.MAGIC, header.getInt());
+        header.position(13);
+        assertTrue("The profiles should span several blocks", 1 < header.getInt());
+
+        List<EntityProfile> read = new EntityBinaryReader(file.getAbsolutePath()).getEntityProfiles();
+        assertEquals(profiles.size(), read.size());
+        for (int i = 0; i < profiles.size(); i++) {
+            assertEquals(toString(profiles.get(i)), toString(read.get(i)));
+        }
+    }
+
+    /**
+     * Get profiles with non-ASCII URLs and values, some with an empty value, and some with no attributes at all
+     *
+     * @return Entity profiles
+     */
+    private static List<EntityProfile> getProfiles() {
+        Random random = new Random(7);
+        List<EntityProfile> profiles = new ArrayList<>();
+        for (int i = 0; i < NO_OF_ENTITIES; i++) {
+            EntityProfile profile = new EntityProfile("http://example.org/" + WORDS[i % WORDS.length] + "/" + i);
+            if (i % 10 != 0) {
+                profile.addAttribute("name", WORDS[random.nextInt(WORDS.length)] + " "
+                        + WORDS[random.nextInt(WORDS.length)]);
+                profile.addAttribute("ονομασία", (i % 7 == 0) ? "" : WORDS[random.nextInt(WORDS.length)]);
+                profile.addAttribute("year", Integer.toString(1900 + random.nextInt(120)));
+            }
+            profiles.add(profile);
+        }
+        return profiles;
+    }
+
+    /**
+     * Get the URL and the sorted attributes of a profile, as its attributes are kept in a set
+     *
+     * @param profile Entity profile
+     * @return URL and attributes of the profile
+     */
+    private static String toString(EntityProfile profile) {
+        List<String> attributes = new ArrayList<>();
+        for (Attribute attribute : profile.getAttributes()) {
+            attributes.add(attribute.getName() + "=" + attribute.getValue());
+        }
+        Collections.sort(attributes);
+        return profile.getEntityUrl() + "\n" + String.join("\n", attributes);
+    }
+}
@@ -0,0 +1,188 @@
+package org.scify.jedai.gui.utilities;
+
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.junit.Test;
+import org.scify.jedai.datamodel.AbstractBlock;
+import org.scify.jedai.datamodel.EntityProfile;
+import org.scify.jedai.datamodel.IdDuplicates;
+import org.scify.jedai.datamodel.SimilarityPairs;
+import org.scify.jedai.datamodel.UnilateralBlock;
+import org.scify.jedai.entityclustering.ConnectedComponentsClustering;
+import org.scify.jedai.entitymatching.IEntityMatching;
+import org.scify.jedai.utilities.ClustersPerformance;
+import org.scify.jedai.utilities.datastructures.UnilateralDuplicatePropagation;
+import org.scify.jedai.utilities.enumerations.RepresentationModel;
+import org.scify.jedai.utilities.enumerations.SimilarityMetric;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks that TF-IDF matchers of trials that interleave (and thus overwrite each other's global values) compare as
+ * they do when each trial runs on its own.
+ */
+public class GuardedEntityMatchingTest {
+    private final static int NO_OF_ENTITIES = 30;
+    private final static int NO_OF_ROUNDS = 20;
+    private final static float CLUSTERING_THRESHOLD = 0.5f;
+    private final static String[] WORDS = {"alpha", "beta", "gamma", "delta", "epsilon", "zeta", "eta", "theta",
+            "iota", "kappa", "lambda", "mu", "nu", "xi", "omicron", "pi", "rho", "sigma", "tau", "upsilon"};
+
+    private final List<EntityProfile> profiles = new ArrayList<>();
+    private final Set<IdDuplicates> duplicates = new HashSet<>();
+    private final List<AbstractBlock> blocks;
+
+    public GuardedEntityMatchingTest() {
+        // Each entity has a duplicate that misses a word and has a typo in another
+        Random random = new Random(3);
+        for (int i = 0; i < NO_OF_ENTITIES; i++) {
+            List<String> words = new ArrayList<>();
+            for (int j = 0; j < 4 + random.nextInt(4); j++) {
+                words.add(WORDS[random.nextInt(WORDS.length)]);
+            }
+            profiles.add(getProfile("e" + i, words));
+
+            words.remove(random.nextInt(words.size()));
+            words.set(0, words.get(0) + "s");
+            profiles.add(getProfile("d" + i, words));
+            duplicates.add(new IdDuplicates(2 * i, 2 * i + 1));
+        }
+
+        int[] entities = new int[profiles.size()];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = i;
+        }
+        blocks = Collections.singletonList(new UnilateralBlock(entities));
+    }
+
+    @Test
+    public void interleavedTrialsMatchSequentialTrials() throws Exception {
+        // Sequential trials, each comparing right after building its models. The trials on the sample and with the
+        // other n-grams overwrite the document count and frequencies of the first one.
+        SimilarityPairs expectedTokens = create(RepresentationModel.TOKEN_UNIGRAMS_TF_IDF).executeComparisons(blocks);
+        SimilarityPairs expectedBigrams = create(RepresentationModel.TOKEN_BIGRAMS_TF_IDF).executeComparisons(blocks);
+        SimilarityPairs expectedSample = create(RepresentationModel.TOKEN_UNIGRAMS_TF_IDF, getSample())
+                .executeComparisons(blocks);
+
+        // Interleaved trials, each building its models before the others compare
+        GuardedEntityMatching tokens = create(RepresentationModel.TOKEN_UNIGRAMS_TF_IDF);
+        GuardedEntityMatching bigrams = create(RepresentationModel.TOKEN_BIGRAMS_TF_IDF);
+        GuardedEntityMatching sample = create(RepresentationModel.TOKEN_UNIGRAMS_TF_IDF, getSample());
+        for (int i = 0; i < 3; i++) {
+            assertSamePairs(expectedTokens, tokens.executeComparisons(blocks));
+            assertSamePairs(expectedBigrams, bigrams.executeComparisons(blocks));
+            assertSamePairs(expectedSample, sample.executeComparisons(blocks));
+        }
+
+        // Concurrent trials
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < NO_OF_ROUNDS; i++) {
+                    assertSamePairs(expectedTokens, tokens.executeComparisons(blocks));
+                }
+            }));
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < NO_OF_ROUNDS; i++) {
+                    assertSamePairs(expectedBigrams, bigrams.executeComparisons(blocks));
+                }
+            }));
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < NO_OF_ROUNDS; i++) {
+                    assertSamePairs(expectedSample, sample.executeComparisons(blocks));
+                }
+            }));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void trialsWithSameGlobalValuesDoNotRebuild() {
+        GuardedEntityMatching cosine = create(RepresentationModel.TOKEN_UNIGRAMS_TF_IDF,
+                SimilarityMetric.COSINE_SIMILARITY);
+        GuardedEntityMatching jaccard = create(RepresentationModel.TOKEN_UNIGRAMS_TF_IDF,
+                SimilarityMetric.GENERALIZED_JACCARD_SIMILARITY);
+        IEntityMatching cosineMethod = cosine.getComparingMethod();
+        IEntityMatching jaccardMethod = jaccard.getComparingMethod();
+
+        for (int i = 0; i < 3; i++) {
+            cosine.executeComparisons(blocks);
+            jaccard.executeComparisons(blocks);
+        }
+        assertSame(cosineMethod, cosine.getComparingMethod());
+        assertSame(jaccardMethod, jaccard.getComparingMethod());
+
+        // A trial with other global values makes them build their models again
+        create(RepresentationModel.TOKEN_BIGRAMS_TF_IDF);
+        cosine.executeComparisons(blocks);
+        assertNotSame(cosineMethod, cosine.getComparingMethod());
+    }
+
+    private GuardedEntityMatching create(RepresentationModel representationModel) {
+        return create(representationModel, SimilarityMetric.COSINE_SIMILARITY, profiles);
+    }
+
+    private GuardedEntityMatching create(RepresentationModel representationModel, List<EntityProfile> profiles) {
+        return create(representationModel, SimilarityMetric.COSINE_SIMILARITY, profiles);
+    }
+
+    private GuardedEntityMatching create(RepresentationModel representationModel, SimilarityMetric similarityMetric) {
+        return create(representationModel, similarityMetric, profiles);
+    }
+
+    private static GuardedEntityMatching create(RepresentationModel representationModel,
+                                                SimilarityMetric similarityMetric, List<EntityProfile> profiles) {
+        List<MutablePair<String, Object>> parameters = new ArrayList<>();
+        parameters.add(new MutablePair<>("Representation Model", representationModel));
+        parameters.add(new MutablePair<>("Similarity Measure", similarityMetric));
+        return GuardedEntityMatching.create(JedaiOptions.PROFILE_MATCHER, profiles, null, parameters);
+    }
+
+    /**
+     * Get another list of profiles, with different document frequencies, as the samples of successive halving. It
+     * repeats the first half of the profiles, so that the block's entity ids stay valid.
+     *
+     * @return Sample of the profiles
+     */
+    private List<EntityProfile> getSample() {
+        List<EntityProfile> sample = new ArrayList<>(profiles.subList(0, profiles.size() / 2));
+        sample.addAll(profiles.subList(0, profiles.size() / 2));
+        return sample;
+    }
+
+    private void assertSamePairs(SimilarityPairs expected, SimilarityPairs actual) {
+        assertArrayEquals(expected.getSimilarities(), actual.getSimilarities(), 0);
+        assertEquals(getFMeasure(expected), getFMeasure(actual), 0);
+    }
+
+    private float getFMeasure(SimilarityPairs similarityPairs) {
+        ClustersPerformance performance = new ClustersPerformance(
+                new ConnectedComponentsClustering(CLUSTERING_THRESHOLD).getDuplicates(similarityPairs),
+                new UnilateralDuplicatePropagation(new HashSet<>(duplicates)));
+        performance.setStatistics();
+        return performance.getFMeasure();
+    }
+
+    private static EntityProfile getProfile(String url, List<String> words) {
+        EntityProfile profile = new EntityProfile(url);
+        profile.addAttribute("name", String.join(" ", words));
+        return profile;
+    }
+}
@@ -0,0 +1,132 @@
+package org.scify.jedai.gui.utilities;
+
+import org.junit.Test;
+import org.scify.jedai.datamodel.Comparison;
+import org.scify.jedai.datamodel.EquivalenceCluster;
+import org.scify.jedai.datamodel.IdDuplicates;
+import org.scify.jedai.datamodel.SimilarityPairs;
+import org.scify.jedai.entityclustering.ConnectedComponentsClustering;
+import org.scify.jedai.utilities.ClustersPerformance;
+import org.scify.jedai.utilities.datastructures.AbstractDuplicatePropagation;
+import org.scify.jedai.utilities.datastructures.BilateralDuplicatePropagation;
+import org.scify.jedai.utilities.datastructures.UnilateralDuplicatePropagation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that IncrementalClustering and IncrementalClustersPerformance give the same clusters and performance as
+ * ConnectedComponentsClustering and ClustersPerformance, after each comparison that is added.
+ */
+public class IncrementalClusteringTest {
+    private final static int NO_OF_CASES = 50;
+    private final static float DELTA = 1e-6f;
+
+    @Test
+    public void matchesConnectedComponentsForDirtyEr() {
+        Random random = new Random(1);
+        for (int i = 0; i < NO_OF_CASES; i++) {
+            checkCase(random, false);
+        }
+    }
+
+    @Test
+    public void matchesConnectedComponentsForCleanCleanEr() {
+        Random random = new Random(2);
+        for (int i = 0; i < NO_OF_CASES; i++) {
+            checkCase(random, true);
+        }
+    }
+
+    /**
+     * Check a random case of datasets, ground truth, comparisons and threshold
+     *
+     * @param random         Random generator
+     * @param isCleanCleanEr True for Clean-Clean ER, false for Dirty ER
+     */
+    private static void checkCase(Random random, boolean isCleanCleanEr) {
+        int noOfEntitiesD1 = 5 + random.nextInt(30);
+        int noOfEntitiesD2 = isCleanCleanEr ? 5 + random.nextInt(30) : 0;
+        Set<IdDuplicates> duplicates = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            int[] pair = randomPair(random, isCleanCleanEr, noOfEntitiesD1, noOfEntitiesD2);
+            duplicates.add(new IdDuplicates(pair[0], pair[1]));
+        }
+        float threshold = random.nextFloat();
+
+        IncrementalClustering clustering =
+                new IncrementalClustering(isCleanCleanEr, noOfEntitiesD1, noOfEntitiesD2, threshold);
+        IncrementalClustersPerformance performance =
+                new IncrementalClustersPerformance(clustering, getGroundTruth(isCleanCleanEr, duplicates));
+
+        List<Comparison> comparisons = new ArrayList<>();
+        int noOfComparisons = 1 + random.nextInt(60);
+        for (int i = 0; i < noOfComparisons; i++) {
+            int[] pair = randomPair(random, isCleanCleanEr, noOfEntitiesD1, noOfEntitiesD2);
+            Comparison comparison = new Comparison(isCleanCleanEr, pair[0], pair[1]);
+            comparison.setUtilityMeasure(random.nextFloat());
+            comparisons.add(comparison);
+            clustering.addComparison(comparison);
+
+            // Cluster all comparisons so far with connected components
+            SimilarityPairs sims = new SimilarityPairs(isCleanCleanEr, comparisons.size());
+            for (Comparison c : comparisons) {
+                sims.addComparison(c);
+            }
+            EquivalenceCluster[] expectedClusters = new ConnectedComponentsClustering(threshold).getDuplicates(sims);
+            ClustersPerformance expected =
+                    new ClustersPerformance(expectedClusters, getGroundTruth(isCleanCleanEr, duplicates));
+            expected.setStatistics();
+
+            EquivalenceCluster[] actualClusters = clustering.getDuplicates();
+            assertEquals(getClusterSets(expectedClusters), getClusterSets(actualClusters));
+            assertEquals(expected.getRecall(), performance.getRecall(), DELTA);
+            assertEquals(expected.getPrecision(), performance.getPrecision(), DELTA);
+            assertEquals(expected.getFMeasure(), performance.getFMeasure(), DELTA);
+        }
+    }
+
+    private static int[] randomPair(Random random, boolean isCleanCleanEr, int noOfEntitiesD1, int noOfEntitiesD2) {
+        int id1 = random.nextInt(noOfEntitiesD1);
+        if (isCleanCleanEr) {
+            return new int[]{id1, random.nextInt(noOfEntitiesD2)};
+        }
+
+        // Dirty ER pairs are of different entities, with the smaller id first
+        int id2 = (id1 + 1 + random.nextInt(noOfEntitiesD1 - 1)) % noOfEntitiesD1;
+        return new int[]{Math.min(id1, id2), Math.max(id1, id2)};
+    }
+
+    private static AbstractDuplicatePropagation getGroundTruth(boolean isCleanCleanEr, Set<IdDuplicates> duplicates) {
+        return isCleanCleanEr ? new BilateralDuplicatePropagation(new HashSet<>(duplicates)) :
+                new UnilateralDuplicatePropagation(new HashSet<>(duplicates));
+    }
+
+    /**
+     * Get the clusters with more than one entity, as sets of entities ("D1:[id]" and "D2:[id]")
+     *
+     * @param clusters Equivalence clusters
+     * @return Set of the clusters
+     */
+    private static Set<Set<String>> getClusterSets(EquivalenceCluster[] clusters) {
+        Set<Set<String>> clusterSets = new HashSet<>();
+        for (EquivalenceCluster cluster : clusters) {
+            Set<String> entities = new HashSet<>();
+            for (int id : cluster.getEntityIdsD1().toArray()) {
+                entities.add("D1:" + id);
+            }
+            for (int id : cluster.getEntityIdsD2().toArray()) {
+                entities.add("D2:" + id);
+            }
+            if (entities.size() > 1) {
+                clusterSets.add(entities);
+            }
+        }
+        return clusterSets;
+    }
+}
@@ -0,0 +1,151 @@
+package org.scify.jedai.gui.utilities;
+
+import com.google.common.primitives.Ints;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.scify.jedai.datamodel.EntityProfile;
+import org.scify.jedai.datareader.entityreader.EntityCSVReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that ParallelEntityCSVReader, with chunks small enough to split the test files into many chunks, reads the
+ * same profiles as EntityCSVReader.
+ */
+public class ParallelEntityCSVReaderTest {
+    private final static int CHUNK_SIZE = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsQuotedLineBreaksAndEscapes() throws IOException {
+        StringBuilder sb = new StringBuilder("id,name,description,year\n");
+        for (int i = 0; i < 200; i++) {
+            sb.append(i).append(",name ").append(i).append(',');
+            switch (i % 4) {
+                case 0:
+                    sb.append("\"quoted\nline break\"");
+                    break;
+                case 1:
+                    sb.append("\"escaped \"\" quote, and \\\" escape\"");
+                    break;
+                case 2:
+                    sb.append(" ");
+                    break;
+                default:
+                    sb.append("\"quoted\r\nCRLF\"");
+            }
+            sb.append(',').append(1990 + i % 30).append('\n');
+        }
+
+        assertSameProfiles(write(sb.toString()), true, ',', 0, Collections.emptySet());
+    }
+
+    @Test
+    public void readsCrlfLineBreaks() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sb.append("value ").append(i).append(";\"other\r\nvalue\";").append(i % 7).append("\r\n");
+        }
+
+        // Without attribute names, with generated ids and an excluded column
+        assertSameProfiles(write(sb.toString()), false, ';', -1, Collections.singleton(2));
+    }
+
+    @Test
+    public void skipsRecordsWithMissingOrMoreValues() throws IOException {
+        StringBuilder sb = new StringBuilder("a,b,c,d\n");
+        for (int i = 0; i < 200; i++) {
+            if (i % 10 == 3) {
+                sb.append(i).append(",x\n");
+            } else if (i % 10 == 7) {
+                sb.append(i).append(",x,y,z,more\n");
+            } else {
+                sb.append(i).append(",x,\"y\ny\",z\n");
+            }
+        }
+
+        // The ids of the records after the skipped ones are generated from their position in the file
+        assertSameProfiles(write(sb.toString()), true, ',', -1, Collections.emptySet());
+    }
+
+    @Test
+    public void failsOnRecordWithOneMissingValue() throws IOException {
+        StringBuilder sb = new StringBuilder("a,b,c\n");
+        for (int i = 0; i < 200; i++) {
+            sb.append(i).append((i == 150) ? ",x\n" : ",x,y\n");
+        }
+        File file = write(sb.toString());
+
+        try {
+            readSequentially(file, true, ',', 0, Collections.emptySet());
+            fail("EntityCSVReader read a record with one missing value");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // Expected
+        }
+        try {
+            new ParallelEntityCSVReader(file.getPath(), true, ',', 0, Collections.emptySet(), CHUNK_SIZE)
+                    .getEntityProfiles();
+            fail("ParallelEntityCSVReader read a record with one missing value");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // Expected
+        }
+    }
+
+    private File write(String content) throws IOException {
+        File file = folder.newFile("profiles.csv");
+        Files.write(file.toPath(), content.getBytes(Charset.defaultCharset()));
+        return file;
+    }
+
+    private void assertSameProfiles(File file, boolean attributeNamesInFirstRow, char separator, int idIndex,
+                                    Set<Integer> attributesToExclude) {
+        assertTrue("The file should be split into chunks", file.length() >= 2L * CHUNK_SIZE);
+
+        List<EntityProfile> expected = readSequentially(file, attributeNamesInFirstRow, separator, idIndex,
+                attributesToExclude);
+
+        // The last status is only reported when all chunks were parsed (and not read sequentially after a failure)
+        List<String> statuses = new ArrayList<>();
+        ParallelEntityCSVReader reader = new ParallelEntityCSVReader(file.getPath(), attributeNamesInFirstRow,
+                separator, idIndex, new HashSet<>(attributesToExclude), CHUNK_SIZE);
+        reader.setProgressListener(statuses::add);
+        List<EntityProfile> actual = reader.getEntityProfiles();
+        assertTrue("The file was not read in parallel: " + statuses,
+                !statuses.isEmpty() && statuses.get(statuses.size() - 1).startsWith("Reading"));
+
+        assertNotNull(expected);
+        assertNotNull(actual);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getEntityUrl(), actual.get(i).getEntityUrl());
+            assertEquals(expected.get(i).getAttributes(), actual.get(i).getAttributes());
+        }
+    }
+
+    private static List<EntityProfile> readSequentially(File file, boolean attributeNamesInFirstRow, char separator,
+                                                        int idIndex, Set<Integer> attributesToExclude) {
+        EntityCSVReader csvReader = new EntityCSVReader(file.getPath());
+        csvReader.setAttributeNamesInFirstRow(attributeNamesInFirstRow);
+        csvReader.setSeparator(separator);
+        csvReader.setIdIndex(idIndex);
+        csvReader.setAttributesToExclude(Ints.toArray(attributesToExclude));
+
+        return csvReader.getEntityProfiles();
+    }
+}
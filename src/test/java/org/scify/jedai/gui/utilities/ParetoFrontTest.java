@@ -0,0 +1,52 @@
+package org.scify.jedai.gui.utilities;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the Pareto front of a ParetoFront keeps only the trials that no other trial beats in both quality and
+ * cost, from the lowest cost to the highest, for each of its costs.
+ */
+public class ParetoFrontTest {
+
+    @Test
+    public void dropsDominatedPoints() {
+        ParetoFront paretoFront = new ParetoFront("Search", "F-Measure");
+        paretoFront.addPoint(0.6, 300, 2, "c");
+        paretoFront.addPoint(0.5, 100, 4, "a");
+        paretoFront.addPoint(0.9, 400, 3, "d");
+        paretoFront.addPoint(0.7, 200, 1, "b");
+        assertEquals(4, paretoFront.getNoOfPoints());
+
+        // "c" costs more comparisons than "b" for a lower quality, and "a" takes longer than "b" for a lower quality
+        assertEquals(Arrays.asList("a", "b", "d"), getConfigurations(paretoFront.getFront(false)));
+        assertEquals(Arrays.asList("b", "d"), getConfigurations(paretoFront.getFront(true)));
+    }
+
+    @Test
+    public void keepsHighestQualityOfSameCost() {
+        ParetoFront paretoFront = new ParetoFront("Search", "F-Measure");
+        paretoFront.addPoint(0.4, 100, 1, "low");
+        paretoFront.addPoint(0.8, 100, 1, "high");
+        paretoFront.addPoint(0.6, 100, 1, "middle");
+        // The same quality for a higher cost does not improve the front
+        paretoFront.addPoint(0.8, 200, 2, "costly");
+        paretoFront.addPoint(0.9, 200, 2, "best");
+
+        assertEquals(Arrays.asList("high", "best"), getConfigurations(paretoFront.getFront(false)));
+        assertEquals(Arrays.asList("high", "best"), getConfigurations(paretoFront.getFront(true)));
+    }
+
+    private static List<String> getConfigurations(List<ParetoFront.Point> front) {
+        List<String> configurations = new ArrayList<>();
+        for (ParetoFront.Point point : front) {
+            configurations.add(point.getConfiguration());
+        }
+        return configurations;
+    }
+}
@@ -0,0 +1,148 @@
+package org.scify.jedai.gui.utilities;
+
+import org.junit.Test;
+import org.scify.jedai.datamodel.EntityProfile;
+import org.scify.jedai.datamodel.SimilarityPairs;
+import org.scify.jedai.similarityjoins.ISimilarityJoin;
+import org.scify.jedai.similarityjoins.characterbased.AllPairs;
+import org.scify.jedai.similarityjoins.characterbased.FastSS;
+import org.scify.jedai.similarityjoins.characterbased.PassJoin;
+import org.scify.jedai.similarityjoins.tokenbased.PPJoin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the pairs a SimilarityJoinSweep gives for each threshold, and their similarities, are the ones that the
+ * join returns when it runs with that threshold, for each of the similarity join methods.
+ */
+public class SimilarityJoinSweepTest {
+    private final static String ATTRIBUTE = "name";
+    private final static int NO_OF_ENTITIES = 60;
+    private final static float DELTA = 1e-6f;
+    private final static float[] EDIT_DISTANCES = {3, 2, 1};
+    private final static float[] SIMILARITIES = {0.3f, 0.5f, 0.6f, 0.8f, 1.0f};
+    private final static String[] WORDS = {"red", "green", "blue", "black", "white", "grey", "pink", "brown"};
+
+    @Test
+    public void matchesCharacterBasedAllPairs() {
+        checkCharacterBasedJoin(threshold -> new AllPairs(threshold.intValue()));
+    }
+
+    @Test
+    public void matchesFastSs() {
+        checkCharacterBasedJoin(threshold -> new FastSS(threshold.intValue()));
+    }
+
+    @Test
+    public void matchesPassJoin() {
+        checkCharacterBasedJoin(threshold -> new PassJoin(threshold.intValue()));
+    }
+
+    @Test
+    public void matchesTokenBasedAllPairs() {
+        checkTokenBasedJoin(org.scify.jedai.similarityjoins.tokenbased.AllPairs::new);
+    }
+
+    @Test
+    public void matchesPpJoin() {
+        checkTokenBasedJoin(PPJoin::new);
+    }
+
+    private static void checkCharacterBasedJoin(Function<Float, ISimilarityJoin> joinFactory) {
+        Random random = new Random(4);
+        checkJoin(joinFactory, EDIT_DISTANCES, getProfiles(random, false), null);
+        checkJoin(joinFactory, EDIT_DISTANCES, getProfiles(random, false), getProfiles(random, false));
+    }
+
+    private static void checkTokenBasedJoin(Function<Float, ISimilarityJoin> joinFactory) {
+        Random random = new Random(5);
+        checkJoin(joinFactory, SIMILARITIES, getProfiles(random, true), null);
+        checkJoin(joinFactory, SIMILARITIES, getProfiles(random, true), getProfiles(random, true));
+    }
+
+    /**
+     * Check the sweep of a join, which runs with the first (loosest) threshold, against the join with each threshold
+     *
+     * @param joinFactory Creates the join with a threshold
+     * @param thresholds  Thresholds, the loosest first
+     * @param profilesD1  Entity profiles of the 1st dataset
+     * @param profilesD2  Entity profiles of the 2nd dataset, or null for Dirty ER
+     */
+    private static void checkJoin(Function<Float, ISimilarityJoin> joinFactory, float[] thresholds,
+                                  List<EntityProfile> profilesD1, List<EntityProfile> profilesD2) {
+        ISimilarityJoin loosestJoin = joinFactory.apply(thresholds[0]);
+        assertEquals(0, SimilarityJoinSweep.getLoosestThreshold(loosestJoin, thresholds));
+        assertEquals(thresholds[0], SimilarityJoinSweep.getThreshold(loosestJoin), 0);
+        SimilarityJoinSweep sweep = new SimilarityJoinSweep(
+                runJoin(loosestJoin, profilesD1, profilesD2), loosestJoin);
+
+        for (float threshold : thresholds) {
+            Map<String, Float> expected = getPairs(runJoin(joinFactory.apply(threshold), profilesD1, profilesD2));
+            Map<String, Float> actual = getPairs(sweep.getSimilarityPairs(threshold));
+
+            assertEquals("Pairs with threshold " + threshold, expected.keySet(), actual.keySet());
+            assertEquals(expected.size(), sweep.getNoOfPairs(threshold));
+            for (Map.Entry<String, Float> entry : expected.entrySet()) {
+                assertEquals("Similarity of " + entry.getKey() + " with threshold " + threshold,
+                        entry.getValue(), actual.get(entry.getKey()), DELTA);
+            }
+        }
+        assertTrue("The loosest threshold should return pairs", 0 < sweep.getNoOfPairs(thresholds[0]));
+    }
+
+    private static SimilarityPairs runJoin(ISimilarityJoin join, List<EntityProfile> profilesD1,
+                                           List<EntityProfile> profilesD2) {
+        return (profilesD2 == null) ? join.executeFiltering(ATTRIBUTE, profilesD1) :
+                join.executeFiltering(ATTRIBUTE, ATTRIBUTE, profilesD1, profilesD2);
+    }
+
+    /**
+     * Get the similarity of each pair, by the ids of its entities
+     *
+     * @param sims Similarity pairs
+     * @return Map from "[id1]-[id2]" to the pair's similarity
+     */
+    private static Map<String, Float> getPairs(SimilarityPairs sims) {
+        Map<String, Float> pairs = new HashMap<>();
+        for (int i = 0; i < sims.getNoOfComparisons(); i++) {
+            pairs.put(sims.getEntityIds1()[i] + "-" + sims.getEntityIds2()[i], sims.getSimilarities()[i]);
+        }
+        return pairs;
+    }
+
+    /**
+     * Get random profiles: short strings of few characters, so that many are within a small edit distance, or
+     * phrases of few words, so that many have a high Jaccard similarity
+     *
+     * @param random   Random generator
+     * @param ofTokens True for phrases, false for strings
+     * @return Entity profiles
+     */
+    private static List<EntityProfile> getProfiles(Random random, boolean ofTokens) {
+        List<EntityProfile> profiles = new ArrayList<>();
+        for (int i = 0; i < NO_OF_ENTITIES; i++) {
+            StringBuilder value = new StringBuilder();
+            int length = ofTokens ? 1 + random.nextInt(4) : 3 + random.nextInt(5);
+            for (int j = 0; j < length; j++) {
+                if (ofTokens) {
+                    value.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                } else {
+                    value.append((char) ('a' + random.nextInt(3)));
+                }
+            }
+
+            EntityProfile profile = new EntityProfile("e" + i);
+            profile.addAttribute(ATTRIBUTE, value.toString().trim());
+            profiles.add(profile);
+        }
+        return profiles;
+    }
+}
@@ -0,0 +1,105 @@
+package org.scify.jedai.gui.utilities;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that StepArtifactCache runs a step once for runs that need its output at the same time, and spills evicted
+ * outputs to files and reads them back.
+ */
+public class StepArtifactCacheTest {
+    private final static int NO_OF_THREADS = 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void runsStepOnceForConcurrentRuns() throws Exception {
+        StepArtifactCache cache = new StepArtifactCache(1 << 20, null);
+        AtomicInteger noOfRuns = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(NO_OF_THREADS);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < NO_OF_THREADS; i++) {
+                futures.add(executor.submit(() -> cache.getOutput("step", () -> {
+                    noOfRuns.incrementAndGet();
+                    started.countDown();
+                    release.await();
+                    return new ArrayList<>(Arrays.asList("a", "b"));
+                })));
+            }
+
+            // The other runs wait for the output while the step runs
+            started.await();
+            assertTrue(cache.contains("step"));
+            Thread.sleep(100);
+            release.countDown();
+
+            List<String> output = futures.get(0).get();
+            for (Future<List<String>> future : futures) {
+                assertSame(output, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, noOfRuns.get());
+    }
+
+    @Test
+    public void doesNotCacheFailures() throws Exception {
+        StepArtifactCache cache = new StepArtifactCache(1 << 20, null);
+        try {
+            cache.getOutput("step", () -> {
+                throw new IOException("Step failed");
+            });
+            fail("The failure of the step was not thrown");
+        } catch (IOException e) {
+            // Expected
+        }
+
+        assertFalse(cache.contains("step"));
+        assertEquals(Arrays.asList("a"), cache.getOutput("step", () -> new ArrayList<>(Arrays.asList("a"))));
+    }
+
+    @Test
+    public void readsSpilledOutputsBack() throws Exception {
+        File spillDirectory = folder.newFolder("spill");
+        StepArtifactCache cache = new StepArtifactCache(0, spillDirectory);
+
+        // With no memory budget, the output is spilled as soon as it is added
+        List<String> output = new ArrayList<>(Arrays.asList("a", "b"));
+        assertSame(output, cache.getOutput("workflow/step", () -> output));
+        assertEquals(0, cache.getMemoryUsage());
+        assertTrue(cache.contains("workflow/step"));
+        assertEquals(1, spillDirectory.listFiles().length);
+
+        assertEquals(output, cache.getOutput("workflow/step", () -> {
+            throw new IllegalStateException("The step ran again instead of reading its spill file");
+        }));
+
+        cache.removeByPrefix("workflow/");
+        assertFalse(cache.contains("workflow/step"));
+        assertEquals(0, spillDirectory.listFiles().length);
+    }
+}
@@ -0,0 +1,77 @@
+package org.scify.jedai.gui.utilities;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that TpeSearch proposes its seed configurations first, and that it counts the pending configurations among
+ * the worst trials, so that parallel proposals move away from them.
+ */
+public class TpeSearchTest {
+    private final static int NO_OF_VALUES = 20;
+    private final static int BEST_VALUE = 5;
+    // Few enough for the number of the best trials to stay the same when they finish
+    private final static int NO_OF_PENDING = 3;
+
+    @Test
+    public void proposesSeedsFirst() {
+        TpeSearch search = getSearchWithHistory();
+        int[] firstSeed = {12};
+        int[] secondSeed = {17};
+        search.addSeedConfiguration(firstSeed);
+        search.addSeedConfiguration(secondSeed);
+
+        // The seeds come before the best value of the history, in the order they were added
+        assertSame(firstSeed, search.proposeConfiguration());
+        assertSame(secondSeed, search.proposeConfiguration());
+        search.addTrial(firstSeed, 0);
+        search.addTrial(secondSeed, 0);
+        assertArrayEquals(new int[]{BEST_VALUE}, search.proposeConfiguration());
+    }
+
+    @Test
+    public void countsPendingConfigurationsAsBad() {
+        // The best value, while nothing is pending
+        assertArrayEquals(new int[]{BEST_VALUE}, getSearchWithHistory().proposeConfiguration());
+
+        // Configurations of the best value that are still pending
+        TpeSearch pendingSearch = getSearchWithHistory();
+        for (int i = 0; i < NO_OF_PENDING; i++) {
+            pendingSearch.addSeedConfiguration(new int[]{BEST_VALUE});
+            pendingSearch.proposeConfiguration();
+        }
+
+        // The same configurations, finished with the worst performance
+        TpeSearch finishedSearch = getSearchWithHistory();
+        for (int i = 0; i < NO_OF_PENDING; i++) {
+            finishedSearch.addTrial(new int[]{BEST_VALUE}, 0);
+        }
+
+        int[] configuration = pendingSearch.proposeConfiguration();
+        assertArrayEquals(finishedSearch.proposeConfiguration(), configuration);
+        assertTrue("The pending configurations should make another value more likely", configuration[0] != BEST_VALUE);
+    }
+
+    /**
+     * Get a search over one parameter, with enough trials for the proposals to use the densities: the best ones
+     * have the same value, and the rest have values far from it. Every search gets the same random generator, so
+     * searches with the same trials make the same proposals.
+     *
+     * @return TPE search
+     */
+    private static TpeSearch getSearchWithHistory() {
+        TpeSearch search = new TpeSearch(new int[]{NO_OF_VALUES}, new Random(8));
+        for (int i = 0; i < 3; i++) {
+            search.addTrial(new int[]{BEST_VALUE}, 1);
+        }
+        for (int i = 0; i < 10; i++) {
+            search.addTrial(new int[]{NO_OF_VALUES - 1 - i % 5}, 0.1 + 0.01 * i);
+        }
+        return search;
+    }
+}
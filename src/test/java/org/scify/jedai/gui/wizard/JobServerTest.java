@@ -0,0 +1,264 @@
+package org.scify.jedai.gui.wizard;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.scify.jedai.datamodel.EntityProfile;
+import org.scify.jedai.datamodel.IdDuplicates;
+import org.scify.jedai.gui.model.JedaiMethodConfiguration;
+import org.scify.jedai.gui.utilities.JedaiOptions;
+import org.scify.jedai.gui.utilities.JobService;
+import org.scify.jedai.gui.utilities.WizardDataFile;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Starts a JobServer on a free port, submits a saved configuration, polls the status of its job and fetches its
+ * results.
+ */
+public class JobServerTest {
+    private final static String TOKEN = "test-token";
+    private final static int NO_OF_ENTITIES = 50;
+    private final static long TIMEOUT = 60000;
+    private final static Pattern STATUS = Pattern.compile("\"status\":\"(\\w+)\"");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JobServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = new JobServer(0, new JobService(1, folder.newFolder("jobs")), TOKEN);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void runsSubmittedConfiguration() throws Exception {
+        Response submitted = request("POST", "/jobs", saveConfiguration(), TOKEN);
+        assertEquals(submitted.body, 201, submitted.code);
+        assertTrue(submitted.body, submitted.body.startsWith("{\"id\":1,"));
+
+        // Poll the status of the job until it finishes
+        long start = System.currentTimeMillis();
+        String status;
+        Response job;
+        do {
+            Thread.sleep(100);
+            job = request("GET", "/jobs/1", null, TOKEN);
+            assertEquals(200, job.code);
+            status = getStatus(job.body);
+        } while ((status.equals("QUEUED") || status.equals("RUNNING"))
+                && System.currentTimeMillis() - start < TIMEOUT);
+        assertEquals(job.body, "COMPLETED", status);
+        assertTrue(job.body, job.body.contains("\"f1\":"));
+
+        Response jobs = request("GET", "/jobs", null, TOKEN);
+        assertEquals(200, jobs.code);
+        assertTrue(jobs.body, jobs.body.startsWith("[{\"id\":1,"));
+
+        // One line per entity of the first dataset (after the header)
+        Response clusters = request("GET", "/jobs/1/clusters", null, TOKEN);
+        assertEquals(200, clusters.code);
+        assertTrue(clusters.body.split("\n").length > 1);
+
+        Response steps = request("GET", "/jobs/1/steps", null, TOKEN);
+        assertEquals(200, steps.code);
+        assertTrue(steps.body, steps.body.startsWith("Step,Recall,Precision,F1-measure"));
+        assertTrue(steps.body, steps.body.contains("\"Total\","));
+    }
+
+    @Test
+    public void rejectsInvalidRequests() throws Exception {
+        assertEquals(401, request("GET", "/jobs", null, null).code);
+        assertEquals(401, request("GET", "/jobs", null, "other-token").code);
+        assertEquals(404, request("GET", "/jobs/1", null, TOKEN).code);
+        assertEquals(400, request("POST", "/jobs", "not a configuration".getBytes(StandardCharsets.UTF_8),
+                TOKEN).code);
+        assertTrue(requestDeclaredSize(2 * 1024 * 1024).startsWith("HTTP/1.1 413 "));
+    }
+
+    /**
+     * Write two small datasets with their ground truth, and save a configuration of a blocking-based workflow for
+     * them
+     *
+     * @return Saved configuration
+     * @throws IOException If the files cannot be written
+     */
+    private byte[] saveConfiguration() throws IOException {
+        Random random = new Random(6);
+        List<EntityProfile> profilesD1 = new ArrayList<>();
+        List<EntityProfile> profilesD2 = new ArrayList<>();
+        Set<IdDuplicates> duplicates = new HashSet<>();
+        for (int i = 0; i < NO_OF_ENTITIES; i++) {
+            String name = "name" + random.nextInt(1000) + " surname" + random.nextInt(1000);
+            EntityProfile profile1 = new EntityProfile("a" + i);
+            profile1.addAttribute("name", name);
+            profilesD1.add(profile1);
+            EntityProfile profile2 = new EntityProfile("b" + i);
+            profile2.addAttribute("name", name);
+            profilesD2.add(profile2);
+            duplicates.add(new IdDuplicates(i, i));
+        }
+
+        WizardData model = new WizardData();
+        model.setWorkflow(JedaiOptions.WORKFLOW_BLOCKING_BASED);
+        model.setErType(JedaiOptions.CLEAN_CLEAN_ER);
+        model.setEntityProfilesD1Type(JedaiOptions.SERIALIZED);
+        model.setEntityProfilesD1Parameters(getFileParameters(write("d1.jso", (Serializable) profilesD1)));
+        model.setEntityProfilesD2Type(JedaiOptions.SERIALIZED);
+        model.setEntityProfilesD2Parameters(getFileParameters(write("d2.jso", (Serializable) profilesD2)));
+        model.setGroundTruthType(JedaiOptions.SERIALIZED);
+        model.setGroundTruthParameters(getFileParameters(write("gt.jso", (Serializable) duplicates)));
+
+        model.setSchemaClustering(JedaiOptions.NO_SCHEMA_CLUSTERING);
+        model.setSchemaClusteringConfigType(JedaiOptions.DEFAULT_CONFIG);
+        JedaiMethodConfiguration blockBuilding = new JedaiMethodConfiguration(JedaiOptions.STANDARD_TOKEN_BUILDING);
+        blockBuilding.setEnabled(true);
+        blockBuilding.setConfigurationType(JedaiOptions.DEFAULT_CONFIG);
+        model.setBlockBuildingMethods(FXCollections.observableArrayList(blockBuilding));
+        model.setBlockCleaningMethods(FXCollections.observableArrayList());
+        model.setComparisonCleaning(JedaiOptions.NO_CLEANING);
+        model.setComparisonCleaningConfigType(JedaiOptions.DEFAULT_CONFIG);
+        model.setEntityMatching(JedaiOptions.PROFILE_MATCHER);
+        model.setEntityMatchingConfigType(JedaiOptions.DEFAULT_CONFIG);
+        model.setEntityClustering(JedaiOptions.CONNECTED_COMPONENTS_CLUSTERING);
+        model.setEntityClusteringConfigType(JedaiOptions.DEFAULT_CONFIG);
+
+        File file = folder.newFile("configuration.jedai");
+        WizardDataFile.save(model, file);
+        return Files.readAllBytes(file.toPath());
+    }
+
+    private File write(String name, Serializable object) throws IOException {
+        File file = folder.newFile(name);
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+            out.writeObject(object);
+        }
+        return file;
+    }
+
+    private static ObservableList<MutablePair<String, Object>> getFileParameters(File file) {
+        return FXCollections.observableArrayList(new MutablePair<>("File path", file.getAbsolutePath()));
+    }
+
+    private static String getStatus(String json) {
+        Matcher matcher = STATUS.matcher(json);
+        if (!matcher.find()) {
+            fail("No status in " + json);
+        }
+        return matcher.group(1);
+    }
+
+    /**
+     * Send a submission that declares the given size of its body, without sending the body, as the server should
+     * reject it before reading it
+     *
+     * @param size Declared size of the body
+     * @return Status line of the response
+     * @throws IOException If the request fails
+     */
+    private String requestDeclaredSize(int size) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST /jobs HTTP/1.1\r\nHost: localhost\r\nAuthorization: Bearer " + TOKEN
+                    + "\r\nContent-Length: " + size + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            socket.shutdownOutput();
+
+            return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))
+                    .readLine();
+        }
+    }
+
+    /**
+     * Response of the server
+     */
+    private static class Response {
+        private final int code;
+        private final String body;
+
+        private Response(int code, String body) {
+            this.code = code;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Send a request to the server
+     *
+     * @param method HTTP method
+     * @param path   Path of the request
+     * @param body   Body of the request (null for none)
+     * @param token  Token to authenticate with (null for none)
+     * @return Response of the server
+     * @throws IOException If the request fails
+     */
+    private Response request(String method, String path, byte[] body, String token) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection)
+                new URL("http://localhost:" + server.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (token != null) {
+            connection.setRequestProperty("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+        }
+
+        int code = connection.getResponseCode();
+        InputStream in = (code < 400) ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream stream = in) {
+                byte[] buffer = new byte[8192];
+                int length;
+                while ((length = stream.read(buffer)) > 0) {
+                    bytes.write(buffer, 0, length);
+                }
+            }
+        }
+        connection.disconnect();
+
+        return new Response(code, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+}